@@ -0,0 +1,95 @@
+package com.innowise.userservice.jmh;
+
+import com.innowise.userservice.model.dto.PaymentCardDto;
+import com.innowise.userservice.model.dto.UserDto;
+import com.innowise.userservice.model.dto.UserWithCardsDto;
+import com.innowise.userservice.model.entity.PaymentCard;
+import com.innowise.userservice.model.entity.User;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+import lombok.experimental.UtilityClass;
+
+/** Payloads shaped like production rows: full audit columns, 16 digit numbers, real lengths. */
+@UtilityClass
+class Fixtures {
+
+  private static final LocalDateTime CREATED_AT = LocalDateTime.of(2026, 1, 15, 10, 30, 15);
+
+  static User user(long id, int cards) {
+    User user = new User();
+    user.setId(id);
+    user.setName("Yauhen" + id);
+    user.setSurname("Nohach" + id);
+    user.setBirthDate(LocalDate.of(1990, 1, 1).plusDays(id % 10_000));
+    user.setEmail("user" + id + "@mail.com");
+    user.setActive(true);
+    user.setCreatedAt(CREATED_AT);
+    user.setUpdatedAt(CREATED_AT.plusDays(1));
+    List<PaymentCard> userCards = new ArrayList<>(cards);
+    for (int i = 0; i < cards; i++) {
+      userCards.add(card(user, id * 10 + i));
+    }
+    user.setCards(userCards);
+    return user;
+  }
+
+  static PaymentCard card(User user, long id) {
+    PaymentCard card = new PaymentCard();
+    card.setId(id);
+    card.setUser(user);
+    card.setNumber(String.format("%016d", id));
+    card.setHolder(user.getName().toUpperCase() + " " + user.getSurname().toUpperCase());
+    card.setExpirationDate("12/30");
+    card.setActive(true);
+    card.setCreatedAt(CREATED_AT);
+    card.setUpdatedAt(CREATED_AT);
+    return card;
+  }
+
+  static UserDto userDto(long id) {
+    User user = user(id, 0);
+    return new UserDto(
+        id,
+        user.getName(),
+        user.getSurname(),
+        user.getBirthDate(),
+        user.getEmail(),
+        true,
+        user.getCreatedAt(),
+        user.getUpdatedAt());
+  }
+
+  static List<UserDto> userDtos(int count) {
+    return LongStream.rangeClosed(1, count).mapToObj(Fixtures::userDto).toList();
+  }
+
+  static UserWithCardsDto userWithCardsDto(long id, int cards) {
+    User user = user(id, cards);
+    List<PaymentCardDto> cardDtos =
+        user.getCards().stream()
+            .map(
+                card ->
+                    new PaymentCardDto(
+                        card.getId(),
+                        card.getNumber(),
+                        card.getHolder(),
+                        card.getExpirationDate(),
+                        card.isActive(),
+                        id,
+                        card.getUpdatedAt()))
+            .toList();
+    return new UserWithCardsDto(
+        id,
+        user.getName(),
+        user.getSurname(),
+        user.getBirthDate(),
+        user.getEmail(),
+        true,
+        user.getCreatedAt(),
+        user.getUpdatedAt(),
+        cardDtos);
+  }
+}
@@ -0,0 +1,66 @@
+package com.innowise.userservice.jmh;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.innowise.userservice.model.dto.UserDto;
+import com.innowise.userservice.model.dto.UserWithCardsDto;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Response bodies of {@code GET /users/{id}/with-cards} and {@code GET /users}, written by an
+ * {@link ObjectMapper} built with the same defaults Spring Boot applies.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JsonBenchmark {
+
+  @Param({"0", "5"})
+  private int cards;
+
+  @Param({"20", "100"})
+  private int pageSize;
+
+  private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+  private UserWithCardsDto userWithCards;
+  private byte[] userWithCardsJson;
+  private Page<UserDto> page;
+
+  @Setup
+  public void setUp() throws IOException {
+    userWithCards = Fixtures.userWithCardsDto(1, cards);
+    userWithCardsJson = objectMapper.writeValueAsBytes(userWithCards);
+    page =
+        new PageImpl<>(
+            Fixtures.userDtos(pageSize), PageRequest.of(0, pageSize, Sort.by("id")), 100_000);
+  }
+
+  @Benchmark
+  public byte[] writeUserWithCards() throws IOException {
+    return objectMapper.writeValueAsBytes(userWithCards);
+  }
+
+  @Benchmark
+  public UserWithCardsDto readUserWithCards() throws IOException {
+    return objectMapper.readValue(userWithCardsJson, UserWithCardsDto.class);
+  }
+
+  @Benchmark
+  public byte[] writeUserPage() throws IOException {
+    return objectMapper.writeValueAsBytes(page);
+  }
+}
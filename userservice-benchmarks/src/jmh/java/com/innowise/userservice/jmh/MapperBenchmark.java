@@ -0,0 +1,117 @@
+package com.innowise.userservice.jmh;
+
+import com.innowise.userservice.mapper.PaymentCardMapper;
+import com.innowise.userservice.mapper.PaymentCardMapperImpl;
+import com.innowise.userservice.mapper.UserMapper;
+import com.innowise.userservice.mapper.UserMapperImpl;
+import com.innowise.userservice.model.dto.PaymentCardDto;
+import com.innowise.userservice.model.dto.UserDto;
+import com.innowise.userservice.model.dto.UserWithCardsDto;
+import com.innowise.userservice.model.entity.PaymentCard;
+import com.innowise.userservice.model.entity.User;
+import com.innowise.userservice.repository.projection.PaymentCardView;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** Generated MapStruct conversions, wired the way Spring wires them. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MapperBenchmark {
+
+  /** Up to the active card limit enforced by {@code CardServiceImpl}. */
+  @Param({"0", "5"})
+  private int cards;
+
+  private final PaymentCardMapper cardMapper = new PaymentCardMapperImpl();
+  private final UserMapper userMapper = new UserMapperImpl(cardMapper);
+
+  private User user;
+  private UserDto userDto;
+  private PaymentCard card;
+  private PaymentCardDto cardDto;
+  private PaymentCardView cardView;
+
+  @Setup
+  public void setUp() {
+    user = Fixtures.user(1, cards);
+    userDto = Fixtures.userDto(1);
+    card = Fixtures.card(user, 10);
+    cardDto = cardMapper.cardToCardDto(card);
+    cardView =
+        new PaymentCardView() {
+          @Override
+          public Long getId() {
+            return cardDto.getId();
+          }
+
+          @Override
+          public String getNumber() {
+            return cardDto.getNumber();
+          }
+
+          @Override
+          public String getHolder() {
+            return cardDto.getHolder();
+          }
+
+          @Override
+          public String getExpirationDate() {
+            return cardDto.getExpirationDate();
+          }
+
+          @Override
+          public boolean isActive() {
+            return cardDto.isActive();
+          }
+
+          @Override
+          public Long getUserId() {
+            return cardDto.getUserId();
+          }
+
+          @Override
+          public LocalDateTime getUpdatedAt() {
+            return cardDto.getUpdatedAt();
+          }
+        };
+  }
+
+  @Benchmark
+  public UserDto userToUserDto() {
+    return userMapper.userToUserDto(user);
+  }
+
+  @Benchmark
+  public UserWithCardsDto userToUserWithCardsDto() {
+    return userMapper.userToUserWithCardsDto(user);
+  }
+
+  @Benchmark
+  public User userDtoToUser() {
+    return userMapper.userDtoToUser(userDto);
+  }
+
+  @Benchmark
+  public PaymentCardDto cardToCardDto() {
+    return cardMapper.cardToCardDto(card);
+  }
+
+  @Benchmark
+  public PaymentCardDto viewToCardDto() {
+    return cardMapper.viewToCardDto(cardView);
+  }
+
+  @Benchmark
+  public PaymentCard cardDtoToCard() {
+    return cardMapper.cardDtoToCard(cardDto);
+  }
+}
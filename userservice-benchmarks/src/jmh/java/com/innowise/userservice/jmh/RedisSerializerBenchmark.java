@@ -0,0 +1,125 @@
+package com.innowise.userservice.jmh;
+
+import com.innowise.userservice.cache.codec.CodecRedisSerializer;
+import com.innowise.userservice.config.CacheProperties;
+import com.innowise.userservice.config.RedisConfig;
+import com.innowise.userservice.model.dto.UserDto;
+import com.innowise.userservice.model.dto.UserWithCardsDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Encoding and decoding of the cached snapshots with every {@link CacheProperties.Codec}, through
+ * the {@link CodecRedisSerializer} the cache manager uses, and of the {@code redisTemplate} value
+ * serializer configured by {@link RedisConfig} as a reference.
+ *
+ * <p>The encode benchmarks report the stored size of the value as the {@code storedBytes} secondary
+ * result. The template serializer carries no type information, so it decodes into a map.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RedisSerializerBenchmark {
+
+  @Param({"JDK", "JSON", "SMILE", "CBOR"})
+  private CacheProperties.Codec codec;
+
+  @Param({"0", "5"})
+  private int cards;
+
+  @Param({"1024"})
+  private int compressionThreshold;
+
+  private RedisSerializer<Object> templateSerializer;
+  private CodecRedisSerializer userSerializer;
+  private CodecRedisSerializer userWithCardsSerializer;
+
+  private UserDto user;
+  private UserWithCardsDto userWithCards;
+  private byte[] templateBytes;
+  private byte[] userBytes;
+  private byte[] userWithCardsBytes;
+
+  @Setup
+  @SuppressWarnings("unchecked")
+  public void setUp() {
+    templateSerializer =
+        (RedisSerializer<Object>)
+            new RedisConfig()
+                .redisTemplate(
+                    new LettuceConnectionFactory(), Jackson2ObjectMapperBuilder.json().build())
+                .getValueSerializer();
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    userSerializer =
+        new CodecRedisSerializer(
+            "users", codec.create(), UserDto.class, compressionThreshold, meterRegistry);
+    userWithCardsSerializer =
+        new CodecRedisSerializer(
+            "userWithCards",
+            codec.create(),
+            UserWithCardsDto.class,
+            compressionThreshold,
+            meterRegistry);
+
+    user = Fixtures.userDto(1);
+    userWithCards = Fixtures.userWithCardsDto(1, cards);
+    templateBytes = templateSerializer.serialize(userWithCards);
+    userBytes = userSerializer.serialize(user);
+    userWithCardsBytes = userWithCardsSerializer.serialize(userWithCards);
+  }
+
+  @Benchmark
+  public byte[] templateEncode(StoredSize size) {
+    return size.record(templateSerializer.serialize(userWithCards));
+  }
+
+  @Benchmark
+  public Object templateDecode() {
+    return templateSerializer.deserialize(templateBytes);
+  }
+
+  @Benchmark
+  public byte[] userEncode(StoredSize size) {
+    return size.record(userSerializer.serialize(user));
+  }
+
+  @Benchmark
+  public Object userDecode() {
+    return userSerializer.deserialize(userBytes);
+  }
+
+  @Benchmark
+  public byte[] userWithCardsEncode(StoredSize size) {
+    return size.record(userWithCardsSerializer.serialize(userWithCards));
+  }
+
+  @Benchmark
+  public Object userWithCardsDecode() {
+    return userWithCardsSerializer.deserialize(userWithCardsBytes);
+  }
+
+  /** Size of the last encoded value, reported as is rather than as a rate. */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class StoredSize {
+
+    public long storedBytes;
+
+    byte[] record(byte[] stored) {
+      storedBytes = stored.length;
+      return stored;
+    }
+  }
+}
@@ -0,0 +1,94 @@
+package com.innowise.userservice.jmh;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.innowise.userservice.cache.CacheEntry;
+import com.innowise.userservice.cache.codec.CodecRedisSerializer;
+import com.innowise.userservice.cache.codec.UserJsonCacheCodec;
+import com.innowise.userservice.config.CacheProperties;
+import com.innowise.userservice.model.dto.UserDto;
+import com.innowise.userservice.model.dto.UserJsonDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Work of a cache hit on {@code GET /users/{id}}, from the cached value to the response body,
+ * with {@code userservice.cache.response-bytes} off ({@code snapshot*}: decode the {@link UserDto}
+ * from the {@code users} cache, then encode it as JSON) and on ({@code bytes*}: copy the {@code
+ * userJson} entry).
+ *
+ * <p>{@code *RemoteHit} starts from the Redis value, {@code *LocalHit} from the object held by the
+ * in-process tier. The output stream stands in for the servlet response.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ResponseBytesBenchmark {
+
+  private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+  private final ByteArrayOutputStream response = new ByteArrayOutputStream(1024);
+
+  private CodecRedisSerializer snapshotSerializer;
+  private CodecRedisSerializer bytesSerializer;
+
+  private UserDto snapshot;
+  private UserJsonDto json;
+  private byte[] storedSnapshot;
+  private byte[] storedJson;
+
+  @Setup
+  public void setUp() throws IOException {
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    snapshotSerializer =
+        new CodecRedisSerializer(
+            "users", CacheProperties.Codec.SMILE.create(), UserDto.class, 1024, meterRegistry);
+    bytesSerializer =
+        new CodecRedisSerializer(
+            "userJson", new UserJsonCacheCodec(), UserJsonDto.class, 0, meterRegistry);
+    snapshot = Fixtures.userDto(1);
+    json =
+        new UserJsonDto(
+            snapshot.getId(), snapshot.getUpdatedAt(), objectMapper.writeValueAsBytes(snapshot));
+    storedSnapshot = snapshotSerializer.serialize(new CacheEntry(snapshot, Long.MAX_VALUE, 1));
+    storedJson = bytesSerializer.serialize(new CacheEntry(json, Long.MAX_VALUE, 1));
+  }
+
+  @Benchmark
+  public int snapshotRemoteHit() throws IOException {
+    response.reset();
+    objectMapper.writeValue(
+        response, CacheEntry.unwrap(snapshotSerializer.deserialize(storedSnapshot)));
+    return response.size();
+  }
+
+  @Benchmark
+  public int bytesRemoteHit() throws IOException {
+    response.reset();
+    response.write(
+        ((UserJsonDto) CacheEntry.unwrap(bytesSerializer.deserialize(storedJson))).getBody());
+    return response.size();
+  }
+
+  @Benchmark
+  public int snapshotLocalHit() throws IOException {
+    response.reset();
+    objectMapper.writeValue(response, snapshot);
+    return response.size();
+  }
+
+  @Benchmark
+  public int bytesLocalHit() throws IOException {
+    response.reset();
+    response.write(json.getBody());
+    return response.size();
+  }
+}
@@ -0,0 +1,103 @@
+package com.innowise.userservice.jmh;
+
+import com.innowise.userservice.model.entity.PaymentCard;
+import com.innowise.userservice.model.entity.User;
+import com.innowise.userservice.repository.specification.CardSpecification;
+import com.innowise.userservice.repository.specification.KeysetCursor;
+import com.innowise.userservice.repository.specification.UserSpecification;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import java.util.concurrent.TimeUnit;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Filter {@link Specification} trees built by {@code UserSpecification}, {@code
+ * CardSpecification} and {@link KeysetCursor}, alone and rendered into a criteria query.
+ *
+ * <p>Rendering uses the criteria builder of a Hibernate session factory over the real entities
+ * that never opens a connection, so no database is needed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SpecificationBenchmark {
+
+  private final KeysetCursor cursor =
+      new KeysetCursor("surname", Sort.Direction.ASC, "Nohach", 1_000L);
+
+  private SessionFactory sessionFactory;
+  private CriteriaBuilder cb;
+
+  @Setup
+  public void setUp() {
+    sessionFactory =
+        new Configuration()
+            .addAnnotatedClass(User.class)
+            .addAnnotatedClass(PaymentCard.class)
+            .setProperty(AvailableSettings.DIALECT, PostgreSQLDialect.class.getName())
+            .setProperty("hibernate.temp.use_jdbc_metadata_defaults", "false")
+            .buildSessionFactory();
+    cb = sessionFactory.getCriteriaBuilder();
+  }
+
+  @TearDown
+  public void tearDown() {
+    sessionFactory.close();
+  }
+
+  @Benchmark
+  public Specification<User> buildUserFilter() {
+    return userFilter();
+  }
+
+  @Benchmark
+  public Specification<PaymentCard> buildCardFilter() {
+    return cardFilter();
+  }
+
+  @Benchmark
+  public CriteriaQuery<User> renderUserFilter() {
+    return render(User.class, userFilter());
+  }
+
+  @Benchmark
+  public CriteriaQuery<PaymentCard> renderCardFilter() {
+    return render(PaymentCard.class, cardFilter());
+  }
+
+  @Benchmark
+  public CriteriaQuery<User> renderKeysetPage() {
+    return render(User.class, userFilter().and(cursor.toSpecification()));
+  }
+
+  private static Specification<User> userFilter() {
+    return UserSpecification.filterByNameAndSurname("yau", "noh")
+        .and(UserSpecification.filterByActive(true));
+  }
+
+  private static Specification<PaymentCard> cardFilter() {
+    return CardSpecification.filterByHolderAndNumber("YAUHEN", "1234")
+        .and(CardSpecification.filterByUserId(1L))
+        .and(CardSpecification.filterByActive(true));
+  }
+
+  private <T> CriteriaQuery<T> render(Class<T> type, Specification<T> specification) {
+    CriteriaQuery<T> query = cb.createQuery(type);
+    Root<T> root = query.from(type);
+    return query.where(specification.toPredicate(root, query, cb));
+  }
+}
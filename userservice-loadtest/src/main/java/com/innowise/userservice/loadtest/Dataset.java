@@ -0,0 +1,101 @@
+package com.innowise.userservice.loadtest;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.sql.DataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Seeded rows and the random choices scenarios make over them.
+ *
+ * <p>Users and cards get ids {@code 1..n}, so requests can address them without a lookup. Profile
+ * reads are skewed the way production traffic is: most of them go to a small set of hot users.
+ */
+final class Dataset {
+
+  /** Share of users that are hot. */
+  private static final double HOT_USERS = 0.01;
+
+  /** Share of profile reads that go to hot users. */
+  private static final double HOT_READS = 0.8;
+
+  private static final String HEX = "0123456789abcdef";
+
+  private final long users;
+  private final long cards;
+  private final int cardsPerUser;
+  private final AtomicLong createdCards = new AtomicLong();
+
+  private Dataset(long users, int cardsPerUser) {
+    this.users = users;
+    this.cards = users * cardsPerUser;
+    this.cardsPerUser = cardsPerUser;
+  }
+
+  /**
+   * Inserts {@code users} users with {@code cardsPerUser} active cards each into the migrated
+   * schema and moves the id sequences past them.
+   */
+  static Dataset seed(DataSource dataSource, long users, int cardsPerUser) {
+    JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+    jdbcTemplate.update(
+        "INSERT INTO users (id, name, surname, birth_date, email, active, active_card_count,"
+            + " created_at, updated_at) SELECT g, initcap(substr(md5(g::text), 1, 10)),"
+            + " initcap(substr(md5((g * 7)::text), 1, 12)), date '1970-01-01' + (g % 15000),"
+            + " 'user' || g || '@load.local', true, ?, now(), now()"
+            + " FROM generate_series(1, ?) g",
+        cardsPerUser,
+        users);
+    jdbcTemplate.update(
+        "INSERT INTO payment_cards"
+            + " (id, user_id, number, holder, expiration_date, active, created_at, updated_at)"
+            + " SELECT (u.id - 1) * ? + c, u.id, lpad(((u.id - 1) * ? + c)::text, 16, '0'),"
+            + " upper(u.name || ' ' || u.surname), '12/30', true, now(), now()"
+            + " FROM users u CROSS JOIN generate_series(1, ?) c",
+        cardsPerUser,
+        cardsPerUser,
+        cardsPerUser);
+    jdbcTemplate.execute("SELECT setval('users_id_seq', " + users + ")");
+    jdbcTemplate.execute(
+        "SELECT setval('payment_cards_id_seq', " + Math.max(1, users * cardsPerUser) + ")");
+    jdbcTemplate.execute("ANALYZE");
+    return new Dataset(users, cardsPerUser);
+  }
+
+  long hotUserId() {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    long hot = Math.max(1, (long) (users * HOT_USERS));
+    return 1 + (random.nextDouble() < HOT_READS ? random.nextLong(hot) : random.nextLong(users));
+  }
+
+  long userId() {
+    return 1 + ThreadLocalRandom.current().nextLong(users);
+  }
+
+  long cardId() {
+    return 1 + ThreadLocalRandom.current().nextLong(Math.max(1, cards));
+  }
+
+  /** Three hex characters, the shortest term the trigram indexes can serve. */
+  String searchTerm() {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    StringBuilder term = new StringBuilder(3);
+    for (int i = 0; i < 3; i++) {
+      term.append(HEX.charAt(random.nextInt(HEX.length())));
+    }
+    return term.toString();
+  }
+
+  /**
+   * Next card to create. Users are filled up to the active card limit one after the other, so
+   * bursts are only rejected once every user is full. Created numbers start with 9, seeded numbers
+   * are zero padded ids.
+   */
+  NewCard nextCard() {
+    long created = createdCards.getAndIncrement();
+    int free = Math.max(1, 5 - cardsPerUser);
+    return new NewCard(1 + (created / free) % users, String.format("9%015d", created));
+  }
+
+  record NewCard(long userId, String number) {}
+}
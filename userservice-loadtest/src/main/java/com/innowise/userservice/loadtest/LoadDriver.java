@@ -0,0 +1,93 @@
+package com.innowise.userservice.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Closed loop of concurrent clients, each sending the next request of the {@link Profile} as soon
+ * as the previous one completes. Every client runs on its own virtual thread, so thousands of
+ * clients cost no more than the requests they make.
+ *
+ * <p>Latencies are recorded in microseconds into one HdrHistogram {@link Recorder} per operation.
+ */
+final class LoadDriver {
+
+  private final HttpClient httpClient =
+      HttpClient.newBuilder()
+          .version(HttpClient.Version.HTTP_1_1)
+          .executor(Executors.newVirtualThreadPerTaskExecutor())
+          .build();
+
+  private final URI baseUri;
+  private final Dataset dataset;
+  private final Profile profile;
+
+  LoadDriver(int port, Dataset dataset, Profile profile) {
+    this.baseUri = URI.create("http://localhost:" + port + "/api/v1");
+    this.dataset = dataset;
+    this.profile = profile;
+  }
+
+  RunResult run(int clients, Duration duration) {
+    Map<String, Recorder> recorders = new LinkedHashMap<>();
+    Map<String, LongAdder> errors = new LinkedHashMap<>();
+    for (Operation operation : profile.operations()) {
+      recorders.put(operation.name(), new Recorder(3));
+      errors.put(operation.name(), new LongAdder());
+    }
+
+    long deadline = System.nanoTime() + duration.toNanos();
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int i = 0; i < clients; i++) {
+        executor.submit(() -> client(deadline, recorders, errors));
+      }
+    }
+
+    return new RunResult(
+        duration,
+        profile.operations().stream()
+            .map(
+                operation ->
+                    new RunResult.OperationResult(
+                        operation.name(),
+                        recorders.get(operation.name()).getIntervalHistogram(),
+                        errors.get(operation.name()).sum()))
+            .toList());
+  }
+
+  private void client(
+      long deadline, Map<String, Recorder> recorders, Map<String, LongAdder> errors) {
+    while (System.nanoTime() < deadline) {
+      Operation operation = profile.pick();
+      HttpRequest request = operation.request().apply(baseUri, dataset);
+      long start = System.nanoTime();
+      boolean succeeded;
+      try {
+        int status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        succeeded = status / 100 == 2;
+      } catch (IOException ex) {
+        succeeded = false;
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+      recorders
+          .get(operation.name())
+          .recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+      if (!succeeded) {
+        errors.get(operation.name()).increment();
+      }
+    }
+  }
+}
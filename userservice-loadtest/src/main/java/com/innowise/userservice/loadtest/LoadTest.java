@@ -0,0 +1,83 @@
+package com.innowise.userservice.loadtest;
+
+import com.innowise.userservice.UserserviceApplication;
+import com.innowise.userservice.existence.UserExistenceIndexLoader;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/**
+ * End-to-end load test of the userservice REST API.
+ *
+ * <p>Starts PostgreSQL and Redis in Testcontainers, with the images and server settings of the
+ * userservice benchmarks, and starts the application against them on a random port, so the real
+ * Liquibase changelog creates the schema. Then seeds the dataset, warms the service up with the
+ * selected {@link Profile} and measures it. See {@link Settings} for the parameters.
+ *
+ * <pre>
+ * ./gradlew :userservice-loadtest:run -Dloadtest.profile=read-heavy -Dloadtest.clients=200
+ * </pre>
+ */
+@Slf4j
+public final class LoadTest {
+
+  private LoadTest() {}
+
+  public static void main(String[] args) throws Exception {
+    Settings settings = Settings.fromSystemProperties();
+    try (PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>("postgres:15-alpine")
+                .withDatabaseName("loadtest")
+                .withCommand(
+                    "postgres",
+                    "-c",
+                    "shared_buffers=512MB",
+                    "-c",
+                    "max_wal_size=4GB",
+                    "-c",
+                    "synchronous_commit=off");
+        GenericContainer<?> redis =
+            new GenericContainer<>("redis:7-alpine").withExposedPorts(6379)) {
+      postgres.start();
+      redis.start();
+
+      try (ConfigurableApplicationContext app = start(postgres, redis)) {
+        long seedStart = System.nanoTime();
+        Dataset dataset =
+            Dataset.seed(app.getBean(DataSource.class), settings.users(), settings.cardsPerUser());
+        // The seed bypasses Hibernate, so the existence index would report every user missing.
+        app.getBeanProvider(UserExistenceIndexLoader.class)
+            .ifAvailable(UserExistenceIndexLoader::load);
+        log.info(
+            "Seeded {} users with {} cards each in {} s",
+            settings.users(),
+            settings.cardsPerUser(),
+            (System.nanoTime() - seedStart) / 1_000_000_000);
+
+        int port = ((WebServerApplicationContext) app).getWebServer().getPort();
+        LoadDriver driver = new LoadDriver(port, dataset, settings.profile());
+        driver.run(settings.clients(), settings.warmup());
+        Report.write(settings, driver.run(settings.clients(), settings.duration()));
+      }
+    }
+  }
+
+  private static ConfigurableApplicationContext start(
+      PostgreSQLContainer<?> postgres, GenericContainer<?> redis) {
+    return new SpringApplicationBuilder(UserserviceApplication.class)
+        .run(
+            "--server.port=0",
+            "--spring.datasource.url=" + postgres.getJdbcUrl(),
+            "--spring.datasource.username=" + postgres.getUsername(),
+            "--spring.datasource.password=" + postgres.getPassword(),
+            "--spring.data.redis.host=" + redis.getHost(),
+            "--spring.data.redis.port=" + redis.getFirstMappedPort(),
+            "--userservice.outbox.enabled=false",
+            "--spring.jpa.show-sql=false",
+            "--logging.level.org.hibernate.SQL=INFO");
+  }
+}
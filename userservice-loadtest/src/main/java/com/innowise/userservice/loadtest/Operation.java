@@ -0,0 +1,105 @@
+package com.innowise.userservice.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * One kind of request of a {@link Profile}, with its share of the mix.
+ *
+ * @param name label of the histogram the request latencies are recorded in
+ * @param weight relative frequency within the profile
+ * @param request builds a request against the {@code /api/v1} base URI
+ */
+record Operation(String name, int weight, BiFunction<URI, Dataset, HttpRequest> request) {
+
+  /** Cards switched by one bulk status patch. */
+  private static final int BULK_SIZE = 100;
+
+  static Operation getUser(int weight) {
+    return new Operation(
+        "get user", weight, (base, data) -> get(base, "/users/" + data.hotUserId()));
+  }
+
+  static Operation getUserCards(int weight) {
+    return new Operation(
+        "get user cards",
+        weight,
+        (base, data) -> get(base, "/users/" + data.hotUserId() + "/cards"));
+  }
+
+  static Operation searchUsers(int weight) {
+    return new Operation(
+        "search users",
+        weight,
+        (base, data) -> get(base, "/users?name=" + data.searchTerm() + "&size=20&sort=id"));
+  }
+
+  static Operation searchCards(int weight) {
+    return new Operation(
+        "search cards",
+        weight,
+        (base, data) ->
+            get(base, "/cards?holder=" + data.searchTerm() + "&active=true&size=20&sort=id"));
+  }
+
+  static Operation createCard(int weight) {
+    return new Operation(
+        "create card",
+        weight,
+        (base, data) -> {
+          Dataset.NewCard card = data.nextCard();
+          return send(
+              base,
+              "POST",
+              "/users/" + card.userId() + "/cards",
+              String.format(
+                  "{\"number\":\"%s\",\"holder\":\"LOAD TEST\",\"expirationDate\":\"12/30\"}",
+                  card.number()));
+        });
+  }
+
+  static Operation patchUserStatus(int weight) {
+    return new Operation(
+        "patch user status",
+        weight,
+        (base, data) ->
+            send(base, "PATCH", "/users/" + data.userId(), "{\"active\":" + randomStatus() + "}"));
+  }
+
+  static Operation patchCardStatuses(int weight) {
+    return new Operation(
+        "patch card statuses",
+        weight,
+        (base, data) -> {
+          String ids =
+              LongStream.generate(data::cardId)
+                  .limit(BULK_SIZE)
+                  .mapToObj(String::valueOf)
+                  .collect(Collectors.joining(","));
+          return send(
+              base,
+              "PATCH",
+              "/cards/status",
+              "{\"ids\":[" + ids + "],\"active\":" + randomStatus() + "}");
+        });
+  }
+
+  private static boolean randomStatus() {
+    return ThreadLocalRandom.current().nextBoolean();
+  }
+
+  private static HttpRequest get(URI base, String path) {
+    return HttpRequest.newBuilder(URI.create(base + path)).GET().build();
+  }
+
+  private static HttpRequest send(URI base, String method, String path, String json) {
+    return HttpRequest.newBuilder(URI.create(base + path))
+        .header("Content-Type", "application/json")
+        .method(method, HttpRequest.BodyPublishers.ofString(json))
+        .build();
+  }
+}
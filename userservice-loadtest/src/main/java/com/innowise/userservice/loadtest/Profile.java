@@ -0,0 +1,79 @@
+package com.innowise.userservice.loadtest;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/** Request mixes, selected with {@code -Dloadtest.profile=<name>}. */
+enum Profile {
+
+  /** Profile pages: user and card reads, mostly served from the caches. */
+  READ_HEAVY(Operation.getUser(70), Operation.getUserCards(25), Operation.searchUsers(5)),
+
+  /** Filtered listings, served by the trigram indexes. */
+  SEARCH(Operation.searchUsers(50), Operation.searchCards(50)),
+
+  /** Card creation bursts with the reads that follow them. */
+  CARD_BURST(Operation.createCard(80), Operation.getUserCards(20)),
+
+  /** Single and bulk status patches next to the reads whose caches they evict. */
+  STATUS_PATCH(
+      Operation.patchUserStatus(50),
+      Operation.patchCardStatuses(10),
+      Operation.getUser(30),
+      Operation.getUserCards(10)),
+
+  /** All of the above in production proportions. */
+  MIXED(
+      Operation.getUser(50),
+      Operation.getUserCards(20),
+      Operation.searchUsers(10),
+      Operation.searchCards(5),
+      Operation.createCard(10),
+      Operation.patchUserStatus(4),
+      Operation.patchCardStatuses(1));
+
+  private final List<Operation> operations;
+  private final int totalWeight;
+
+  Profile(Operation... operations) {
+    this.operations = List.of(operations);
+    this.totalWeight = Arrays.stream(operations).mapToInt(Operation::weight).sum();
+  }
+
+  static Profile fromName(String name) {
+    try {
+      return valueOf(name.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+    } catch (IllegalArgumentException ex) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Unknown load test profile %s, expected one of %s",
+              name,
+              Arrays.stream(values())
+                  .map(Profile::displayName)
+                  .collect(Collectors.joining(", "))),
+          ex);
+    }
+  }
+
+  String displayName() {
+    return name().toLowerCase(Locale.ROOT).replace('_', '-');
+  }
+
+  List<Operation> operations() {
+    return operations;
+  }
+
+  Operation pick() {
+    int point = ThreadLocalRandom.current().nextInt(totalWeight);
+    for (Operation operation : operations) {
+      point -= operation.weight();
+      if (point < 0) {
+        return operation;
+      }
+    }
+    throw new IllegalStateException("Weights of " + this + " do not add up");
+  }
+}
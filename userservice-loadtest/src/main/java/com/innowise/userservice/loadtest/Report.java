@@ -0,0 +1,94 @@
+package com.innowise.userservice.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Writes the results of a run to {@code <output>/<profile>}: one HdrHistogram percentile
+ * distribution ({@code .hgrm}, in milliseconds) per operation plus one for all of them, which can
+ * be plotted with the HdrHistogram plotter, and a {@code summary.txt} table that is also logged.
+ */
+@Slf4j
+@UtilityClass
+class Report {
+
+  private static final double MICROS_PER_MILLI = 1000.0;
+  private static final String ROW = "%-22s %10d %8d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n";
+
+  static void write(Settings settings, RunResult result) throws IOException {
+    Path directory = settings.outputDir().resolve(settings.profile().displayName());
+    Files.createDirectories(directory);
+    for (RunResult.OperationResult operation : result.operations()) {
+      writeDistribution(directory.resolve(fileName(operation.name())), operation.latencies());
+    }
+    writeDistribution(directory.resolve(fileName("total")), result.total());
+
+    String summary = summary(settings, result);
+    Files.writeString(directory.resolve("summary.txt"), summary);
+    log.info("Load test results in {}\n{}", directory.toAbsolutePath(), summary);
+  }
+
+  private static String summary(Settings settings, RunResult result) {
+    StringBuilder summary = new StringBuilder();
+    summary.append(
+        String.format(
+            "Profile %s, %d clients, %d s, %d users with %d cards each%n%n",
+            settings.profile().displayName(),
+            settings.clients(),
+            result.duration().toSeconds(),
+            settings.users(),
+            settings.cardsPerUser()));
+    summary.append(
+        String.format(
+            "%-22s %10s %8s %9s %9s %9s %9s %9s %9s%n",
+            "operation",
+            "requests",
+            "errors",
+            "req/s",
+            "p50 ms",
+            "p90 ms",
+            "p99 ms",
+            "p99.9 ms",
+            "max ms"));
+    for (RunResult.OperationResult operation : result.operations()) {
+      summary.append(row(operation.name(), operation.latencies(), operation.errors(), result));
+    }
+    summary.append(row("total", result.total(), result.totalErrors(), result));
+    return summary.toString();
+  }
+
+  private static String row(String name, Histogram latencies, long errors, RunResult result) {
+    return String.format(
+        Locale.ROOT,
+        ROW,
+        name,
+        latencies.getTotalCount(),
+        errors,
+        latencies.getTotalCount() / (double) result.duration().toSeconds(),
+        millis(latencies, 50),
+        millis(latencies, 90),
+        millis(latencies, 99),
+        millis(latencies, 99.9),
+        latencies.getMaxValue() / MICROS_PER_MILLI);
+  }
+
+  private static double millis(Histogram latencies, double percentile) {
+    return latencies.getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+  }
+
+  private static void writeDistribution(Path file, Histogram latencies) throws IOException {
+    try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+      latencies.outputPercentileDistribution(out, MICROS_PER_MILLI);
+    }
+  }
+
+  private static String fileName(String operation) {
+    return operation.replace(' ', '-') + ".hgrm";
+  }
+}
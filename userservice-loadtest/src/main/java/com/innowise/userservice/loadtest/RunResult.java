@@ -0,0 +1,32 @@
+package com.innowise.userservice.loadtest;
+
+import java.time.Duration;
+import java.util.List;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Outcome of one measured run.
+ *
+ * @param duration length of the run
+ * @param operations results per operation of the profile, in profile order
+ */
+record RunResult(Duration duration, List<OperationResult> operations) {
+
+  /** Latencies of all operations together. */
+  Histogram total() {
+    Histogram total = new Histogram(3);
+    operations.forEach(operation -> total.add(operation.latencies()));
+    return total;
+  }
+
+  long totalErrors() {
+    return operations.stream().mapToLong(OperationResult::errors).sum();
+  }
+
+  /**
+   * @param name operation name
+   * @param latencies request latencies in microseconds, failed requests included
+   * @param errors requests that failed or answered with a non-2xx status
+   */
+  record OperationResult(String name, Histogram latencies, long errors) {}
+}
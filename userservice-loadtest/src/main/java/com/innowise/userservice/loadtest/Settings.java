@@ -0,0 +1,36 @@
+package com.innowise.userservice.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Load test parameters, read from {@code loadtest.*} system properties.
+ *
+ * @param profile request mix to run
+ * @param users seeded users
+ * @param cardsPerUser seeded cards of every user, below the active card limit of 5
+ * @param clients concurrent closed-loop clients
+ * @param warmup run before measuring, its latencies are discarded
+ * @param duration measured run
+ * @param outputDir directory the histograms and the summary are written to
+ */
+record Settings(
+    Profile profile,
+    long users,
+    int cardsPerUser,
+    int clients,
+    Duration warmup,
+    Duration duration,
+    Path outputDir) {
+
+  static Settings fromSystemProperties() {
+    return new Settings(
+        Profile.fromName(System.getProperty("loadtest.profile", "mixed")),
+        Long.getLong("loadtest.users", 100_000),
+        Integer.getInteger("loadtest.cardsPerUser", 2),
+        Integer.getInteger("loadtest.clients", 100),
+        Duration.ofSeconds(Long.getLong("loadtest.warmupSeconds", 30)),
+        Duration.ofSeconds(Long.getLong("loadtest.seconds", 120)),
+        Path.of(System.getProperty("loadtest.output", "build/loadtest")));
+  }
+}
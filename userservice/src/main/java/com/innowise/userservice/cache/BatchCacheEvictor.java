@@ -0,0 +1,76 @@
+package com.innowise.userservice.cache;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Evicts many keys of a cache at once: a single multi-key {@code DEL} on Redis, a local
+ * invalidation and a single broadcast to the other replicas, instead of one round trip and one
+ * message per key as {@link Cache#evict(Object)} would need.
+ *
+ * <p>Inside a transaction the eviction is deferred until after commit, so that a concurrent read
+ * cannot put the pre-commit state back into the cache.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class BatchCacheEvictor {
+
+  private final CacheManager cacheManager;
+  private final RedisCacheConfiguration cacheConfiguration;
+  private final StringRedisTemplate redisTemplate;
+  private final CacheInvalidationPublisher publisher;
+
+  public void evict(String cacheName, Collection<?> keys) {
+    afterCommit(keys, cacheKeys -> evictNow(cacheName, cacheKeys));
+  }
+
+  /**
+   * Evicts the {@link NegativeEntry negative entries} of keys that have just come into existence.
+   * They are only kept in-process, so Redis is skipped.
+   */
+  public void evictMisses(String cacheName, Collection<?> keys) {
+    afterCommit(keys, cacheKeys -> evictLocal(cacheName, cacheKeys));
+  }
+
+  private void afterCommit(Collection<?> keys, Consumer<List<String>> eviction) {
+    if (keys.isEmpty()) {
+      return;
+    }
+    List<String> cacheKeys = keys.stream().map(String::valueOf).toList();
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+              eviction.accept(cacheKeys);
+            }
+          });
+    } else {
+      eviction.accept(cacheKeys);
+    }
+  }
+
+  private void evictNow(String cacheName, List<String> cacheKeys) {
+    String prefix = cacheConfiguration.getKeyPrefixFor(cacheName);
+    redisTemplate.delete(cacheKeys.stream().map(key -> prefix + key).toList());
+    evictLocal(cacheName, cacheKeys);
+    log.debug("Evicted {} keys from cache {}", cacheKeys.size(), cacheName);
+  }
+
+  /** Evicts from the in-process tier of every replica. */
+  private void evictLocal(String cacheName, List<String> cacheKeys) {
+    if (cacheManager.getCache(cacheName) instanceof TwoTierCache twoTierCache) {
+      twoTierCache.evictLocal(cacheKeys);
+      publisher.publishEvict(cacheName, cacheKeys);
+    }
+  }
+}
@@ -0,0 +1,176 @@
+package com.innowise.userservice.cache;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.util.ByteUtils;
+
+/**
+ * Looks up many keys of a cache at once: in L1 first, then in Redis with one {@code MGET}, and
+ * the keys still missing with one call of the loader. Loaded values are written back to Redis in
+ * one pipeline.
+ *
+ * <p>Values are stored exactly as {@link TwoTierCache} or {@link RedisCache} store them, so
+ * single-key lookups and evictions see them. Keys known to be missing from a {@link
+ * NegativeEntry} are not loaded; keys the loader does not find are not cached.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class BatchCacheLoader {
+
+  private final CacheManager cacheManager;
+  private final StringRedisTemplate redisTemplate;
+  private final CacheExpiry expiry;
+
+  /**
+   * @param loader loads the values of the given keys at once, leaving out those it cannot find
+   * @return the values found, in the order of {@code keys} without duplicates
+   */
+  public <K, V> Map<K, V> getAll(
+      String cacheName, Collection<K> keys, Function<Collection<K>, Map<K, V>> loader) {
+    List<K> requested = keys.stream().distinct().toList();
+    Map<K, V> found = new HashMap<>();
+    List<K> missing = requested;
+
+    Cache cache = cacheManager.getCache(cacheName);
+    TwoTierCache twoTierCache = cache instanceof TwoTierCache twoTier ? twoTier : null;
+    RedisCache redisCache = redisCache(cache);
+    if (twoTierCache != null) {
+      missing = readLocal(twoTierCache, missing, found);
+    }
+    if (redisCache != null && !missing.isEmpty()) {
+      missing = readRemote(redisCache, twoTierCache, missing, found);
+    }
+    if (!missing.isEmpty()) {
+      long start = System.nanoTime();
+      Map<K, V> loaded = loader.apply(missing);
+      long loadMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+      found.putAll(loaded);
+      if (redisCache != null && !loaded.isEmpty()) {
+        writeRemote(redisCache, twoTierCache, loaded, loadMillis);
+      }
+    }
+
+    Map<K, V> result = new LinkedHashMap<>();
+    for (K key : requested) {
+      V value = found.get(key);
+      if (value != null) {
+        result.put(key, value);
+      }
+    }
+    return result;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <K, V> List<K> readLocal(TwoTierCache cache, List<K> keys, Map<K, V> found) {
+    Map<String, Object> present = cache.getAllLocal(keys.stream().map(String::valueOf).toList());
+    List<K> missing = new ArrayList<>();
+    for (K key : keys) {
+      Object value = present.get(String.valueOf(key));
+      if (value == null) {
+        missing.add(key);
+      } else if (!(value instanceof NegativeEntry)) {
+        found.put(key, (V) CacheEntry.unwrap(value));
+      }
+    }
+    return missing;
+  }
+
+  @SuppressWarnings("unchecked")
+  private <K, V> List<K> readRemote(
+      RedisCache cache, TwoTierCache twoTierCache, List<K> keys, Map<K, V> found) {
+    RedisCacheConfiguration config = cache.getCacheConfiguration();
+    String prefix = config.getKeyPrefixFor(cache.getName());
+    byte[][] rawKeys = keys.stream().map(key -> rawKey(prefix, key)).toArray(byte[][]::new);
+    List<byte[]> values =
+        redisTemplate.execute(
+            (RedisCallback<List<byte[]>>) connection -> connection.stringCommands().mGet(rawKeys));
+
+    List<K> missing = new ArrayList<>();
+    Map<String, Object> hits = new HashMap<>();
+    for (int i = 0; i < keys.size(); i++) {
+      byte[] bytes = values != null ? values.get(i) : null;
+      Object value =
+          bytes != null ? config.getValueSerializationPair().read(ByteBuffer.wrap(bytes)) : null;
+      if (value == null) {
+        missing.add(keys.get(i));
+      } else {
+        hits.put(String.valueOf(keys.get(i)), value);
+        found.put(keys.get(i), (V) CacheEntry.unwrap(value));
+      }
+    }
+    if (twoTierCache != null) {
+      twoTierCache.putAllLocal(hits);
+      twoTierCache.recordRemote(hits.size(), missing.size());
+    }
+    return missing;
+  }
+
+  /**
+   * Stores the loaded values in Redis, stamped for early refresh behind a near cache. A failure
+   * only costs later misses, so it is logged rather than failing the lookup.
+   */
+  private <K, V> void writeRemote(
+      RedisCache cache, TwoTierCache twoTierCache, Map<K, V> loaded, long loadMillis) {
+    RedisCacheConfiguration config = cache.getCacheConfiguration();
+    String prefix = config.getKeyPrefixFor(cache.getName());
+    Map<String, Object> stored = new HashMap<>();
+    loaded.forEach(
+        (key, value) ->
+            stored.put(
+                String.valueOf(key),
+                twoTierCache != null ? expiry.stamp(value, loadMillis) : value));
+    try {
+      redisTemplate.executePipelined(
+          (RedisCallback<Object>)
+              connection -> {
+                stored.forEach(
+                    (key, value) -> {
+                      Duration ttl = config.getTtlFunction().getTimeToLive(key, value);
+                      connection
+                          .stringCommands()
+                          .set(
+                              rawKey(prefix, key),
+                              ByteUtils.getBytes(config.getValueSerializationPair().write(value)),
+                              Expiration.from(ttl),
+                              SetOption.upsert());
+                    });
+                return null;
+              });
+    } catch (DataAccessException ex) {
+      log.warn("Could not store {} loaded keys in cache {}", stored.size(), cache.getName(), ex);
+    }
+    if (twoTierCache != null) {
+      twoTierCache.putAllLocal(stored);
+    }
+  }
+
+  private static RedisCache redisCache(Cache cache) {
+    if (cache instanceof TwoTierCache twoTierCache) {
+      return twoTierCache.getRemote() instanceof RedisCache redisCache ? redisCache : null;
+    }
+    return cache instanceof RedisCache redisCache ? redisCache : null;
+  }
+
+  private static byte[] rawKey(String prefix, Object key) {
+    return (prefix + key).getBytes(StandardCharsets.UTF_8);
+  }
+}
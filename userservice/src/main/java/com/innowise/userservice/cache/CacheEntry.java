@@ -0,0 +1,19 @@
+package com.innowise.userservice.cache;
+
+import java.io.Serializable;
+
+/**
+ * Loaded value as stored by {@link TwoTierCache}, stamped with what probabilistic early refresh
+ * needs to know about it.
+ *
+ * @param value the cached value
+ * @param expiresAt epoch millisecond at which the entry expires from the remote tier
+ * @param loadMillis how long loading the value took
+ */
+public record CacheEntry(Object value, long expiresAt, long loadMillis) implements Serializable {
+
+  /** Returns the cached value of {@code stored}, which may or may not be a {@link CacheEntry}. */
+  public static Object unwrap(Object stored) {
+    return stored instanceof CacheEntry entry ? entry.value() : stored;
+  }
+}
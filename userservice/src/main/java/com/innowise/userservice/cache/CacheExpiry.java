@@ -0,0 +1,56 @@
+package com.innowise.userservice.cache;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+
+/**
+ * Expiry of remote cache entries.
+ *
+ * <p>Every entry lives for the configured TTL shortened by a random share of up to {@code
+ * jitter}, so entries written together, e.g. after a deployment or a flush, do not expire
+ * together.
+ *
+ * <p>Entries stamped by {@link #stamp} are refreshed before they expire with the XFetch rule: a
+ * read refreshes when {@code now - loadTime * beta * ln(random) >= expiresAt}. The closer the
+ * expiry and the slower the load, the likelier the refresh, so usually a single reader reloads a
+ * hot key while everyone else is still served the cached value.
+ */
+@RequiredArgsConstructor
+public class CacheExpiry implements RedisCacheWriter.TtlFunction {
+
+  private final Duration ttl;
+  private final double jitter;
+  private final double beta;
+
+  /** Returns the time to live of a new entry. */
+  public Duration nextTtl() {
+    long millis = ttl.toMillis();
+    return Duration.ofMillis(
+        millis - (long) (millis * jitter * ThreadLocalRandom.current().nextDouble()));
+  }
+
+  /** Wraps a freshly loaded value into an entry expiring after {@link #nextTtl()}. */
+  public CacheEntry stamp(Object value, long loadMillis) {
+    return new CacheEntry(value, System.currentTimeMillis() + nextTtl().toMillis(), loadMillis);
+  }
+
+  /** Decides whether the current read should reload {@code entry} ahead of its expiry. */
+  public boolean shouldRefresh(CacheEntry entry) {
+    if (beta <= 0) {
+      return false;
+    }
+    double random = 1 - ThreadLocalRandom.current().nextDouble();
+    double lead = -entry.loadMillis() * beta * Math.log(random);
+    return System.currentTimeMillis() + lead >= entry.expiresAt();
+  }
+
+  @Override
+  public Duration getTimeToLive(Object key, Object value) {
+    if (value instanceof CacheEntry entry) {
+      return Duration.ofMillis(Math.max(1, entry.expiresAt() - System.currentTimeMillis()));
+    }
+    return nextTtl();
+  }
+}
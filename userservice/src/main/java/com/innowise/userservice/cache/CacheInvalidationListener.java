@@ -0,0 +1,43 @@
+package com.innowise.userservice.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+
+/** Drops in-process entries when another replica reports an eviction. */
+@Slf4j
+@RequiredArgsConstructor
+public class CacheInvalidationListener implements MessageListener {
+
+  private final CacheManager cacheManager;
+  private final ObjectMapper objectMapper;
+  private final String origin;
+
+  @Override
+  public void onMessage(Message message, byte[] pattern) {
+    CacheInvalidationMessage invalidation;
+    try {
+      invalidation = objectMapper.readValue(message.getBody(), CacheInvalidationMessage.class);
+    } catch (IOException ex) {
+      log.warn("Ignoring malformed cache invalidation message: {}", ex.getMessage());
+      return;
+    }
+    if (origin.equals(invalidation.origin())) {
+      return;
+    }
+
+    Cache cache = cacheManager.getCache(invalidation.cacheName());
+    if (cache instanceof TwoTierCache twoTierCache) {
+      if (invalidation.isClear()) {
+        twoTierCache.clearLocal();
+      } else {
+        twoTierCache.evictLocal(invalidation.keys());
+      }
+    }
+  }
+}
@@ -0,0 +1,19 @@
+package com.innowise.userservice.cache;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.util.List;
+
+/**
+ * Invalidation broadcast between userservice replicas.
+ *
+ * @param origin identifier of the publishing replica, used to ignore own messages
+ * @param cacheName name of the affected cache
+ * @param keys affected keys, {@code null} when the whole cache was cleared
+ */
+public record CacheInvalidationMessage(String origin, String cacheName, List<String> keys) {
+
+  @JsonIgnore
+  public boolean isClear() {
+    return keys == null;
+  }
+}
@@ -0,0 +1,48 @@
+package com.innowise.userservice.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * Publishes near cache invalidations to the other replicas over Redis pub/sub.
+ *
+ * <p>Publishing is best effort: a failure is logged and the in-process TTL bounds how long a
+ * replica may serve a stale entry.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class CacheInvalidationPublisher {
+
+  private final StringRedisTemplate redisTemplate;
+  private final ObjectMapper objectMapper;
+  private final String channel;
+
+  @Getter private final String origin = UUID.randomUUID().toString();
+
+  public void publishEvict(String cacheName, Collection<String> keys) {
+    if (keys.isEmpty()) {
+      return;
+    }
+    publish(new CacheInvalidationMessage(origin, cacheName, List.copyOf(keys)));
+  }
+
+  public void publishClear(String cacheName) {
+    publish(new CacheInvalidationMessage(origin, cacheName, null));
+  }
+
+  private void publish(CacheInvalidationMessage message) {
+    try {
+      redisTemplate.convertAndSend(channel, objectMapper.writeValueAsString(message));
+    } catch (JsonProcessingException | RuntimeException ex) {
+      log.warn(
+          "Failed to publish invalidation for cache {}: {}", message.cacheName(), ex.getMessage());
+    }
+  }
+}
@@ -0,0 +1,10 @@
+package com.innowise.userservice.cache;
+
+import com.innowise.userservice.exception.NotFoundException;
+
+/**
+ * In-process record that loading a key failed with a {@link NotFoundException}, which is thrown
+ * again to readers of the key until the entry expires or the key is evicted. Never stored in the
+ * remote tier.
+ */
+record NegativeEntry(NotFoundException exception) {}
@@ -0,0 +1,100 @@
+package com.innowise.userservice.cache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+/**
+ * Short-lived Redis lock that lets a single replica load a missing cache entry while the others
+ * wait for it to appear in the remote tier.
+ *
+ * <p>The lock expires after {@code lease}, so a replica that dies while loading delays the others
+ * by at most that long. If Redis is unavailable the lock is considered acquired: the cache is not
+ * going to be shared then anyway.
+ *
+ * <p>A holder that finds nothing to load leaves a marker under the lock key instead of deleting
+ * it, so waiters stop waiting for a value that is never stored and load, or fail, on their own.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class RedisLoadLock {
+
+  private static final RedisScript<Long> RELEASE =
+      new DefaultRedisScript<>(
+          "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1])"
+              + " else return 0 end",
+          Long.class);
+
+  private static final RedisScript<Long> RELEASE_MISSING =
+      new DefaultRedisScript<>(
+          "if redis.call('get', KEYS[1]) == ARGV[1] then"
+              + " redis.call('set', KEYS[1], ARGV[2], 'PX', ARGV[3]) return 1 else return 0 end",
+          Long.class);
+
+  /** Lock value of a released lock whose holder found the key missing; never a token. */
+  private static final String MISSING = "missing";
+
+  private final StringRedisTemplate redisTemplate;
+
+  /** How long the lock is held at most. */
+  @Getter private final Duration lease;
+
+  /** How often waiting replicas look for the loaded value. */
+  @Getter private final Duration pollInterval;
+
+  /**
+   * Tries to take the lock.
+   *
+   * @return the token to {@link #release} the lock with, or {@code null} if another process holds
+   *     it
+   */
+  public String tryAcquire(String key) {
+    String token = UUID.randomUUID().toString();
+    try {
+      Boolean acquired = redisTemplate.opsForValue().setIfAbsent(key, token, lease);
+      return Boolean.TRUE.equals(acquired) ? token : null;
+    } catch (DataAccessException ex) {
+      log.warn("Could not take load lock {}, loading without it", key, ex);
+      return token;
+    }
+  }
+
+  /** Releases the lock unless it expired and was taken by someone else in the meantime. */
+  public void release(String key, String token) {
+    try {
+      redisTemplate.execute(RELEASE, List.of(key), token);
+    } catch (DataAccessException ex) {
+      log.warn("Could not release load lock {}, it expires after {}", key, lease, ex);
+    }
+  }
+
+  /**
+   * Releases the lock after the key was found missing, leaving a marker for {@code lease} that
+   * {@link #isReleasedMissing} reports to waiters. The lock cannot be taken while it is there.
+   */
+  public void releaseMissing(String key, String token) {
+    try {
+      redisTemplate.execute(
+          RELEASE_MISSING, List.of(key), token, MISSING, String.valueOf(lease.toMillis()));
+    } catch (DataAccessException ex) {
+      log.warn("Could not release load lock {}, it expires after {}", key, lease, ex);
+    }
+  }
+
+  /** Whether the last holder of the lock found the key missing. */
+  public boolean isReleasedMissing(String key) {
+    try {
+      return MISSING.equals(redisTemplate.opsForValue().get(key));
+    } catch (DataAccessException ex) {
+      log.debug("Could not read load lock {}", key, ex);
+      return false;
+    }
+  }
+}
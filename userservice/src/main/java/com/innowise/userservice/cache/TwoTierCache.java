@@ -0,0 +1,411 @@
+package com.innowise.userservice.cache;
+
+import com.innowise.userservice.exception.NotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+/**
+ * {@link Cache} with a bounded in-process tier (L1) in front of a shared remote tier (L2).
+ *
+ * <p>Reads are served from L1 when possible and fall back to L2, populating L1 on a remote hit.
+ * Writes and evictions go to both tiers and are broadcast so that other replicas drop their L1
+ * copy of the affected keys.
+ *
+ * <p>Loads through {@link #get(Object, Callable)} are single-flight: concurrent misses of a key
+ * wait for one load in-process, and across replicas only the holder of the key's {@link
+ * RedisLoadLock} loads while the others wait for the value to show up in L2, or for the holder to
+ * report the key missing. Loaded values are stored as {@link CacheEntry} and refreshed ahead of
+ * their expiry as decided by {@link CacheExpiry}; readers keep getting the cached value while a
+ * refresh runs.
+ *
+ * <p>A load failing with a {@link NotFoundException} leaves a {@link NegativeEntry} in L1, so
+ * lookups of unknown keys fail with the same exception without reaching Redis or the loader until
+ * it expires, after a much shorter time than values, or the key is evicted on every replica.
+ */
+@Slf4j
+public class TwoTierCache implements Cache {
+
+  private static final String LOCK_PREFIX = "userservice:cache:lock:";
+
+  private final String name;
+  private final Cache remote;
+  private final com.github.benmanes.caffeine.cache.Cache<String, Object> local;
+  private final CacheInvalidationPublisher publisher;
+  private final CacheExpiry expiry;
+  private final RedisLoadLock lock;
+
+  private final ConcurrentMap<String, CompletableFuture<Object>> inFlight =
+      new ConcurrentHashMap<>();
+
+  private final Counter localHits;
+  private final Counter negativeHits;
+  private final Counter localMisses;
+  private final Counter remoteHits;
+  private final Counter remoteMisses;
+  private final Counter loaded;
+  private final Counter coalesced;
+  private final Counter awaited;
+  private final Counter earlyRefreshes;
+
+  public TwoTierCache(
+      String name,
+      Cache remote,
+      com.github.benmanes.caffeine.cache.Cache<String, Object> local,
+      CacheInvalidationPublisher publisher,
+      CacheExpiry expiry,
+      RedisLoadLock lock,
+      MeterRegistry meterRegistry) {
+    this.name = name;
+    this.remote = remote;
+    this.local = local;
+    this.publisher = publisher;
+    this.expiry = expiry;
+    this.lock = lock;
+    this.localHits = requests(meterRegistry, "l1", "hit");
+    this.negativeHits = requests(meterRegistry, "l1", "negative");
+    this.localMisses = requests(meterRegistry, "l1", "miss");
+    this.remoteHits = requests(meterRegistry, "l2", "hit");
+    this.remoteMisses = requests(meterRegistry, "l2", "miss");
+    this.loaded = loads(meterRegistry, "loaded");
+    this.coalesced = loads(meterRegistry, "coalesced");
+    this.awaited = loads(meterRegistry, "awaited");
+    this.earlyRefreshes =
+        Counter.builder("userservice.cache.early.refreshes")
+            .description("Reads that refreshed an entry ahead of its expiry")
+            .tag("cache", name)
+            .register(meterRegistry);
+    Gauge.builder("userservice.cache.l1.size", local, c -> c.estimatedSize())
+        .description("Estimated number of in-process entries")
+        .tag("cache", name)
+        .register(meterRegistry);
+  }
+
+  @Override
+  public String getName() {
+    return name;
+  }
+
+  @Override
+  public Object getNativeCache() {
+    return remote.getNativeCache();
+  }
+
+  @Override
+  public ValueWrapper get(Object key) {
+    Object value = lookup(key, localKey(key));
+    return value != null && !(value instanceof NegativeEntry)
+        ? new SimpleValueWrapper(CacheEntry.unwrap(value))
+        : null;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> T get(Object key, Class<T> type) {
+    ValueWrapper wrapper = get(key);
+    Object value = wrapper != null ? wrapper.get() : null;
+    if (value != null && type != null && !type.isInstance(value)) {
+      throw new IllegalStateException(
+          "Cached value is not of required type [" + type.getName() + "]: " + value);
+    }
+    return (T) value;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> T get(Object key, Callable<T> valueLoader) {
+    String localKey = localKey(key);
+    Object cached = lookup(key, localKey);
+    if (cached == null) {
+      return (T) load(key, localKey, valueLoader, null);
+    }
+    if (cached instanceof NegativeEntry negative) {
+      throw new ValueRetrievalException(key, valueLoader, negative.exception());
+    }
+    Object value = CacheEntry.unwrap(cached);
+    if (cached instanceof CacheEntry entry && expiry.shouldRefresh(entry)) {
+      earlyRefreshes.increment();
+      return (T) load(key, localKey, valueLoader, value);
+    }
+    return (T) value;
+  }
+
+  @Override
+  public void put(Object key, Object value) {
+    remote.put(key, value);
+    String localKey = localKey(key);
+    if (value != null) {
+      local.put(localKey, value);
+    } else {
+      local.invalidate(localKey);
+    }
+    publisher.publishEvict(name, List.of(localKey));
+  }
+
+  @Override
+  public ValueWrapper putIfAbsent(Object key, Object value) {
+    ValueWrapper existing = remote.putIfAbsent(key, value);
+    if (existing == null) {
+      if (value != null) {
+        local.put(localKey(key), value);
+      }
+      return null;
+    }
+    return new SimpleValueWrapper(CacheEntry.unwrap(existing.get()));
+  }
+
+  @Override
+  public void evict(Object key) {
+    remote.evict(key);
+    String localKey = localKey(key);
+    local.invalidate(localKey);
+    publisher.publishEvict(name, List.of(localKey));
+  }
+
+  @Override
+  public void clear() {
+    remote.clear();
+    local.invalidateAll();
+    publisher.publishClear(name);
+  }
+
+  /** Returns the shared remote tier. */
+  public Cache getRemote() {
+    return remote;
+  }
+
+  /** Drops the given keys from the in-process tier only. */
+  public void evictLocal(Collection<String> keys) {
+    local.invalidateAll(keys);
+  }
+
+  /** Drops every entry from the in-process tier only. */
+  public void clearLocal() {
+    local.invalidateAll();
+  }
+
+  /**
+   * Returns the L1 entries of the given keys that are present, possibly {@link CacheEntry} or
+   * {@link NegativeEntry}, for lookups that read L2 on their own.
+   */
+  Map<String, Object> getAllLocal(Collection<String> keys) {
+    Map<String, Object> present = local.getAllPresent(keys);
+    long negative = present.values().stream().filter(NegativeEntry.class::isInstance).count();
+    localHits.increment(present.size() - negative);
+    negativeHits.increment(negative);
+    localMisses.increment(keys.size() - present.size());
+    return present;
+  }
+
+  /** Stores entries read from or written to L2 by the caller in L1. */
+  void putAllLocal(Map<String, Object> entries) {
+    local.putAll(entries);
+  }
+
+  /** Records the outcome of L2 lookups made by the caller. */
+  void recordRemote(int hits, int misses) {
+    remoteHits.increment(hits);
+    remoteMisses.increment(misses);
+  }
+
+  /** Returns the stored value, possibly a {@link CacheEntry}, populating L1 on a remote hit. */
+  private Object lookup(Object key, String localKey) {
+    Object value = local.getIfPresent(localKey);
+    if (value instanceof NegativeEntry) {
+      negativeHits.increment();
+      return value;
+    }
+    if (value != null) {
+      localHits.increment();
+      return value;
+    }
+    localMisses.increment();
+
+    value = remoteValue(key, localKey);
+    if (value == null) {
+      remoteMisses.increment();
+      return null;
+    }
+    remoteHits.increment();
+    return value;
+  }
+
+  private Object remoteValue(Object key, String localKey) {
+    ValueWrapper wrapper = remote.get(key);
+    Object value = wrapper != null ? wrapper.get() : null;
+    if (value != null) {
+      local.put(localKey, value);
+    }
+    return value;
+  }
+
+  /**
+   * Loads the value of {@code key} unless a load of it is already running in this process.
+   *
+   * @param stale the value cached so far when refreshing early, returned instead of waiting for or
+   *     failing with a load
+   */
+  private Object load(Object key, String localKey, Callable<?> valueLoader, Object stale) {
+    CompletableFuture<Object> load = new CompletableFuture<>();
+    CompletableFuture<Object> running = inFlight.putIfAbsent(localKey, load);
+    if (running != null) {
+      if (stale != null) {
+        return stale;
+      }
+      coalesced.increment();
+      return await(running);
+    }
+    try {
+      Object value = loadExclusively(key, localKey, valueLoader, stale);
+      load.complete(value);
+      return value;
+    } catch (RuntimeException ex) {
+      load.completeExceptionally(ex);
+      if (stale != null) {
+        log.warn("Early refresh of {}::{} failed, keeping the cached value", name, localKey, ex);
+        return stale;
+      }
+      throw ex;
+    } finally {
+      inFlight.remove(localKey, load);
+    }
+  }
+
+  /** Loads the value of {@code key} unless another replica holds its load lock. */
+  private Object loadExclusively(
+      Object key, String localKey, Callable<?> valueLoader, Object stale) {
+    String lockKey = LOCK_PREFIX + name + "::" + localKey;
+    String token = lock.tryAcquire(lockKey);
+    if (token == null) {
+      if (stale != null) {
+        return stale;
+      }
+      Object value = awaitRemote(key, localKey, lockKey);
+      if (value != null) {
+        awaited.increment();
+        return value;
+      }
+      log.debug("Load lock {} released without a value or expired, loading without it", lockKey);
+    }
+    boolean missing = false;
+    try {
+      if (stale == null) {
+        // The previous lock holder may have stored the value after our lookup.
+        Object value = remoteValue(key, localKey);
+        if (value != null) {
+          return CacheEntry.unwrap(value);
+        }
+      }
+      return loadAndStore(key, localKey, valueLoader);
+    } catch (ValueRetrievalException ex) {
+      missing = notFound(ex) != null;
+      throw ex;
+    } finally {
+      if (token != null) {
+        if (missing) {
+          lock.releaseMissing(lockKey, token);
+        } else {
+          lock.release(lockKey, token);
+        }
+      }
+    }
+  }
+
+  /**
+   * Waits for another replica to store the value of {@code key}.
+   *
+   * @return the value, or {@code null} if the holder found the key missing or the lease ran out
+   */
+  private Object awaitRemote(Object key, String localKey, String lockKey) {
+    long deadline = System.nanoTime() + lock.getLease().toNanos();
+    while (System.nanoTime() < deadline) {
+      try {
+        Thread.sleep(lock.getPollInterval());
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        return null;
+      }
+      Object value = remoteValue(key, localKey);
+      if (value != null) {
+        return CacheEntry.unwrap(value);
+      }
+      if (lock.isReleasedMissing(lockKey)) {
+        return null;
+      }
+    }
+    return null;
+  }
+
+  private Object loadAndStore(Object key, String localKey, Callable<?> valueLoader) {
+    long start = System.nanoTime();
+    Object value;
+    try {
+      value = valueLoader.call();
+    } catch (Exception ex) {
+      NotFoundException notFound = notFound(ex);
+      if (notFound != null) {
+        local.put(localKey, new NegativeEntry(notFound));
+      }
+      throw new ValueRetrievalException(key, valueLoader, ex);
+    }
+    loaded.increment();
+    if (value != null) {
+      long loadMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+      CacheEntry entry = expiry.stamp(value, Math.max(1, loadMillis));
+      remote.put(key, entry);
+      local.put(localKey, entry);
+    }
+    return value;
+  }
+
+  private static Object await(CompletableFuture<Object> load) {
+    try {
+      return load.join();
+    } catch (CompletionException ex) {
+      throw ex.getCause() instanceof RuntimeException cause ? cause : ex;
+    }
+  }
+
+  /** The {@link NotFoundException} among the causes of a failed load, possibly wrapped. */
+  private static NotFoundException notFound(Throwable ex) {
+    for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+      if (cause instanceof NotFoundException notFound) {
+        return notFound;
+      }
+    }
+    return null;
+  }
+
+  private static String localKey(Object key) {
+    return String.valueOf(key);
+  }
+
+  private Counter requests(MeterRegistry meterRegistry, String tier, String result) {
+    return Counter.builder("userservice.cache.requests")
+        .description("Cache lookups per tier")
+        .tag("cache", name)
+        .tag("tier", tier)
+        .tag("result", result)
+        .register(meterRegistry);
+  }
+
+  private Counter loads(MeterRegistry meterRegistry, String outcome) {
+    return Counter.builder("userservice.cache.loads")
+        .description("Misses per way the value was obtained")
+        .tag("cache", name)
+        .tag("outcome", outcome)
+        .register(meterRegistry);
+  }
+}
@@ -0,0 +1,82 @@
+package com.innowise.userservice.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.innowise.userservice.config.CacheProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+/** Wraps every cache of the remote {@link CacheManager} into a {@link TwoTierCache}. */
+@RequiredArgsConstructor
+public class TwoTierCacheManager implements CacheManager {
+
+  private final CacheManager remoteCacheManager;
+  private final CacheProperties.Near properties;
+  private final CacheInvalidationPublisher publisher;
+  private final CacheExpiry expiry;
+  private final RedisLoadLock lock;
+  private final MeterRegistry meterRegistry;
+
+  private final ConcurrentMap<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+
+  @Override
+  public Cache getCache(String name) {
+    TwoTierCache cache = caches.get(name);
+    if (cache != null) {
+      return cache;
+    }
+    Cache remote = remoteCacheManager.getCache(name);
+    if (remote == null) {
+      return null;
+    }
+    return caches.computeIfAbsent(name, cacheName -> createCache(cacheName, remote));
+  }
+
+  @Override
+  public Collection<String> getCacheNames() {
+    return remoteCacheManager.getCacheNames();
+  }
+
+  private TwoTierCache createCache(String name, Cache remote) {
+    com.github.benmanes.caffeine.cache.Cache<String, Object> local =
+        Caffeine.newBuilder()
+            .maximumSize(properties.getMaximumSize())
+            .expireAfter(new LocalExpiry(properties.getTtl(), properties.getNegativeTtl()))
+            .build();
+    return new TwoTierCache(name, remote, local, publisher, expiry, lock, meterRegistry);
+  }
+
+  /** Expires values after the near TTL and {@link NegativeEntry negative entries} sooner. */
+  private static final class LocalExpiry implements Expiry<String, Object> {
+
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+
+    LocalExpiry(Duration ttl, Duration negativeTtl) {
+      this.ttlNanos = ttl.toNanos();
+      this.negativeTtlNanos = negativeTtl.toNanos();
+    }
+
+    @Override
+    public long expireAfterCreate(String key, Object value, long currentTime) {
+      return value instanceof NegativeEntry ? negativeTtlNanos : ttlNanos;
+    }
+
+    @Override
+    public long expireAfterUpdate(
+        String key, Object value, long currentTime, long currentDuration) {
+      return expireAfterCreate(key, value, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(String key, Object value, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+  }
+}
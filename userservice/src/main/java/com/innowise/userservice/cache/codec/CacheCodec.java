@@ -0,0 +1,14 @@
+package com.innowise.userservice.cache.codec;
+
+import java.io.IOException;
+
+/** Turns cached values into bytes and back. Implementations must be thread-safe. */
+public interface CacheCodec {
+
+  /** Short name, used in metric tags and in the Redis key prefix. */
+  String name();
+
+  byte[] encode(Object value) throws IOException;
+
+  <T> T decode(byte[] bytes, Class<T> type) throws IOException;
+}
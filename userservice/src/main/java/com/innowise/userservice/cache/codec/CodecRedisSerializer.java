@@ -0,0 +1,166 @@
+package com.innowise.userservice.cache.codec;
+
+import com.innowise.userservice.cache.CacheEntry;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+/**
+ * Value serializer of one cache: encodes with a {@link CacheCodec} into the cache's value type and
+ * deflates encoded values of at least {@code compressionThreshold} bytes.
+ *
+ * <p>Every stored value starts with one header byte of flags: whether the rest is deflated, so the
+ * threshold can change without invalidating existing entries, and whether the value is a {@link
+ * CacheEntry}, whose expiry and load time then follow as two longs. Encode and decode times and
+ * the stored size are recorded per cache.
+ */
+public class CodecRedisSerializer implements RedisSerializer<Object> {
+
+  private static final byte DEFLATED = 1;
+  private static final byte STAMPED = 2;
+
+  private final CacheCodec codec;
+  private final Class<?> type;
+  private final int compressionThreshold;
+
+  private final Timer encodeTimer;
+  private final Timer decodeTimer;
+  private final DistributionSummary plainSize;
+  private final DistributionSummary deflatedSize;
+
+  /**
+   * @param compressionThreshold smallest encoded size that is deflated, {@code 0} or less to never
+   *     compress
+   */
+  public CodecRedisSerializer(
+      String cacheName,
+      CacheCodec codec,
+      Class<?> type,
+      int compressionThreshold,
+      MeterRegistry meterRegistry) {
+    this.codec = codec;
+    this.type = type;
+    this.compressionThreshold = compressionThreshold;
+    this.encodeTimer = timer("encode", cacheName, meterRegistry);
+    this.decodeTimer = timer("decode", cacheName, meterRegistry);
+    this.plainSize = size(cacheName, false, meterRegistry);
+    this.deflatedSize = size(cacheName, true, meterRegistry);
+  }
+
+  @Override
+  public byte[] serialize(Object value) {
+    if (value == null) {
+      return new byte[0];
+    }
+    long start = System.nanoTime();
+    try {
+      CacheEntry entry = value instanceof CacheEntry stamped ? stamped : null;
+      byte[] payload = codec.encode(entry != null ? entry.value() : value);
+      byte flags = entry != null ? STAMPED : 0;
+      if (compressionThreshold > 0 && payload.length >= compressionThreshold) {
+        payload = deflate(payload);
+        flags |= DEFLATED;
+      }
+      ByteBuffer stored = ByteBuffer.allocate(1 + (entry != null ? 16 : 0) + payload.length);
+      stored.put(flags);
+      if (entry != null) {
+        stored.putLong(entry.expiresAt()).putLong(entry.loadMillis());
+      }
+      stored.put(payload);
+      ((flags & DEFLATED) != 0 ? deflatedSize : plainSize).record(stored.capacity());
+      return stored.array();
+    } catch (IOException ex) {
+      throw new SerializationException("Could not encode " + type.getSimpleName(), ex);
+    } finally {
+      encodeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  @Override
+  public Object deserialize(byte[] bytes) {
+    if (bytes == null || bytes.length == 0) {
+      return null;
+    }
+    long start = System.nanoTime();
+    try {
+      ByteBuffer stored = ByteBuffer.wrap(bytes);
+      byte flags = stored.get();
+      boolean stamped = (flags & STAMPED) != 0;
+      long expiresAt = stamped ? stored.getLong() : 0;
+      long loadMillis = stamped ? stored.getLong() : 0;
+      byte[] payload = new byte[stored.remaining()];
+      stored.get(payload);
+      Object value = codec.decode((flags & DEFLATED) != 0 ? inflate(payload) : payload, type);
+      return stamped ? new CacheEntry(value, expiresAt, loadMillis) : value;
+    } catch (IOException | DataFormatException | BufferUnderflowException ex) {
+      throw new SerializationException("Could not decode " + type.getSimpleName(), ex);
+    } finally {
+      decodeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  private static byte[] deflate(byte[] bytes) {
+    Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    try {
+      deflater.setInput(bytes);
+      deflater.finish();
+      ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 2 + 16);
+      byte[] buffer = new byte[4096];
+      while (!deflater.finished()) {
+        out.write(buffer, 0, deflater.deflate(buffer));
+      }
+      return out.toByteArray();
+    } finally {
+      deflater.end();
+    }
+  }
+
+  private static byte[] inflate(byte[] bytes) throws DataFormatException {
+    Inflater inflater = new Inflater();
+    try {
+      inflater.setInput(bytes);
+      ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length * 3);
+      byte[] buffer = new byte[4096];
+      while (!inflater.finished()) {
+        int inflated = inflater.inflate(buffer);
+        if (inflated == 0 && inflater.needsInput()) {
+          throw new DataFormatException("Truncated deflate stream");
+        }
+        out.write(buffer, 0, inflated);
+      }
+      return out.toByteArray();
+    } finally {
+      inflater.end();
+    }
+  }
+
+  private Timer timer(String operation, String cacheName, MeterRegistry meterRegistry) {
+    return Timer.builder("userservice.cache.codec")
+        .description("Time to encode or decode one cached value")
+        .tag("cache", cacheName)
+        .tag("codec", codec.name())
+        .tag("operation", operation)
+        .register(meterRegistry);
+  }
+
+  private DistributionSummary size(
+      String cacheName, boolean deflated, MeterRegistry meterRegistry) {
+    return DistributionSummary.builder("userservice.cache.value.size")
+        .description("Stored size of cached values")
+        .baseUnit("bytes")
+        .tag("cache", cacheName)
+        .tag("codec", codec.name())
+        .tag("compressed", String.valueOf(deflated))
+        .register(meterRegistry);
+  }
+}
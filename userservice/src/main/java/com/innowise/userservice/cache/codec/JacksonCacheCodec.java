@@ -0,0 +1,67 @@
+package com.innowise.userservice.cache.codec;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.cfg.MapperBuilder;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.io.IOException;
+
+/**
+ * {@link CacheCodec} for the Jackson data formats. Values are written without type information,
+ * the target type comes from the cache, so a value costs only its fields.
+ *
+ * <p>Dates are written as numbers and unknown properties are ignored, so entries written by an
+ * older or newer snapshot class stay readable during a rolling deployment.
+ */
+public class JacksonCacheCodec implements CacheCodec {
+
+  private final String name;
+  private final ObjectMapper objectMapper;
+
+  private JacksonCacheCodec(String name, ObjectMapper objectMapper) {
+    this.name = name;
+    this.objectMapper = objectMapper;
+  }
+
+  /** Binary JSON with back references for repeated names and short strings. */
+  public static JacksonCacheCodec smile() {
+    return new JacksonCacheCodec(
+        "smile",
+        configure(SmileMapper.builder())
+            .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+            .build());
+  }
+
+  public static JacksonCacheCodec cbor() {
+    return new JacksonCacheCodec("cbor", configure(CBORMapper.builder()).build());
+  }
+
+  public static JacksonCacheCodec json() {
+    return new JacksonCacheCodec("json", configure(JsonMapper.builder()).build());
+  }
+
+  @Override
+  public String name() {
+    return name;
+  }
+
+  @Override
+  public byte[] encode(Object value) throws IOException {
+    return objectMapper.writeValueAsBytes(value);
+  }
+
+  @Override
+  public <T> T decode(byte[] bytes, Class<T> type) throws IOException {
+    return objectMapper.readValue(bytes, type);
+  }
+
+  private static <M extends ObjectMapper, B extends MapperBuilder<M, B>> B configure(B builder) {
+    return builder
+        .addModule(new JavaTimeModule())
+        .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+  }
+}
@@ -0,0 +1,37 @@
+package com.innowise.userservice.cache.codec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+/**
+ * Java serialization, what Spring Data Redis uses by default. Kept as a baseline to compare the
+ * other codecs with; values must be {@link java.io.Serializable}.
+ */
+public class JdkCacheCodec implements CacheCodec {
+
+  @Override
+  public String name() {
+    return "jdk";
+  }
+
+  @Override
+  public byte[] encode(Object value) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(value);
+    }
+    return bytes.toByteArray();
+  }
+
+  @Override
+  public <T> T decode(byte[] bytes, Class<T> type) throws IOException {
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+      return type.cast(in.readObject());
+    } catch (ClassNotFoundException ex) {
+      throw new IOException(ex);
+    }
+  }
+}
@@ -0,0 +1,50 @@
+package com.innowise.userservice.cache.codec;
+
+import com.innowise.userservice.model.dto.UserJsonDto;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * {@link CacheCodec} for {@link UserJsonDto}: the id and last update as fixed-width numbers,
+ * followed by the JSON body stored as it is.
+ */
+public class UserJsonCacheCodec implements CacheCodec {
+
+  private static final int HEADER_BYTES = Long.BYTES + Long.BYTES + Integer.BYTES;
+
+  /** Epoch second standing for a missing update time. */
+  private static final long NOT_UPDATED = Long.MIN_VALUE;
+
+  @Override
+  public String name() {
+    return "raw";
+  }
+
+  @Override
+  public byte[] encode(Object value) {
+    UserJsonDto json = (UserJsonDto) value;
+    LocalDateTime updatedAt = json.getUpdatedAt();
+    return ByteBuffer.allocate(HEADER_BYTES + json.getBody().length)
+        .putLong(json.getId())
+        .putLong(updatedAt != null ? updatedAt.toEpochSecond(ZoneOffset.UTC) : NOT_UPDATED)
+        .putInt(updatedAt != null ? updatedAt.getNano() : 0)
+        .put(json.getBody())
+        .array();
+  }
+
+  @Override
+  public <T> T decode(byte[] bytes, Class<T> type) {
+    ByteBuffer stored = ByteBuffer.wrap(bytes);
+    long id = stored.getLong();
+    long epochSecond = stored.getLong();
+    int nano = stored.getInt();
+    byte[] body = new byte[stored.remaining()];
+    stored.get(body);
+    LocalDateTime updatedAt =
+        epochSecond != NOT_UPDATED
+            ? LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC)
+            : null;
+    return type.cast(new UserJsonDto(id, updatedAt, body));
+  }
+}
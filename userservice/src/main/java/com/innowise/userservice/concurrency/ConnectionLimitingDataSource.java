@@ -0,0 +1,123 @@
+package com.innowise.userservice.concurrency;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Caps the number of connections checked out of the target pool at a time.
+ *
+ * <p>With virtual threads the container no longer bounds request concurrency, so thousands of
+ * requests can queue inside the connection pool at once. Callers beyond the limit wait here on a
+ * fair semaphore instead, which is cheap for a virtual thread, fails with a clear timeout, and
+ * keeps the pool's own wait queue short. A permit is returned when the connection is closed.
+ */
+public class ConnectionLimitingDataSource extends DelegatingDataSource {
+
+  private final Semaphore permits;
+  private final int maxConnections;
+  private final Duration timeout;
+
+  public ConnectionLimitingDataSource(DataSource target, int maxConnections, Duration timeout) {
+    super(target);
+    this.permits = new Semaphore(maxConnections, true);
+    this.maxConnections = maxConnections;
+    this.timeout = timeout;
+  }
+
+  /**
+   * Limits a Hikari pool, by default to its maximum size and with its connection timeout.
+   *
+   * @param maxConnections overrides the limit when not {@code null}
+   * @param timeout overrides the wait for a permit when not {@code null}
+   */
+  public static ConnectionLimitingDataSource forPool(
+      HikariDataSource pool, Integer maxConnections, Duration timeout) {
+    return new ConnectionLimitingDataSource(
+        pool,
+        maxConnections != null ? maxConnections : pool.getMaximumPoolSize(),
+        timeout != null ? timeout : Duration.ofMillis(pool.getConnectionTimeout()));
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    acquire();
+    try {
+      return withPermit(obtainTargetDataSource().getConnection());
+    } catch (SQLException | RuntimeException ex) {
+      permits.release();
+      throw ex;
+    }
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    acquire();
+    try {
+      return withPermit(obtainTargetDataSource().getConnection(username, password));
+    } catch (SQLException | RuntimeException ex) {
+      permits.release();
+      throw ex;
+    }
+  }
+
+  public int getMaxConnections() {
+    return maxConnections;
+  }
+
+  public int getAvailablePermits() {
+    return permits.availablePermits();
+  }
+
+  /** Estimated number of threads waiting for a permit. */
+  public int getWaitingThreads() {
+    return permits.getQueueLength();
+  }
+
+  private void acquire() throws SQLException {
+    try {
+      if (!permits.tryAcquire(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+        throw new SQLTransientConnectionException(
+            String.format(
+                "No connection permit available within %d ms (%d in use, %d waiting)",
+                timeout.toMillis(), maxConnections, permits.getQueueLength()));
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new SQLTransientConnectionException("Interrupted waiting for a connection permit", ex);
+    }
+  }
+
+  /** Returns the permit exactly once, on the first {@code close()} of the connection. */
+  private Connection withPermit(Connection connection) {
+    AtomicBoolean released = new AtomicBoolean();
+    return (Connection)
+        Proxy.newProxyInstance(
+            Connection.class.getClassLoader(),
+            new Class<?>[] {Connection.class},
+            (proxy, method, args) -> {
+              if ("close".equals(method.getName()) && released.compareAndSet(false, true)) {
+                try {
+                  connection.close();
+                  return null;
+                } finally {
+                  permits.release();
+                }
+              }
+              try {
+                return method.invoke(connection, args);
+              } catch (InvocationTargetException ex) {
+                throw ex.getTargetException();
+              }
+            });
+  }
+}
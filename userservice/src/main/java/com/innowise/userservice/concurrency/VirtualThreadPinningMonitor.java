@@ -0,0 +1,95 @@
+package com.innowise.userservice.concurrency;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+
+/**
+ * Reports virtual threads that stay pinned to their carrier longer than a threshold, typically
+ * while blocking inside a {@code synchronized} block of a driver or library.
+ *
+ * <p>Listens to the {@code jdk.VirtualThreadPinned} JFR event in-process, records each occurrence
+ * in the {@code userservice.virtual_threads.pinned} timer tagged with the first application or
+ * library frame, and logs the stack once per frame.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+  static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+  private final MeterRegistry meterRegistry;
+  private final Duration threshold;
+
+  private RecordingStream stream;
+
+  @Override
+  public synchronized void start() {
+    stream = new RecordingStream();
+    stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+    stream.onEvent(PINNED_EVENT, this::onPinned);
+    stream.startAsync();
+    log.info("Monitoring virtual threads pinned for longer than {} ms", threshold.toMillis());
+  }
+
+  @Override
+  public synchronized void stop() {
+    if (stream != null) {
+      stream.close();
+      stream = null;
+    }
+  }
+
+  @Override
+  public synchronized boolean isRunning() {
+    return stream != null;
+  }
+
+  void onPinned(RecordedEvent event) {
+    String frame = pinningFrame(event);
+    Timer timer =
+        Timer.builder("userservice.virtual_threads.pinned")
+            .description("Time virtual threads spent pinned to their carrier thread")
+            .tag("frame", frame)
+            .register(meterRegistry);
+    if (timer.count() == 0 && event.getStackTrace() != null) {
+      log.warn(
+          "Virtual thread pinned for {} ms at {}:\n{}",
+          event.getDuration().toMillis(),
+          frame,
+          event.getStackTrace().getFrames().stream()
+              .limit(20)
+              .map(VirtualThreadPinningMonitor::format)
+              .reduce((left, right) -> left + "\n" + right)
+              .orElse(""));
+    }
+    timer.record(event.getDuration());
+  }
+
+  /** First frame outside the JDK, i.e. the code that blocked while pinned. */
+  private static String pinningFrame(RecordedEvent event) {
+    if (event.getStackTrace() == null) {
+      return "unknown";
+    }
+    return event.getStackTrace().getFrames().stream()
+        .filter(RecordedFrame::isJavaFrame)
+        .map(VirtualThreadPinningMonitor::methodName)
+        .filter(name -> !name.startsWith("java.") && !name.startsWith("jdk."))
+        .findFirst()
+        .orElse("jdk");
+  }
+
+  private static String methodName(RecordedFrame frame) {
+    return frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+  }
+
+  private static String format(RecordedFrame frame) {
+    return "\tat " + methodName(frame) + ":" + frame.getLineNumber();
+  }
+}
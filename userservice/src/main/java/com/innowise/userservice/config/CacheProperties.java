@@ -0,0 +1,85 @@
+package com.innowise.userservice.config;
+
+import com.innowise.userservice.cache.codec.CacheCodec;
+import com.innowise.userservice.cache.codec.JacksonCacheCodec;
+import com.innowise.userservice.cache.codec.JdkCacheCodec;
+import java.time.Duration;
+import java.util.function.Supplier;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "userservice.cache")
+public class CacheProperties {
+
+  /** Time to live of entries in the shared Redis tier. */
+  private Duration ttl = Duration.ofMinutes(30);
+
+  /** Encoding of values in the Redis tier. */
+  private Codec codec = Codec.SMILE;
+
+  /** Encoded values of at least this size are deflated in the Redis tier; 0 disables it. */
+  private DataSize compressionThreshold = DataSize.ofKilobytes(1);
+
+  private final Near near = new Near();
+
+  private final Stampede stampede = new Stampede();
+
+  @Getter
+  @Setter
+  public static class Near {
+
+    /** Whether an in-process tier is placed in front of Redis. */
+    private boolean enabled = true;
+
+    /** Maximum number of entries kept in-process per cache. */
+    private long maximumSize = 10_000;
+
+    /** Time to live of in-process entries, bounds staleness if an invalidation is lost. */
+    private Duration ttl = Duration.ofSeconds(30);
+
+    /**
+     * Time to live of in-process records that a key was not found, which spare lookups of unknown
+     * ids the trip to Redis and the database; 0 disables them.
+     */
+    private Duration negativeTtl = Duration.ofSeconds(5);
+
+    /** Redis pub/sub channel used to propagate evictions between replicas. */
+    private String invalidationChannel = "userservice:cache:invalidation";
+  }
+
+  @Getter
+  @Setter
+  public static class Stampede {
+
+    /** Largest share of the TTL by which entries expire early at random. */
+    private double ttlJitter = 0.1;
+
+    /** Eagerness of probabilistic early refresh, 1 as in XFetch; 0 disables it. */
+    private double earlyRefreshBeta = 1.0;
+
+    /** Longest time a replica holds the load lock of a key before others load it themselves. */
+    private Duration lockLease = Duration.ofSeconds(2);
+
+    /** How often replicas waiting for a locked key look for its value in Redis. */
+    private Duration lockPollInterval = Duration.ofMillis(20);
+  }
+
+  @RequiredArgsConstructor
+  public enum Codec {
+    SMILE(JacksonCacheCodec::smile),
+    CBOR(JacksonCacheCodec::cbor),
+    JSON(JacksonCacheCodec::json),
+    JDK(JdkCacheCodec::new);
+
+    private final Supplier<CacheCodec> factory;
+
+    public CacheCodec create() {
+      return factory.get();
+    }
+  }
+}
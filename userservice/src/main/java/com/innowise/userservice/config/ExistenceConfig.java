@@ -0,0 +1,78 @@
+package com.innowise.userservice.config;
+
+import com.innowise.userservice.existence.BloomFilter;
+import com.innowise.userservice.existence.ExistenceFilter;
+import com.innowise.userservice.existence.UserExistenceIndex;
+import com.innowise.userservice.existence.UserExistenceIndexLoader;
+import com.innowise.userservice.existence.UserExistenceListener;
+import com.innowise.userservice.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Existence index of users. With {@code userservice.existence.enabled=false} the index is never
+ * loaded nor maintained and answers that every user may exist.
+ */
+@Configuration
+@EnableConfigurationProperties(ExistenceProperties.class)
+public class ExistenceConfig {
+
+  @Bean
+  public UserExistenceIndex userExistenceIndex(
+      ExistenceProperties properties,
+      StringRedisTemplate stringRedisTemplate,
+      MeterRegistry meterRegistry) {
+    StringRedisTemplate mirror = properties.isRedisMirror() ? stringRedisTemplate : null;
+    return new UserExistenceIndex(
+        new ExistenceFilter("ids", filter(properties), mirror, meterRegistry),
+        new ExistenceFilter("emails", filter(properties), mirror, meterRegistry));
+  }
+
+  @Bean
+  @ConditionalOnProperty(
+      prefix = "userservice.existence",
+      name = "enabled",
+      havingValue = "true",
+      matchIfMissing = true)
+  public UserExistenceListener userExistenceListener(
+      UserExistenceIndex userExistenceIndex, EntityManagerFactory entityManagerFactory) {
+    UserExistenceListener listener = new UserExistenceListener(userExistenceIndex);
+    EventListenerRegistry listeners =
+        entityManagerFactory
+            .unwrap(SessionFactoryImplementor.class)
+            .getServiceRegistry()
+            .getService(EventListenerRegistry.class);
+    listeners.appendListeners(EventType.POST_INSERT, listener);
+    listeners.appendListeners(EventType.POST_UPDATE, listener);
+    return listener;
+  }
+
+  @Bean
+  @ConditionalOnProperty(
+      prefix = "userservice.existence",
+      name = "enabled",
+      havingValue = "true",
+      matchIfMissing = true)
+  @DependsOn("userExistenceListener")
+  public UserExistenceIndexLoader userExistenceIndexLoader(
+      UserRepository userRepository,
+      TransactionTemplate transactionTemplate,
+      UserExistenceIndex userExistenceIndex) {
+    return new UserExistenceIndexLoader(userRepository, transactionTemplate, userExistenceIndex);
+  }
+
+  private static BloomFilter filter(ExistenceProperties properties) {
+    return BloomFilter.create(
+        properties.getExpectedUsers(), properties.getFalsePositiveProbability());
+  }
+}
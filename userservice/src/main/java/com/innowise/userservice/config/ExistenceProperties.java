@@ -0,0 +1,23 @@
+package com.innowise.userservice.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "userservice.existence")
+public class ExistenceProperties {
+
+  /** Whether lookups of unknown users are answered by Bloom filters instead of the database. */
+  private boolean enabled = true;
+
+  /** Number of users the filters are sized for; beyond it false positives grow quickly. */
+  private long expectedUsers = 1_000_000;
+
+  /** Share of lookups of unknown users that still reach the database, at the expected size. */
+  private double falsePositiveProbability = 0.01;
+
+  /** Whether the filters are shared between replicas through Redis; required with several. */
+  private boolean redisMirror = true;
+}
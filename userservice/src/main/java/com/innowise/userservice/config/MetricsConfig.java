@@ -0,0 +1,50 @@
+package com.innowise.userservice.config;
+
+import com.innowise.userservice.cache.TwoTierCache;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.boot.actuate.metrics.cache.RedisCacheMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCache;
+
+/**
+ * Meters on top of the ones Spring Boot binds on its own. Percentile histograms and SLO buckets
+ * of all timers are configured under {@code management.metrics.distribution}.
+ *
+ * <ul>
+ *   <li>{@value #SERVICE_TIMER}: every public method of the {@code @Timed} service classes, tagged
+ *       by class, method and exception.
+ *   <li>{@code spring.data.repository.invocations}: every repository query, tagged by repository,
+ *       method, state and exception (Spring Boot).
+ *   <li>{@code cache.gets}, {@code cache.puts}, {@code cache.removals}: per cache, from the Redis
+ *       tier statistics, also behind the near cache; its own hits and misses per tier are in
+ *       {@code userservice.cache.requests}.
+ *   <li>{@code userservice.existence.checks}, {@code userservice.existence.false.positives} and
+ *       {@code userservice.existence.expected.fpp}: answers of the user existence filters, lookups
+ *       they let through that found nothing, and the false positive rate expected from their fill.
+ *   <li>{@code userservice.outbox.lag}: time from recording a change in the outbox to Kafka
+ *       acknowledging its event.
+ *   <li>{@code hikaricp.connections.acquire} and {@code hikaricp.connections.pending}: time spent
+ *       waiting for a pooled connection and the number of waiting threads, per pool (Spring Boot).
+ * </ul>
+ */
+@Configuration
+public class MetricsConfig {
+
+  public static final String SERVICE_TIMER = "userservice.service";
+
+  @Bean
+  public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+    return new TimedAspect(meterRegistry);
+  }
+
+  @Bean
+  public CacheMeterBinderProvider<TwoTierCache> twoTierCacheMeterBinderProvider() {
+    return (cache, tags) ->
+        cache.getRemote() instanceof RedisCache redisCache
+            ? new RedisCacheMetrics(redisCache, tags)
+            : null;
+  }
+}
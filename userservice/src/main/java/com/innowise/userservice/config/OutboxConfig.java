@@ -0,0 +1,87 @@
+package com.innowise.userservice.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.innowise.userservice.outbox.ChangeOutbox;
+import com.innowise.userservice.outbox.OutboxRelay;
+import com.innowise.userservice.repository.OutboxEventRepository;
+import com.innowise.userservice.repository.PaymentCardRepository;
+import com.innowise.userservice.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Change events of users and cards for other services to keep replicas from, through a
+ * transactional outbox. Off unless {@code userservice.outbox.enabled=true}, since it needs a
+ * reachable Kafka; while off no change is recorded and nothing connects to Kafka.
+ */
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(OutboxProperties.class)
+public class OutboxConfig {
+
+  @Bean
+  public ChangeOutbox changeOutbox(
+      OutboxEventRepository outboxEventRepository, OutboxProperties properties) {
+    return new ChangeOutbox(outboxEventRepository, properties.isEnabled());
+  }
+
+  @Bean
+  @ConditionalOnProperty(
+      prefix = "userservice.outbox",
+      name = "enabled",
+      havingValue = "true")
+  public OutboxRelay outboxRelay(
+      OutboxEventRepository outboxEventRepository,
+      UserRepository userRepository,
+      PaymentCardRepository paymentCardRepository,
+      ProducerFactory<String, String> producerFactory,
+      ObjectMapper objectMapper,
+      TransactionTemplate transactionTemplate,
+      OutboxProperties properties,
+      MeterRegistry meterRegistry) {
+    return new OutboxRelay(
+        outboxEventRepository,
+        userRepository,
+        paymentCardRepository,
+        producerFactory,
+        objectMapper,
+        transactionTemplate,
+        properties,
+        meterRegistry);
+  }
+
+  @Bean
+  @ConditionalOnProperty(
+      prefix = "userservice.outbox",
+      name = "enabled",
+      havingValue = "true")
+  public NewTopic userChangesTopic(OutboxProperties properties) {
+    return topic(properties.getUserTopic(), properties);
+  }
+
+  @Bean
+  @ConditionalOnProperty(
+      prefix = "userservice.outbox",
+      name = "enabled",
+      havingValue = "true")
+  public NewTopic cardChangesTopic(OutboxProperties properties) {
+    return topic(properties.getCardTopic(), properties);
+  }
+
+  /** Compacted, so that consumers can rebuild their replicas from the latest state per key. */
+  private static NewTopic topic(String name, OutboxProperties properties) {
+    return TopicBuilder.name(name)
+        .partitions(properties.getPartitions())
+        .replicas(properties.getReplicas())
+        .compact()
+        .build();
+  }
+}
@@ -0,0 +1,39 @@
+package com.innowise.userservice.config;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "userservice.outbox")
+public class OutboxProperties {
+
+  /** Whether changes of users and cards are recorded and published to Kafka. */
+  private boolean enabled;
+
+  /** Compacted topic of user states, keyed by user id. */
+  private String userTopic = "userservice.users";
+
+  /** Compacted topic of card states, keyed by user id and card id. */
+  private String cardTopic = "userservice.cards";
+
+  /**
+   * Partitions of each topic when created; keep them equal, so that the events of a user share a
+   * partition number.
+   */
+  private int partitions = 6;
+
+  /** Replicas of each partition when created. */
+  private int replicas = 1;
+
+  /** Outbox rows published per transaction of the relay. */
+  private int batchSize = 500;
+
+  /** Pause of the relay once the outbox is drained. */
+  private Duration pollInterval = Duration.ofMillis(500);
+
+  /** How long the relay waits for Kafka to acknowledge a batch before retrying it. */
+  private Duration sendTimeout = Duration.ofSeconds(45);
+}
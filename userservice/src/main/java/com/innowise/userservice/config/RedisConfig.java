@@ -1,6 +1,25 @@
 package com.innowise.userservice.config;
 
-import java.time.Duration;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.innowise.userservice.cache.BatchCacheEvictor;
+import com.innowise.userservice.cache.BatchCacheLoader;
+import com.innowise.userservice.cache.CacheInvalidationListener;
+import com.innowise.userservice.cache.CacheExpiry;
+import com.innowise.userservice.cache.CacheInvalidationPublisher;
+import com.innowise.userservice.cache.RedisLoadLock;
+import com.innowise.userservice.cache.TwoTierCacheManager;
+import com.innowise.userservice.cache.codec.CacheCodec;
+import com.innowise.userservice.cache.codec.CodecRedisSerializer;
+import com.innowise.userservice.cache.codec.UserJsonCacheCodec;
+import com.innowise.userservice.model.dto.PaymentCardDto;
+import com.innowise.userservice.model.dto.UserDto;
+import com.innowise.userservice.model.dto.UserJsonDto;
+import com.innowise.userservice.model.dto.UserWithCardsDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.HashMap;
+import java.util.Map;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
@@ -9,33 +28,162 @@ import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 @Configuration
 @EnableCaching
+@EnableConfigurationProperties(CacheProperties.class)
 public class RedisConfig {
 
+  /**
+   * Value type of every cache. Values are stored without type information, so each cache is
+   * decoded into its own type; caches missing here fall back to Java serialization.
+   */
+  private static final Map<String, Class<?>> CACHE_VALUE_TYPES =
+      Map.of(
+          "users", UserDto.class,
+          "userWithCards", UserWithCardsDto.class,
+          "cards", PaymentCardDto.class);
+
   @Bean
-  public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
+  public RedisTemplate<String, Object> redisTemplate(
+      RedisConnectionFactory connectionFactory, ObjectMapper objectMapper) {
     RedisTemplate<String, Object> template = new RedisTemplate<>();
     template.setConnectionFactory(connectionFactory);
 
     template.setKeySerializer(new StringRedisSerializer());
-    template.setValueSerializer(new Jackson2JsonRedisSerializer<>(Object.class));
+    template.setValueSerializer(new Jackson2JsonRedisSerializer<>(objectMapper, Object.class));
     template.setHashKeySerializer(new StringRedisSerializer());
-    template.setHashValueSerializer(new Jackson2JsonRedisSerializer<>(Object.class));
+    template.setHashValueSerializer(new Jackson2JsonRedisSerializer<>(objectMapper, Object.class));
 
     return template;
   }
 
   @Bean
-  public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
-    return RedisCacheManager.builder(connectionFactory)
-        .cacheDefaults(
-            RedisCacheConfiguration.defaultCacheConfig()
-                .entryTtl(Duration.ofMinutes(30))
-                .disableCachingNullValues())
-        .build();
+  public CacheInvalidationPublisher cacheInvalidationPublisher(
+      StringRedisTemplate stringRedisTemplate,
+      ObjectMapper objectMapper,
+      CacheProperties cacheProperties) {
+    return new CacheInvalidationPublisher(
+        stringRedisTemplate, objectMapper, cacheProperties.getNear().getInvalidationChannel());
+  }
+
+  @Bean
+  public CacheExpiry cacheExpiry(CacheProperties cacheProperties) {
+    CacheProperties.Stampede stampede = cacheProperties.getStampede();
+    return new CacheExpiry(
+        cacheProperties.getTtl(), stampede.getTtlJitter(), stampede.getEarlyRefreshBeta());
+  }
+
+  @Bean
+  public RedisLoadLock redisLoadLock(
+      StringRedisTemplate stringRedisTemplate, CacheProperties cacheProperties) {
+    CacheProperties.Stampede stampede = cacheProperties.getStampede();
+    return new RedisLoadLock(
+        stringRedisTemplate, stampede.getLockLease(), stampede.getLockPollInterval());
+  }
+
+  /**
+   * Defaults of all Redis caches. The key prefix contains the codec, so switching codecs starts
+   * from empty caches instead of failing to decode existing entries.
+   */
+  @Bean
+  public RedisCacheConfiguration redisCacheConfiguration(
+      CacheProperties cacheProperties, CacheExpiry cacheExpiry) {
+    String codec = cacheProperties.getCodec().name().toLowerCase();
+    return RedisCacheConfiguration.defaultCacheConfig()
+        .entryTtl(cacheExpiry)
+        .computePrefixWith(cacheName -> cacheName + ":" + codec + "::")
+        .disableCachingNullValues();
+  }
+
+  @Bean
+  public CacheManager cacheManager(
+      RedisConnectionFactory connectionFactory,
+      RedisCacheConfiguration redisCacheConfiguration,
+      CacheProperties cacheProperties,
+      CacheInvalidationPublisher cacheInvalidationPublisher,
+      CacheExpiry cacheExpiry,
+      RedisLoadLock redisLoadLock,
+      MeterRegistry meterRegistry) {
+    CacheCodec codec = cacheProperties.getCodec().create();
+    int compressionThreshold = (int) cacheProperties.getCompressionThreshold().toBytes();
+    Map<String, RedisCacheConfiguration> cacheConfigurations = new HashMap<>();
+    CACHE_VALUE_TYPES.forEach(
+        (name, type) ->
+            cacheConfigurations.put(
+                name,
+                redisCacheConfiguration.serializeValuesWith(
+                    SerializationPair.fromSerializer(
+                        new CodecRedisSerializer(
+                            name, codec, type, compressionThreshold, meterRegistry)))));
+    // Holds the encoded response body, stored as it is.
+    cacheConfigurations.put(
+        "userJson",
+        redisCacheConfiguration.serializeValuesWith(
+            SerializationPair.fromSerializer(
+                new CodecRedisSerializer(
+                    "userJson", new UserJsonCacheCodec(), UserJsonDto.class, 0, meterRegistry))));
+
+    RedisCacheManager redisCacheManager =
+        RedisCacheManager.builder(connectionFactory)
+            .cacheDefaults(redisCacheConfiguration)
+            .withInitialCacheConfigurations(cacheConfigurations)
+            .enableStatistics()
+            .build();
+    redisCacheManager.initializeCaches();
+
+    if (!cacheProperties.getNear().isEnabled()) {
+      return redisCacheManager;
+    }
+    return new TwoTierCacheManager(
+        redisCacheManager,
+        cacheProperties.getNear(),
+        cacheInvalidationPublisher,
+        cacheExpiry,
+        redisLoadLock,
+        meterRegistry);
+  }
+
+  @Bean
+  public BatchCacheEvictor batchCacheEvictor(
+      CacheManager cacheManager,
+      RedisCacheConfiguration redisCacheConfiguration,
+      StringRedisTemplate stringRedisTemplate,
+      CacheInvalidationPublisher cacheInvalidationPublisher) {
+    return new BatchCacheEvictor(
+        cacheManager, redisCacheConfiguration, stringRedisTemplate, cacheInvalidationPublisher);
+  }
+
+  @Bean
+  public BatchCacheLoader batchCacheLoader(
+      CacheManager cacheManager, StringRedisTemplate stringRedisTemplate, CacheExpiry cacheExpiry) {
+    return new BatchCacheLoader(cacheManager, stringRedisTemplate, cacheExpiry);
+  }
+
+  @Bean
+  @ConditionalOnProperty(
+      prefix = "userservice.cache.near",
+      name = "enabled",
+      havingValue = "true",
+      matchIfMissing = true)
+  public RedisMessageListenerContainer cacheInvalidationListenerContainer(
+      RedisConnectionFactory connectionFactory,
+      CacheManager cacheManager,
+      ObjectMapper objectMapper,
+      CacheInvalidationPublisher cacheInvalidationPublisher,
+      CacheProperties cacheProperties) {
+    RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+    container.setConnectionFactory(connectionFactory);
+    container.addMessageListener(
+        new CacheInvalidationListener(
+            cacheManager, objectMapper, cacheInvalidationPublisher.getOrigin()),
+        new ChannelTopic(cacheProperties.getNear().getInvalidationChannel()));
+    return container;
   }
 }
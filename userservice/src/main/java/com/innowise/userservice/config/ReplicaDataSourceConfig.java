@@ -0,0 +1,109 @@
+package com.innowise.userservice.config;
+
+import com.innowise.userservice.datasource.ReadReplicaRoutingDataSource;
+import com.innowise.userservice.datasource.Replica;
+import com.innowise.userservice.datasource.ReplicaLagMonitor;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Replaces the auto-configured data source with a primary pool and one pool per read replica
+ * when {@code userservice.datasource.replica.enabled} is set. Read-only transactions go to a
+ * replica that is not lagging, everything else to the primary.
+ *
+ * <p>All pools take their settings from {@code spring.datasource.hikari}, are named {@code
+ * primary} and {@code replica-N}, and publish the usual {@code hikaricp.*} metrics with that name
+ * as the {@code pool} tag.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "userservice.datasource.replica", name = "enabled")
+@EnableConfigurationProperties(ReplicaProperties.class)
+@EnableScheduling
+@RequiredArgsConstructor
+public class ReplicaDataSourceConfig {
+
+  private static final String HIKARI_PREFIX = "spring.datasource.hikari";
+
+  private final Environment environment;
+  private final MeterRegistry meterRegistry;
+  private final ObjectProvider<ThreadingProperties> threadingProperties;
+
+  @Bean
+  public ReadReplicaRoutingDataSource readReplicaRoutingDataSource(
+      DataSourceProperties dataSourceProperties, ReplicaProperties replicaProperties) {
+    HikariDataSource primary =
+        configure(
+            dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build(),
+            ReadReplicaRoutingDataSource.PRIMARY);
+
+    List<Replica> replicas = new ArrayList<>();
+    for (int i = 0; i < replicaProperties.getUrls().size(); i++) {
+      HikariDataSource pool =
+          configure(
+              dataSourceProperties
+                  .initializeDataSourceBuilder()
+                  .type(HikariDataSource.class)
+                  .url(replicaProperties.getUrls().get(i))
+                  .username(
+                      replicaProperties.getUsername() != null
+                          ? replicaProperties.getUsername()
+                          : dataSourceProperties.determineUsername())
+                  .password(
+                      replicaProperties.getPassword() != null
+                          ? replicaProperties.getPassword()
+                          : dataSourceProperties.determinePassword())
+                  .build(),
+              "replica-" + (i + 1));
+      pool.setReadOnly(true);
+      replicas.add(new Replica(pool.getPoolName(), limit(pool)));
+    }
+    return new ReadReplicaRoutingDataSource(limit(primary), replicas);
+  }
+
+  @Bean
+  @Primary
+  public DataSource dataSource(ReadReplicaRoutingDataSource readReplicaRoutingDataSource) {
+    return new LazyConnectionDataSourceProxy(readReplicaRoutingDataSource);
+  }
+
+  @Bean
+  public ReplicaLagMonitor replicaLagMonitor(
+      ReadReplicaRoutingDataSource readReplicaRoutingDataSource,
+      ReplicaProperties replicaProperties) {
+    return new ReplicaLagMonitor(
+        readReplicaRoutingDataSource.getReplicas(), replicaProperties.getMaxLag(), meterRegistry);
+  }
+
+  private HikariDataSource configure(HikariDataSource pool, String name) {
+    Binder.get(environment).bind(HIKARI_PREFIX, Bindable.ofInstance(pool));
+    pool.setPoolName(name);
+    pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+    return pool;
+  }
+
+  /** Pools are not beans here, so the virtual-thread connection limit is applied directly. */
+  private DataSource limit(HikariDataSource pool) {
+    if (!Threading.VIRTUAL.isActive(environment)) {
+      return pool;
+    }
+    return VirtualThreadConfig.limit(pool, threadingProperties.getObject());
+  }
+}
@@ -0,0 +1,35 @@
+package com.innowise.userservice.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "userservice.datasource.replica")
+public class ReplicaProperties {
+
+  /** Whether read-only transactions are routed to the replicas. */
+  private boolean enabled;
+
+  /** JDBC URLs of the replicas; each gets its own pool tuned like the primary one. */
+  private List<String> urls = new ArrayList<>();
+
+  /** Replica login user; defaults to the primary one. */
+  private String username;
+
+  /** Replica login password; defaults to the primary one. */
+  private String password;
+
+  /**
+   * Replicas lagging further behind are skipped until they catch up. Uncached list and search
+   * reads may be this stale; reads that populate a cache always go to the primary.
+   */
+  private Duration maxLag = Duration.ofSeconds(5);
+
+  /** Delay between two lag checks. */
+  private Duration lagCheckInterval = Duration.ofSeconds(5);
+}
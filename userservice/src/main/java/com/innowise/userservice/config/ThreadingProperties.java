@@ -0,0 +1,24 @@
+package com.innowise.userservice.config;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/** Tuning of the virtual-thread mode, enabled with {@code spring.threads.virtual.enabled}. */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "userservice.threads")
+public class ThreadingProperties {
+
+  /** Connections handed out concurrently per pool; defaults to the maximum size of the pool. */
+  private Integer maxConcurrentConnections;
+
+  /**
+   * Longest wait for a connection permit; defaults to the connection timeout of the Hikari pool.
+   */
+  private Duration connectionPermitTimeout;
+
+  /** Pinned virtual threads are reported once they stay pinned for this long. */
+  private Duration pinnedThreshold = Duration.ofMillis(20);
+}
@@ -0,0 +1,78 @@
+package com.innowise.userservice.config;
+
+import com.innowise.userservice.concurrency.ConnectionLimitingDataSource;
+import com.innowise.userservice.concurrency.VirtualThreadPinningMonitor;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.sql.SQLException;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Additions for {@code spring.threads.virtual.enabled=true}. Spring Boot already moves Tomcat,
+ * the {@code applicationTaskExecutor} (used by {@code @Async} and async MVC requests such as the
+ * import and export streams) and the task scheduler onto virtual threads; this bounds how many of
+ * them may hold a database connection and reports carrier pinning.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+@EnableConfigurationProperties(ThreadingProperties.class)
+public class VirtualThreadConfig {
+
+  @Bean
+  static BeanPostProcessor connectionLimitingDataSourcePostProcessor(
+      ObjectProvider<ThreadingProperties> properties) {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof HikariDataSource hikari)) {
+          return bean;
+        }
+        ConnectionLimitingDataSource limited = limit(hikari, properties.getObject());
+        log.info(
+            "Limiting data source {} to {} concurrent connections",
+            beanName,
+            limited.getMaxConnections());
+        return limited;
+      }
+    };
+  }
+
+  /** Also applied by {@link ReplicaDataSourceConfig} to each of its pools. */
+  static ConnectionLimitingDataSource limit(HikariDataSource pool, ThreadingProperties threading) {
+    return ConnectionLimitingDataSource.forPool(
+        pool, threading.getMaxConcurrentConnections(), threading.getConnectionPermitTimeout());
+  }
+
+  @Bean
+  public MeterBinder connectionPermitMetrics(DataSource dataSource) throws SQLException {
+    if (!dataSource.isWrapperFor(ConnectionLimitingDataSource.class)) {
+      return registry -> {};
+    }
+    ConnectionLimitingDataSource limited = dataSource.unwrap(ConnectionLimitingDataSource.class);
+    return registry -> {
+      Gauge.builder("userservice.datasource.permits.available", limited::getAvailablePermits)
+          .description("Connection permits currently free")
+          .register(registry);
+      Gauge.builder("userservice.datasource.permits.waiting", limited::getWaitingThreads)
+          .description("Threads waiting for a connection permit")
+          .register(registry);
+    };
+  }
+
+  @Bean
+  public VirtualThreadPinningMonitor virtualThreadPinningMonitor(
+      MeterRegistry meterRegistry, ThreadingProperties properties) {
+    return new VirtualThreadPinningMonitor(meterRegistry, properties.getPinnedThreshold());
+  }
+}
@@ -17,4 +17,11 @@ public class ApiConstant {
   public static final String CARD_ID_PATH = ID_PATH;
 
   public static final String USER_CARDS_OPERATIONS = "/{userId}/cards";
+
+  public static final String SCROLL_PATH = "/scroll";
+  public static final String IMPORT_PATH = "/import";
+  public static final String EXPORT_PATH = "/export";
+  public static final String BATCH_PATH = "/batch";
+  public static final String STATUS_PATH = "/status";
+  public static final String STATUS_FILTER_PATH = STATUS_PATH + "/filter";
 }
@@ -1,10 +1,17 @@
 package com.innowise.userservice.controller;
 
 import com.innowise.userservice.mapper.PaymentCardMapper;
+import com.innowise.userservice.model.DataFormat;
+import com.innowise.userservice.model.dto.BatchLookupDto;
+import com.innowise.userservice.model.dto.BulkStatusUpdateDto;
+import com.innowise.userservice.model.dto.BulkStatusUpdateResultDto;
+import com.innowise.userservice.model.dto.CursorPageDto;
 import com.innowise.userservice.model.dto.PaymentCardDto;
 import com.innowise.userservice.model.dto.StatusUpdateDto;
 import com.innowise.userservice.model.entity.PaymentCard;
+import com.innowise.userservice.repository.specification.KeysetCursor;
 import com.innowise.userservice.service.CardService;
+import com.innowise.userservice.service.ExportService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -13,12 +20,17 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import java.util.List;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping(ApiConstant.CARDS_BASE)
@@ -29,6 +41,7 @@ public class CardController {
 
   private final CardService cardService;
   private final PaymentCardMapper cardMapper;
+  private final ExportService exportService;
 
   @Operation(summary = "Get all by filters", description = "Returns payment card information")
   @ApiResponse(
@@ -50,9 +63,68 @@ public class CardController {
       @RequestParam(required = false) Boolean active,
       Pageable pageable) {
 
-    Page<PaymentCard> cards = cardService.getAllCards(holder, number, active, pageable);
-    Page<PaymentCardDto> responseDtos = cards.map(cardMapper::cardToCardDto);
-    return ResponseEntity.ok(responseDtos);
+    return ResponseEntity.ok(cardService.getAllCardDtos(holder, number, active, pageable));
+  }
+
+  @Operation(
+      summary = "Export cards",
+      description =
+          "Streams every payment card as NDJSON or CSV (with header) straight from a database"
+              + " cursor, in id order")
+  @ApiResponse(responseCode = "200", description = "Export stream")
+  @GetMapping(
+      value = ApiConstant.EXPORT_PATH,
+      produces = {DataFormat.NDJSON_VALUE, DataFormat.CSV_VALUE})
+  public ResponseEntity<StreamingResponseBody> exportCards(
+      @Parameter(description = "Output format") @RequestParam(defaultValue = "NDJSON")
+          DataFormat format) {
+
+    StreamingResponseBody body = output -> exportService.exportCards(format, output);
+    return ResponseEntity.ok()
+        .contentType(format.getMediaType())
+        .header(
+            HttpHeaders.CONTENT_DISPOSITION,
+            ContentDisposition.attachment()
+                .filename("cards." + format.name().toLowerCase())
+                .build()
+                .toString())
+        .body(body);
+  }
+
+  @Operation(
+      summary = "Scroll cards by filters",
+      description =
+          "Returns a cursor paginated slice of payment cards without total count. Pass nextCursor"
+              + " of the previous response to continue; sortBy and direction are then taken from"
+              + " it")
+  @ApiResponse(
+      responseCode = "200",
+      description = "Cards found",
+      content = @Content(schema = @Schema(implementation = CursorPageDto.class)))
+  @ApiResponse(
+      responseCode = "400",
+      description = "Invalid cursor, sort field or page size",
+      content = @Content(schema = @Schema(implementation = String.class)))
+  @GetMapping(ApiConstant.SCROLL_PATH)
+  public ResponseEntity<CursorPageDto<PaymentCardDto>> scrollCardsWithFilters(
+      @RequestParam(required = false) String holder,
+      @RequestParam(required = false) String number,
+      @RequestParam(required = false) Boolean active,
+      @Parameter(description = "Cursor returned by the previous page")
+          @RequestParam(required = false)
+          String cursor,
+      @Parameter(description = "Sort field: id, holder or number")
+          @RequestParam(defaultValue = "id")
+          String sortBy,
+      @Parameter(description = "Sort direction") @RequestParam(defaultValue = "ASC")
+          Sort.Direction direction,
+      @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size) {
+
+    KeysetCursor keysetCursor =
+        cursor != null ? KeysetCursor.decode(cursor) : KeysetCursor.first(sortBy, direction);
+    CursorPageDto<PaymentCard> cards =
+        cardService.getCardsByCursor(holder, number, active, keysetCursor, size);
+    return ResponseEntity.ok(cards.map(cardMapper::cardToCardDto));
   }
 
   @Operation(summary = "Get card by ID", description = "Returns payment card information by ID")
@@ -60,6 +132,10 @@ public class CardController {
       responseCode = "200",
       description = "Card found",
       content = @Content(schema = @Schema(implementation = PaymentCardDto.class)))
+  @ApiResponse(
+      responseCode = "304",
+      description = "Not modified since the given ETag or date",
+      content = @Content)
   @ApiResponse(
       responseCode = "404",
       description = "Card not found",
@@ -69,9 +145,30 @@ public class CardController {
       @Parameter(description = "ID of the card to retrieve", required = true) @PathVariable("id")
           Long id) {
 
-    PaymentCard card = cardService.getCardById(id);
-    PaymentCardDto responseDto = cardMapper.cardToCardDto(card);
-    return ResponseEntity.ok(responseDto);
+    PaymentCardDto card = cardService.getCardDtoById(id);
+    return ResourceVersion.of(card.getId(), card.getUpdatedAt()).ok().body(card);
+  }
+
+  @Operation(
+      summary = "Get cards by IDs",
+      description =
+          "Returns the cards with the given IDs in request order, without unknown or repeated"
+              + " IDs. Cached cards are read in one round trip and the rest with one query")
+  @ApiResponse(
+      responseCode = "200",
+      description = "Cards found",
+      content =
+          @Content(array = @ArraySchema(schema = @Schema(implementation = PaymentCardDto.class))))
+  @ApiResponse(
+      responseCode = "400",
+      description = "Missing, null or too many IDs",
+      content = @Content(schema = @Schema(implementation = String.class)))
+  @PostMapping(ApiConstant.BATCH_PATH)
+  public ResponseEntity<List<PaymentCardDto>> getCardsByIds(
+      @Parameter(description = "IDs to retrieve", required = true) @Valid @RequestBody
+          BatchLookupDto batchLookupDto) {
+
+    return ResponseEntity.ok(cardService.getCardDtosByIds(batchLookupDto.getIds()));
   }
 
   @Operation(summary = "Update card", description = "Updates payment card information by ID")
@@ -139,4 +236,47 @@ public class CardController {
     PaymentCardDto responseDto = cardMapper.cardToCardDto(updatedCard);
     return ResponseEntity.ok(responseDto);
   }
+
+  @Operation(
+      summary = "Update card status in bulk",
+      description = "Sets the active status of the given cards; cards over the limit stay inactive")
+  @ApiResponse(
+      responseCode = "200",
+      description = "Statuses updated",
+      content = @Content(schema = @Schema(implementation = BulkStatusUpdateResultDto.class)))
+  @ApiResponse(
+      responseCode = "400",
+      description = "Invalid status data",
+      content = @Content(schema = @Schema(implementation = String.class)))
+  @PatchMapping(ApiConstant.STATUS_PATH)
+  public ResponseEntity<BulkStatusUpdateResultDto> updateCardStatuses(
+      @Parameter(description = "IDs and status to set", required = true) @Valid @RequestBody
+          BulkStatusUpdateDto bulkStatusUpdateDto) {
+
+    return ResponseEntity.ok(
+        cardService.updateCardStatuses(
+            bulkStatusUpdateDto.getIds(), bulkStatusUpdateDto.getActive()));
+  }
+
+  @Operation(
+      summary = "Update card status by filter",
+      description = "Sets the active status of matching cards; cards over the limit stay inactive")
+  @ApiResponse(
+      responseCode = "200",
+      description = "Statuses updated",
+      content = @Content(schema = @Schema(implementation = BulkStatusUpdateResultDto.class)))
+  @ApiResponse(
+      responseCode = "400",
+      description = "Invalid status data or empty filter",
+      content = @Content(schema = @Schema(implementation = String.class)))
+  @PatchMapping(ApiConstant.STATUS_FILTER_PATH)
+  public ResponseEntity<BulkStatusUpdateResultDto> updateCardStatusesByFilter(
+      @RequestParam(required = false) String holder,
+      @RequestParam(required = false) String number,
+      @Parameter(description = "Status update data", required = true) @Valid @RequestBody
+          StatusUpdateDto statusUpdateDto) {
+
+    return ResponseEntity.ok(
+        cardService.updateCardStatusesByFilter(holder, number, statusUpdateDto.getActive()));
+  }
 }
@@ -0,0 +1,85 @@
+package com.innowise.userservice.controller;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.function.Function;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Validators of a response for conditional GETs, derived from the {@code updatedAt} of the
+ * returned records. Cached snapshots carry it, so a request whose validators still match is
+ * answered with {@code 304 Not Modified} before the body is written and, on a cache hit, without
+ * a query.
+ *
+ * <p>The entity tag of a record combines its id and last update. The one of a collection combines
+ * those of its records independent of their order, so adding, removing or updating any record
+ * changes it. Times are compared at the microsecond precision the database stores.
+ *
+ * <p>A collection has no last modification time: deleting a record leaves no later update behind,
+ * so {@code If-Modified-Since} would keep answering {@code 304} with the deleted record.
+ *
+ * @param eTag strong entity tag, or {@code null} if a record has no update time
+ * @param lastModified last update of the record, or {@code null} if unknown or a collection
+ */
+record ResourceVersion(String eTag, Instant lastModified) {
+
+  private static final ResourceVersion UNKNOWN = new ResourceVersion(null, null);
+
+  static ResourceVersion of(Long id, LocalDateTime updatedAt) {
+    if (updatedAt == null) {
+      return UNKNOWN;
+    }
+    LocalDateTime updated = updatedAt.truncatedTo(ChronoUnit.MICROS);
+    return new ResourceVersion(
+        Long.toHexString(id) + "-" + Long.toHexString(epochMicros(updated)), instant(updated));
+  }
+
+  static <T> ResourceVersion ofAll(
+      Collection<T> records, Function<T, Long> id, Function<T, LocalDateTime> updatedAt) {
+    long hash = 0;
+    for (T record : records) {
+      if (updatedAt.apply(record) == null) {
+        return UNKNOWN;
+      }
+      LocalDateTime updated = updatedAt.apply(record).truncatedTo(ChronoUnit.MICROS);
+      hash += mix(id.apply(record), epochMicros(updated));
+    }
+    return new ResourceVersion(records.size() + "-" + Long.toHexString(hash), null);
+  }
+
+  /**
+   * Starts a {@code 200 OK} carrying the validators. Spring MVC turns it into a {@code 304} without
+   * writing the body when the request's {@code If-None-Match} or {@code If-Modified-Since} match.
+   */
+  ResponseEntity.BodyBuilder ok() {
+    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+    if (eTag != null) {
+      response.eTag(eTag);
+    }
+    if (lastModified != null) {
+      response.lastModified(lastModified);
+    }
+    return response;
+  }
+
+  private static long epochMicros(LocalDateTime time) {
+    return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1_000;
+  }
+
+  /** Audit times are written in the zone of the application. */
+  private static Instant instant(LocalDateTime time) {
+    return time.atZone(ZoneId.systemDefault()).toInstant();
+  }
+
+  /** Spreads the record into all 64 bits, so that sums of different records rarely collide. */
+  private static long mix(long id, long micros) {
+    long hash = id * 0x9E3779B97F4A7C15L + micros;
+    hash = (hash ^ (hash >>> 30)) * 0xBF58476D1CE4E5B9L;
+    hash = (hash ^ (hash >>> 27)) * 0x94D049BB133111EBL;
+    return hash ^ (hash >>> 31);
+  }
+}
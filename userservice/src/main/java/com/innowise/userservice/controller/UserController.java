@@ -1,13 +1,26 @@
 package com.innowise.userservice.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.innowise.userservice.mapper.PaymentCardMapper;
 import com.innowise.userservice.mapper.UserMapper;
+import com.innowise.userservice.model.DataFormat;
+import com.innowise.userservice.model.dto.BatchLookupDto;
+import com.innowise.userservice.model.dto.BulkStatusUpdateDto;
+import com.innowise.userservice.model.dto.BulkStatusUpdateResultDto;
+import com.innowise.userservice.model.dto.CursorPageDto;
 import com.innowise.userservice.model.dto.PaymentCardDto;
 import com.innowise.userservice.model.dto.StatusUpdateDto;
 import com.innowise.userservice.model.dto.UserDto;
+import com.innowise.userservice.model.dto.UserImportResultDto;
+import com.innowise.userservice.model.dto.UserJsonDto;
 import com.innowise.userservice.model.entity.PaymentCard;
 import com.innowise.userservice.model.entity.User;
+import com.innowise.userservice.repository.specification.KeysetCursor;
 import com.innowise.userservice.service.CardService;
+import com.innowise.userservice.service.ExportService;
+import com.innowise.userservice.service.UserImportService;
 import com.innowise.userservice.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -17,15 +30,24 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping(ApiConstant.USERS_BASE)
@@ -38,6 +60,12 @@ public class UserController {
   private final UserMapper userMapper;
   private final CardService cardService;
   private final PaymentCardMapper cardMapper;
+  private final UserImportService userImportService;
+  private final ExportService exportService;
+  private final ObjectMapper objectMapper;
+
+  @Value("${userservice.cache.response-bytes:false}")
+  private boolean cachedResponseBytes;
 
   @Operation(summary = "Create new user", description = "Creates a new user in the system")
   @ApiResponse(
@@ -60,23 +88,118 @@ public class UserController {
     return ResponseEntity.status(HttpStatus.CREATED).body(responseDto);
   }
 
+  @Operation(
+      summary = "Import users",
+      description =
+          "Creates users from an NDJSON or CSV (with header) upload. Rows are processed in"
+              + " chunks and an NDJSON report with one line per row is streamed back while the"
+              + " upload is being processed")
+  @ApiResponse(
+      responseCode = "200",
+      description = "Import processed, see per-row statuses",
+      content =
+          @Content(
+              mediaType = DataFormat.NDJSON_VALUE,
+              schema = @Schema(implementation = UserImportResultDto.class)))
+  @ApiResponse(
+      responseCode = "415",
+      description = "Unsupported upload format",
+      content = @Content(schema = @Schema(implementation = String.class)))
+  @PostMapping(
+      value = ApiConstant.IMPORT_PATH,
+      consumes = {DataFormat.NDJSON_VALUE, DataFormat.CSV_VALUE},
+      produces = DataFormat.NDJSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> importUsers(
+      @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType, InputStream body) {
+
+    DataFormat format = DataFormat.fromContentType(contentType);
+    StreamingResponseBody report =
+        output -> {
+          try (SequenceWriter writer =
+              objectMapper
+                  .writer()
+                  .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                  .withRootValueSeparator("\n")
+                  .writeValues(output)) {
+            userImportService.importUsers(body, format, result -> writeRow(writer, result));
+          }
+        };
+    return ResponseEntity.ok().contentType(DataFormat.NDJSON.getMediaType()).body(report);
+  }
+
+  @Operation(
+      summary = "Export users",
+      description =
+          "Streams every user as NDJSON or CSV (with header) straight from a database cursor,"
+              + " in id order")
+  @ApiResponse(responseCode = "200", description = "Export stream")
+  @GetMapping(
+      value = ApiConstant.EXPORT_PATH,
+      produces = {DataFormat.NDJSON_VALUE, DataFormat.CSV_VALUE})
+  public ResponseEntity<StreamingResponseBody> exportUsers(
+      @Parameter(description = "Output format") @RequestParam(defaultValue = "NDJSON")
+          DataFormat format) {
+
+    StreamingResponseBody body = output -> exportService.exportUsers(format, output);
+    return ResponseEntity.ok()
+        .contentType(format.getMediaType())
+        .header(
+            HttpHeaders.CONTENT_DISPOSITION,
+            ContentDisposition.attachment()
+                .filename("users." + format.name().toLowerCase())
+                .build()
+                .toString())
+        .body(body);
+  }
+
   @Operation(summary = "Get user by ID", description = "Returns user information by ID")
   @ApiResponse(
       responseCode = "200",
       description = "User found",
       content = @Content(schema = @Schema(implementation = UserDto.class)))
+  @ApiResponse(
+      responseCode = "304",
+      description = "Not modified since the given ETag or date",
+      content = @Content)
   @ApiResponse(
       responseCode = "404",
       description = "User not found",
       content = @Content(schema = @Schema(implementation = String.class)))
   @GetMapping(ApiConstant.USER_ID_PATH)
-  public ResponseEntity<UserDto> getUserById(
+  public ResponseEntity<?> getUserById(
       @Parameter(description = "ID of the user to retrieve", required = true) @PathVariable("id")
           Long id) {
 
-    User user = userService.getUserById(id);
-    UserDto userDto = userMapper.userToUserDto(user);
-    return ResponseEntity.ok(userDto);
+    if (cachedResponseBytes) {
+      UserJsonDto json = userService.getUserJsonById(id);
+      return ResourceVersion.of(json.getId(), json.getUpdatedAt())
+          .ok()
+          .contentType(MediaType.APPLICATION_JSON)
+          .body(json.getBody());
+    }
+    UserDto user = userService.getUserDtoById(id);
+    return ResourceVersion.of(user.getId(), user.getUpdatedAt()).ok().body(user);
+  }
+
+  @Operation(
+      summary = "Get users by IDs",
+      description =
+          "Returns the users with the given IDs in request order, without unknown or repeated"
+              + " IDs. Cached users are read in one round trip and the rest with one query")
+  @ApiResponse(
+      responseCode = "200",
+      description = "Users found",
+      content = @Content(array = @ArraySchema(schema = @Schema(implementation = UserDto.class))))
+  @ApiResponse(
+      responseCode = "400",
+      description = "Missing, null or too many IDs",
+      content = @Content(schema = @Schema(implementation = String.class)))
+  @PostMapping(ApiConstant.BATCH_PATH)
+  public ResponseEntity<List<UserDto>> getUsersByIds(
+      @Parameter(description = "IDs to retrieve", required = true) @Valid @RequestBody
+          BatchLookupDto batchLookupDto) {
+
+    return ResponseEntity.ok(userService.getUserDtosByIds(batchLookupDto.getIds()));
   }
 
   @Operation(summary = "Get all users", description = "Returns paginated list of users")
@@ -90,9 +213,40 @@ public class UserController {
       @Parameter(description = "Filter by surname") @RequestParam(required = false) String surname,
       @Parameter(description = "Pagination parameters") @ParameterObject Pageable pageable) {
 
-    Page<User> users = userService.getAllUsers(name, surname, pageable);
-    Page<UserDto> userDtos = users.map(userMapper::userToUserDto);
-    return ResponseEntity.ok(userDtos);
+    return ResponseEntity.ok(userService.getAllUserDtos(name, surname, pageable));
+  }
+
+  @Operation(
+      summary = "Scroll users",
+      description =
+          "Returns a cursor paginated slice of users without total count. Pass nextCursor of the"
+              + " previous response to continue; sortBy and direction are then taken from it")
+  @ApiResponse(
+      responseCode = "200",
+      description = "Users retrieved successfully",
+      content = @Content(schema = @Schema(implementation = CursorPageDto.class)))
+  @ApiResponse(
+      responseCode = "400",
+      description = "Invalid cursor, sort field or page size",
+      content = @Content(schema = @Schema(implementation = String.class)))
+  @GetMapping(ApiConstant.SCROLL_PATH)
+  public ResponseEntity<CursorPageDto<UserDto>> scrollUsers(
+      @Parameter(description = "Filter by name") @RequestParam(required = false) String name,
+      @Parameter(description = "Filter by surname") @RequestParam(required = false) String surname,
+      @Parameter(description = "Cursor returned by the previous page")
+          @RequestParam(required = false)
+          String cursor,
+      @Parameter(description = "Sort field: id, name, surname or email")
+          @RequestParam(defaultValue = "id")
+          String sortBy,
+      @Parameter(description = "Sort direction") @RequestParam(defaultValue = "ASC")
+          Sort.Direction direction,
+      @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size) {
+
+    KeysetCursor keysetCursor =
+        cursor != null ? KeysetCursor.decode(cursor) : KeysetCursor.first(sortBy, direction);
+    CursorPageDto<User> users = userService.getUsersByCursor(name, surname, keysetCursor, size);
+    return ResponseEntity.ok(users.map(userMapper::userToUserDto));
   }
 
   @Operation(summary = "Update user", description = "Updates user information by ID")
@@ -158,6 +312,10 @@ public class UserController {
       description = "Cards successfully retrieved",
       content =
           @Content(array = @ArraySchema(schema = @Schema(implementation = PaymentCardDto.class))))
+  @ApiResponse(
+      responseCode = "304",
+      description = "Not modified since the given ETag or date",
+      content = @Content)
   @ApiResponse(
       responseCode = "404",
       description = "User not found",
@@ -168,9 +326,11 @@ public class UserController {
           @PathVariable("userId")
           Long userId) {
 
-    List<PaymentCard> cards = cardService.getCardsByUserId(userId);
-    List<PaymentCardDto> responseDtos = cards.stream().map(cardMapper::cardToCardDto).toList();
-    return ResponseEntity.ok(responseDtos);
+    List<PaymentCardDto> cards =
+        cardService.getCardViewsByUserId(userId).stream().map(cardMapper::viewToCardDto).toList();
+    return ResourceVersion.ofAll(cards, PaymentCardDto::getId, PaymentCardDto::getUpdatedAt)
+        .ok()
+        .body(cards);
   }
 
   @Operation(summary = "Delete user", description = "Deletes user by ID")
@@ -212,4 +372,55 @@ public class UserController {
     UserDto responseDto = userMapper.userToUserDto(updatedUser);
     return ResponseEntity.ok(responseDto);
   }
+
+  @Operation(
+      summary = "Update user status in bulk",
+      description = "Sets the active status of the users with the given IDs")
+  @ApiResponse(
+      responseCode = "200",
+      description = "Statuses updated",
+      content = @Content(schema = @Schema(implementation = BulkStatusUpdateResultDto.class)))
+  @ApiResponse(
+      responseCode = "400",
+      description = "Invalid status data",
+      content = @Content(schema = @Schema(implementation = String.class)))
+  @PatchMapping(ApiConstant.STATUS_PATH)
+  public ResponseEntity<BulkStatusUpdateResultDto> updateUserStatuses(
+      @Parameter(description = "IDs and status to set", required = true) @Valid @RequestBody
+          BulkStatusUpdateDto bulkStatusUpdateDto) {
+
+    return ResponseEntity.ok(
+        userService.updateUserStatuses(
+            bulkStatusUpdateDto.getIds(), bulkStatusUpdateDto.getActive()));
+  }
+
+  @Operation(
+      summary = "Update user status by filter",
+      description = "Sets the active status of every user matching the filter")
+  @ApiResponse(
+      responseCode = "200",
+      description = "Statuses updated",
+      content = @Content(schema = @Schema(implementation = BulkStatusUpdateResultDto.class)))
+  @ApiResponse(
+      responseCode = "400",
+      description = "Invalid status data or empty filter",
+      content = @Content(schema = @Schema(implementation = String.class)))
+  @PatchMapping(ApiConstant.STATUS_FILTER_PATH)
+  public ResponseEntity<BulkStatusUpdateResultDto> updateUserStatusesByFilter(
+      @RequestParam(required = false) String name,
+      @RequestParam(required = false) String surname,
+      @Parameter(description = "Status update data", required = true) @Valid @RequestBody
+          StatusUpdateDto statusUpdateDto) {
+
+    return ResponseEntity.ok(
+        userService.updateUserStatusesByFilter(name, surname, statusUpdateDto.getActive()));
+  }
+
+  private static void writeRow(SequenceWriter writer, UserImportResultDto result) {
+    try {
+      writer.write(result);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
 }
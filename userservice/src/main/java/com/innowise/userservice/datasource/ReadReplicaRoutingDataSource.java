@@ -0,0 +1,97 @@
+package com.innowise.userservice.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import javax.sql.DataSource;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends connections of read-only transactions to an available replica, round robin, and
+ * everything else to the primary.
+ *
+ * <p>The lookup happens when a physical connection is requested, so this must sit behind a {@link
+ * org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the transaction manager
+ * opens the connection before the read-only flag of the transaction is published, the proxy
+ * defers the physical connection to the first statement.
+ *
+ * <p>Replica reads may be up to {@code maxLag} behind the primary. That is fine for list and
+ * search queries, which are not cached, but not for loaders that populate a cache: a stale row or
+ * a "not found" for a user created a moment ago would be served until it expires. Those run their
+ * queries through {@link #onPrimary(Supplier)}.
+ */
+@Slf4j
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource
+    implements AutoCloseable {
+
+  public static final String PRIMARY = "primary";
+
+  private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = new ThreadLocal<>();
+
+  @Getter private final List<Replica> replicas;
+  private final AtomicInteger next = new AtomicInteger();
+
+  public ReadReplicaRoutingDataSource(DataSource primary, List<Replica> replicas) {
+    this.replicas = List.copyOf(replicas);
+    Map<Object, Object> targets = new HashMap<>();
+    targets.put(PRIMARY, primary);
+    replicas.forEach(replica -> targets.put(replica.getName(), replica.getDataSource()));
+    setTargetDataSources(targets);
+    setDefaultTargetDataSource(primary);
+    setLenientFallback(false);
+  }
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    if (replicas.isEmpty()
+        || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+        || PINNED_TO_PRIMARY.get() != null) {
+      return PRIMARY;
+    }
+    int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+    for (int i = 0; i < replicas.size(); i++) {
+      Replica replica = replicas.get((start + i) % replicas.size());
+      if (replica.isAvailable()) {
+        return replica.getName();
+      }
+    }
+    return PRIMARY;
+  }
+
+  /**
+   * Runs {@code action} with read-only transactions served by the primary. Only connections
+   * obtained inside {@code action} are affected, so the first statement of the transaction must
+   * be issued from it.
+   */
+  public static <T> T onPrimary(Supplier<T> action) {
+    if (PINNED_TO_PRIMARY.get() != null) {
+      return action.get();
+    }
+    PINNED_TO_PRIMARY.set(Boolean.TRUE);
+    try {
+      return action.get();
+    } finally {
+      PINNED_TO_PRIMARY.remove();
+    }
+  }
+
+  @Override
+  public void close() {
+    for (DataSource dataSource : getResolvedDataSources().values()) {
+      try {
+        if (dataSource.isWrapperFor(HikariDataSource.class)) {
+          dataSource.unwrap(HikariDataSource.class).close();
+        }
+      } catch (SQLException ex) {
+        log.warn("Could not close data source: {}", ex.getMessage());
+      }
+    }
+  }
+}
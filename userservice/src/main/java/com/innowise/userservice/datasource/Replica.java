@@ -0,0 +1,22 @@
+package com.innowise.userservice.datasource;
+
+import javax.sql.DataSource;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+/** A read replica pool and its last observed replication lag. */
+@Getter
+@Setter
+@RequiredArgsConstructor
+public class Replica {
+
+  private final String name;
+  private final DataSource dataSource;
+
+  /** Whether read-only transactions may be routed here; cleared while the replica lags. */
+  private volatile boolean available = true;
+
+  /** Last measured lag in milliseconds, or -1 if the replica could not be queried. */
+  private volatile long lagMillis;
+}
@@ -0,0 +1,80 @@
+package com.innowise.userservice.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Takes replicas out of read routing while their replication lag exceeds {@code maxLag} or they
+ * cannot be queried, and puts them back once they catch up.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+  /**
+   * Time since the last replayed transaction, or zero when everything received has been replayed,
+   * so an idle primary does not make the replica look stale. Zero on a server not in recovery.
+   */
+  static final String LAG_SQL =
+      "SELECT COALESCE(CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0"
+          + " ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000 END, 0)";
+
+  private final List<Replica> replicas;
+  private final Duration maxLag;
+
+  public ReplicaLagMonitor(List<Replica> replicas, Duration maxLag, MeterRegistry meterRegistry) {
+    this.replicas = replicas;
+    this.maxLag = maxLag;
+    for (Replica replica : replicas) {
+      Gauge.builder("userservice.datasource.replica.lag", replica, Replica::getLagMillis)
+          .description("Replication lag of the replica in milliseconds, -1 if unreachable")
+          .tag("replica", replica.getName())
+          .register(meterRegistry);
+      Gauge.builder(
+              "userservice.datasource.replica.available", replica, r -> r.isAvailable() ? 1 : 0)
+          .description("Whether read-only transactions are routed to the replica")
+          .tag("replica", replica.getName())
+          .register(meterRegistry);
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${userservice.datasource.replica.lag-check-interval:5s}")
+  public void check() {
+    replicas.forEach(this::check);
+  }
+
+  void check(Replica replica) {
+    long lagMillis;
+    try {
+      Number lag = new JdbcTemplate(replica.getDataSource()).queryForObject(LAG_SQL, Number.class);
+      lagMillis = lag != null ? lag.longValue() : 0;
+    } catch (RuntimeException ex) {
+      log.debug("Lag check of replica {} failed", replica.getName(), ex);
+      lagMillis = -1;
+    }
+    boolean available = lagMillis >= 0 && lagMillis <= maxLag.toMillis();
+
+    replica.setLagMillis(lagMillis);
+    if (available != replica.isAvailable()) {
+      if (available) {
+        log.info(
+            "Replica {} caught up ({} ms), routing reads to it again",
+            replica.getName(),
+            lagMillis);
+      } else if (lagMillis < 0) {
+        log.warn("Replica {} is unreachable, routing its reads to the primary", replica.getName());
+      } else {
+        log.warn(
+            "Replica {} lags {} ms (max {} ms), routing its reads to the primary",
+            replica.getName(),
+            lagMillis,
+            maxLag.toMillis());
+      }
+      replica.setAvailable(available);
+    }
+  }
+}
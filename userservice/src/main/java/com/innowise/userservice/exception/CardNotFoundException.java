@@ -1,6 +1,6 @@
 package com.innowise.userservice.exception;
 
-public class CardNotFoundException extends RuntimeException {
+public class CardNotFoundException extends NotFoundException {
 
   public CardNotFoundException(Long id) {
     super("Card not found with id: " + id);
@@ -19,7 +19,7 @@ public class GlobalExceptionHandler {
 
   @ExceptionHandler(UserNotFoundException.class)
   public ResponseEntity<ErrorResponse> handleUserNotFoundException(UserNotFoundException ex) {
-    log.error("User not found: {}", ex.getMessage());
+    log.debug("User not found: {}", ex.getMessage());
     ErrorResponse errorResponse =
         new ErrorResponse(
             HttpStatus.NOT_FOUND.value(), "User Not Found", ex.getMessage(), LocalDateTime.now());
@@ -28,7 +28,7 @@ public class GlobalExceptionHandler {
 
   @ExceptionHandler(CardNotFoundException.class)
   public ResponseEntity<ErrorResponse> handleCardNotFoundException(CardNotFoundException ex) {
-    log.error("Card not found: {}", ex.getMessage());
+    log.debug("Card not found: {}", ex.getMessage());
     ErrorResponse errorResponse =
         new ErrorResponse(
             HttpStatus.NOT_FOUND.value(), "Card Not Found", ex.getMessage(), LocalDateTime.now());
@@ -60,6 +60,28 @@ public class GlobalExceptionHandler {
     return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
   }
 
+  @ExceptionHandler(InvalidPaginationException.class)
+  public ResponseEntity<ErrorResponse> handleInvalidPaginationException(
+      InvalidPaginationException ex) {
+    log.warn("Invalid pagination request: {}", ex.getMessage());
+    ErrorResponse errorResponse =
+        new ErrorResponse(
+            HttpStatus.BAD_REQUEST.value(),
+            "Invalid Pagination Parameter",
+            ex.getMessage(),
+            LocalDateTime.now());
+    return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+  }
+
+  @ExceptionHandler(InvalidFilterException.class)
+  public ResponseEntity<ErrorResponse> handleInvalidFilterException(InvalidFilterException ex) {
+    log.warn("Invalid filter: {}", ex.getMessage());
+    ErrorResponse errorResponse =
+        new ErrorResponse(
+            HttpStatus.BAD_REQUEST.value(), "Invalid Filter", ex.getMessage(), LocalDateTime.now());
+    return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+  }
+
   @ExceptionHandler(MethodArgumentNotValidException.class)
   public ResponseEntity<ValidationErrorResponse> handleValidationExceptions(
       MethodArgumentNotValidException ex) {
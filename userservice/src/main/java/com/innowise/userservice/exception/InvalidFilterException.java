@@ -0,0 +1,8 @@
+package com.innowise.userservice.exception;
+
+public class InvalidFilterException extends RuntimeException {
+
+  public InvalidFilterException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,8 @@
+package com.innowise.userservice.exception;
+
+public class InvalidPaginationException extends RuntimeException {
+
+  public InvalidPaginationException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,13 @@
+package com.innowise.userservice.exception;
+
+/**
+ * An expected miss, answered with 404. Thrown at the rate clients ask for unknown ids, so it
+ * carries no stack trace: filling one in is most of the cost of the exception and the handler
+ * never prints it. Instances hold no state beyond the message and may be rethrown by the cache.
+ */
+public abstract class NotFoundException extends RuntimeException {
+
+  protected NotFoundException(String message) {
+    super(message, null, false, false);
+  }
+}
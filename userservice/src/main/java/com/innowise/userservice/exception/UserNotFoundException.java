@@ -1,6 +1,6 @@
 package com.innowise.userservice.exception;
 
-public class UserNotFoundException extends RuntimeException {
+public class UserNotFoundException extends NotFoundException {
 
   public UserNotFoundException(Long id) {
     super("User not found with id: " + id);
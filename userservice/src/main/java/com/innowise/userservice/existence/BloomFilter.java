@@ -0,0 +1,131 @@
+package com.innowise.userservice.existence;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free Bloom filter over {@code long} keys. Never answers {@code false} for a key that was
+ * {@linkplain #put added}, and answers {@code true} for an absent key with about the probability
+ * it was sized for as long as no more keys than expected are added.
+ *
+ * <p>The {@code k} bit positions of a key are derived from two 64-bit hashes (Kirsch and
+ * Mitzenmacher). Bits are numbered from the most significant bit of the first word, as in Redis
+ * bitmaps, so {@link #toByteArray()} and the {@linkplain #offsets offsets} can be used with {@code
+ * SET} and {@code GETBIT} as they are.
+ */
+public final class BloomFilter {
+
+  private static final double LN2 = Math.log(2);
+
+  private final AtomicLongArray words;
+  private final long bitSize;
+  private final int hashCount;
+
+  private BloomFilter(long bitSize, int hashCount) {
+    this.words = new AtomicLongArray(Math.toIntExact(bitSize / Long.SIZE));
+    this.bitSize = bitSize;
+    this.hashCount = hashCount;
+  }
+
+  /**
+   * Creates a filter for {@code expectedInsertions} keys with the given false positive
+   * probability.
+   */
+  public static BloomFilter create(long expectedInsertions, double falsePositiveProbability) {
+    if (falsePositiveProbability <= 0 || falsePositiveProbability >= 1) {
+      throw new IllegalArgumentException(
+          "False positive probability must be between 0 and 1: " + falsePositiveProbability);
+    }
+    long n = Math.max(1, expectedInsertions);
+    long bits = (long) Math.ceil(-n * Math.log(falsePositiveProbability) / (LN2 * LN2));
+    long bitSize = Math.max(1, (bits + Long.SIZE - 1) / Long.SIZE) * Long.SIZE;
+    int hashCount = Math.max(1, (int) Math.round((double) bitSize / n * LN2));
+    return new BloomFilter(bitSize, hashCount);
+  }
+
+  /** Number of bits, {@code m}. */
+  public long bitSize() {
+    return bitSize;
+  }
+
+  /** Number of bits set per key, {@code k}. */
+  public int hashCount() {
+    return hashCount;
+  }
+
+  /** Bit positions of {@code key}. */
+  public long[] offsets(long key) {
+    long h1 = mix(key);
+    long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+    long[] offsets = new long[hashCount];
+    for (int i = 0; i < hashCount; i++) {
+      offsets[i] = Math.floorMod(h1 + i * h2, bitSize);
+    }
+    return offsets;
+  }
+
+  public void put(long key) {
+    put(offsets(key));
+  }
+
+  public void put(long[] offsets) {
+    for (long offset : offsets) {
+      long mask = mask(offset);
+      int word = word(offset);
+      if ((words.get(word) & mask) == 0) {
+        words.accumulateAndGet(word, mask, (current, bit) -> current | bit);
+      }
+    }
+  }
+
+  public boolean mightContain(long key) {
+    return mightContain(offsets(key));
+  }
+
+  public boolean mightContain(long[] offsets) {
+    for (long offset : offsets) {
+      if ((words.get(word(offset)) & mask(offset)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Number of bits set. Walks the whole filter. */
+  public long bitCount() {
+    long count = 0;
+    for (int i = 0; i < words.length(); i++) {
+      count += Long.bitCount(words.get(i));
+    }
+    return count;
+  }
+
+  /** Probability that an absent key is reported as present, estimated from the bits set. */
+  public double expectedFalsePositiveProbability() {
+    return Math.pow((double) bitCount() / bitSize, hashCount);
+  }
+
+  /** The bits in Redis bitmap layout. Concurrent additions may or may not be included. */
+  public byte[] toByteArray() {
+    ByteBuffer buffer = ByteBuffer.allocate(words.length() * Long.BYTES);
+    for (int i = 0; i < words.length(); i++) {
+      buffer.putLong(words.get(i));
+    }
+    return buffer.array();
+  }
+
+  private static int word(long offset) {
+    return (int) (offset >>> 6);
+  }
+
+  private static long mask(long offset) {
+    return Long.MIN_VALUE >>> (offset & 63);
+  }
+
+  /** The SplitMix64 finalizer. */
+  private static long mix(long z) {
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+}
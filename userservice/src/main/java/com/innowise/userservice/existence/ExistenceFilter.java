@@ -0,0 +1,197 @@
+package com.innowise.userservice.existence;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisStringCommands.BitOperation;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+/**
+ * {@link BloomFilter} of one key space, optionally mirrored in a Redis bitmap shared by all
+ * replicas.
+ *
+ * <p>Keys are always added to the in-process filter. A key absent from it is looked up in the
+ * mirror, which also holds the keys added by other replicas, and learned on a hit; without a
+ * mirror an absent key is only known to be absent on a single replica. Until the filter is {@link
+ * #markReady() ready} every key may exist, and so does any key while Redis is unavailable.
+ *
+ * <p>The mirror key contains the size of the filter, so resizing starts from an empty bitmap
+ * which the next rebuild fills.
+ */
+@Slf4j
+public class ExistenceFilter {
+
+  private static final String KEY_PREFIX = "userservice:existence:";
+
+  private static final RedisScript<Long> CONTAINS =
+      new DefaultRedisScript<>(
+          "for _, offset in ipairs(ARGV) do"
+              + " if redis.call('getbit', KEYS[1], offset) == 0 then return 0 end end"
+              + " return 1",
+          Long.class);
+
+  private static final RedisScript<Long> PUT =
+      new DefaultRedisScript<>(
+          "for _, offset in ipairs(ARGV) do redis.call('setbit', KEYS[1], offset, 1) end"
+              + " return 1",
+          Long.class);
+
+  @Getter private final String name;
+  private final BloomFilter local;
+  private final StringRedisTemplate redisTemplate;
+  @Getter private final String redisKey;
+
+  private volatile boolean ready;
+
+  private final Counter absent;
+  private final Counter present;
+  private final Counter remote;
+  private final Counter unready;
+  private final Counter falsePositives;
+
+  /**
+   * @param redisTemplate template of the mirror, or {@code null} to keep the filter in-process
+   */
+  public ExistenceFilter(
+      String name,
+      BloomFilter local,
+      StringRedisTemplate redisTemplate,
+      MeterRegistry meterRegistry) {
+    this.name = name;
+    this.local = local;
+    this.redisTemplate = redisTemplate;
+    this.redisKey = KEY_PREFIX + name + ":" + local.bitSize() + ":" + local.hashCount();
+    this.absent = checks(meterRegistry, "absent");
+    this.present = checks(meterRegistry, "present");
+    this.remote = checks(meterRegistry, "remote");
+    this.unready = checks(meterRegistry, "unready");
+    this.falsePositives =
+        Counter.builder("userservice.existence.false.positives")
+            .description("Keys reported as present that were not found in the database")
+            .tag("filter", name)
+            .register(meterRegistry);
+    Gauge.builder(
+            "userservice.existence.expected.fpp",
+            local,
+            BloomFilter::expectedFalsePositiveProbability)
+        .description("False positive probability expected from the bits set")
+        .tag("filter", name)
+        .register(meterRegistry);
+  }
+
+  public boolean isMirrored() {
+    return redisTemplate != null;
+  }
+
+  public boolean isReady() {
+    return ready;
+  }
+
+  /** Starts answering with the filter, once it holds every existing key. */
+  public void markReady() {
+    ready = true;
+  }
+
+  /**
+   * @return {@code false} if the key was never added, {@code true} if it may have been
+   */
+  public boolean mightContain(long key) {
+    if (!ready) {
+      unready.increment();
+      return true;
+    }
+    long[] offsets = local.offsets(key);
+    if (local.mightContain(offsets)) {
+      present.increment();
+      return true;
+    }
+    if (isMirrored() && remoteContains(offsets)) {
+      local.put(offsets);
+      remote.increment();
+      return true;
+    }
+    absent.increment();
+    return false;
+  }
+
+  /** Records that a key reported as present does not exist. */
+  public void recordFalsePositive() {
+    falsePositives.increment();
+  }
+
+  /** Adds the key to the in-process filter only, see {@link #mirror}. */
+  public void add(long key) {
+    local.put(key);
+  }
+
+  /**
+   * Adds the keys to the mirror in one round trip. Unlike lookups this does not tolerate Redis
+   * failures: other replicas would take the keys for absent.
+   */
+  public void mirror(Collection<Long> keys) {
+    if (!isMirrored() || keys.isEmpty()) {
+      return;
+    }
+    redisTemplate.execute(
+        PUT,
+        List.of(redisKey),
+        keys.stream()
+            .flatMapToLong(key -> Arrays.stream(local.offsets(key)))
+            .mapToObj(Long::toString)
+            .toArray());
+  }
+
+  /**
+   * Merges the whole in-process filter into the mirror, after a rebuild. Bits already set by other
+   * replicas are kept.
+   */
+  public void publish() {
+    if (!isMirrored()) {
+      return;
+    }
+    byte[] bits = local.toByteArray();
+    byte[] key = redisKey.getBytes(StandardCharsets.UTF_8);
+    byte[] staging = (redisKey + ":" + UUID.randomUUID()).getBytes(StandardCharsets.UTF_8);
+    redisTemplate.execute(
+        (RedisCallback<Void>)
+            connection -> {
+              connection.stringCommands().set(staging, bits);
+              connection.stringCommands().bitOp(BitOperation.OR, key, key, staging);
+              connection.keyCommands().del(staging);
+              return null;
+            });
+  }
+
+  private boolean remoteContains(long[] offsets) {
+    try {
+      Long found =
+          redisTemplate.execute(
+              CONTAINS,
+              List.of(redisKey),
+              Arrays.stream(offsets).mapToObj(Long::toString).toArray());
+      return found == null || found == 1;
+    } catch (DataAccessException ex) {
+      log.warn("Could not look up {} in Redis, assuming it exists", name, ex);
+      return true;
+    }
+  }
+
+  private Counter checks(MeterRegistry meterRegistry, String result) {
+    return Counter.builder("userservice.existence.checks")
+        .description("Existence checks answered by the filter, absent ones skip the database")
+        .tag("filter", name)
+        .tag("result", result)
+        .register(meterRegistry);
+  }
+}
@@ -0,0 +1,89 @@
+package com.innowise.userservice.existence;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Locale;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Which user ids and emails may exist, so lookups of users that certainly do not can fail without
+ * a query. Only ever errs towards "may exist": deleted users and replaced emails stay in the
+ * filters until they are rebuilt on the next start.
+ *
+ * <p>Emails are compared after trimming and lower-casing, which only adds candidates to the exact
+ * comparison of the database.
+ */
+@RequiredArgsConstructor
+public class UserExistenceIndex {
+
+  private static final long FNV_OFFSET_BASIS = 0xCBF29CE484222325L;
+  private static final long FNV_PRIME = 0x100000001B3L;
+
+  private final ExistenceFilter ids;
+  private final ExistenceFilter emails;
+
+  /**
+   * @return {@code false} if no user has this id
+   */
+  public boolean mightExist(Long id) {
+    return id == null || ids.mightContain(id);
+  }
+
+  /**
+   * @return {@code false} if no user has this email
+   */
+  public boolean mightExistByEmail(String email) {
+    return email == null || emails.mightContain(fingerprint(email));
+  }
+
+  /** Records that a user id reported as possibly existing was not found. */
+  public void recordMissingId() {
+    ids.recordFalsePositive();
+  }
+
+  /** Records that an email reported as possibly taken was not found. */
+  public void recordMissingEmail() {
+    emails.recordFalsePositive();
+  }
+
+  /** Adds a user to the in-process filters. */
+  public void add(Long id, String email) {
+    ids.add(id);
+    if (email != null) {
+      emails.add(fingerprint(email));
+    }
+  }
+
+  public boolean isMirrored() {
+    return ids.isMirrored();
+  }
+
+  /** Adds users already {@linkplain #add added} in-process to the Redis mirror. */
+  public void mirror(Collection<Long> userIds, Collection<String> userEmails) {
+    ids.mirror(userIds);
+    emails.mirror(userEmails.stream().map(UserExistenceIndex::fingerprint).toList());
+  }
+
+  /** Publishes the rebuilt filters to the mirror and starts answering with them. */
+  public void markReady() {
+    ids.publish();
+    emails.publish();
+    ids.markReady();
+    emails.markReady();
+  }
+
+  public boolean isReady() {
+    return ids.isReady() && emails.isReady();
+  }
+
+  /** 64-bit FNV-1a hash of the normalized email. */
+  static long fingerprint(String email) {
+    byte[] bytes = email.trim().toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8);
+    long hash = FNV_OFFSET_BASIS;
+    for (byte b : bytes) {
+      hash ^= b & 0xFF;
+      hash *= FNV_PRIME;
+    }
+    return hash;
+  }
+}
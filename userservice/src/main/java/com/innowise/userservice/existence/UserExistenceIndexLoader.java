@@ -0,0 +1,62 @@
+package com.innowise.userservice.existence;
+
+import com.innowise.userservice.repository.UserRepository;
+import com.innowise.userservice.repository.projection.UserKeyView;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Fills the {@link UserExistenceIndex} from the database once the application has started, in the
+ * background. Until then every user may exist. Users written meanwhile are added by the {@link
+ * UserExistenceListener}, so none is missed.
+ *
+ * <p>Reads from the primary: a lagging replica could miss users written just before the start.
+ * Users written past Hibernate, for instance by SQL scripts or {@code COPY}, are invisible to the
+ * listener and reported as missing until the index is rebuilt with {@link #load()} or a restart.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class UserExistenceIndexLoader implements ApplicationListener<ApplicationReadyEvent> {
+
+  private final UserRepository userRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final UserExistenceIndex index;
+
+  @Override
+  public void onApplicationEvent(ApplicationReadyEvent event) {
+    Thread.ofVirtual().name("user-existence-index-loader").start(this::load);
+  }
+
+  /**
+   * Adds every user in the database to the index, publishes it to the Redis mirror and starts
+   * answering with it. Adding is idempotent, so it may run again after users were bulk-loaded.
+   */
+  public void load() {
+    long start = System.nanoTime();
+    AtomicLong users = new AtomicLong();
+    try {
+      transactionTemplate.executeWithoutResult(
+          status -> {
+            try (Stream<UserKeyView> keys = userRepository.streamKeys()) {
+              keys.forEach(
+                  key -> {
+                    index.add(key.getId(), key.getEmail());
+                    users.incrementAndGet();
+                  });
+            }
+          });
+      index.markReady();
+      log.info(
+          "Loaded {} users into the existence index in {} ms",
+          users.get(),
+          (System.nanoTime() - start) / 1_000_000);
+    } catch (RuntimeException ex) {
+      log.error("Could not load the existence index, user lookups skip it", ex);
+    }
+  }
+}
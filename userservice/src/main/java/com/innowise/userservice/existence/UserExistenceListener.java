@@ -0,0 +1,106 @@
+package com.innowise.userservice.existence;
+
+import com.innowise.userservice.model.entity.User;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+
+/**
+ * Keeps the {@link UserExistenceIndex} up to date with users inserted or given a new email
+ * through Hibernate, including batched inserts of the import.
+ *
+ * <p>Users are added in-process as soon as their row is written. With a Redis mirror, the users
+ * of a transaction are mirrored in one round trip just before it commits, after the last flush:
+ * once other replicas can read a user, their filters know it too, and a failure to mirror rolls
+ * the transaction back.
+ */
+@RequiredArgsConstructor
+public class UserExistenceListener implements PostInsertEventListener, PostUpdateEventListener {
+
+  private static final String EMAIL = "email";
+
+  private final UserExistenceIndex index;
+
+  private final Map<SessionImplementor, Pending> pending = new ConcurrentHashMap<>();
+
+  @Override
+  public void onPostInsert(PostInsertEvent event) {
+    if (event.getEntity() instanceof User user) {
+      written(user, event.getSession());
+    }
+  }
+
+  @Override
+  public void onPostUpdate(PostUpdateEvent event) {
+    if (event.getEntity() instanceof User user && emailChanged(event)) {
+      written(user, event.getSession());
+    }
+  }
+
+  @Override
+  public boolean requiresPostCommitHandling(EntityPersister persister) {
+    return false;
+  }
+
+  private void written(User user, SessionImplementor session) {
+    index.add(user.getId(), user.getEmail());
+    if (index.isMirrored()) {
+      pending.computeIfAbsent(session, this::mirrorOnCommit).add(user);
+    }
+  }
+
+  private Pending mirrorOnCommit(SessionImplementor session) {
+    session
+        .getActionQueue()
+        .registerProcess(
+            (BeforeTransactionCompletionProcess)
+                completing -> {
+                  Pending users = pending.remove(completing);
+                  if (users != null) {
+                    index.mirror(users.ids, users.emails);
+                  }
+                });
+    session
+        .getActionQueue()
+        .registerProcess(
+            (AfterTransactionCompletionProcess) (success, completed) -> pending.remove(completed));
+    return new Pending();
+  }
+
+  private static boolean emailChanged(PostUpdateEvent event) {
+    Object[] oldState = event.getOldState();
+    if (oldState == null) {
+      return true;
+    }
+    String[] properties = event.getPersister().getPropertyNames();
+    for (int i = 0; i < properties.length; i++) {
+      if (EMAIL.equals(properties[i])) {
+        return !Objects.equals(oldState[i], event.getState()[i]);
+      }
+    }
+    return true;
+  }
+
+  /** Users written by a transaction and not mirrored yet. */
+  private static class Pending {
+
+    private final List<Long> ids = new ArrayList<>();
+    private final List<String> emails = new ArrayList<>();
+
+    void add(User user) {
+      ids.add(user.getId());
+      emails.add(user.getEmail());
+    }
+  }
+}
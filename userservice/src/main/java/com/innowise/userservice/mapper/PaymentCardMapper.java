@@ -2,14 +2,18 @@ package com.innowise.userservice.mapper;
 
 import com.innowise.userservice.model.dto.PaymentCardDto;
 import com.innowise.userservice.model.entity.PaymentCard;
+import com.innowise.userservice.repository.projection.PaymentCardView;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
 @Mapper(componentModel = "spring")
 public interface PaymentCardMapper {
 
+  @Mapping(target = "userId", source = "user.id")
   PaymentCardDto cardToCardDto(PaymentCard card);
 
+  PaymentCardDto viewToCardDto(PaymentCardView view);
+
   @Mapping(target = "id", ignore = true)
   @Mapping(target = "user", ignore = true)
   @Mapping(target = "active", ignore = true)
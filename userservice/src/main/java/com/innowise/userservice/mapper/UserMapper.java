@@ -3,10 +3,14 @@ package com.innowise.userservice.mapper;
 import com.innowise.userservice.model.dto.UserDto;
 import com.innowise.userservice.model.dto.UserWithCardsDto;
 import com.innowise.userservice.model.entity.User;
+import org.mapstruct.InjectionStrategy;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
-@Mapper(componentModel = "spring", uses = PaymentCardMapper.class)
+@Mapper(
+    componentModel = "spring",
+    uses = PaymentCardMapper.class,
+    injectionStrategy = InjectionStrategy.CONSTRUCTOR)
 public interface UserMapper {
 
   UserDto userToUserDto(User user);
@@ -17,6 +21,7 @@ public interface UserMapper {
   @Mapping(target = "id", ignore = true)
   @Mapping(target = "cards", ignore = true)
   @Mapping(target = "active", ignore = true)
+  @Mapping(target = "activeCardCount", ignore = true)
   @Mapping(target = "createdAt", ignore = true)
   @Mapping(target = "updatedAt", ignore = true)
   User userDtoToUser(UserDto userDto);
@@ -0,0 +1,32 @@
+package com.innowise.userservice.model;
+
+import org.springframework.http.MediaType;
+
+/** Line-oriented formats accepted and produced by the bulk endpoints. */
+public enum DataFormat {
+  NDJSON(DataFormat.NDJSON_VALUE),
+  CSV(DataFormat.CSV_VALUE);
+
+  public static final String NDJSON_VALUE = "application/x-ndjson";
+  public static final String CSV_VALUE = "text/csv";
+
+  private final MediaType mediaType;
+
+  DataFormat(String mediaType) {
+    this.mediaType = MediaType.parseMediaType(mediaType);
+  }
+
+  public MediaType getMediaType() {
+    return mediaType;
+  }
+
+  public static DataFormat fromContentType(String contentType) {
+    MediaType requested = MediaType.parseMediaType(contentType);
+    for (DataFormat format : values()) {
+      if (format.mediaType.includes(requested)) {
+        return format;
+      }
+    }
+    throw new IllegalArgumentException("Unsupported content type: " + contentType);
+  }
+}
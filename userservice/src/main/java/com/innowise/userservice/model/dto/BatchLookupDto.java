@@ -0,0 +1,29 @@
+package com.innowise.userservice.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "DTO for looking up several entities at once")
+public class BatchLookupDto {
+
+  public static final int MAX_IDS = 1000;
+
+  @Schema(
+      description = "Identifiers to look up, at most " + MAX_IDS,
+      example = "[1, 2, 3]",
+      requiredMode = Schema.RequiredMode.REQUIRED)
+  @NotEmpty(message = "At least one id is required")
+  @Size(max = MAX_IDS, message = "At most " + MAX_IDS + " ids can be looked up at once")
+  private List<@NotNull(message = "Ids must not be null") Long> ids;
+}
@@ -0,0 +1,32 @@
+package com.innowise.userservice.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "DTO for updating the status of several entities at once")
+public class BulkStatusUpdateDto {
+
+  @Schema(
+      description = "Identifiers to update",
+      example = "[1, 2, 3]",
+      requiredMode = Schema.RequiredMode.REQUIRED)
+  @NotEmpty(message = "At least one id is required")
+  private List<@NotNull(message = "Ids must not be null") Long> ids;
+
+  @Schema(
+      description = "Status value",
+      example = "false",
+      requiredMode = Schema.RequiredMode.REQUIRED)
+  @NotNull(message = "Active status is required")
+  private Boolean active;
+}
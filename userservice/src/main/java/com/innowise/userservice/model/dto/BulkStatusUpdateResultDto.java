@@ -0,0 +1,25 @@
+package com.innowise.userservice.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Outcome of a bulk status update")
+public class BulkStatusUpdateResultDto {
+
+  @Schema(description = "Number of distinct ids requested or matched by the filter", example = "3")
+  private int matched;
+
+  @Schema(
+      description =
+          "Number of rows whose status changed; ids that do not exist, already had the status or"
+              + " would exceed the active card limit are not counted",
+      example = "2")
+  private int updated;
+}
@@ -0,0 +1,48 @@
+package com.innowise.userservice.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+import java.util.function.Function;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Cursor paginated response object without total count")
+public class CursorPageDto<T> {
+
+  @Schema(description = "List of items on current page")
+  private List<T> content;
+
+  @Schema(description = "Requested page size", example = "20")
+  private Integer size;
+
+  @Schema(
+      description = "Opaque cursor of the next page, absent on the last page",
+      example = "bmFtZTpBU0M6NDI6WWF1aGVu")
+  private String nextCursor;
+
+  @Schema(description = "Whether more items follow the current page", example = "true")
+  private Boolean hasNext;
+
+  /**
+   * Builds a page from rows fetched with a limit of {@code size + 1}; the extra row only signals
+   * that a next page exists and is not returned.
+   */
+  public static <T> CursorPageDto<T> of(List<T> rows, int size, Function<T, String> cursorOf) {
+    boolean hasNext = rows.size() > size;
+    List<T> content = hasNext ? rows.subList(0, size) : rows;
+    String nextCursor = hasNext ? cursorOf.apply(content.get(content.size() - 1)) : null;
+    return new CursorPageDto<>(content, size, nextCursor, hasNext);
+  }
+
+  public <R> CursorPageDto<R> map(Function<? super T, ? extends R> mapper) {
+    return new CursorPageDto<>(content.stream().<R>map(mapper).toList(), size, nextCursor, hasNext);
+  }
+}
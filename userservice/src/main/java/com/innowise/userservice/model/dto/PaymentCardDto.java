@@ -4,6 +4,8 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
+import java.io.Serializable;
+import java.time.LocalDateTime;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -14,7 +16,7 @@ import lombok.Setter;
 @NoArgsConstructor
 @AllArgsConstructor
 @Schema(description = "DTO for transferring payment card data")
-public class PaymentCardDto {
+public class PaymentCardDto implements Serializable {
 
   @Schema(description = "Payment card id", example = "12")
   private Long id;
@@ -46,4 +48,13 @@ public class PaymentCardDto {
 
   @Schema(description = "Indicates if the card is active", example = "true")
   private boolean active;
+
+  @Schema(
+      description = "Identifier of the card owner",
+      example = "1",
+      accessMode = Schema.AccessMode.READ_ONLY)
+  private Long userId;
+
+  @Schema(description = "Record last update timestamp", accessMode = Schema.AccessMode.READ_ONLY)
+  private LocalDateTime updatedAt;
 }
@@ -0,0 +1,46 @@
+package com.innowise.userservice.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Outcome of importing a single row")
+public class UserImportResultDto {
+
+  @Schema(description = "1-based row number in the uploaded file", example = "1")
+  private Long row;
+
+  @Schema(description = "Row outcome", example = "CREATED")
+  private Status status;
+
+  @Schema(description = "Identifier of the created user", example = "1")
+  private Long id;
+
+  @Schema(description = "Email of the row, if it could be read", example = "test@mail.ru")
+  private String email;
+
+  @Schema(description = "Reasons the row was rejected")
+  private List<String> errors;
+
+  public static UserImportResultDto created(long row, Long id, String email) {
+    return new UserImportResultDto(row, Status.CREATED, id, email, null);
+  }
+
+  public static UserImportResultDto rejected(long row, String email, List<String> errors) {
+    return new UserImportResultDto(row, Status.REJECTED, null, email, errors);
+  }
+
+  public enum Status {
+    CREATED,
+    REJECTED
+  }
+}
@@ -0,0 +1,22 @@
+package com.innowise.userservice.model.dto;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * JSON response body of a user, cached together with the id and last update its validators are
+ * derived from, so that the headers and the body of a response always describe the same version.
+ */
+@Getter
+@AllArgsConstructor
+public class UserJsonDto implements Serializable {
+
+  private final Long id;
+
+  private final LocalDateTime updatedAt;
+
+  /** UTF-8 JSON of the {@link UserDto}. */
+  private final byte[] body;
+}
@@ -0,0 +1,58 @@
+package com.innowise.userservice.model.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+
+/**
+ * A user or card changed by a committed transaction and not published yet. Only which one changed
+ * is recorded; its state is read when it is published.
+ */
+@Entity
+@Table(name = "outbox_events")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+
+  public enum AggregateType {
+    USER,
+    CARD
+  }
+
+  /** Identity rather than a pooled sequence: most rows are written by set-based inserts. */
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false, length = 10)
+  private AggregateType aggregateType;
+
+  @Column(nullable = false)
+  private Long aggregateId;
+
+  /** Owner of the changed card, or the changed user itself; partitions the published events. */
+  @Column(nullable = false)
+  private Long userId;
+
+  @ColumnDefault("now()")
+  @Column(nullable = false, insertable = false, updatable = false)
+  private LocalDateTime createdAt;
+
+  public OutboxEvent(AggregateType aggregateType, Long aggregateId, Long userId) {
+    this(null, aggregateType, aggregateId, userId, null);
+  }
+}
@@ -9,6 +9,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import java.io.Serializable;
 import lombok.Getter;
@@ -23,13 +24,18 @@ import lombok.Setter;
       @Index(name = "idx_payment_cards_number", columnList = "number"),
       @Index(name = "idx_payment_cards_holder", columnList = "holder"),
       @Index(name = "idx_payment_cards_active", columnList = "active"),
+      @Index(name = "idx_payment_cards_holder_id", columnList = "holder, id"),
     })
 @Getter
 @Setter
 @NoArgsConstructor
 public class PaymentCard extends BaseAuditEntity implements Serializable {
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payment_cards_id_seq")
+  @SequenceGenerator(
+      name = "payment_cards_id_seq",
+      sequenceName = "payment_cards_id_seq",
+      allocationSize = 50)
   private Long id;
 
   @ManyToOne(fetch = FetchType.LAZY)
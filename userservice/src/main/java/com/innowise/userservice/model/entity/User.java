@@ -8,6 +8,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Index;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import java.io.Serializable;
 import java.time.LocalDate;
@@ -16,6 +17,8 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
 @Table(
@@ -25,7 +28,9 @@ import lombok.Setter;
       @Index(name = "idx_users_name", columnList = "name"),
       @Index(name = "idx_users_surname", columnList = "surname"),
       @Index(name = "idx_users_name_surname", columnList = "name, surname"),
-      @Index(name = "idx_users_active", columnList = "active")
+      @Index(name = "idx_users_active", columnList = "active"),
+      @Index(name = "idx_users_name_id", columnList = "name, id"),
+      @Index(name = "idx_users_surname_id", columnList = "surname, id")
     })
 @Getter
 @Setter
@@ -33,7 +38,8 @@ import lombok.Setter;
 @AllArgsConstructor
 public class User extends BaseAuditEntity implements Serializable {
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_id_seq")
+  @SequenceGenerator(name = "users_id_seq", sequenceName = "users_id_seq", allocationSize = 50)
   private Long id;
 
   @Column(nullable = false, length = 50)
@@ -51,6 +57,12 @@ public class User extends BaseAuditEntity implements Serializable {
   @Column(nullable = false)
   private boolean active;
 
+  /** Maintained by {@code UserRepository} bulk updates only, never written through the entity. */
+  @ColumnDefault("0")
+  @Column(nullable = false, insertable = false, updatable = false)
+  private int activeCardCount;
+
   @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
+  @BatchSize(size = 50)
   private List<PaymentCard> cards;
 }
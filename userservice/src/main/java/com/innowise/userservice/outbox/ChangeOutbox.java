@@ -0,0 +1,56 @@
+package com.innowise.userservice.outbox;
+
+import com.innowise.userservice.model.entity.OutboxEvent;
+import com.innowise.userservice.model.entity.OutboxEvent.AggregateType;
+import com.innowise.userservice.repository.OutboxEventRepository;
+import java.util.Collection;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Records changed users and cards in the outbox table, in the transaction that changes them, so
+ * that the {@link OutboxRelay} publishes them if and only if the transaction commits.
+ *
+ * <p>Only which user or card changed is recorded, not its state: the relay publishes the state it
+ * reads, so whatever order transactions commit in, the latest state is published last. Must be
+ * called inside the changing transaction; deletions must be recorded before the rows are deleted.
+ * With {@code userservice.outbox.enabled=false} nothing is recorded.
+ */
+@RequiredArgsConstructor
+public class ChangeOutbox {
+
+  private final OutboxEventRepository outboxRepository;
+  private final boolean enabled;
+
+  public void userChanged(Long userId) {
+    if (enabled) {
+      outboxRepository.save(new OutboxEvent(AggregateType.USER, userId, userId));
+    }
+  }
+
+  /** Records those of the given users that exist, such as the chunk of a bulk update. */
+  public void usersChanged(Collection<Long> userIds) {
+    if (enabled && !userIds.isEmpty()) {
+      outboxRepository.insertUsers(userIds);
+    }
+  }
+
+  public void cardChanged(Long cardId, Long userId) {
+    if (enabled) {
+      outboxRepository.save(new OutboxEvent(AggregateType.CARD, cardId, userId));
+    }
+  }
+
+  /** Records those of the given cards that exist, such as the chunk of a bulk update. */
+  public void cardsChanged(Collection<Long> cardIds) {
+    if (enabled && !cardIds.isEmpty()) {
+      outboxRepository.insertCards(cardIds);
+    }
+  }
+
+  /** Records every card of the user, for instance before they are deleted along with it. */
+  public void cardsOfUserChanged(Long userId) {
+    if (enabled) {
+      outboxRepository.insertCardsByUserId(userId);
+    }
+  }
+}
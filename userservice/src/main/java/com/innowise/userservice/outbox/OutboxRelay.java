@@ -0,0 +1,203 @@
+package com.innowise.userservice.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.innowise.userservice.config.OutboxProperties;
+import com.innowise.userservice.model.dto.PaymentCardDto;
+import com.innowise.userservice.model.dto.UserDto;
+import com.innowise.userservice.model.entity.OutboxEvent;
+import com.innowise.userservice.repository.OutboxEventRepository;
+import com.innowise.userservice.repository.PaymentCardRepository;
+import com.innowise.userservice.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.springframework.data.domain.Limit;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Publishes the users and cards recorded by the {@link ChangeOutbox} to their compacted topics:
+ * the current state as JSON, or a tombstone once deleted. Keys are the user id, and the user id
+ * and card id for cards, partitioned by user with the {@link UserKeyPartitioner}.
+ *
+ * <p>A batch of outbox rows is published and deleted in one transaction, which only ends after
+ * Kafka acknowledged every record; on failure the rows stay and are published again. Delivery is
+ * thus at least once, and a user or card changed several times within a batch is published once.
+ * Replicas of the service relay one at a time, serialized by an advisory lock, since a relay
+ * publishing stale state after a newer one would leave it on the topic.
+ *
+ * <p>The relay sends through a producer of its own, derived from the given factory with the
+ * partitioner overridden, so that other producers of the service keep the default one.
+ */
+@Slf4j
+public class OutboxRelay implements AutoCloseable {
+
+  /** Advisory lock of the relay, shared by all replicas of the service. */
+  private static final long LOCK_KEY = 0x7573_6572_6f75_7462L;
+
+  private final OutboxEventRepository outboxRepository;
+  private final UserRepository userRepository;
+  private final PaymentCardRepository cardRepository;
+  private final KafkaTemplate<String, String> kafkaTemplate;
+  private final ObjectMapper objectMapper;
+  private final TransactionTemplate transactionTemplate;
+  private final OutboxProperties properties;
+  private final Timer lag;
+
+  public OutboxRelay(
+      OutboxEventRepository outboxRepository,
+      UserRepository userRepository,
+      PaymentCardRepository cardRepository,
+      ProducerFactory<String, String> producerFactory,
+      ObjectMapper objectMapper,
+      TransactionTemplate transactionTemplate,
+      OutboxProperties properties,
+      MeterRegistry meterRegistry) {
+    this.outboxRepository = outboxRepository;
+    this.userRepository = userRepository;
+    this.cardRepository = cardRepository;
+    this.kafkaTemplate =
+        new KafkaTemplate<>(
+            producerFactory,
+            Map.of(ProducerConfig.PARTITIONER_CLASS_CONFIG, UserKeyPartitioner.class.getName()));
+    this.objectMapper = objectMapper;
+    this.transactionTemplate = transactionTemplate;
+    this.properties = properties;
+    this.lag =
+        Timer.builder("userservice.outbox.lag")
+            .description("Time from recording a change in the outbox to publishing it")
+            .register(meterRegistry);
+  }
+
+  /** Closes the producer of the relay. */
+  @Override
+  public void close() {
+    kafkaTemplate.destroy();
+  }
+
+  /** Publishes batches until the outbox is drained or another replica holds the lock. */
+  @Scheduled(fixedDelayString = "${userservice.outbox.poll-interval:500ms}")
+  public void relay() {
+    try {
+      int published;
+      do {
+        published = publishBatch();
+      } while (published == properties.getBatchSize());
+    } catch (RuntimeException ex) {
+      log.warn("Could not relay the outbox, retrying on the next poll", ex);
+    }
+  }
+
+  /**
+   * @return number of outbox rows published
+   */
+  int publishBatch() {
+    Integer published =
+        transactionTemplate.execute(
+            status -> {
+              if (!outboxRepository.tryAdvisoryLock(LOCK_KEY)) {
+                return 0;
+              }
+              List<OutboxEvent> events =
+                  outboxRepository.findByOrderById(Limit.of(properties.getBatchSize()));
+              if (events.isEmpty()) {
+                return 0;
+              }
+              publish(events);
+              outboxRepository.deleteAllByIdInBatch(
+                  events.stream().map(OutboxEvent::getId).toList());
+              return events.size();
+            });
+    return published != null ? published : 0;
+  }
+
+  private void publish(List<OutboxEvent> events) {
+    Map<Long, LocalDateTime> users = new LinkedHashMap<>();
+    Map<Long, OutboxEvent> cards = new LinkedHashMap<>();
+    for (OutboxEvent event : events) {
+      switch (event.getAggregateType()) {
+        case USER -> users.putIfAbsent(event.getAggregateId(), event.getCreatedAt());
+        case CARD -> cards.putIfAbsent(event.getAggregateId(), event);
+      }
+    }
+
+    List<CompletableFuture<?>> sends = new ArrayList<>(users.size() + cards.size());
+    Map<Long, UserDto> userStates = findUsers(users.keySet());
+    users.forEach(
+        (id, recorded) ->
+            sends.add(
+                send(properties.getUserTopic(), String.valueOf(id), userStates.get(id), recorded)));
+    Map<Long, PaymentCardDto> cardStates = findCards(cards.keySet());
+    cards.forEach(
+        (id, event) ->
+            sends.add(
+                send(
+                    properties.getCardTopic(),
+                    UserKeyPartitioner.cardKey(event.getUserId(), id),
+                    cardStates.get(id),
+                    event.getCreatedAt())));
+    await(sends);
+    log.debug("Published {} users and {} cards", users.size(), cards.size());
+  }
+
+  private Map<Long, UserDto> findUsers(Collection<Long> ids) {
+    if (ids.isEmpty()) {
+      return Map.of();
+    }
+    return userRepository.findAllAsDtoByIdIn(ids).stream()
+        .collect(Collectors.toMap(UserDto::getId, Function.identity()));
+  }
+
+  private Map<Long, PaymentCardDto> findCards(Collection<Long> ids) {
+    if (ids.isEmpty()) {
+      return Map.of();
+    }
+    return cardRepository.findAllAsDtoByIdIn(ids).stream()
+        .collect(Collectors.toMap(PaymentCardDto::getId, Function.identity()));
+  }
+
+  /** Sends the state, or a tombstone if there is none. */
+  private CompletableFuture<?> send(
+      String topic, String key, Object state, LocalDateTime recorded) {
+    String value;
+    try {
+      value = state != null ? objectMapper.writeValueAsString(state) : null;
+    } catch (JsonProcessingException ex) {
+      throw new UncheckedIOException(ex);
+    }
+    return kafkaTemplate
+        .send(topic, key, value)
+        .thenRun(() -> lag.record(Duration.between(recorded, LocalDateTime.now())));
+  }
+
+  private void await(List<CompletableFuture<?>> sends) {
+    try {
+      CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new))
+          .get(properties.getSendTimeout().toMillis(), TimeUnit.MILLISECONDS);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new KafkaException("Interrupted while publishing the outbox", ex);
+    } catch (ExecutionException | TimeoutException ex) {
+      throw new KafkaException("Could not publish the outbox", ex);
+    }
+  }
+}
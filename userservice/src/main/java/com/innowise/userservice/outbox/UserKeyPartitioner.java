@@ -0,0 +1,49 @@
+package com.innowise.userservice.outbox;
+
+import java.util.Arrays;
+import java.util.Map;
+import org.apache.kafka.clients.producer.Partitioner;
+import org.apache.kafka.common.Cluster;
+import org.apache.kafka.common.utils.Utils;
+
+/**
+ * Partitions change events by the user they belong to. Keys are a user id, optionally followed by
+ * {@value #SEPARATOR} and the id of one of the user's cards, and only the user id is hashed, the
+ * way the default partitioner hashes a whole key.
+ *
+ * <p>Every event of a user thus lands in the same partition number of every topic with as many
+ * partitions, while each card keeps a key of its own for compaction.
+ */
+public class UserKeyPartitioner implements Partitioner {
+
+  public static final char SEPARATOR = ':';
+
+  @Override
+  public int partition(
+      String topic, Object key, byte[] keyBytes, Object value, byte[] valueBytes, Cluster cluster) {
+    if (keyBytes == null) {
+      throw new IllegalArgumentException("Change events of topic " + topic + " need a key");
+    }
+    int partitions = cluster.partitionsForTopic(topic).size();
+    return Utils.toPositive(Utils.murmur2(userKey(keyBytes))) % partitions;
+  }
+
+  public static String cardKey(Long userId, Long cardId) {
+    return userId + String.valueOf(SEPARATOR) + cardId;
+  }
+
+  static byte[] userKey(byte[] keyBytes) {
+    for (int i = 0; i < keyBytes.length; i++) {
+      if (keyBytes[i] == SEPARATOR) {
+        return Arrays.copyOf(keyBytes, i);
+      }
+    }
+    return keyBytes;
+  }
+
+  @Override
+  public void configure(Map<String, ?> configs) {}
+
+  @Override
+  public void close() {}
+}
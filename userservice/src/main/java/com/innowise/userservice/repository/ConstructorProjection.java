@@ -0,0 +1,92 @@
+package com.innowise.userservice.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+/**
+ * Pages a {@link Specification} straight into DTOs with a JPQL constructor expression.
+ *
+ * <p>Only the selected columns are read and the results are never managed, so there is no
+ * persistence context entry, dirty-checking snapshot or mapping step per row. The selections must
+ * match a constructor of the DTO in order and type.
+ *
+ * @param <E> queried entity
+ * @param <D> constructed DTO
+ */
+@RequiredArgsConstructor
+class ConstructorProjection<E, D> {
+
+  private final EntityManager entityManager;
+  private final Class<E> entityType;
+  private final Class<D> dtoType;
+  private final Function<Root<E>, List<Selection<?>>> selections;
+
+  Page<D> page(Specification<E> spec, Pageable pageable) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<D> query = cb.createQuery(dtoType);
+    Root<E> root = query.from(entityType);
+    query.select(cb.construct(dtoType, selections.apply(root).toArray(Selection[]::new)));
+    where(query, root, cb, spec);
+    if (pageable.getSort().isSorted()) {
+      query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+    }
+
+    TypedQuery<D> typedQuery = entityManager.createQuery(query);
+    if (pageable.isPaged()) {
+      typedQuery.setFirstResult((int) pageable.getOffset());
+      typedQuery.setMaxResults(pageable.getPageSize());
+    }
+    return PageableExecutionUtils.getPage(typedQuery.getResultList(), pageable, () -> count(spec));
+  }
+
+  /** Selects the entities with the given ids in one query, in no particular order. */
+  List<D> byIds(Collection<Long> ids) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<D> query = cb.createQuery(dtoType);
+    Root<E> root = query.from(entityType);
+    query.select(cb.construct(dtoType, selections.apply(root).toArray(Selection[]::new)));
+    query.where(root.get("id").in(ids));
+    return entityManager.createQuery(query).getResultList();
+  }
+
+  List<Long> ids(Specification<E> spec) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<Long> query = cb.createQuery(Long.class);
+    Root<E> root = query.from(entityType);
+    query.select(root.get("id"));
+    where(query, root, cb, spec);
+    query.orderBy(cb.asc(root.get("id")));
+    return entityManager.createQuery(query).getResultList();
+  }
+
+  private long count(Specification<E> spec) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<Long> query = cb.createQuery(Long.class);
+    Root<E> root = query.from(entityType);
+    query.select(cb.count(root));
+    where(query, root, cb, spec);
+    return entityManager.createQuery(query).getSingleResult();
+  }
+
+  private void where(
+      CriteriaQuery<?> query, Root<E> root, CriteriaBuilder cb, Specification<E> spec) {
+    Predicate predicate = spec != null ? spec.toPredicate(root, query, cb) : null;
+    if (predicate != null) {
+      query.where(predicate);
+    }
+  }
+}
@@ -0,0 +1,51 @@
+package com.innowise.userservice.repository;
+
+import com.innowise.userservice.model.entity.OutboxEvent;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+  /** Records the given users that exist, in one statement. */
+  @Modifying
+  @Query(
+      value =
+          "INSERT INTO outbox_events (aggregate_type, aggregate_id, user_id)"
+              + " SELECT 'USER', id, id FROM users WHERE id IN (:ids)",
+      nativeQuery = true)
+  int insertUsers(@Param("ids") Collection<Long> ids);
+
+  /** Records the given cards that exist, with their owners, in one statement. */
+  @Modifying
+  @Query(
+      value =
+          "INSERT INTO outbox_events (aggregate_type, aggregate_id, user_id)"
+              + " SELECT 'CARD', id, user_id FROM payment_cards WHERE id IN (:ids)",
+      nativeQuery = true)
+  int insertCards(@Param("ids") Collection<Long> ids);
+
+  /** Records every card of the given user, in one statement. */
+  @Modifying
+  @Query(
+      value =
+          "INSERT INTO outbox_events (aggregate_type, aggregate_id, user_id)"
+              + " SELECT 'CARD', id, user_id FROM payment_cards WHERE user_id = :userId",
+      nativeQuery = true)
+  int insertCardsByUserId(@Param("userId") Long userId);
+
+  /** The oldest unpublished changes, in the order they were recorded. */
+  List<OutboxEvent> findByOrderById(Limit limit);
+
+  /**
+   * Takes a lock released when the transaction ends, without waiting for it.
+   *
+   * @return whether the lock was taken
+   */
+  @Query(value = "SELECT pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+  boolean tryAdvisoryLock(@Param("key") long key);
+}
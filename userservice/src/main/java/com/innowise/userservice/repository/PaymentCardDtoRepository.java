@@ -0,0 +1,24 @@
+package com.innowise.userservice.repository;
+
+import com.innowise.userservice.model.dto.PaymentCardDto;
+import com.innowise.userservice.model.entity.PaymentCard;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Read-only listing of payment cards as {@link PaymentCardDto} without loading {@link
+ * PaymentCard} entities.
+ */
+public interface PaymentCardDtoRepository {
+
+  Page<PaymentCardDto> findAllAsDto(Specification<PaymentCard> spec, Pageable pageable);
+
+  /** The given cards in one query, in no particular order; unknown ids are left out. */
+  List<PaymentCardDto> findAllAsDtoByIdIn(Collection<Long> ids);
+
+  /** Ids of every card matching the specification, in ascending order. */
+  List<Long> findIds(Specification<PaymentCard> spec);
+}
@@ -0,0 +1,47 @@
+package com.innowise.userservice.repository;
+
+import com.innowise.userservice.model.dto.PaymentCardDto;
+import com.innowise.userservice.model.entity.PaymentCard;
+import jakarta.persistence.EntityManager;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+public class PaymentCardDtoRepositoryImpl implements PaymentCardDtoRepository {
+
+  private final ConstructorProjection<PaymentCard, PaymentCardDto> projection;
+
+  public PaymentCardDtoRepositoryImpl(EntityManager entityManager) {
+    this.projection =
+        new ConstructorProjection<>(
+            entityManager,
+            PaymentCard.class,
+            PaymentCardDto.class,
+            root ->
+                List.of(
+                    root.get("id"),
+                    root.get("number"),
+                    root.get("holder"),
+                    root.get("expirationDate"),
+                    root.get("active"),
+                    root.get("user").get("id"),
+                    root.get("updatedAt")));
+  }
+
+  @Override
+  public Page<PaymentCardDto> findAllAsDto(Specification<PaymentCard> spec, Pageable pageable) {
+    return projection.page(spec, pageable);
+  }
+
+  @Override
+  public List<PaymentCardDto> findAllAsDtoByIdIn(Collection<Long> ids) {
+    return projection.byIds(ids);
+  }
+
+  @Override
+  public List<Long> findIds(Specification<PaymentCard> spec) {
+    return projection.ids(spec);
+  }
+}
@@ -1,25 +1,103 @@
 package com.innowise.userservice.repository;
 
 import com.innowise.userservice.model.entity.PaymentCard;
+import com.innowise.userservice.repository.projection.PaymentCardView;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 public interface PaymentCardRepository
-    extends JpaRepository<PaymentCard, Long>, JpaSpecificationExecutor<PaymentCard> {
+    extends JpaRepository<PaymentCard, Long>,
+        JpaSpecificationExecutor<PaymentCard>,
+        PaymentCardDtoRepository {
 
   @Query("SELECT c FROM PaymentCard c WHERE c.user.id = :userId")
   List<PaymentCard> findAllByUserId(@Param("userId") Long userId);
 
+  @Query(
+      "SELECT c.id AS id, c.number AS number, c.holder AS holder,"
+          + " c.expirationDate AS expirationDate, c.active AS active, c.user.id AS userId,"
+          + " c.updatedAt AS updatedAt"
+          + " FROM PaymentCard c WHERE c.user.id = :userId ORDER BY c.id")
+  List<PaymentCardView> findViewsByUserId(@Param("userId") Long userId);
+
   @Query(
       value = "SELECT COUNT(*) FROM payment_cards WHERE user_id = :userId AND active = true",
       nativeQuery = true)
   int countActiveCardsByUserId(@Param("userId") Long userId);
 
+  /**
+   * Streams every card in id order through a server-side cursor. Must be consumed inside a
+   * transaction and closed by the caller.
+   */
+  @QueryHints({
+    @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = UserRepository.STREAM_FETCH_SIZE),
+    @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  @Query("SELECT c FROM PaymentCard c ORDER BY c.id")
+  Stream<PaymentCard> streamAll();
+
+  @Query("SELECT DISTINCT c.user.id FROM PaymentCard c WHERE c.id IN :ids")
+  List<Long> findOwnerIds(@Param("ids") Collection<Long> ids);
+
+  @Query("SELECT c.active FROM PaymentCard c WHERE c.id = :id")
+  Optional<Boolean> findActiveById(@Param("id") Long id);
+
+  /**
+   * Sets the status of one card unless it already has it, so that of concurrent callers only one
+   * sees the change. Bypasses auditing, hence the explicit {@code now}, and clears the persistence
+   * context, whose copy of the card is outdated afterwards.
+   *
+   * @return 1 if the status changed, 0 if the card already had it
+   */
+  @Modifying(clearAutomatically = true)
+  @Query(
+      "UPDATE PaymentCard c SET c.active = :active, c.updatedAt = :now"
+          + " WHERE c.id = :id AND c.active <> :active")
+  int updateStatus(
+      @Param("id") Long id, @Param("active") boolean active, @Param("now") LocalDateTime now);
+
+  /**
+   * Deactivates the given cards in one statement. Bypasses auditing, hence the explicit {@code
+   * now}; the owners' active card counters must be recounted afterwards.
+   *
+   * @return number of cards that were active before
+   */
+  @Modifying
+  @Query(
+      "UPDATE PaymentCard c SET c.active = false, c.updatedAt = :now"
+          + " WHERE c.id IN :ids AND c.active = true")
+  int deactivateCards(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+  /**
+   * Activates the given cards in one statement, in id order per owner, as long as the owner stays
+   * within {@code maxActive} active cards; the rest is left inactive. The owners must be locked
+   * beforehand so that their counters cannot move, and recounted afterwards.
+   *
+   * @return number of cards activated
+   */
   @Modifying
-  @Query("UPDATE PaymentCard c SET c.active = :status WHERE c.id = :id")
-  void updateCardStatus(@Param("id") Long id, @Param("status") boolean status);
+  @Query(
+      value =
+          "UPDATE payment_cards c SET active = true, updated_at = :now"
+              + " FROM (SELECT p.id, u.active_card_count"
+              + " + ROW_NUMBER() OVER (PARTITION BY p.user_id ORDER BY p.id) AS active_after"
+              + " FROM payment_cards p JOIN users u ON u.id = p.user_id"
+              + " WHERE p.id IN (:ids) AND NOT p.active) candidate"
+              + " WHERE c.id = candidate.id AND candidate.active_after <= :maxActive",
+      nativeQuery = true)
+  int activateCardsWithinLimit(
+      @Param("ids") Collection<Long> ids,
+      @Param("maxActive") int maxActive,
+      @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,21 @@
+package com.innowise.userservice.repository;
+
+import com.innowise.userservice.model.dto.UserDto;
+import com.innowise.userservice.model.entity.User;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+/** Read-only listing of users as {@link UserDto} without loading {@link User} entities. */
+public interface UserDtoRepository {
+
+  Page<UserDto> findAllAsDto(Specification<User> spec, Pageable pageable);
+
+  /** The given users in one query, in no particular order; unknown ids are left out. */
+  List<UserDto> findAllAsDtoByIdIn(Collection<Long> ids);
+
+  /** Ids of every user matching the specification, in ascending order. */
+  List<Long> findIds(Specification<User> spec);
+}
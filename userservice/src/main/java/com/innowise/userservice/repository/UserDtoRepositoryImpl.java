@@ -0,0 +1,48 @@
+package com.innowise.userservice.repository;
+
+import com.innowise.userservice.model.dto.UserDto;
+import com.innowise.userservice.model.entity.User;
+import jakarta.persistence.EntityManager;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+public class UserDtoRepositoryImpl implements UserDtoRepository {
+
+  private final ConstructorProjection<User, UserDto> projection;
+
+  public UserDtoRepositoryImpl(EntityManager entityManager) {
+    this.projection =
+        new ConstructorProjection<>(
+            entityManager,
+            User.class,
+            UserDto.class,
+            root ->
+                List.of(
+                    root.get("id"),
+                    root.get("name"),
+                    root.get("surname"),
+                    root.get("birthDate"),
+                    root.get("email"),
+                    root.get("active"),
+                    root.get("createdAt"),
+                    root.get("updatedAt")));
+  }
+
+  @Override
+  public Page<UserDto> findAllAsDto(Specification<User> spec, Pageable pageable) {
+    return projection.page(spec, pageable);
+  }
+
+  @Override
+  public List<UserDto> findAllAsDtoByIdIn(Collection<Long> ids) {
+    return projection.byIds(ids);
+  }
+
+  @Override
+  public List<Long> findIds(Specification<User> spec) {
+    return projection.ids(spec);
+  }
+}
@@ -1,18 +1,117 @@
 package com.innowise.userservice.repository;
 
 import com.innowise.userservice.model.entity.User;
+import com.innowise.userservice.repository.projection.UserKeyView;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
-public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User> {
+public interface UserRepository
+    extends JpaRepository<User, Long>, JpaSpecificationExecutor<User>, UserDtoRepository {
+
+  /** Rows fetched per round trip when streaming a full table. */
+  String STREAM_FETCH_SIZE = "1000";
 
   Optional<User> findByEmail(String email);
 
+  /** Loads the user and its cards with a single fetch-joined query. */
+  @EntityGraph(attributePaths = "cards")
+  Optional<User> findWithCardsById(Long id);
+
+  /**
+   * Loads the given users and their cards with a single fetch-joined query. Not pageable on its
+   * own, since a collection fetch would be paginated in memory; page the ids first.
+   */
+  @EntityGraph(attributePaths = "cards")
+  List<User> findWithCardsByIdIn(Collection<Long> ids);
+
+  @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+  Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+  /**
+   * Streams every user in id order through a server-side cursor. Must be consumed inside a
+   * transaction and closed by the caller.
+   */
+  @QueryHints({
+    @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+    @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  @Query("SELECT u FROM User u ORDER BY u.id")
+  Stream<User> streamAll();
+
+  /**
+   * Streams the id and email of every user through a server-side cursor, in no particular order.
+   * Must be consumed inside a transaction and closed by the caller.
+   */
+  @QueryHints({
+    @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+    @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  @Query("SELECT u.id AS id, u.email AS email FROM User u")
+  Stream<UserKeyView> streamKeys();
+
+  /**
+   * Takes one slot of the user's active card limit. The row lock taken by the update serializes
+   * concurrent callers for the same user until their transactions end.
+   *
+   * @return 1 if a slot was taken, 0 if the user does not exist or the limit is reached
+   */
+  @Modifying
+  @Query(
+      "UPDATE User u SET u.activeCardCount = u.activeCardCount + 1"
+          + " WHERE u.id = :id AND u.activeCardCount < :limit")
+  int incrementActiveCardCount(@Param("id") Long id, @Param("limit") int limit);
+
+  /** Releases one slot of the user's active card limit. */
+  @Modifying
+  @Query(
+      "UPDATE User u SET u.activeCardCount = u.activeCardCount - 1"
+          + " WHERE u.id = :id AND u.activeCardCount > 0")
+  int decrementActiveCardCount(@Param("id") Long id);
+
+  /**
+   * Sets the status of the given users in one statement. Rows already in the requested state are
+   * left untouched. Bypasses auditing, hence the explicit {@code now}.
+   *
+   * @return number of users whose status changed
+   */
+  @Modifying
+  @Query(
+      "UPDATE User u SET u.active = :status, u.updatedAt = :now"
+          + " WHERE u.id IN :ids AND u.active <> :status")
+  int updateUserStatus(
+      @Param("ids") Collection<Long> ids,
+      @Param("status") boolean status,
+      @Param("now") LocalDateTime now);
+
+  /**
+   * Locks the given users in id order, so that concurrent bulk updates touching overlapping users
+   * queue up instead of deadlocking.
+   */
+  @Query(
+      value = "SELECT id FROM users WHERE id IN (:ids) ORDER BY id FOR UPDATE",
+      nativeQuery = true)
+  List<Long> lockByIdIn(@Param("ids") Collection<Long> ids);
+
+  /** Recomputes the active card counter of the given users from their cards. */
   @Modifying
-  @Query("UPDATE User u SET u.active = :status WHERE u.id = :id")
-  void updateUserStatus(@Param("id") Long id, @Param("status") boolean status);
+  @Query(
+      value =
+          "UPDATE users u SET active_card_count ="
+              + " (SELECT COUNT(*) FROM payment_cards c WHERE c.user_id = u.id AND c.active)"
+              + " WHERE u.id IN (:ids)",
+      nativeQuery = true)
+  int recountActiveCards(@Param("ids") Collection<Long> ids);
 }
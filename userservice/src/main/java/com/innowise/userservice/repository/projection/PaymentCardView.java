@@ -0,0 +1,25 @@
+package com.innowise.userservice.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Interface projection of {@link com.innowise.userservice.model.entity.PaymentCard} carrying the
+ * columns of {@link com.innowise.userservice.model.dto.PaymentCardDto}. Backed by a tuple, so no
+ * entity is loaded.
+ */
+public interface PaymentCardView {
+
+  Long getId();
+
+  String getNumber();
+
+  String getHolder();
+
+  String getExpirationDate();
+
+  boolean isActive();
+
+  Long getUserId();
+
+  LocalDateTime getUpdatedAt();
+}
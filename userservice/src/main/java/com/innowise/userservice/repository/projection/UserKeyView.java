@@ -0,0 +1,12 @@
+package com.innowise.userservice.repository.projection;
+
+/**
+ * Interface projection of {@link com.innowise.userservice.model.entity.User} carrying the columns
+ * that identify a user.
+ */
+public interface UserKeyView {
+
+  Long getId();
+
+  String getEmail();
+}
@@ -0,0 +1,84 @@
+package com.innowise.userservice.repository.specification;
+
+import com.innowise.userservice.exception.InvalidPaginationException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Set;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Position in a keyset (cursor) paginated result.
+ *
+ * <p>Rows are ordered by {@code field} and then by {@code id} as a tiebreaker, so the pair of the
+ * last returned sort value and id identifies where the next page starts. The cursor handed to
+ * clients is an opaque URL-safe encoding of this record.
+ *
+ * @param field sort field, must be a non-null column
+ * @param direction sort direction applied to both the field and the id
+ * @param value sort value of the last returned row, {@code null} for the first page
+ * @param id id of the last returned row, {@code null} for the first page
+ */
+public record KeysetCursor(String field, Sort.Direction direction, String value, Long id) {
+
+  public static final int MAX_PAGE_SIZE = 100;
+
+  private static final String ID_FIELD = "id";
+  private static final String SEPARATOR = ":";
+
+  public static KeysetCursor first(String field, Sort.Direction direction) {
+    return new KeysetCursor(field, direction, null, null);
+  }
+
+  public static KeysetCursor decode(String cursor) {
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      String[] parts = raw.split(SEPARATOR, 4);
+      if (parts.length != 4) {
+        throw new IllegalArgumentException("Malformed cursor");
+      }
+      return new KeysetCursor(
+          parts[0], Sort.Direction.fromString(parts[1]), parts[3], Long.valueOf(parts[2]));
+    } catch (IllegalArgumentException ex) {
+      throw new InvalidPaginationException("Invalid cursor: " + cursor);
+    }
+  }
+
+  /** Rejects sort fields outside {@code sortableFields} and sizes outside 1..MAX_PAGE_SIZE. */
+  public void validate(Set<String> sortableFields, int size) {
+    if (!sortableFields.contains(field)) {
+      throw new InvalidPaginationException("Unsupported cursor sort field: " + field);
+    }
+    if (size < 1 || size > MAX_PAGE_SIZE) {
+      throw new InvalidPaginationException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+    }
+  }
+
+  public String encode() {
+    String raw = field + SEPARATOR + direction.name() + SEPARATOR + id + SEPARATOR + value;
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /** Returns the cursor pointing right after the given row. */
+  public KeysetCursor next(Object lastRow) {
+    BeanWrapper row = PropertyAccessorFactory.forBeanPropertyAccess(lastRow);
+    return new KeysetCursor(
+        field,
+        direction,
+        String.valueOf(row.getPropertyValue(field)),
+        (Long) row.getPropertyValue(ID_FIELD));
+  }
+
+  public Sort sort() {
+    Sort sort = Sort.by(direction, field);
+    return ID_FIELD.equals(field) ? sort : sort.and(Sort.by(direction, ID_FIELD));
+  }
+
+  public <T> Specification<T> toSpecification() {
+    return SpecificationBuilder.keysetAfter(field, direction, value, id);
+  }
+}
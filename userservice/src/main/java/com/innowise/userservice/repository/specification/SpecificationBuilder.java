@@ -1,21 +1,29 @@
 package com.innowise.userservice.repository.specification;
 
 import jakarta.persistence.criteria.Path;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 
 public class SpecificationBuilder {
 
+  private static final char LIKE_ESCAPE = '\\';
+
   private SpecificationBuilder() {
     throw new IllegalStateException("Utility class");
   }
 
+  /**
+   * Case-insensitive substring match rendered as {@code lower(field) LIKE '%value%'}. The left-hand
+   * side must stay exactly {@code lower(field)} so the planner can serve it from the {@code
+   * gin (lower(field) gin_trgm_ops)} indexes.
+   */
   public static <T> Specification<T> likeIgnoreCase(String field, String value) {
     return (root, query, cb) -> {
       if (value == null || value.trim().isEmpty()) {
         return cb.conjunction();
       }
       Path<String> fieldPath = root.get(field);
-      return cb.like(cb.lower(fieldPath), "%" + value.toLowerCase().trim() + "%");
+      return cb.like(cb.lower(fieldPath), contains(value.toLowerCase().trim()), LIKE_ESCAPE);
     };
   }
 
@@ -28,12 +36,13 @@ public class SpecificationBuilder {
     };
   }
 
+  /** Case-sensitive substring match, served by the {@code gin (field gin_trgm_ops)} indexes. */
   public static <T> Specification<T> like(String field, String value) {
     return (root, query, cb) -> {
       if (value == null || value.trim().isEmpty()) {
         return cb.conjunction();
       }
-      return cb.like(root.get(field), "%" + value.trim() + "%");
+      return cb.like(root.get(field), contains(value.trim()), LIKE_ESCAPE);
     };
   }
 
@@ -45,4 +54,42 @@ public class SpecificationBuilder {
       return cb.equal(root.join(joinField).get(field), value);
     };
   }
+
+  /**
+   * Matches rows strictly after the keyset position {@code (value, id)} in {@code (field, id)}
+   * order. The redundant {@code field >= value} conjunct gives the planner an index range start,
+   * so the scan cost does not depend on how deep the position is.
+   */
+  public static <T> Specification<T> keysetAfter(
+      String field, Sort.Direction direction, String value, Long id) {
+    return (root, query, cb) -> {
+      if (id == null) {
+        return cb.conjunction();
+      }
+      Path<Long> idPath = root.get("id");
+      boolean ascending = direction.isAscending();
+      if ("id".equals(field)) {
+        return ascending ? cb.greaterThan(idPath, id) : cb.lessThan(idPath, id);
+      }
+
+      Path<String> fieldPath = root.get(field);
+      if (ascending) {
+        return cb.and(
+            cb.greaterThanOrEqualTo(fieldPath, value),
+            cb.or(cb.greaterThan(fieldPath, value), cb.greaterThan(idPath, id)));
+      }
+      return cb.and(
+          cb.lessThanOrEqualTo(fieldPath, value),
+          cb.or(cb.lessThan(fieldPath, value), cb.lessThan(idPath, id)));
+    };
+  }
+
+  private static String contains(String value) {
+    String escaped =
+        value
+            .replace(String.valueOf(LIKE_ESCAPE), String.valueOf(LIKE_ESCAPE) + LIKE_ESCAPE)
+            .replace("%", LIKE_ESCAPE + "%")
+            .replace("_", LIKE_ESCAPE + "_");
+    return "%" + escaped + "%";
+  }
 }
@@ -1,5 +1,6 @@
 package com.innowise.userservice.repository.specification;
 
+import static com.innowise.userservice.repository.specification.SpecificationBuilder.hasField;
 import static com.innowise.userservice.repository.specification.SpecificationBuilder.likeIgnoreCase;
 
 import com.innowise.userservice.model.entity.User;
@@ -16,4 +17,8 @@ public class UserSpecification {
         .and(likeIgnoreCase("name", name))
         .and(likeIgnoreCase("surname", surname));
   }
+
+  public static Specification<User> filterByActive(Boolean active) {
+    return hasField("active", active);
+  }
 }
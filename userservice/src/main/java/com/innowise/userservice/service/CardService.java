@@ -1,6 +1,12 @@
 package com.innowise.userservice.service;
 
+import com.innowise.userservice.model.dto.BulkStatusUpdateResultDto;
+import com.innowise.userservice.model.dto.CursorPageDto;
+import com.innowise.userservice.model.dto.PaymentCardDto;
 import com.innowise.userservice.model.entity.PaymentCard;
+import com.innowise.userservice.repository.projection.PaymentCardView;
+import com.innowise.userservice.repository.specification.KeysetCursor;
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -44,6 +50,26 @@ public interface CardService {
    */
   PaymentCard getCardById(Long id);
 
+  /**
+   * Same as {@link #getCardById(Long)}, but returns a detached snapshot that is served from the
+   * {@code cards} cache.
+   *
+   * @param id payment card identifier
+   * @return found {@link PaymentCardDto}
+   * @throws com.innowise.userservice.exception.CardNotFoundException if the card is not found
+   */
+  PaymentCardDto getCardDtoById(Long id);
+
+  /**
+   * Retrieves many payment cards at once through the {@code cards} cache: cached cards are read
+   * with one Redis round trip, the others with one query and then cached.
+   *
+   * @param ids payment card identifiers
+   * @return found {@link PaymentCardDto} in the order of {@code ids} without duplicates; unknown
+   *     ids are left out
+   */
+  List<PaymentCardDto> getCardDtosByIds(Collection<Long> ids);
+
   /**
    * Retrieves a paginated list of payment cards with optional filtering.
    *
@@ -55,6 +81,37 @@ public interface CardService {
    */
   Page<PaymentCard> getAllCards(String holder, String number, Boolean active, Pageable pageable);
 
+  /**
+   * Same as {@link #getAllCards(String, String, Boolean, Pageable)}, but selects the DTO columns
+   * directly instead of loading managed entities. Preferred for read-only listings.
+   *
+   * @param holder card holder name (optional)
+   * @param number card number or part of it (optional)
+   * @param active card active status (optional)
+   * @param pageable pagination and sorting information
+   * @return page of {@link PaymentCardDto} matching the filters
+   */
+  Page<PaymentCardDto> getAllCardDtos(
+      String holder, String number, Boolean active, Pageable pageable);
+
+  /**
+   * Retrieves a slice of payment cards after the given cursor position with optional filtering.
+   *
+   * <p>Unlike {@link #getAllCards(String, String, Boolean, Pageable)} no total count is computed
+   * and the cost of a page does not grow with its depth.
+   *
+   * @param holder card holder name (optional)
+   * @param number card number or part of it (optional)
+   * @param active card active status (optional)
+   * @param cursor position to continue from, or the first page of the requested order
+   * @param size maximum number of cards to return
+   * @return {@link CursorPageDto} of {@link PaymentCard} with the cursor of the next page
+   * @throws com.innowise.userservice.exception.InvalidPaginationException if the sort field or
+   *     size is not supported
+   */
+  CursorPageDto<PaymentCard> getCardsByCursor(
+      String holder, String number, Boolean active, KeysetCursor cursor, int size);
+
   /**
    * Retrieves all payment cards belonging to a specific user.
    *
@@ -64,6 +121,16 @@ public interface CardService {
    */
   List<PaymentCard> getCardsByUserId(Long userId);
 
+  /**
+   * Same as {@link #getCardsByUserId(Long)}, but returns tuple-backed projections instead of
+   * managed entities. Preferred for read-only listings.
+   *
+   * @param userId user identifier
+   * @return list of {@link PaymentCardView} owned by the user, ordered by id
+   * @throws com.innowise.userservice.exception.UserNotFoundException if the user does not exist
+   */
+  List<PaymentCardView> getCardViewsByUserId(Long userId);
+
   /**
    * Retrieves a paginated list of payment cards belonging to a specific user.
    *
@@ -94,6 +161,31 @@ public interface CardService {
    */
   PaymentCard updateCardStatus(Long id, Boolean active);
 
+  /**
+   * Sets the status of many cards with set-based updates. Ids are processed in chunks, each
+   * committed on its own, and the owners' cache entries are evicted in one batch per chunk.
+   * Activation respects the active card limit: cards that would exceed it stay inactive.
+   *
+   * @param ids identifiers of the cards to update; unknown ids are ignored
+   * @param active new status value
+   * @return number of distinct ids and of cards whose status changed
+   */
+  BulkStatusUpdateResultDto updateCardStatuses(Collection<Long> ids, boolean active);
+
+  /**
+   * Same as {@link #updateCardStatuses(Collection, boolean)} for every card matching the filter
+   * that does not have the requested status yet.
+   *
+   * @param holder card holder name or part of it
+   * @param number card number or part of it
+   * @param active new status value
+   * @return number of matched cards and of cards whose status changed
+   * @throws com.innowise.userservice.exception.InvalidFilterException if neither holder nor
+   *     number is given
+   */
+  BulkStatusUpdateResultDto updateCardStatusesByFilter(
+      String holder, String number, boolean active);
+
   /**
    * Activates a payment card.
    *
@@ -0,0 +1,26 @@
+package com.innowise.userservice.service;
+
+import com.innowise.userservice.model.DataFormat;
+import java.io.OutputStream;
+
+/** Service interface for full extracts of users and payment cards. */
+public interface ExportService {
+
+  /**
+   * Writes every user to {@code output}, reading them through a database cursor so that heap use
+   * does not depend on the table size.
+   *
+   * @param format output format; CSV starts with a header row
+   * @param output destination, flushed but not closed
+   */
+  void exportUsers(DataFormat format, OutputStream output);
+
+  /**
+   * Writes every payment card to {@code output}, reading them through a database cursor so that
+   * heap use does not depend on the table size.
+   *
+   * @param format output format; CSV starts with a header row
+   * @param output destination, flushed but not closed
+   */
+  void exportCards(DataFormat format, OutputStream output);
+}
@@ -0,0 +1,27 @@
+package com.innowise.userservice.service;
+
+import com.innowise.userservice.model.DataFormat;
+import com.innowise.userservice.model.dto.UserImportResultDto;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+/**
+ * Service interface for bulk creation of {@link com.innowise.userservice.model.entity.User}
+ * entities from an uploaded file.
+ */
+public interface UserImportService {
+
+  /**
+   * Imports users from a stream of rows.
+   *
+   * <p>Rows are parsed one by one and processed in fixed-size chunks: each chunk is validated,
+   * checked for email uniqueness with a single query and inserted in JDBC batches in its own
+   * transaction. Memory use therefore depends on the chunk size only, not on the file size.
+   *
+   * @param input uploaded file; NDJSON objects or CSV with a header row, using {@link
+   *     com.innowise.userservice.model.dto.UserDto} field names
+   * @param format format of {@code input}
+   * @param results receives one {@link UserImportResultDto} per row, in row order
+   */
+  void importUsers(InputStream input, DataFormat format, Consumer<UserImportResultDto> results);
+}
@@ -1,7 +1,14 @@
 package com.innowise.userservice.service;
 
+import com.innowise.userservice.model.dto.BulkStatusUpdateResultDto;
+import com.innowise.userservice.model.dto.CursorPageDto;
+import com.innowise.userservice.model.dto.UserDto;
+import com.innowise.userservice.model.dto.UserJsonDto;
 import com.innowise.userservice.model.dto.UserWithCardsDto;
 import com.innowise.userservice.model.entity.User;
+import com.innowise.userservice.repository.specification.KeysetCursor;
+import java.util.Collection;
+import java.util.List;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -32,6 +39,37 @@ public interface UserService {
    */
   User getUserById(Long id);
 
+  /**
+   * Same as {@link #getUserById(Long)}, but returns a detached snapshot that is served from the
+   * {@code users} cache.
+   *
+   * @param id user identifier
+   * @return found {@link UserDto}
+   * @throws com.innowise.userservice.exception.UserNotFoundException if the user is not found
+   */
+  UserDto getUserDtoById(Long id);
+
+  /**
+   * Same as {@link #getUserDtoById(Long)}, but returns the JSON response body along with the
+   * version it was encoded from. It is served from the {@code userJson} cache, so a hit needs
+   * neither decoding nor encoding.
+   *
+   * @param id user identifier
+   * @return UTF-8 JSON of the {@link UserDto} with its id and last update
+   * @throws com.innowise.userservice.exception.UserNotFoundException if the user is not found
+   */
+  UserJsonDto getUserJsonById(Long id);
+
+  /**
+   * Retrieves many users at once through the {@code users} cache: cached users are read with one
+   * Redis round trip, the others with one query and then cached.
+   *
+   * @param ids user identifiers
+   * @return found {@link UserDto} in the order of {@code ids} without duplicates; unknown ids are
+   *     left out
+   */
+  List<UserDto> getUserDtosByIds(Collection<Long> ids);
+
   /**
    * Retrieves a user by email address.
    *
@@ -42,7 +80,7 @@ public interface UserService {
   User getUserByEmail(String email);
 
   /**
-   * Retrieves a user together with all associated payment cards.
+   * Retrieves a user together with all associated payment cards in a single query.
    *
    * @param id user identifier
    * @return {@link UserWithCardsDto} containing user data and cards
@@ -60,6 +98,47 @@ public interface UserService {
    */
   Page<User> getAllUsers(String name, String surname, Pageable pageable);
 
+  /**
+   * Same as {@link #getAllUsers(String, String, Pageable)}, but selects the DTO columns directly
+   * instead of loading managed entities. Preferred for read-only listings.
+   *
+   * @param name user first name (optional)
+   * @param surname user last name (optional)
+   * @param pageable pagination and sorting information
+   * @return page of {@link UserDto}
+   */
+  Page<UserDto> getAllUserDtos(String name, String surname, Pageable pageable);
+
+  /**
+   * Retrieves a paginated list of users with their payment cards and optional filtering.
+   *
+   * <p>The cards of the whole page are loaded with one additional query, independent of the page
+   * size.
+   *
+   * @param name user first name (optional)
+   * @param surname user last name (optional)
+   * @param pageable pagination and sorting information
+   * @return page of {@link UserWithCardsDto}
+   */
+  Page<UserWithCardsDto> getAllUsersWithCards(String name, String surname, Pageable pageable);
+
+  /**
+   * Retrieves a slice of users after the given cursor position with optional filtering.
+   *
+   * <p>Unlike {@link #getAllUsers(String, String, Pageable)} no total count is computed and the
+   * cost of a page does not grow with its depth.
+   *
+   * @param name user first name (optional)
+   * @param surname user last name (optional)
+   * @param cursor position to continue from, or the first page of the requested order
+   * @param size maximum number of users to return
+   * @return {@link CursorPageDto} of {@link User} with the cursor of the next page
+   * @throws com.innowise.userservice.exception.InvalidPaginationException if the sort field or
+   *     size is not supported
+   */
+  CursorPageDto<User> getUsersByCursor(
+      String name, String surname, KeysetCursor cursor, int size);
+
   /**
    * Updates an existing user.
    *
@@ -80,6 +159,30 @@ public interface UserService {
    */
   User updateUserStatus(Long id, Boolean active);
 
+  /**
+   * Sets the status of many users with set-based updates. Ids are processed in chunks, each
+   * committed on its own, and the affected cache entries are evicted in one batch per chunk.
+   *
+   * @param ids identifiers of the users to update; unknown ids are ignored
+   * @param active new status value
+   * @return number of distinct ids and of users whose status changed
+   */
+  BulkStatusUpdateResultDto updateUserStatuses(Collection<Long> ids, boolean active);
+
+  /**
+   * Same as {@link #updateUserStatuses(Collection, boolean)} for every user matching the filter
+   * that does not have the requested status yet.
+   *
+   * @param name user name or part of it
+   * @param surname user surname or part of it
+   * @param active new status value
+   * @return number of matched users and of users whose status changed
+   * @throws com.innowise.userservice.exception.InvalidFilterException if neither name nor surname
+   *     is given
+   */
+  BulkStatusUpdateResultDto updateUserStatusesByFilter(
+      String name, String surname, boolean active);
+
   /**
    * Activates a user.
    *
@@ -0,0 +1,39 @@
+package com.innowise.userservice.service.impl;
+
+import com.innowise.userservice.model.dto.BulkStatusUpdateResultDto;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.ToIntFunction;
+import lombok.experimental.UtilityClass;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Runs a set-based status update over many ids in chunks, each chunk in its own transaction, so
+ * that large requests neither hold thousands of row locks until the end nor exceed the bind
+ * parameter limit of a single statement.
+ */
+@UtilityClass
+class BulkStatusUpdates {
+
+  static final int CHUNK_SIZE = 1000;
+
+  /**
+   * Applies {@code update} to the distinct ids in ascending order, so that concurrent bulk updates
+   * lock rows in the same order.
+   *
+   * @param update updates one chunk and returns the number of rows changed
+   */
+  static BulkStatusUpdateResultDto apply(
+      TransactionTemplate transactionTemplate,
+      Collection<Long> ids,
+      ToIntFunction<List<Long>> update) {
+    List<Long> sortedIds = ids.stream().distinct().sorted().toList();
+    int updated = 0;
+    for (int from = 0; from < sortedIds.size(); from += CHUNK_SIZE) {
+      List<Long> chunk = sortedIds.subList(from, Math.min(from + CHUNK_SIZE, sortedIds.size()));
+      Integer changed = transactionTemplate.execute(status -> update.applyAsInt(chunk));
+      updated += changed != null ? changed : 0;
+    }
+    return new BulkStatusUpdateResultDto(sortedIds.size(), updated);
+  }
+}
@@ -1,54 +1,89 @@
 package com.innowise.userservice.service.impl;
 
+import static com.innowise.userservice.datasource.ReadReplicaRoutingDataSource.onPrimary;
+
+import com.innowise.userservice.cache.BatchCacheEvictor;
+import com.innowise.userservice.cache.BatchCacheLoader;
+import com.innowise.userservice.config.MetricsConfig;
 import com.innowise.userservice.exception.CardExpiredException;
 import com.innowise.userservice.exception.CardNotFoundException;
+import com.innowise.userservice.exception.InvalidFilterException;
 import com.innowise.userservice.exception.MaxCardsLimitException;
 import com.innowise.userservice.exception.UserNotFoundException;
+import com.innowise.userservice.existence.UserExistenceIndex;
+import com.innowise.userservice.mapper.PaymentCardMapper;
+import com.innowise.userservice.model.dto.BulkStatusUpdateResultDto;
+import com.innowise.userservice.model.dto.CursorPageDto;
+import com.innowise.userservice.model.dto.PaymentCardDto;
 import com.innowise.userservice.model.entity.PaymentCard;
-import com.innowise.userservice.model.entity.User;
+import com.innowise.userservice.outbox.ChangeOutbox;
 import com.innowise.userservice.repository.PaymentCardRepository;
 import com.innowise.userservice.repository.UserRepository;
+import com.innowise.userservice.repository.projection.PaymentCardView;
 import com.innowise.userservice.repository.specification.CardSpecification;
+import com.innowise.userservice.repository.specification.KeysetCursor;
 import com.innowise.userservice.service.CardService;
+import io.micrometer.core.annotation.Timed;
+import java.time.LocalDateTime;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
 
 @Service
 @RequiredArgsConstructor
+@Timed(MetricsConfig.SERVICE_TIMER)
 @Transactional
 @Slf4j
 public class CardServiceImpl implements CardService {
 
   private final PaymentCardRepository cardRepository;
   private final UserRepository userRepository;
+  private final PaymentCardMapper cardMapper;
+  private final TransactionTemplate transactionTemplate;
+  private final BatchCacheEvictor cacheEvictor;
+  private final BatchCacheLoader cacheLoader;
+  private final UserExistenceIndex existenceIndex;
+  private final ChangeOutbox outbox;
   private static final Integer MAX_CARDS_PER_USER = 5;
+  private static final Set<String> CURSOR_SORT_FIELDS = Set.of("id", "holder", "number");
 
   @Override
   public PaymentCard createCard(PaymentCard card, Long userId) {
-    User user =
-        userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException(userId));
     YearMonth expiry =
         YearMonth.parse(card.getExpirationDate(), DateTimeFormatter.ofPattern("MM/yy"));
     if (expiry.isBefore(YearMonth.now())) {
       throw new CardExpiredException(card.getExpirationDate());
     }
-    int activeCardsCount = cardRepository.countActiveCardsByUserId(userId);
-    if (activeCardsCount >= MAX_CARDS_PER_USER) {
-      log.warn("User {} already has {} active cards, limit exceeded", userId, activeCardsCount);
-      throw new MaxCardsLimitException();
+    if (card.isActive()) {
+      reserveActiveCardSlot(userId);
+    } else if (!userExists(userId)) {
+      throw new UserNotFoundException(userId);
     }
 
-    card.setUser(user);
-    return cardRepository.save(card);
+    card.setUser(userRepository.getReferenceById(userId));
+    PaymentCard saved = cardRepository.save(card);
+    cacheEvictor.evictMisses("cards", List.of(saved.getId()));
+    cacheEvictor.evict("userWithCards", List.of(userId));
+    outbox.cardChanged(saved.getId(), userId);
+    return saved;
   }
 
   @Override
@@ -57,6 +92,20 @@ public class CardServiceImpl implements CardService {
     return cardRepository.findById(id).orElseThrow(() -> new CardNotFoundException(id));
   }
 
+  @Override
+  @Cacheable(value = "cards", key = "#id", sync = true)
+  @Transactional(readOnly = true)
+  public PaymentCardDto getCardDtoById(Long id) {
+    return onPrimary(() -> cardMapper.cardToCardDto(getCardById(id)));
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<PaymentCardDto> getCardDtosByIds(Collection<Long> ids) {
+    return onPrimary(
+        () -> List.copyOf(cacheLoader.getAll("cards", ids, this::findCardDtos).values()));
+  }
+
   @Override
   @Transactional(readOnly = true)
   public Page<PaymentCard> getAllCards(
@@ -68,19 +117,54 @@ public class CardServiceImpl implements CardService {
     return cardRepository.findAll(spec, pageable);
   }
 
+  @Override
+  @Transactional(readOnly = true)
+  public Page<PaymentCardDto> getAllCardDtos(
+      String holder, String number, Boolean active, Pageable pageable) {
+    Specification<PaymentCard> spec =
+        Specification.where(CardSpecification.filterByHolderAndNumber(holder, number))
+            .and(CardSpecification.filterByActive(active));
+
+    return cardRepository.findAllAsDto(spec, pageable);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public CursorPageDto<PaymentCard> getCardsByCursor(
+      String holder, String number, Boolean active, KeysetCursor cursor, int size) {
+    cursor.validate(CURSOR_SORT_FIELDS, size);
+    Specification<PaymentCard> spec =
+        Specification.where(CardSpecification.filterByHolderAndNumber(holder, number))
+            .and(CardSpecification.filterByActive(active))
+            .and(cursor.toSpecification());
+
+    List<PaymentCard> cards =
+        cardRepository.findBy(spec, query -> query.sortBy(cursor.sort()).limit(size + 1).all());
+    return CursorPageDto.of(cards, size, last -> cursor.next(last).encode());
+  }
+
   @Override
   @Transactional(readOnly = true)
   public List<PaymentCard> getCardsByUserId(Long userId) {
-    if (!userRepository.existsById(userId)) {
+    if (!userExists(userId)) {
       throw new UserNotFoundException(userId);
     }
     return cardRepository.findAllByUserId(userId);
   }
 
+  @Override
+  @Transactional(readOnly = true)
+  public List<PaymentCardView> getCardViewsByUserId(Long userId) {
+    if (!userExists(userId)) {
+      throw new UserNotFoundException(userId);
+    }
+    return cardRepository.findViewsByUserId(userId);
+  }
+
   @Override
   @Transactional(readOnly = true)
   public Page<PaymentCard> getCardsByUserId(Long userId, Pageable pageable) {
-    if (!userRepository.existsById(userId)) {
+    if (!userExists(userId)) {
       throw new UserNotFoundException(userId);
     }
 
@@ -89,7 +173,11 @@ public class CardServiceImpl implements CardService {
   }
 
   @Override
-  @CacheEvict(value = "userWithCards", key = "#result.user.id")
+  @Caching(
+      evict = {
+        @CacheEvict(value = "cards", key = "#id"),
+        @CacheEvict(value = "userWithCards", key = "#result.user.id")
+      })
   public PaymentCard updateCard(Long id, PaymentCard updatedCard) {
     PaymentCard existingCard = getCardById(id);
 
@@ -103,36 +191,163 @@ public class CardServiceImpl implements CardService {
       existingCard.setExpirationDate(updatedCard.getExpirationDate());
     }
 
+    outbox.cardChanged(id, existingCard.getUser().getId());
     return cardRepository.save(existingCard);
   }
 
   @Override
-  @CacheEvict(value = "userWithCards", key = "#result.user.id")
+  @Caching(
+      evict = {
+        @CacheEvict(value = "cards", key = "#id"),
+        @CacheEvict(value = "userWithCards", key = "#result.user.id")
+      })
   public PaymentCard updateCardStatus(Long id, Boolean active) {
-    PaymentCard card = getCardById(id);
-    card.setActive(active);
-    return cardRepository.save(card);
+    Long userId = lockOwner(id);
+    if (cardRepository.updateStatus(id, active, LocalDateTime.now()) == 1) {
+      if (active) {
+        reserveActiveCardSlot(userId);
+      } else {
+        userRepository.decrementActiveCardCount(userId);
+      }
+      outbox.cardChanged(id, userId);
+    }
+    return getCardById(id);
+  }
+
+  @Override
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
+  public BulkStatusUpdateResultDto updateCardStatuses(Collection<Long> ids, boolean active) {
+    return updateStatuses(ids, active);
+  }
+
+  @Override
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
+  public BulkStatusUpdateResultDto updateCardStatusesByFilter(
+      String holder, String number, boolean active) {
+    if (!StringUtils.hasText(holder) && !StringUtils.hasText(number)) {
+      throw new InvalidFilterException("At least one of holder or number is required");
+    }
+    Specification<PaymentCard> spec =
+        CardSpecification.filterByHolderAndNumber(holder, number)
+            .and(CardSpecification.filterByActive(!active));
+    return updateStatuses(cardRepository.findIds(spec), active);
   }
 
   @Override
-  @CacheEvict(value = "userWithCards", key = "#result.user.id")
+  @CacheEvict(value = "cards", key = "#id")
   public void activateCard(Long id) {
-    updateCardStatus(id, true);
+    evictUserWithCards(updateCardStatus(id, true).getUser().getId());
   }
 
   @Override
-  @CacheEvict(value = "userWithCards", key = "#result.user.id")
+  @CacheEvict(value = "cards", key = "#id")
   public void deactivateCard(Long id) {
-    updateCardStatus(id, false);
+    evictUserWithCards(updateCardStatus(id, false).getUser().getId());
   }
 
   @Override
-  @CacheEvict(value = "userWithCards", key = "#id")
+  @CacheEvict(value = "cards", key = "#id")
   public void deleteCard(Long id) {
-    PaymentCard card = getCardById(id);
-    Long userId = card.getUser().getId();
+    Long userId = lockOwner(id);
+    boolean active =
+        cardRepository.findActiveById(id).orElseThrow(() -> new CardNotFoundException(id));
 
     log.debug("Deleting card with id: {} for user: {}", id, userId);
+    outbox.cardChanged(id, userId);
     cardRepository.deleteById(id);
+    if (active) {
+      userRepository.decrementActiveCardCount(userId);
+    }
+    evictUserWithCards(userId);
+  }
+
+  /**
+   * Locks the owners of every card in a chunk before touching the cards, which serializes the
+   * chunk with single-card operations on the same users, then brings their active card counters
+   * back in line with a recount.
+   */
+  private BulkStatusUpdateResultDto updateStatuses(Collection<Long> ids, boolean active) {
+    BulkStatusUpdateResultDto result =
+        BulkStatusUpdates.apply(
+            transactionTemplate,
+            ids,
+            chunk -> {
+              List<Long> ownerIds = cardRepository.findOwnerIds(chunk);
+              if (ownerIds.isEmpty()) {
+                return 0;
+              }
+              userRepository.lockByIdIn(ownerIds);
+              LocalDateTime now = LocalDateTime.now();
+              int updated =
+                  active
+                      ? cardRepository.activateCardsWithinLimit(chunk, MAX_CARDS_PER_USER, now)
+                      : cardRepository.deactivateCards(chunk, now);
+              if (updated > 0) {
+                userRepository.recountActiveCards(ownerIds);
+                outbox.cardsChanged(chunk);
+                cacheEvictor.evict("cards", chunk);
+                cacheEvictor.evict("userWithCards", ownerIds);
+              }
+              return updated;
+            });
+    log.info("Set active={} on {} of {} cards", active, result.getUpdated(), result.getMatched());
+    return result;
+  }
+
+  /**
+   * Atomically checks and increments the user's active card count, so that concurrent requests
+   * cannot exceed the limit together.
+   */
+  private void reserveActiveCardSlot(Long userId) {
+    if (!existenceIndex.mightExist(userId)) {
+      throw new UserNotFoundException(userId);
+    }
+    if (userRepository.incrementActiveCardCount(userId, MAX_CARDS_PER_USER) == 1) {
+      return;
+    }
+    if (!userRepository.existsById(userId)) {
+      existenceIndex.recordMissingId();
+      throw new UserNotFoundException(userId);
+    }
+    log.warn("User {} already has {} active cards, limit exceeded", userId, MAX_CARDS_PER_USER);
+    throw new MaxCardsLimitException();
+  }
+
+  /**
+   * Drops the cached cards of the owner, whose list and its entity tag change with the card.
+   * Called by methods that invoke others of this class directly, past their cache annotations.
+   */
+  private void evictUserWithCards(Long userId) {
+    cacheEvictor.evict("userWithCards", List.of(userId));
+  }
+
+  /**
+   * Locks the owner of the card, the way bulk updates do, so that single-card operations on the
+   * same user queue up behind each other and behind bulk chunks. The status of the card must only
+   * be read afterwards.
+   *
+   * @return id of the owner
+   */
+  private Long lockOwner(Long cardId) {
+    Long userId = getCardById(cardId).getUser().getId();
+    userRepository.lockByIdIn(List.of(userId));
+    return userId;
+  }
+
+  private Map<Long, PaymentCardDto> findCardDtos(Collection<Long> ids) {
+    return cardRepository.findAllAsDtoByIdIn(ids).stream()
+        .collect(Collectors.toMap(PaymentCardDto::getId, Function.identity()));
+  }
+
+  /** Asks the database only about users the existence index does not rule out. */
+  private boolean userExists(Long userId) {
+    if (!existenceIndex.mightExist(userId)) {
+      return false;
+    }
+    if (userRepository.existsById(userId)) {
+      return true;
+    }
+    existenceIndex.recordMissingId();
+    return false;
   }
 }
@@ -0,0 +1,22 @@
+package com.innowise.userservice.service.impl;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Shared {@link CsvMapper} for the bulk endpoints. Not exposed as a bean, since a second {@code
+ * ObjectMapper} in the context would replace the auto-configured one.
+ */
+@UtilityClass
+class CsvMappers {
+
+  static final CsvMapper INSTANCE =
+      CsvMapper.builder()
+          .addModule(new JavaTimeModule())
+          .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+          .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+          .build();
+}
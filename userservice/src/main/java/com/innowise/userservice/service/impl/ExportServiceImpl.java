@@ -0,0 +1,104 @@
+package com.innowise.userservice.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.innowise.userservice.config.MetricsConfig;
+import com.innowise.userservice.mapper.PaymentCardMapper;
+import com.innowise.userservice.mapper.UserMapper;
+import com.innowise.userservice.model.DataFormat;
+import com.innowise.userservice.model.dto.PaymentCardDto;
+import com.innowise.userservice.model.dto.UserDto;
+import com.innowise.userservice.model.entity.PaymentCard;
+import com.innowise.userservice.model.entity.User;
+import com.innowise.userservice.repository.PaymentCardRepository;
+import com.innowise.userservice.repository.UserRepository;
+import com.innowise.userservice.service.ExportService;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@RequiredArgsConstructor
+@Timed(MetricsConfig.SERVICE_TIMER)
+@Transactional(readOnly = true)
+@Slf4j
+public class ExportServiceImpl implements ExportService {
+
+  /** Rows between persistence context clears; also drops the owner proxies cards reference. */
+  private static final int CLEAR_INTERVAL = 1000;
+
+  private final UserRepository userRepository;
+  private final PaymentCardRepository cardRepository;
+  private final UserMapper userMapper;
+  private final PaymentCardMapper cardMapper;
+  private final ObjectMapper objectMapper;
+  private final EntityManager entityManager;
+
+  @Override
+  public void exportUsers(DataFormat format, OutputStream output) {
+    try (Stream<User> users = userRepository.streamAll()) {
+      long rows = write(users, userMapper::userToUserDto, UserDto.class, format, output);
+      log.info("Exported {} users as {}", rows, format);
+    }
+  }
+
+  @Override
+  public void exportCards(DataFormat format, OutputStream output) {
+    try (Stream<PaymentCard> cards = cardRepository.streamAll()) {
+      long rows = write(cards, cardMapper::cardToCardDto, PaymentCardDto.class, format, output);
+      log.info("Exported {} cards as {}", rows, format);
+    }
+  }
+
+  /**
+   * Maps and writes each entity, clearing the persistence context periodically so that it does not
+   * grow with the result set.
+   */
+  private <E, D> long write(
+      Stream<E> entities,
+      Function<E, D> mapper,
+      Class<D> type,
+      DataFormat format,
+      OutputStream output) {
+    long rows = 0;
+    try (SequenceWriter writer = writer(type, format).writeValues(output)) {
+      Iterator<E> iterator = entities.iterator();
+      while (iterator.hasNext()) {
+        writer.write(mapper.apply(iterator.next()));
+        if (++rows % CLEAR_INTERVAL == 0) {
+          entityManager.clear();
+        }
+      }
+      writer.flush();
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+    return rows;
+  }
+
+  private ObjectWriter writer(Class<?> type, DataFormat format) {
+    ObjectWriter writer =
+        switch (format) {
+          case NDJSON -> objectMapper.writerFor(type).withRootValueSeparator("\n");
+          case CSV ->
+              CsvMappers.INSTANCE
+                  .writerFor(type)
+                  .with(CsvMappers.INSTANCE.schemaFor(type).withHeader());
+        };
+    return writer
+        .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+        .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+  }
+}
@@ -0,0 +1,214 @@
+package com.innowise.userservice.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.innowise.userservice.cache.BatchCacheEvictor;
+import com.innowise.userservice.config.MetricsConfig;
+import com.innowise.userservice.existence.UserExistenceIndex;
+import com.innowise.userservice.mapper.UserMapper;
+import com.innowise.userservice.model.DataFormat;
+import com.innowise.userservice.model.dto.UserDto;
+import com.innowise.userservice.model.dto.UserImportResultDto;
+import com.innowise.userservice.model.entity.User;
+import com.innowise.userservice.outbox.ChangeOutbox;
+import com.innowise.userservice.repository.UserRepository;
+import com.innowise.userservice.service.UserImportService;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Service
+@RequiredArgsConstructor
+@Timed(MetricsConfig.SERVICE_TIMER)
+@Slf4j
+public class UserImportServiceImpl implements UserImportService {
+
+  private final UserRepository userRepository;
+  private final UserMapper userMapper;
+  private final Validator validator;
+  private final ObjectMapper objectMapper;
+  private final TransactionTemplate transactionTemplate;
+  private final EntityManager entityManager;
+  private final UserExistenceIndex existenceIndex;
+  private final BatchCacheEvictor cacheEvictor;
+  private final ChangeOutbox outbox;
+
+  @Value("${userservice.import.chunk-size:500}")
+  private int chunkSize;
+
+  @Override
+  public void importUsers(
+      InputStream input, DataFormat format, Consumer<UserImportResultDto> results) {
+    long rowNumber = 1;
+    long created = 0;
+    List<ImportRow> chunk = new ArrayList<>(chunkSize);
+
+    try (MappingIterator<UserDto> rows = reader(format).readValues(input)) {
+      for (; rows.hasNextValue(); rowNumber++) {
+        try {
+          chunk.add(new ImportRow(rowNumber, rows.nextValue(), null));
+        } catch (JsonMappingException ex) {
+          chunk.add(new ImportRow(rowNumber, null, "Malformed row: " + ex.getOriginalMessage()));
+        }
+        if (chunk.size() >= chunkSize) {
+          created += importChunk(chunk, results);
+          chunk.clear();
+        }
+      }
+    } catch (JsonProcessingException ex) {
+      // Syntax errors leave the parser without a reliable position to resume from.
+      created += importChunk(chunk, results);
+      chunk.clear();
+      results.accept(
+          UserImportResultDto.rejected(
+              rowNumber,
+              null,
+              List.of("Import aborted, unreadable input: " + ex.getOriginalMessage())));
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+    created += importChunk(chunk, results);
+
+    log.info("Imported {} users from {} rows", created, rowNumber - 1);
+  }
+
+  private ObjectReader reader(DataFormat format) {
+    return switch (format) {
+      case NDJSON -> objectMapper.readerFor(UserDto.class);
+      case CSV ->
+          CsvMappers.INSTANCE.readerFor(UserDto.class).with(CsvSchema.emptySchema().withHeader());
+    };
+  }
+
+  /**
+   * Validates, de-duplicates and inserts one chunk, then reports every row of it in row order.
+   *
+   * @return number of created users
+   */
+  private int importChunk(List<ImportRow> chunk, Consumer<UserImportResultDto> results) {
+    if (chunk.isEmpty()) {
+      return 0;
+    }
+    List<UserImportResultDto> outcomes = new ArrayList<>(chunk.size());
+    Map<String, ImportRow> candidates = new LinkedHashMap<>();
+
+    for (ImportRow row : chunk) {
+      if (row.error() != null) {
+        outcomes.add(UserImportResultDto.rejected(row.number(), null, List.of(row.error())));
+        continue;
+      }
+      String email = row.user().getEmail();
+      Set<ConstraintViolation<UserDto>> violations = validator.validate(row.user());
+      if (!violations.isEmpty()) {
+        outcomes.add(UserImportResultDto.rejected(row.number(), email, messages(violations)));
+      } else if (candidates.containsKey(email)) {
+        outcomes.add(
+            UserImportResultDto.rejected(
+                row.number(),
+                email,
+                List.of("Duplicate email, first seen in row " + candidates.get(email).number())));
+      } else {
+        candidates.put(email, row);
+      }
+    }
+
+    int created = 0;
+    if (!candidates.isEmpty()) {
+      try {
+        List<UserImportResultDto> inserted =
+            transactionTemplate.execute(status -> insert(candidates));
+        outcomes.addAll(inserted);
+        created =
+            (int)
+                inserted.stream()
+                    .filter(o -> o.getStatus() == UserImportResultDto.Status.CREATED)
+                    .count();
+      } catch (DataAccessException ex) {
+        log.warn("Import chunk of {} rows rolled back: {}", candidates.size(), ex.getMessage());
+        candidates.forEach(
+            (email, row) ->
+                outcomes.add(
+                    UserImportResultDto.rejected(
+                        row.number(), email, List.of("Chunk rolled back: " + rootMessage(ex)))));
+      }
+    }
+
+    outcomes.sort(Comparator.comparing(UserImportResultDto::getRow));
+    outcomes.forEach(results);
+    return created;
+  }
+
+  private List<UserImportResultDto> insert(Map<String, ImportRow> candidates) {
+    Set<String> existing = findExistingEmails(candidates.keySet());
+    List<UserImportResultDto> outcomes = new ArrayList<>(candidates.size());
+    List<ImportRow> rows = new ArrayList<>(candidates.size());
+    List<User> users = new ArrayList<>(candidates.size());
+
+    candidates.forEach(
+        (email, row) -> {
+          if (existing.contains(email)) {
+            outcomes.add(
+                UserImportResultDto.rejected(
+                    row.number(), email, List.of("User with this email already exists")));
+          } else {
+            rows.add(row);
+            users.add(userMapper.userDtoToUser(row.user()));
+          }
+        });
+
+    userRepository.saveAll(users);
+    entityManager.flush();
+    entityManager.clear();
+    List<Long> ids = users.stream().map(User::getId).toList();
+    UserServiceImpl.USER_CACHES.forEach(cache -> cacheEvictor.evictMisses(cache, ids));
+    outbox.usersChanged(ids);
+
+    for (int i = 0; i < users.size(); i++) {
+      User user = users.get(i);
+      outcomes.add(
+          UserImportResultDto.created(rows.get(i).number(), user.getId(), user.getEmail()));
+    }
+    return outcomes;
+  }
+
+  /** Looks up only the emails the existence index cannot rule out, often none of a chunk. */
+  private Set<String> findExistingEmails(Set<String> emails) {
+    List<String> candidates = emails.stream().filter(existenceIndex::mightExistByEmail).toList();
+    return candidates.isEmpty() ? Set.of() : userRepository.findExistingEmails(candidates);
+  }
+
+  private static List<String> messages(Set<ConstraintViolation<UserDto>> violations) {
+    return violations.stream()
+        .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+        .sorted()
+        .toList();
+  }
+
+  private static String rootMessage(DataAccessException ex) {
+    Throwable cause = ex.getMostSpecificCause();
+    return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+  }
+
+  private record ImportRow(long number, UserDto user, String error) {}
+}
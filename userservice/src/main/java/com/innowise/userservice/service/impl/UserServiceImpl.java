@@ -1,60 +1,143 @@
 package com.innowise.userservice.service.impl;
 
+import static com.innowise.userservice.datasource.ReadReplicaRoutingDataSource.onPrimary;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.innowise.userservice.cache.BatchCacheEvictor;
+import com.innowise.userservice.cache.BatchCacheLoader;
+import com.innowise.userservice.config.MetricsConfig;
+import com.innowise.userservice.exception.InvalidFilterException;
 import com.innowise.userservice.exception.UserAlreadyExistsException;
 import com.innowise.userservice.exception.UserNotFoundException;
+import com.innowise.userservice.existence.UserExistenceIndex;
 import com.innowise.userservice.mapper.UserMapper;
+import com.innowise.userservice.model.dto.BulkStatusUpdateResultDto;
+import com.innowise.userservice.model.dto.CursorPageDto;
+import com.innowise.userservice.model.dto.UserDto;
+import com.innowise.userservice.model.dto.UserJsonDto;
 import com.innowise.userservice.model.dto.UserWithCardsDto;
+import com.innowise.userservice.model.entity.PaymentCard;
 import com.innowise.userservice.model.entity.User;
+import com.innowise.userservice.outbox.ChangeOutbox;
 import com.innowise.userservice.repository.UserRepository;
+import com.innowise.userservice.repository.specification.KeysetCursor;
 import com.innowise.userservice.repository.specification.UserSpecification;
 import com.innowise.userservice.service.UserService;
+import io.micrometer.core.annotation.Timed;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
 
 @Service
 @RequiredArgsConstructor
+@Timed(MetricsConfig.SERVICE_TIMER)
 @Transactional
 @Slf4j
 public class UserServiceImpl implements UserService {
 
+  private static final Set<String> CURSOR_SORT_FIELDS = Set.of("id", "name", "surname", "email");
+
+  /** Caches keyed by user id. */
+  static final List<String> USER_CACHES = List.of("users", "userJson", "userWithCards");
+
   private final UserRepository userRepository;
   private final UserMapper userMapper;
+  private final ObjectMapper objectMapper;
+  private final TransactionTemplate transactionTemplate;
+  private final BatchCacheEvictor cacheEvictor;
+  private final BatchCacheLoader cacheLoader;
+  private final UserExistenceIndex existenceIndex;
+  private final ChangeOutbox outbox;
+
+  /** This service behind its caching proxy, for lookups that should hit the cache. */
+  private final ObjectProvider<UserService> self;
 
   @Override
-  @CachePut(value = "users", key = "#result.id")
   public User createUser(User user) {
     checkEmailUniqueness(user.getEmail());
-    return userRepository.save(user);
+    User saved = userRepository.save(user);
+    USER_CACHES.forEach(cache -> cacheEvictor.evictMisses(cache, List.of(saved.getId())));
+    outbox.userChanged(saved.getId());
+    return saved;
   }
 
   @Override
-  @Cacheable(value = "users", key = "#id")
   @Transactional(readOnly = true)
   public User getUserById(Long id) {
-    return userRepository.findById(id).orElseThrow(() -> new UserNotFoundException(id));
+    return findUser(id);
+  }
+
+  @Override
+  @Cacheable(value = "users", key = "#id", sync = true)
+  @Transactional(readOnly = true)
+  public UserDto getUserDtoById(Long id) {
+    return onPrimary(() -> userMapper.userToUserDto(getUserById(id)));
+  }
+
+  @Override
+  @Cacheable(value = "userJson", key = "#id", sync = true)
+  @Transactional(readOnly = true)
+  public UserJsonDto getUserJsonById(Long id) {
+    UserDto user = self.getObject().getUserDtoById(id);
+    try {
+      byte[] body = objectMapper.writeValueAsBytes(user);
+      return new UserJsonDto(user.getId(), user.getUpdatedAt(), body);
+    } catch (JsonProcessingException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<UserDto> getUserDtosByIds(Collection<Long> ids) {
+    List<Long> candidates = ids.stream().filter(existenceIndex::mightExist).toList();
+    return onPrimary(
+        () -> List.copyOf(cacheLoader.getAll("users", candidates, this::findUserDtos).values()));
   }
 
   @Override
   public User getUserByEmail(String email) {
+    if (!existenceIndex.mightExistByEmail(email)) {
+      throw new UserNotFoundException("email", email);
+    }
     return userRepository
         .findByEmail(email)
-        .orElseThrow(() -> new UserNotFoundException("email", email));
+        .orElseThrow(
+            () -> {
+              existenceIndex.recordMissingEmail();
+              return new UserNotFoundException("email", email);
+            });
   }
 
   @Override
-  @Cacheable(value = "userWithCards", key = "#id")
+  @Cacheable(value = "userWithCards", key = "#id", sync = true)
   @Transactional(readOnly = true)
   public UserWithCardsDto getUserWithCardsById(Long id) {
-    User user = userRepository.findById(id).orElseThrow(() -> new UserNotFoundException(id));
-    return userMapper.userToUserWithCardsDto(user);
+    checkMightExist(id);
+    return onPrimary(
+        () ->
+            userMapper.userToUserWithCardsDto(
+                userRepository.findWithCardsById(id).orElseThrow(() -> userNotFound(id))));
   }
 
   @Override
@@ -65,12 +148,51 @@ public class UserServiceImpl implements UserService {
   }
 
   @Override
-  @CachePut(value = "users", key = "#id")
-  @CacheEvict(value = "userWithCards", key = "#id")
+  @Transactional(readOnly = true)
+  public Page<UserDto> getAllUserDtos(String name, String surname, Pageable pageable) {
+    return userRepository.findAllAsDto(
+        UserSpecification.filterByNameAndSurname(name, surname), pageable);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public Page<UserWithCardsDto> getAllUsersWithCards(
+      String name, String surname, Pageable pageable) {
+    Page<User> users =
+        userRepository.findAll(UserSpecification.filterByNameAndSurname(name, surname), pageable);
+    if (users.isEmpty()) {
+      return users.map(userMapper::userToUserWithCardsDto);
+    }
+    List<Long> ids = users.map(User::getId).getContent();
+    Map<Long, User> withCards =
+        userRepository.findWithCardsByIdIn(ids).stream()
+            .collect(Collectors.toMap(User::getId, Function.identity()));
+    return users.map(user -> userMapper.userToUserWithCardsDto(withCards.get(user.getId())));
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public CursorPageDto<User> getUsersByCursor(
+      String name, String surname, KeysetCursor cursor, int size) {
+    cursor.validate(CURSOR_SORT_FIELDS, size);
+    Specification<User> spec =
+        UserSpecification.filterByNameAndSurname(name, surname).and(cursor.toSpecification());
+
+    List<User> users =
+        userRepository.findBy(spec, query -> query.sortBy(cursor.sort()).limit(size + 1).all());
+    return CursorPageDto.of(users, size, last -> cursor.next(last).encode());
+  }
+
+  @Override
+  @Caching(
+      evict = {
+        @CacheEvict(value = "users", key = "#id"),
+        @CacheEvict(value = "userJson", key = "#id"),
+        @CacheEvict(value = "userWithCards", key = "#id")
+      })
   public User updateUser(Long id, User updatedUser) {
 
-    User existingUser =
-        userRepository.findById(id).orElseThrow(() -> new UserNotFoundException(id));
+    User existingUser = findUser(id);
 
     if (updatedUser.getEmail() != null) {
       existingUser.setEmail(updatedUser.getEmail());
@@ -86,6 +208,7 @@ public class UserServiceImpl implements UserService {
       existingUser.setBirthDate(updatedUser.getBirthDate());
     }
 
+    outbox.userChanged(id);
     return userRepository.save(existingUser);
   }
 
@@ -93,19 +216,40 @@ public class UserServiceImpl implements UserService {
   @Caching(
       evict = {
         @CacheEvict(value = "users", key = "#id"),
+        @CacheEvict(value = "userJson", key = "#id"),
         @CacheEvict(value = "userWithCards", key = "#id")
       })
   public User updateUserStatus(Long id, Boolean active) {
-    User existingUser =
-        userRepository.findById(id).orElseThrow(() -> new UserNotFoundException(id));
+    User existingUser = findUser(id);
     existingUser.setActive(active);
+    outbox.userChanged(id);
     return userRepository.save(existingUser);
   }
 
+  @Override
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
+  public BulkStatusUpdateResultDto updateUserStatuses(Collection<Long> ids, boolean active) {
+    return updateStatuses(ids, active);
+  }
+
+  @Override
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
+  public BulkStatusUpdateResultDto updateUserStatusesByFilter(
+      String name, String surname, boolean active) {
+    if (!StringUtils.hasText(name) && !StringUtils.hasText(surname)) {
+      throw new InvalidFilterException("At least one of name or surname is required");
+    }
+    Specification<User> spec =
+        UserSpecification.filterByNameAndSurname(name, surname)
+            .and(UserSpecification.filterByActive(!active));
+    return updateStatuses(userRepository.findIds(spec), active);
+  }
+
   @Override
   @Caching(
       evict = {
         @CacheEvict(value = "users", key = "#id"),
+        @CacheEvict(value = "userJson", key = "#id"),
         @CacheEvict(value = "userWithCards", key = "#id")
       })
   public void activateUser(Long id) {
@@ -116,6 +260,7 @@ public class UserServiceImpl implements UserService {
   @Caching(
       evict = {
         @CacheEvict(value = "users", key = "#id"),
+        @CacheEvict(value = "userJson", key = "#id"),
         @CacheEvict(value = "userWithCards", key = "#id")
       })
   public void deactivateUser(Long id) {
@@ -126,22 +271,75 @@ public class UserServiceImpl implements UserService {
   @Caching(
       evict = {
         @CacheEvict(value = "users", key = "#id"),
+        @CacheEvict(value = "userJson", key = "#id"),
         @CacheEvict(value = "userWithCards", key = "#id")
       })
   public void deleteUser(Long id) {
-    if (!userRepository.existsById(id)) {
-      throw new UserNotFoundException(id);
-    }
-    userRepository.deleteById(id);
+    User user = findUser(id);
+    List<Long> cardIds = user.getCards().stream().map(PaymentCard::getId).toList();
+    outbox.userChanged(id);
+    outbox.cardsOfUserChanged(id);
+    userRepository.delete(user);
+    cacheEvictor.evict("cards", cardIds);
+  }
+
+  private BulkStatusUpdateResultDto updateStatuses(Collection<Long> ids, boolean active) {
+    BulkStatusUpdateResultDto result =
+        BulkStatusUpdates.apply(
+            transactionTemplate,
+            ids,
+            chunk -> {
+              int updated = userRepository.updateUserStatus(chunk, active, LocalDateTime.now());
+              if (updated > 0) {
+                outbox.usersChanged(chunk);
+              }
+              USER_CACHES.forEach(cache -> cacheEvictor.evict(cache, chunk));
+              return updated;
+            });
+    log.info("Set active={} on {} of {} users", active, result.getUpdated(), result.getMatched());
+    return result;
   }
 
   private void checkEmailUniqueness(String email) {
+    if (!existenceIndex.mightExistByEmail(email)) {
+      return;
+    }
     userRepository
         .findByEmail(email)
-        .ifPresent(
+        .ifPresentOrElse(
             u -> {
               log.warn("User already exists with email: {}", email);
               throw UserAlreadyExistsException.withEmail(email);
-            });
+            },
+            existenceIndex::recordMissingEmail);
+  }
+
+  private User findUser(Long id) {
+    checkMightExist(id);
+    return userRepository.findById(id).orElseThrow(() -> userNotFound(id));
+  }
+
+  /** Fails without a query for ids the existence index knows to be unused. */
+  private void checkMightExist(Long id) {
+    if (!existenceIndex.mightExist(id)) {
+      throw new UserNotFoundException(id);
+    }
+  }
+
+  /** Loads the given users, which the existence index could not rule out, with one query. */
+  private Map<Long, UserDto> findUserDtos(Collection<Long> ids) {
+    Map<Long, UserDto> users =
+        userRepository.findAllAsDtoByIdIn(ids).stream()
+            .collect(Collectors.toMap(UserDto::getId, Function.identity()));
+    for (int missing = ids.size() - users.size(); missing > 0; missing--) {
+      existenceIndex.recordMissingId();
+    }
+    return users;
+  }
+
+  /** For ids the existence index could not rule out. */
+  private UserNotFoundException userNotFound(Long id) {
+    existenceIndex.recordMissingId();
+    return new UserNotFoundException(id);
   }
 }
@@ -0,0 +1,8 @@
+--liquibase formatted sql
+
+-- changeset ynohach:add_keyset_indexes
+-- rollback DROP INDEX idx_users_name_id; DROP INDEX idx_users_surname_id; DROP INDEX idx_payment_cards_holder_id;
+CREATE INDEX IF NOT EXISTS idx_users_name_id ON users(name, id);
+CREATE INDEX IF NOT EXISTS idx_users_surname_id ON users(surname, id);
+
+CREATE INDEX IF NOT EXISTS idx_payment_cards_holder_id ON payment_cards(holder, id);
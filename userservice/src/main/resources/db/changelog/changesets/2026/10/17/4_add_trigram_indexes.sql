@@ -0,0 +1,11 @@
+--liquibase formatted sql
+
+-- changeset ynohach:add_trigram_indexes
+-- rollback DROP INDEX idx_users_name_trgm; DROP INDEX idx_users_surname_trgm; DROP INDEX idx_payment_cards_holder_trgm; DROP INDEX idx_payment_cards_number_trgm;
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_users_name_trgm ON users USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_users_surname_trgm ON users USING gin (lower(surname) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_payment_cards_holder_trgm ON payment_cards USING gin (lower(holder) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_payment_cards_number_trgm ON payment_cards USING gin (number gin_trgm_ops);
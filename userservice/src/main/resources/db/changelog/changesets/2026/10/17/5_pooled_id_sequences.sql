@@ -0,0 +1,8 @@
+--liquibase formatted sql
+
+-- changeset ynohach:pooled_id_sequences
+-- rollback ALTER SEQUENCE users_id_seq INCREMENT BY 1; ALTER SEQUENCE payment_cards_id_seq INCREMENT BY 1;
+-- Hibernate allocates ids in blocks of INCREMENT BY (increment_size_mismatch_strategy=FIX makes the
+-- database value authoritative), so a different allocation size needs a new changeset.
+ALTER SEQUENCE users_id_seq INCREMENT BY 50;
+ALTER SEQUENCE payment_cards_id_seq INCREMENT BY 50;
@@ -0,0 +1,19 @@
+--liquibase formatted sql
+
+-- changeset ynohach:add_active_card_count
+-- rollback ALTER TABLE users DROP COLUMN active_card_count;
+-- Maintained by the card write paths; lets the per-user card limit be enforced with a single
+-- conditional UPDATE, which also serializes concurrent card creation for the same user.
+ALTER TABLE users ADD COLUMN active_card_count INT NOT NULL DEFAULT 0;
+
+UPDATE users u
+SET active_card_count = c.active_cards
+FROM (
+    SELECT user_id, count(*) AS active_cards
+    FROM payment_cards
+    WHERE active = true
+    GROUP BY user_id
+) c
+WHERE c.user_id = u.id;
+
+ALTER TABLE users ADD CONSTRAINT chk_users_active_card_count CHECK (active_card_count >= 0);
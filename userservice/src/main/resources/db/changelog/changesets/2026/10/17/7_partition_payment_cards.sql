@@ -0,0 +1,118 @@
+--liquibase formatted sql
+
+-- changeset ynohach:partition_payment_cards context:partitioning
+-- rollback DROP TABLE payment_card_numbers;
+-- rollback ALTER SEQUENCE payment_cards_id_seq OWNED BY NONE;
+-- rollback CREATE TABLE payment_cards_unpartitioned (LIKE payment_cards INCLUDING DEFAULTS);
+-- rollback INSERT INTO payment_cards_unpartitioned SELECT * FROM payment_cards;
+-- rollback DROP TABLE payment_cards;
+-- rollback ALTER TABLE payment_cards_unpartitioned RENAME TO payment_cards;
+-- rollback ALTER TABLE payment_cards ADD CONSTRAINT payment_cards_pkey PRIMARY KEY (id), ADD CONSTRAINT payment_cards_number_key UNIQUE (number), ADD CONSTRAINT fk_payment_cards_user FOREIGN KEY (user_id) REFERENCES users (id);
+-- rollback CREATE INDEX idx_payment_cards_user_id ON payment_cards(user_id); CREATE INDEX idx_payment_cards_number ON payment_cards(number); CREATE INDEX idx_payment_cards_holder ON payment_cards(holder); CREATE INDEX idx_payment_cards_active ON payment_cards(active); CREATE INDEX idx_payment_cards_holder_id ON payment_cards(holder, id);
+-- rollback CREATE INDEX idx_payment_cards_holder_trgm ON payment_cards USING gin (lower(holder) gin_trgm_ops); CREATE INDEX idx_payment_cards_number_trgm ON payment_cards USING gin (number gin_trgm_ops);
+-- rollback ALTER SEQUENCE payment_cards_id_seq OWNED BY payment_cards.id;
+-- Rewrites payment_cards as 16 hash partitions on user_id, so user-scoped queries touch one
+-- partition and its small local indexes. Copies every card under an exclusive lock, hence the
+-- context: run it in a maintenance window with LIQUIBASE_CONTEXTS=default,partitioning.
+-- A partitioned table can only enforce uniqueness on keys containing user_id, so card numbers
+-- move into payment_card_numbers, kept in sync by the triggers below. Its key keeps the
+-- payment_cards_number_key name that duplicate numbers are reported under.
+LOCK TABLE payment_cards IN ACCESS EXCLUSIVE MODE;
+
+ALTER SEQUENCE payment_cards_id_seq OWNED BY NONE;
+ALTER TABLE payment_cards RENAME TO payment_cards_unpartitioned;
+
+CREATE TABLE payment_cards (
+    id BIGINT NOT NULL DEFAULT nextval('payment_cards_id_seq'),
+    user_id BIGINT NOT NULL,
+    number VARCHAR(20) NOT NULL,
+    holder VARCHAR(255) NOT NULL,
+    expiration_date VARCHAR(5) NOT NULL,
+    active BOOLEAN DEFAULT TRUE,
+    created_at TIMESTAMP WITHOUT TIME ZONE,
+    updated_at TIMESTAMP WITHOUT TIME ZONE
+) PARTITION BY HASH (user_id);
+
+CREATE TABLE payment_cards_p00 PARTITION OF payment_cards FOR VALUES WITH (MODULUS 16, REMAINDER 0);
+CREATE TABLE payment_cards_p01 PARTITION OF payment_cards FOR VALUES WITH (MODULUS 16, REMAINDER 1);
+CREATE TABLE payment_cards_p02 PARTITION OF payment_cards FOR VALUES WITH (MODULUS 16, REMAINDER 2);
+CREATE TABLE payment_cards_p03 PARTITION OF payment_cards FOR VALUES WITH (MODULUS 16, REMAINDER 3);
+CREATE TABLE payment_cards_p04 PARTITION OF payment_cards FOR VALUES WITH (MODULUS 16, REMAINDER 4);
+CREATE TABLE payment_cards_p05 PARTITION OF payment_cards FOR VALUES WITH (MODULUS 16, REMAINDER 5);
+CREATE TABLE payment_cards_p06 PARTITION OF payment_cards FOR VALUES WITH (MODULUS 16, REMAINDER 6);
+CREATE TABLE payment_cards_p07 PARTITION OF payment_cards FOR VALUES WITH (MODULUS 16, REMAINDER 7);
+CREATE TABLE payment_cards_p08 PARTITION OF payment_cards FOR VALUES WITH (MODULUS 16, REMAINDER 8);
+CREATE TABLE payment_cards_p09 PARTITION OF payment_cards FOR VALUES WITH (MODULUS 16, REMAINDER 9);
+CREATE TABLE payment_cards_p10 PARTITION OF payment_cards FOR VALUES WITH (MODULUS 16, REMAINDER 10);
+CREATE TABLE payment_cards_p11 PARTITION OF payment_cards FOR VALUES WITH (MODULUS 16, REMAINDER 11);
+CREATE TABLE payment_cards_p12 PARTITION OF payment_cards FOR VALUES WITH (MODULUS 16, REMAINDER 12);
+CREATE TABLE payment_cards_p13 PARTITION OF payment_cards FOR VALUES WITH (MODULUS 16, REMAINDER 13);
+CREATE TABLE payment_cards_p14 PARTITION OF payment_cards FOR VALUES WITH (MODULUS 16, REMAINDER 14);
+CREATE TABLE payment_cards_p15 PARTITION OF payment_cards FOR VALUES WITH (MODULUS 16, REMAINDER 15);
+
+INSERT INTO payment_cards (id, user_id, number, holder, expiration_date, active, created_at, updated_at)
+SELECT id, user_id, number, holder, expiration_date, active, created_at, updated_at
+FROM payment_cards_unpartitioned;
+
+CREATE TABLE payment_card_numbers (
+    number VARCHAR(20) NOT NULL,
+    card_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL
+);
+
+INSERT INTO payment_card_numbers (number, card_id, user_id)
+SELECT number, id, user_id
+FROM payment_cards_unpartitioned;
+
+DROP TABLE payment_cards_unpartitioned;
+
+ALTER SEQUENCE payment_cards_id_seq OWNED BY payment_cards.id;
+
+ALTER TABLE payment_card_numbers ADD CONSTRAINT payment_cards_number_key PRIMARY KEY (number);
+
+ALTER TABLE payment_cards ADD CONSTRAINT payment_cards_pkey PRIMARY KEY (id, user_id);
+ALTER TABLE payment_cards ADD CONSTRAINT fk_payment_cards_user FOREIGN KEY (user_id) REFERENCES users (id);
+
+-- Created on the parent, so every partition gets its own copy.
+CREATE INDEX idx_payment_cards_user_id ON payment_cards(user_id, id);
+CREATE INDEX idx_payment_cards_number ON payment_cards(number);
+CREATE INDEX idx_payment_cards_holder ON payment_cards(holder);
+CREATE INDEX idx_payment_cards_active ON payment_cards(active);
+CREATE INDEX idx_payment_cards_holder_id ON payment_cards(holder, id);
+CREATE INDEX idx_payment_cards_holder_trgm ON payment_cards USING gin (lower(holder) gin_trgm_ops);
+CREATE INDEX idx_payment_cards_number_trgm ON payment_cards USING gin (number gin_trgm_ops);
+
+ANALYZE payment_cards;
+ANALYZE payment_card_numbers;
+
+-- changeset ynohach:sync_payment_card_numbers_function context:partitioning splitStatements:false
+-- rollback DROP FUNCTION sync_payment_card_numbers();
+CREATE FUNCTION sync_payment_card_numbers() RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        DELETE FROM payment_card_numbers WHERE number = OLD.number;
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        INSERT INTO payment_card_numbers (number, card_id, user_id)
+        VALUES (NEW.number, NEW.id, NEW.user_id);
+    END IF;
+    RETURN NULL;
+END
+$$;
+
+-- changeset ynohach:sync_payment_card_numbers_triggers context:partitioning
+-- rollback DROP TRIGGER trg_payment_cards_number_insert ON payment_cards; DROP TRIGGER trg_payment_cards_number_update ON payment_cards; DROP TRIGGER trg_payment_cards_number_delete ON payment_cards;
+-- A duplicate number fails the insert on payment_cards_number_key and rolls back the card row.
+CREATE TRIGGER trg_payment_cards_number_insert
+    AFTER INSERT ON payment_cards
+    FOR EACH ROW EXECUTE FUNCTION sync_payment_card_numbers();
+
+CREATE TRIGGER trg_payment_cards_number_update
+    AFTER UPDATE OF number ON payment_cards
+    FOR EACH ROW WHEN (OLD.number IS DISTINCT FROM NEW.number)
+    EXECUTE FUNCTION sync_payment_card_numbers();
+
+CREATE TRIGGER trg_payment_cards_number_delete
+    AFTER DELETE ON payment_cards
+    FOR EACH ROW EXECUTE FUNCTION sync_payment_card_numbers();
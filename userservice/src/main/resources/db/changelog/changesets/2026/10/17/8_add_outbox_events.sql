@@ -0,0 +1,13 @@
+--liquibase formatted sql
+
+-- changeset ynohach:add_outbox_events
+-- rollback DROP TABLE outbox_events;
+-- Users and cards changed by committed transactions, until the relay has published their state.
+-- Rows are deleted once published, so the table stays small and needs no index beyond the key.
+CREATE TABLE outbox_events (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    aggregate_type VARCHAR(10) NOT NULL,
+    aggregate_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT now()
+);
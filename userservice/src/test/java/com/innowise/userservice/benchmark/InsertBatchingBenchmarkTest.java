@@ -0,0 +1,135 @@
+package com.innowise.userservice.benchmark;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Card insert throughput with the statement patterns Hibernate emits for each id strategy.
+ *
+ * <p>With {@code IDENTITY} every row is an {@code INSERT ... RETURNING id} round trip, because
+ * Hibernate needs the id before it can continue. With the pooled sequence ids are fetched once per
+ * allocation block and the inserts go out as JDBC batches, which the driver rewrites into
+ * multi-row statements ({@code reWriteBatchedInserts}).
+ */
+class InsertBatchingBenchmarkTest extends PostgresBenchmark {
+
+  private static final String INSERT_CARD =
+      "INSERT INTO payment_cards (user_id, number, holder, expiration_date, active, created_at,"
+          + " updated_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+  private static final String INSERT_CARD_WITH_ID =
+      "INSERT INTO payment_cards (id, user_id, number, holder, expiration_date, active, created_at,"
+          + " updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+  @Test
+  void cardInsertThroughput_identityVersusPooledSequence() throws SQLException {
+    int cards = (int) property("cards", 100_000);
+    int batchSize = (int) property("batchSize", 50);
+    int allocationSize =
+        jdbcTemplate.queryForObject(
+            "SELECT increment_by FROM pg_sequences WHERE sequencename = 'payment_cards_id_seq'",
+            Integer.class);
+
+    jdbcTemplate.update(
+        "INSERT INTO users (name, surname, birth_date, email, active, created_at, updated_at)"
+            + " SELECT 'Name' || g, 'Surname' || g, date '1990-01-01', 'batch' || g ||"
+            + " '@bench.local', true, now(), now() FROM generate_series(1, ?) g",
+        Math.max(1, cards / 5));
+    List<Long> userIds = jdbcTemplate.queryForList("SELECT id FROM users", Long.class);
+
+    long start = System.nanoTime();
+    insertOneByOne(userIds, cards);
+    report("identity, one round trip per row", cards, System.nanoTime() - start);
+
+    jdbcTemplate.execute("TRUNCATE payment_cards");
+
+    start = System.nanoTime();
+    insertBatched(userIds, cards, batchSize, allocationSize);
+    report(
+        "pooled sequence, batch size " + batchSize + ", allocation size " + allocationSize,
+        cards,
+        System.nanoTime() - start);
+  }
+
+  private void insertOneByOne(List<Long> userIds, int cards) throws SQLException {
+    try (Connection connection = connect(false);
+        PreparedStatement insert =
+            connection.prepareStatement(INSERT_CARD, Statement.RETURN_GENERATED_KEYS)) {
+      connection.setAutoCommit(false);
+      for (int i = 0; i < cards; i++) {
+        bindCard(insert, 1, userIds.get(i % userIds.size()), i);
+        insert.executeUpdate();
+        try (ResultSet keys = insert.getGeneratedKeys()) {
+          keys.next();
+        }
+      }
+      connection.commit();
+    }
+  }
+
+  private void insertBatched(List<Long> userIds, int cards, int batchSize, int allocationSize)
+      throws SQLException {
+    try (Connection connection = connect(true);
+        PreparedStatement nextBlock =
+            connection.prepareStatement("SELECT nextval('payment_cards_id_seq')");
+        PreparedStatement insert = connection.prepareStatement(INSERT_CARD_WITH_ID)) {
+      connection.setAutoCommit(false);
+      long nextId = 0;
+      long blockEnd = -1;
+      for (int i = 0; i < cards; i++) {
+        if (nextId > blockEnd) {
+          try (ResultSet block = nextBlock.executeQuery()) {
+            block.next();
+            blockEnd = block.getLong(1);
+            nextId = blockEnd - allocationSize + 1;
+          }
+        }
+        insert.setLong(1, nextId++);
+        bindCard(insert, 2, userIds.get(i % userIds.size()), i);
+        insert.addBatch();
+        if ((i + 1) % batchSize == 0) {
+          insert.executeBatch();
+        }
+      }
+      insert.executeBatch();
+      connection.commit();
+    }
+  }
+
+  private static void bindCard(PreparedStatement insert, int index, long userId, int card)
+      throws SQLException {
+    Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+    insert.setLong(index, userId);
+    insert.setString(index + 1, String.format("%016d", card));
+    insert.setString(index + 2, "Card Holder");
+    insert.setString(index + 3, "12/30");
+    insert.setBoolean(index + 4, false);
+    insert.setTimestamp(index + 5, now);
+    insert.setTimestamp(index + 6, now);
+  }
+
+  private static Connection connect(boolean rewriteBatchedInserts) throws SQLException {
+    String url = postgres.getJdbcUrl();
+    if (rewriteBatchedInserts) {
+      url += (url.contains("?") ? "&" : "?") + "reWriteBatchedInserts=true";
+    }
+    return DriverManager.getConnection(url, postgres.getUsername(), postgres.getPassword());
+  }
+
+  private static void report(String label, int rows, long nanos) {
+    double seconds = nanos / 1_000_000_000.0;
+    log.info(
+        "{}: {} rows in {} s ({} rows/s)",
+        label,
+        rows,
+        String.format("%.2f", seconds),
+        String.format("%.0f", rows / seconds));
+  }
+}
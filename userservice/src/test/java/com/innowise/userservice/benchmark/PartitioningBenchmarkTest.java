@@ -0,0 +1,106 @@
+package com.innowise.userservice.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import org.junit.jupiter.api.Test;
+
+/**
+ * User-scoped card reads and card inserts before and after the opt-in changeset that hash
+ * partitions {@code payment_cards} on {@code user_id}, at 100M cards by default.
+ *
+ * <p>The reads are the statements behind {@code PaymentCardRepository.findViewsByUserId} and
+ * {@code countActiveCardsByUserId}. Inserts are JDBC batches into the loaded table, so the
+ * partitioned run pays for the {@code payment_card_numbers} trigger that keeps numbers unique.
+ */
+class PartitioningBenchmarkTest extends PostgresBenchmark {
+
+  private static final String CARDS_BY_USER_SQL =
+      "SELECT id, number, holder, expiration_date, active, user_id FROM payment_cards"
+          + " WHERE user_id = ? ORDER BY id";
+  private static final String COUNT_ACTIVE_SQL =
+      "SELECT COUNT(*) FROM payment_cards WHERE user_id = ? AND active = true";
+  private static final String INSERT_CARD =
+      "INSERT INTO payment_cards (user_id, number, holder, expiration_date, active, created_at,"
+          + " updated_at) VALUES (?, ?, 'BENCH HOLDER', '12/30', true, now(), now())";
+
+  @Test
+  void userScopedReadsAndInserts_beforeAndAfterPartitioning() throws Exception {
+    long cards = property("cards", 100_000_000);
+    long users = Math.max(1, cards / 5);
+    int iterations = (int) property("iterations", 1_000);
+    int inserts = (int) property("inserts", 200_000);
+    int batchSize = (int) property("batchSize", 50);
+
+    jdbcTemplate.update(
+        "INSERT INTO users (id, name, surname, birth_date, email, active, created_at, updated_at)"
+            + " SELECT g, 'Name' || g, 'Surname' || g, date '1990-01-01', 'part' || g ||"
+            + " '@bench.local', true, now(), now() FROM generate_series(1, ?) g",
+        users);
+    long start = System.nanoTime();
+    jdbcTemplate.update(
+        "INSERT INTO payment_cards (id, user_id, number, holder, expiration_date, active,"
+            + " created_at, updated_at) SELECT g, 1 + g % ?, lpad(g::text, 16, '0'), 'HOLDER ' ||"
+            + " g % 1000, '12/30', g % 3 <> 0, now(), now() FROM generate_series(1, ?) g",
+        users,
+        cards);
+    log.info("Loaded {} cards in {} s", cards, seconds(start));
+    jdbcTemplate.execute("SELECT setval('users_id_seq', " + users + ")");
+    jdbcTemplate.execute("SELECT setval('payment_cards_id_seq', " + cards + ")");
+    jdbcTemplate.execute("ANALYZE");
+
+    run("unpartitioned", users, iterations, cards, inserts, batchSize);
+
+    start = System.nanoTime();
+    applyChangelog(DEFAULT_CONTEXTS + ",partitioning");
+    log.info("Partitioning migration took {} s", seconds(start));
+
+    run("partitioned", users, iterations, cards + inserts, inserts, batchSize);
+  }
+
+  private void run(
+      String label, long users, int iterations, long firstNumber, int inserts, int batchSize) {
+    log.info("Plan {}:\n{}", label, explain(users));
+    measure(
+            20,
+            iterations,
+            () -> jdbcTemplate.queryForList(CARDS_BY_USER_SQL, randomUser(users)))
+        .report("cards by user, " + label);
+    measure(
+            20,
+            iterations,
+            () -> jdbcTemplate.queryForObject(COUNT_ACTIVE_SQL, Integer.class, randomUser(users)))
+        .report("active card count, " + label);
+
+    long start = System.nanoTime();
+    for (int from = 0; from < inserts; from += batchSize) {
+      List<Object[]> batch = new ArrayList<>(batchSize);
+      for (int i = from; i < Math.min(from + batchSize, inserts); i++) {
+        batch.add(new Object[] {randomUser(users), String.format("%016d", firstNumber + i + 1)});
+      }
+      jdbcTemplate.batchUpdate(INSERT_CARD, batch);
+    }
+    double elapsed = seconds(start);
+    log.info(
+        "inserts, {}: {} cards/s ({} cards, batch size {})",
+        label,
+        String.format("%.0f", inserts / elapsed),
+        inserts,
+        batchSize);
+  }
+
+  private String explain(long users) {
+    return String.join(
+        "\n",
+        jdbcTemplate.queryForList(
+            "EXPLAIN (ANALYZE, BUFFERS) " + CARDS_BY_USER_SQL, String.class, randomUser(users)));
+  }
+
+  private static long randomUser(long users) {
+    return ThreadLocalRandom.current().nextLong(1, users + 1);
+  }
+
+  private static double seconds(long startNanos) {
+    return (System.nanoTime() - startNanos) / 1e9;
+  }
+}
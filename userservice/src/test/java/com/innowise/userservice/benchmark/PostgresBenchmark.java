@@ -0,0 +1,120 @@
+package com.innowise.userservice.benchmark;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import liquibase.integration.spring.SpringLiquibase;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Base class for database benchmarks that need production-like volumes.
+ *
+ * <p>Benchmarks are skipped by default; run them with {@code ./gradlew :userservice:test
+ * -Dbenchmark=true --tests '*Benchmark*'}. Dataset sizes are read from {@code benchmark.*} system
+ * properties. The schema is created by the real Liquibase changelog, not by Hibernate.
+ */
+@Testcontainers
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public abstract class PostgresBenchmark {
+
+  protected static final Logger log = LoggerFactory.getLogger(PostgresBenchmark.class);
+
+  @Container
+  protected static final PostgreSQLContainer<?> postgres =
+      new PostgreSQLContainer<>("postgres:15-alpine")
+          .withDatabaseName("benchmark")
+          .withUsername("test")
+          .withPassword("test")
+          .withCommand(
+              "postgres",
+              "-c",
+              "shared_buffers=512MB",
+              "-c",
+              "max_wal_size=4GB",
+              "-c",
+              "synchronous_commit=off");
+
+  /** Contexts applied by default, as in {@code spring.liquibase.contexts}. */
+  protected static final String DEFAULT_CONTEXTS = "default";
+
+  protected static HikariDataSource dataSource;
+  protected static JdbcTemplate jdbcTemplate;
+
+  @BeforeAll
+  static void migrate() throws Exception {
+    dataSource = new HikariDataSource();
+    dataSource.setJdbcUrl(postgres.getJdbcUrl());
+    dataSource.setUsername(postgres.getUsername());
+    dataSource.setPassword(postgres.getPassword());
+    dataSource.setMaximumPoolSize(8);
+
+    applyChangelog(DEFAULT_CONTEXTS);
+    jdbcTemplate = new JdbcTemplate(dataSource);
+  }
+
+  /**
+   * Applies the pending changesets of the real changelog. Opt-in changesets, such as the
+   * partitioning of {@code payment_cards}, only run when their context is listed.
+   */
+  protected static void applyChangelog(String contexts) throws Exception {
+    SpringLiquibase liquibase = new SpringLiquibase();
+    liquibase.setDataSource(dataSource);
+    liquibase.setChangeLog("classpath:db/changelog/db.changelog-master.yaml");
+    liquibase.setContexts(contexts);
+    liquibase.setResourceLoader(new DefaultResourceLoader());
+    liquibase.afterPropertiesSet();
+  }
+
+  @AfterAll
+  static void closeDataSource() {
+    dataSource.close();
+  }
+
+  protected static long property(String name, long defaultValue) {
+    return Long.getLong("benchmark." + name, defaultValue);
+  }
+
+  /** Runs {@code action} {@code warmup + iterations} times and keeps the measured latencies. */
+  protected static Latencies measure(int warmup, int iterations, Runnable action) {
+    for (int i = 0; i < warmup; i++) {
+      action.run();
+    }
+    long[] nanos = new long[iterations];
+    for (int i = 0; i < iterations; i++) {
+      long start = System.nanoTime();
+      action.run();
+      nanos[i] = System.nanoTime() - start;
+    }
+    Arrays.sort(nanos);
+    return new Latencies(nanos);
+  }
+
+  protected record Latencies(long[] sortedNanos) {
+
+    public double percentileMillis(double percentile) {
+      int index = (int) Math.ceil(percentile / 100.0 * sortedNanos.length) - 1;
+      long nanos = sortedNanos[Math.max(0, Math.min(index, sortedNanos.length - 1))];
+      return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    public void report(String name) {
+      log.info(
+          "{}: p50={} ms, p95={} ms, p99={} ms, max={} ms ({} runs)",
+          name,
+          String.format("%.2f", percentileMillis(50)),
+          String.format("%.2f", percentileMillis(95)),
+          String.format("%.2f", percentileMillis(99)),
+          String.format("%.2f", percentileMillis(100)),
+          sortedNanos.length);
+    }
+  }
+}
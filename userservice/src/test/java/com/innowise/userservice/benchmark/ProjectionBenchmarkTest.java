@@ -0,0 +1,170 @@
+package com.innowise.userservice.benchmark;
+
+import com.innowise.userservice.mapper.PaymentCardMapper;
+import com.innowise.userservice.mapper.PaymentCardMapperImpl;
+import com.innowise.userservice.mapper.UserMapper;
+import com.innowise.userservice.mapper.UserMapperImpl;
+import com.innowise.userservice.model.entity.PaymentCard;
+import com.innowise.userservice.model.entity.User;
+import com.innowise.userservice.repository.PaymentCardDtoRepositoryImpl;
+import com.innowise.userservice.repository.PaymentCardRepository;
+import com.innowise.userservice.repository.UserDtoRepositoryImpl;
+import com.innowise.userservice.repository.UserRepository;
+import com.innowise.userservice.repository.specification.CardSpecification;
+import com.innowise.userservice.repository.specification.UserSpecification;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.data.repository.core.support.RepositoryComposition.RepositoryFragments;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Compares the entity-based list paths with the DTO projection paths on a large page.
+ *
+ * <p>Repositories are created by Spring Data on a Hibernate setup equivalent to the application's
+ * and every run happens in a read-only transaction, as in the services. Besides latency the
+ * allocated bytes per run of the benchmark thread are reported, which covers the JDBC driver,
+ * Hibernate and the mapping step.
+ */
+class ProjectionBenchmarkTest extends PostgresBenchmark {
+
+  private static final int OWNERS = 100;
+
+  private static LocalContainerEntityManagerFactoryBean entityManagerFactoryBean;
+  private static TransactionTemplate readOnlyTransaction;
+  private static UserRepository userRepository;
+  private static PaymentCardRepository cardRepository;
+
+  private final UserMapper userMapper = new UserMapperImpl(new PaymentCardMapperImpl());
+  private final PaymentCardMapper cardMapper = new PaymentCardMapperImpl();
+
+  @BeforeAll
+  static void seedAndCreateRepositories() {
+    long users = property("users", 200_000);
+    jdbcTemplate.update(
+        "INSERT INTO users (name, surname, birth_date, email, active, created_at, updated_at)"
+            + " SELECT initcap(substr(md5(g::text), 1, 10)), initcap(substr(md5((g * 7)::text), 1,"
+            + " 12)), date '1970-01-01' + (g % 15000), 'user' || g || '@bench.local', true,"
+            + " now(), now() FROM generate_series(1, ?) g",
+        users);
+    jdbcTemplate.update(
+        "INSERT INTO payment_cards"
+            + " (user_id, number, holder, expiration_date, active, created_at, updated_at)"
+            + " SELECT u.id, lpad(u.id::text, 15, '0') || c, upper(u.name || ' ' || u.surname),"
+            + " '12/30', true, now(), now() FROM users u CROSS JOIN generate_series(1, 2) c");
+    jdbcTemplate.execute("ANALYZE");
+
+    entityManagerFactoryBean = new LocalContainerEntityManagerFactoryBean();
+    entityManagerFactoryBean.setDataSource(dataSource);
+    entityManagerFactoryBean.setPackagesToScan("com.innowise.userservice.model.entity");
+    entityManagerFactoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+    entityManagerFactoryBean.setJpaPropertyMap(
+        Map.of(
+            "hibernate.physical_naming_strategy",
+            CamelCaseToUnderscoresNamingStrategy.class.getName(),
+            "hibernate.implicit_naming_strategy",
+            SpringImplicitNamingStrategy.class.getName()));
+    entityManagerFactoryBean.afterPropertiesSet();
+    EntityManagerFactory entityManagerFactory = entityManagerFactoryBean.getObject();
+
+    readOnlyTransaction = new TransactionTemplate(new JpaTransactionManager(entityManagerFactory));
+    readOnlyTransaction.setReadOnly(true);
+
+    EntityManager entityManager =
+        SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory);
+    JpaRepositoryFactory factory = new JpaRepositoryFactory(entityManager);
+    userRepository =
+        factory.getRepository(
+            UserRepository.class,
+            RepositoryFragments.just(new UserDtoRepositoryImpl(entityManager)));
+    cardRepository =
+        factory.getRepository(
+            PaymentCardRepository.class,
+            RepositoryFragments.just(new PaymentCardDtoRepositoryImpl(entityManager)));
+  }
+
+  @AfterAll
+  static void closeEntityManagerFactory() {
+    entityManagerFactoryBean.destroy();
+  }
+
+  @Test
+  void listing_entitiesVersusProjections() {
+    int pageSize = (int) property("pageSize", 1000);
+    int iterations = (int) property("iterations", 50);
+    Pageable page = PageRequest.of(10, pageSize, Sort.by("id"));
+    Specification<User> users = UserSpecification.filterByNameAndSurname(null, null);
+    Specification<PaymentCard> cards = CardSpecification.filterByActive(true);
+
+    compare(
+        "users, entities + UserMapper",
+        iterations,
+        () -> userRepository.findAll(users, page).map(userMapper::userToUserDto));
+    compare(
+        "users, constructor expression",
+        iterations,
+        () -> userRepository.findAllAsDto(users, page));
+
+    compare(
+        "cards, entities + PaymentCardMapper",
+        iterations,
+        () -> cardRepository.findAll(cards, page).map(cardMapper::cardToCardDto));
+    compare(
+        "cards, constructor expression",
+        iterations,
+        () -> cardRepository.findAllAsDto(cards, page));
+
+    List<Long> owners =
+        jdbcTemplate.queryForList("SELECT id FROM users ORDER BY id LIMIT ?", Long.class, OWNERS);
+    compare(
+        "cards of " + OWNERS + " owners, entities + PaymentCardMapper",
+        iterations,
+        () ->
+            owners.stream()
+                .flatMap(id -> cardRepository.findAllByUserId(id).stream())
+                .map(cardMapper::cardToCardDto)
+                .toList());
+    compare(
+        "cards of " + OWNERS + " owners, interface projection",
+        iterations,
+        () ->
+            owners.stream()
+                .flatMap(id -> cardRepository.findViewsByUserId(id).stream())
+                .map(cardMapper::viewToCardDto)
+                .toList());
+  }
+
+  private void compare(String label, int iterations, Supplier<?> action) {
+    Runnable run = () -> readOnlyTransaction.execute(status -> action.get());
+    measure(5, iterations, run).report(label);
+    log.info("{}: {} KB allocated per run", label, allocatedBytesPerRun(iterations, run) / 1024);
+  }
+
+  private static long allocatedBytesPerRun(int iterations, Runnable action) {
+    com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long threadId = Thread.currentThread().threadId();
+    long before = threads.getThreadAllocatedBytes(threadId);
+    for (int i = 0; i < iterations; i++) {
+      action.run();
+    }
+    return (threads.getThreadAllocatedBytes(threadId) - before) / iterations;
+  }
+}
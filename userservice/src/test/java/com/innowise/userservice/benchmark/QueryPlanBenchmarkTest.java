@@ -0,0 +1,96 @@
+package com.innowise.userservice.benchmark;
+
+import com.innowise.userservice.dataset.DatasetGenerator;
+import com.innowise.userservice.dataset.DatasetSpec;
+import java.util.concurrent.ThreadLocalRandom;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Plans and latencies of the main list queries on a generated production-like dataset, 10M users
+ * by default ({@code benchmark.users}, {@code benchmark.seed}).
+ *
+ * <p>Names are Zipf distributed, so every filter is run for the most and the least common value:
+ * the planner picks different plans for them, and both have to stay fast.
+ */
+class QueryPlanBenchmarkTest extends PostgresBenchmark {
+
+  private static final String USERS_BY_NAME =
+      "SELECT id, name, surname, birth_date, email, active FROM users"
+          + " WHERE lower(name) LIKE ? ORDER BY id LIMIT 20";
+  private static final String USERS_BY_SURNAME_KEYSET =
+      "SELECT id, name, surname, birth_date, email, active FROM users"
+          + " WHERE surname >= ? AND (surname > ? OR id > ?) ORDER BY surname, id LIMIT 20";
+  private static final String CARDS_BY_USER =
+      "SELECT id, number, holder, expiration_date, active, user_id FROM payment_cards"
+          + " WHERE user_id = ? ORDER BY id";
+  private static final String ACTIVE_CARDS_BY_HOLDER =
+      "SELECT id, number, holder, expiration_date, active, user_id FROM payment_cards"
+          + " WHERE lower(holder) LIKE ? AND active = true ORDER BY id LIMIT 20";
+
+  private static long users;
+
+  @BeforeAll
+  static void generate() throws Exception {
+    users = property("users", 10_000_000);
+    DatasetSpec spec = DatasetSpec.builder().users(users).seed(property("seed", 42)).build();
+    long start = System.nanoTime();
+    long cards = new DatasetGenerator(spec).load(dataSource);
+    log.info(
+        "Generated {} users and {} cards in {} s",
+        users,
+        cards,
+        (System.nanoTime() - start) / 1_000_000_000);
+  }
+
+  @Test
+  void listQueries_onCommonAndRareValues() {
+    int iterations = (int) property("iterations", 200);
+    for (String order : new String[] {"DESC", "ASC"}) {
+      String label = "DESC".equals(order) ? "common" : "rare";
+      String name = mostOrLeast("name", order);
+      String surname = mostOrLeast("surname", order);
+      String holder = "%" + name.toLowerCase() + " " + surname.toLowerCase() + "%";
+
+      run("users by name, " + label, iterations, USERS_BY_NAME, "%" + name.toLowerCase() + "%");
+      run(
+          "users by surname keyset, " + label,
+          iterations,
+          USERS_BY_SURNAME_KEYSET,
+          surname,
+          surname,
+          0L);
+      run("active cards by holder, " + label, iterations, ACTIVE_CARDS_BY_HOLDER, holder);
+    }
+    log.info("Plan cards by user:\n{}", explain(CARDS_BY_USER, users / 2));
+    measure(
+            20,
+            iterations,
+            () ->
+                jdbcTemplate.queryForList(
+                    CARDS_BY_USER, 1 + ThreadLocalRandom.current().nextLong(users)))
+        .report("cards by user");
+  }
+
+  private void run(String label, int iterations, String sql, Object... args) {
+    log.info("Plan {}:\n{}", label, explain(sql, args));
+    measure(20, iterations, () -> jdbcTemplate.queryForList(sql, args)).report(label);
+  }
+
+  private static String mostOrLeast(String column, String order) {
+    return jdbcTemplate.queryForObject(
+        "SELECT "
+            + column
+            + " FROM users GROUP BY "
+            + column
+            + " ORDER BY count(*) "
+            + order
+            + " LIMIT 1",
+        String.class);
+  }
+
+  private static String explain(String sql, Object... args) {
+    return String.join(
+        "\n", jdbcTemplate.queryForList("EXPLAIN (ANALYZE, BUFFERS) " + sql, String.class, args));
+  }
+}
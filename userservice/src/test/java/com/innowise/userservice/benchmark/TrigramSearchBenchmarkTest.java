@@ -0,0 +1,80 @@
+package com.innowise.userservice.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+/**
+ * Compares substring search on {@code users} with and without the pg_trgm GIN indexes.
+ *
+ * <p>The queries are the ones Hibernate renders for {@code UserSpecification
+ * .filterByNameAndSurname}: a page query and the count query issued for {@code Page} results.
+ */
+class TrigramSearchBenchmarkTest extends PostgresBenchmark {
+
+  private static final String TRIGRAM_MIGRATION =
+      "db/changelog/changesets/2026/10/17/4_add_trigram_indexes.sql";
+
+  private static final String PAGE_SQL =
+      "SELECT id, name, surname FROM users WHERE lower(name) LIKE ? ESCAPE '\\'"
+          + " ORDER BY id LIMIT 20";
+  private static final String COUNT_SQL =
+      "SELECT count(*) FROM users WHERE lower(name) LIKE ? ESCAPE '\\'";
+
+  @Test
+  void substringSearch_beforeAndAfterTrigramIndexes() throws Exception {
+    long users = property("users", 2_000_000);
+    int iterations = (int) property("iterations", 50);
+
+    jdbcTemplate.update(
+        "INSERT INTO users (name, surname, birth_date, email, active, created_at, updated_at)"
+            + " SELECT initcap(substr(md5(g::text), 1, 10)), initcap(substr(md5((g * 7)::text), 1,"
+            + " 12)), date '1970-01-01' + (g % 15000), 'user' || g || '@bench.local', g % 10 <> 0,"
+            + " now(), now() FROM generate_series(1, ?) g",
+        users);
+
+    List<String> terms =
+        jdbcTemplate.queryForList(
+            "SELECT lower(substr(name, 3, 4)) FROM users TABLESAMPLE SYSTEM (1) LIMIT 20",
+            String.class);
+
+    jdbcTemplate.execute(
+        "DROP INDEX idx_users_name_trgm, idx_users_surname_trgm, idx_payment_cards_holder_trgm,"
+            + " idx_payment_cards_number_trgm");
+    jdbcTemplate.execute("ANALYZE users");
+    log.info("Plan without trigram indexes:\n{}", explain(terms.get(0)));
+    run("without trigram indexes", terms, iterations);
+
+    jdbcTemplate.execute(
+        new ClassPathResource(TRIGRAM_MIGRATION).getContentAsString(StandardCharsets.UTF_8));
+    jdbcTemplate.execute("ANALYZE users");
+    log.info("Plan with trigram indexes:\n{}", explain(terms.get(0)));
+    run("with trigram indexes", terms, iterations);
+  }
+
+  private void run(String label, List<String> terms, int iterations) {
+    int[] next = {0};
+    measure(
+            5,
+            iterations,
+            () -> jdbcTemplate.queryForList(PAGE_SQL, pattern(terms, next[0]++)))
+        .report("page query " + label);
+    measure(
+            5,
+            iterations,
+            () -> jdbcTemplate.queryForObject(COUNT_SQL, Long.class, pattern(terms, next[0]++)))
+        .report("count query " + label);
+  }
+
+  private String explain(String term) {
+    return String.join(
+        "\n",
+        jdbcTemplate.queryForList(
+            "EXPLAIN (ANALYZE, BUFFERS) " + COUNT_SQL, String.class, "%" + term + "%"));
+  }
+
+  private static String pattern(List<String> terms, int index) {
+    return "%" + terms.get(index % terms.size()) + "%";
+  }
+}
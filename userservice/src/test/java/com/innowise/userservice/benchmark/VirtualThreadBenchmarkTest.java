@@ -0,0 +1,144 @@
+package com.innowise.userservice.benchmark;
+
+import com.innowise.userservice.UserserviceApplication;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+
+/**
+ * Throughput and tail latency of the running service with platform threads versus virtual threads
+ * ({@code spring.threads.virtual.enabled}).
+ *
+ * <p>Starts the application twice against the same database, each time on a random port, and
+ * drives it with a closed loop of {@code benchmark.clients} concurrent clients calling the
+ * uncached, database-bound user listing for {@code benchmark.seconds} after a warm-up. The pool
+ * size is the same in both runs, so the comparison shows what the thread model alone changes.
+ */
+class VirtualThreadBenchmarkTest extends PostgresBenchmark {
+
+  private static final int POOL_SIZE = 20;
+
+  @Container
+  private static final GenericContainer<?> redis =
+      new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+  private final HttpClient httpClient =
+      HttpClient.newBuilder()
+          .version(HttpClient.Version.HTTP_1_1)
+          .executor(Executors.newVirtualThreadPerTaskExecutor())
+          .build();
+
+  @Test
+  void userListing_platformVersusVirtualThreads() throws Exception {
+    long users = property("users", 100_000);
+    int clients = (int) property("clients", 1_000);
+    Duration duration = Duration.ofSeconds(property("seconds", 30));
+
+    jdbcTemplate.update(
+        "INSERT INTO users (name, surname, birth_date, email, active, created_at, updated_at)"
+            + " SELECT 'Name' || g, 'Surname' || g, date '1990-01-01', 'load' || g ||"
+            + " '@bench.local', true, now(), now() FROM generate_series(1, ?) g",
+        users);
+    jdbcTemplate.execute("ANALYZE users");
+
+    for (boolean virtual : new boolean[] {false, true}) {
+      String label = virtual ? "virtual threads" : "platform threads";
+      try (ConfigurableApplicationContext app = start(virtual)) {
+        int port = ((WebServerApplicationContext) app).getWebServer().getPort();
+        drive(port, clients, Duration.ofSeconds(5));
+        drive(port, clients, duration).report(label + ", " + clients + " clients");
+      }
+    }
+  }
+
+  private ConfigurableApplicationContext start(boolean virtualThreads) {
+    return new SpringApplicationBuilder(UserserviceApplication.class)
+        .run(
+            "--server.port=0",
+            "--spring.threads.virtual.enabled=" + virtualThreads,
+            "--spring.datasource.url=" + postgres.getJdbcUrl(),
+            "--spring.datasource.username=" + postgres.getUsername(),
+            "--spring.datasource.password=" + postgres.getPassword(),
+            "--spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+            "--spring.data.redis.host=" + redis.getHost(),
+            "--spring.data.redis.port=" + redis.getFirstMappedPort(),
+            "--userservice.outbox.enabled=false",
+            "--spring.jpa.show-sql=false",
+            "--logging.level.org.hibernate.SQL=INFO");
+  }
+
+  private Throughput drive(int port, int clients, Duration duration) throws Exception {
+    long deadline = System.nanoTime() + duration.toNanos();
+    AtomicLong errors = new AtomicLong();
+    List<Future<List<Long>>> results = new ArrayList<>(clients);
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int i = 0; i < clients; i++) {
+        results.add(executor.submit(() -> client(port, deadline, errors)));
+      }
+    }
+
+    long[] nanos = new long[0];
+    for (Future<List<Long>> result : results) {
+      List<Long> latencies = result.get();
+      int offset = nanos.length;
+      nanos = Arrays.copyOf(nanos, offset + latencies.size());
+      for (int i = 0; i < latencies.size(); i++) {
+        nanos[offset + i] = latencies.get(i);
+      }
+    }
+    Arrays.sort(nanos);
+    return new Throughput(new Latencies(nanos), duration, errors.get());
+  }
+
+  private List<Long> client(int port, long deadline, AtomicLong errors) {
+    List<Long> latencies = new ArrayList<>();
+    while (System.nanoTime() < deadline) {
+      int page = ThreadLocalRandom.current().nextInt(100);
+      HttpRequest request =
+          HttpRequest.newBuilder(
+                  URI.create(
+                      "http://localhost:" + port + "/api/v1/users?size=20&sort=id&page=" + page))
+              .build();
+      long start = System.nanoTime();
+      try {
+        HttpResponse<Void> response =
+            httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+          errors.incrementAndGet();
+        }
+      } catch (Exception ex) {
+        errors.incrementAndGet();
+      }
+      latencies.add(System.nanoTime() - start);
+    }
+    return latencies;
+  }
+
+  private record Throughput(Latencies latencies, Duration duration, long errors) {
+
+    void report(String name) {
+      latencies.report(name);
+      log.info(
+          "{}: {} requests/s, {} errors",
+          name,
+          String.format("%.0f", latencies.sortedNanos().length / (double) duration.toSeconds()),
+          errors);
+    }
+  }
+}
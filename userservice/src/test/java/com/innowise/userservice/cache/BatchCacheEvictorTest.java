@@ -0,0 +1,93 @@
+package com.innowise.userservice.cache;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@ExtendWith(MockitoExtension.class)
+class BatchCacheEvictorTest {
+
+  @Mock private CacheManager cacheManager;
+
+  @Mock private StringRedisTemplate redisTemplate;
+
+  @Mock private CacheInvalidationPublisher publisher;
+
+  @Mock private TwoTierCache cache;
+
+  private BatchCacheEvictor evictor;
+
+  @BeforeEach
+  void setUp() {
+    evictor =
+        new BatchCacheEvictor(
+            cacheManager, RedisCacheConfiguration.defaultCacheConfig(), redisTemplate, publisher);
+  }
+
+  @AfterEach
+  void tearDown() {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+
+  @Test
+  void evict_shouldDeleteAllKeysWithOneCommandAndBroadcastOnce() {
+    when(cacheManager.getCache("users")).thenReturn(cache);
+
+    evictor.evict("users", List.of(1L, 2L));
+
+    verify(redisTemplate).delete(List.of("users::1", "users::2"));
+    verify(cache).evictLocal(List.of("1", "2"));
+    verify(publisher).publishEvict("users", List.of("1", "2"));
+  }
+
+  @Test
+  void evict_whenKeysAreEmpty_shouldDoNothing() {
+    evictor.evict("users", List.of());
+
+    verify(redisTemplate, never()).delete(anyList());
+    verify(publisher, never()).publishEvict(anyString(), any());
+  }
+
+  @Test
+  void evict_insideTransaction_shouldWaitForCommit() {
+    when(cacheManager.getCache("users")).thenReturn(cache);
+    TransactionSynchronizationManager.initSynchronization();
+
+    evictor.evict("users", List.of(1L));
+
+    verify(redisTemplate, never()).delete(anyList());
+    TransactionSynchronizationManager.getSynchronizations()
+        .forEach(TransactionSynchronization::afterCommit);
+    verify(redisTemplate).delete(List.of("users::1"));
+    verify(publisher).publishEvict("users", List.of("1"));
+  }
+
+  @Test
+  void evictMisses_shouldOnlyEvictInProcessTiers() {
+    when(cacheManager.getCache("users")).thenReturn(cache);
+
+    evictor.evictMisses("users", List.of(1L));
+
+    verify(redisTemplate, never()).delete(anyList());
+    verify(cache).evictLocal(List.of("1"));
+    verify(publisher).publishEvict("users", List.of("1"));
+  }
+}
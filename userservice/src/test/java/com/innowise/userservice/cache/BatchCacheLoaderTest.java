@@ -0,0 +1,97 @@
+package com.innowise.userservice.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.innowise.userservice.exception.UserNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache.ValueRetrievalException;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class BatchCacheLoaderTest {
+
+  @Mock private CacheManager cacheManager;
+
+  @Mock private StringRedisTemplate redisTemplate;
+
+  @Mock private CacheInvalidationPublisher publisher;
+
+  @Mock private RedisLoadLock lock;
+
+  private TwoTierCache cache;
+  private BatchCacheLoader loader;
+
+  @BeforeEach
+  void setUp() {
+    CacheExpiry expiry = new CacheExpiry(Duration.ofMinutes(30), 0.1, 1.0);
+    cache =
+        new TwoTierCache(
+            "users",
+            new ConcurrentMapCache("users", false),
+            Caffeine.newBuilder().maximumSize(100).build(),
+            publisher,
+            expiry,
+            lock,
+            new SimpleMeterRegistry());
+    loader = new BatchCacheLoader(cacheManager, redisTemplate, expiry);
+    when(cacheManager.getCache("users")).thenReturn(cache);
+    lenient().when(lock.tryAcquire(anyString())).thenReturn("token");
+  }
+
+  @Test
+  void getAll_shouldLoadAllMissesAtOnceAndKeepRequestOrder() {
+    cache.put(2L, "cached");
+    List<Collection<Long>> loads = new ArrayList<>();
+
+    Map<Long, String> result =
+        loader.getAll(
+            "users",
+            List.of(3L, 2L, 4L, 1L, 3L),
+            ids -> {
+              loads.add(List.copyOf(ids));
+              return Map.of(1L, "one", 3L, "three");
+            });
+
+    assertEquals(List.of(3L, 2L, 1L), List.copyOf(result.keySet()));
+    assertEquals(List.of("three", "cached", "one"), List.copyOf(result.values()));
+    assertEquals(List.of(List.of(3L, 4L, 1L)), loads);
+    verifyNoInteractions(redisTemplate);
+  }
+
+  @Test
+  void getAll_whenKeyIsKnownToBeMissing_shouldNotLoadIt() {
+    assertThrows(
+        ValueRetrievalException.class,
+        () ->
+            cache.get(
+                1L,
+                () -> {
+                  throw new UserNotFoundException(1L);
+                }));
+
+    Map<Long, String> result =
+        loader.getAll("users", List.of(1L), ids -> fail("Loaded a known missing key"));
+
+    assertTrue(result.isEmpty());
+  }
+}
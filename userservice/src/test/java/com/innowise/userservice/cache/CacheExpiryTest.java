@@ -0,0 +1,59 @@
+package com.innowise.userservice.cache;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+class CacheExpiryTest {
+
+  private static final Duration TTL = Duration.ofMinutes(30);
+
+  private final CacheExpiry expiry = new CacheExpiry(TTL, 0.1, 1.0);
+
+  @RepeatedTest(100)
+  void nextTtl_shouldStayWithinJitter() {
+    Duration ttl = expiry.nextTtl();
+
+    assertTrue(ttl.compareTo(TTL) <= 0);
+    assertTrue(ttl.compareTo(Duration.ofMinutes(27)) >= 0);
+  }
+
+  @Test
+  void getTimeToLive_whenStamped_shouldUseRemainingLifetime() {
+    CacheEntry entry = new CacheEntry("user", System.currentTimeMillis() + 60_000, 10);
+
+    Duration ttl = expiry.getTimeToLive(1L, entry);
+
+    assertTrue(ttl.compareTo(Duration.ofSeconds(55)) > 0);
+    assertTrue(ttl.compareTo(Duration.ofSeconds(60)) <= 0);
+  }
+
+  @Test
+  void shouldRefresh_whenFarFromExpiry_shouldNotRefresh() {
+    CacheEntry entry = expiry.stamp("user", 10);
+
+    for (int i = 0; i < 1_000; i++) {
+      assertFalse(expiry.shouldRefresh(entry));
+    }
+  }
+
+  @Test
+  void shouldRefresh_whenExpiryIsWithinLoadTime_shouldMostlyRefresh() {
+    CacheEntry entry = new CacheEntry("user", System.currentTimeMillis() + 10, 10_000);
+
+    long refreshes = IntStream.range(0, 1_000).filter(i -> expiry.shouldRefresh(entry)).count();
+
+    assertTrue(refreshes > 900, () -> "refreshed " + refreshes);
+  }
+
+  @Test
+  void shouldRefresh_whenBetaIsZero_shouldNeverRefresh() {
+    CacheExpiry disabled = new CacheExpiry(TTL, 0.1, 0);
+
+    assertFalse(disabled.shouldRefresh(new CacheEntry("user", 0, 10)));
+  }
+}
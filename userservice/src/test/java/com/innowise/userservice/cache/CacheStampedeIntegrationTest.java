@@ -0,0 +1,90 @@
+package com.innowise.userservice.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.innowise.userservice.BaseIntegrationTest;
+import com.innowise.userservice.config.QueryCounter;
+import com.innowise.userservice.model.dto.UserDto;
+import com.innowise.userservice.model.entity.User;
+import com.innowise.userservice.repository.UserRepository;
+import com.innowise.userservice.service.UserService;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+
+class CacheStampedeIntegrationTest extends BaseIntegrationTest {
+
+  private static final int CONCURRENT_MISSES = 1_000;
+
+  @Autowired private UserService userService;
+
+  @Autowired private UserRepository userRepository;
+
+  @Autowired private CacheManager cacheManager;
+
+  @Autowired private EntityManagerFactory entityManagerFactory;
+
+  private QueryCounter queryCounter;
+
+  private Long userId;
+
+  @BeforeEach
+  void setUp() {
+    queryCounter = new QueryCounter(entityManagerFactory);
+    User user = new User();
+    user.setName("Hot");
+    user.setSurname("Key");
+    user.setBirthDate(LocalDate.of(2000, 1, 1));
+    user.setEmail("hot.key@mail.ru");
+    userId = userRepository.save(user).getId();
+    cacheManager.getCache("users").evict(userId);
+  }
+
+  @AfterEach
+  void tearDown() {
+    cacheManager.getCache("users").evict(userId);
+    userRepository.deleteAll();
+  }
+
+  @Test
+  void getUserDtoById_whenThousandConcurrentMisses_shouldQueryDatabaseOnce() {
+    List<UserDto> users = queryCounter.assertStatements(1, this::missTogether);
+
+    assertEquals(CONCURRENT_MISSES, users.size());
+    users.forEach(user -> assertEquals("hot.key@mail.ru", user.getEmail()));
+  }
+
+  private List<UserDto> missTogether() {
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<UserDto>> results = new ArrayList<>(CONCURRENT_MISSES);
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int i = 0; i < CONCURRENT_MISSES; i++) {
+        results.add(
+            executor.submit(
+                () -> {
+                  start.await();
+                  return userService.getUserDtoById(userId);
+                }));
+      }
+      start.countDown();
+      List<UserDto> users = new ArrayList<>(CONCURRENT_MISSES);
+      for (Future<UserDto> result : results) {
+        users.add(result.get());
+      }
+      return users;
+    } catch (InterruptedException | ExecutionException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+}
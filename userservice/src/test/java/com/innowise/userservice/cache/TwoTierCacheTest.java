@@ -0,0 +1,351 @@
+package com.innowise.userservice.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.innowise.userservice.exception.UserNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache.ValueRetrievalException;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+@ExtendWith(MockitoExtension.class)
+class TwoTierCacheTest {
+
+  @Mock private CacheInvalidationPublisher publisher;
+
+  @Mock private RedisLoadLock lock;
+
+  private ConcurrentMapCache remote;
+  private SimpleMeterRegistry meterRegistry;
+  private TwoTierCache cache;
+
+  @BeforeEach
+  void setUp() {
+    remote = new ConcurrentMapCache("users", false);
+    meterRegistry = new SimpleMeterRegistry();
+    cache =
+        new TwoTierCache(
+            "users",
+            remote,
+            Caffeine.newBuilder().maximumSize(100).build(),
+            publisher,
+            new CacheExpiry(Duration.ofMinutes(30), 0.1, 1.0),
+            lock,
+            meterRegistry);
+    lenient().when(lock.tryAcquire(anyString())).thenReturn("token");
+    lenient().when(lock.getLease()).thenReturn(Duration.ofSeconds(2));
+    lenient().when(lock.getPollInterval()).thenReturn(Duration.ofMillis(5));
+  }
+
+  @Test
+  void get_whenOnlyRemoteHasValue_shouldPopulateLocalTier() {
+    remote.put(1L, "user");
+
+    assertEquals("user", cache.get(1L).get());
+    remote.evict(1L);
+    assertEquals("user", cache.get(1L).get());
+
+    assertEquals(1.0, count("l2", "hit"));
+    assertEquals(1.0, count("l1", "hit"));
+  }
+
+  @Test
+  void get_whenBothTiersMiss_shouldReturnNull() {
+    assertNull(cache.get(1L));
+
+    assertEquals(1.0, count("l1", "miss"));
+    assertEquals(1.0, count("l2", "miss"));
+  }
+
+  @Test
+  void getWithLoader_whenMiss_shouldLoadOnceAndStoreInBothTiers() {
+    AtomicInteger loads = new AtomicInteger();
+
+    Callable<String> loader =
+        () -> {
+          loads.incrementAndGet();
+          return "user";
+        };
+
+    assertEquals("user", cache.get(1L, loader));
+    assertEquals("user", cache.get(1L, loader));
+
+    assertEquals(1, loads.get());
+    assertEquals("user", CacheEntry.unwrap(remote.get(1L).get()));
+    verify(publisher, never()).publishEvict(anyString(), any());
+    verify(lock).release("userservice:cache:lock:users::1", "token");
+  }
+
+  @Test
+  void getWithLoader_whenThousandConcurrentMisses_shouldLoadOnce() throws Exception {
+    AtomicInteger loads = new AtomicInteger();
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<String>> results = new ArrayList<>();
+
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int i = 0; i < 1_000; i++) {
+        results.add(
+            executor.submit(
+                () -> {
+                  start.await();
+                  return cache.get(
+                      1L,
+                      () -> {
+                        loads.incrementAndGet();
+                        Thread.sleep(100);
+                        return "user";
+                      });
+                }));
+      }
+      start.countDown();
+      for (Future<String> result : results) {
+        assertEquals("user", result.get());
+      }
+    }
+
+    assertEquals(1, loads.get());
+    assertEquals(1.0, loadCount("loaded"));
+  }
+
+  @Test
+  void getWithLoader_whenLoaderFails_shouldNotCacheAnything() {
+    IllegalStateException failure = new IllegalStateException("db down");
+
+    ValueRetrievalException ex =
+        assertThrows(
+            ValueRetrievalException.class,
+            () ->
+                cache.get(
+                    1L,
+                    () -> {
+                      throw failure;
+                    }));
+
+    assertEquals(failure, ex.getCause());
+    assertNull(remote.get(1L));
+  }
+
+  @Test
+  void getWithLoader_whenKeyIsNotFound_shouldFailFastUntilEvicted() {
+    AtomicInteger loads = new AtomicInteger();
+    UserNotFoundException notFound = new UserNotFoundException(1L);
+
+    Callable<String> loader =
+        () -> {
+          loads.incrementAndGet();
+          throw notFound;
+        };
+
+    assertThrows(ValueRetrievalException.class, () -> cache.get(1L, loader));
+    ValueRetrievalException ex =
+        assertThrows(ValueRetrievalException.class, () -> cache.get(1L, loader));
+
+    assertEquals(notFound, ex.getCause());
+    assertEquals(1, loads.get());
+    assertNull(cache.get(1L));
+    assertNull(remote.get(1L));
+    assertEquals(2.0, count("l1", "negative"));
+
+    cache.evictLocal(List.of("1"));
+
+    assertEquals("user", cache.get(1L, () -> "user"));
+  }
+
+  @Test
+  void getWithLoader_whenKeyIsNotFound_shouldReleaseLockAsMissing() {
+    assertThrows(
+        ValueRetrievalException.class,
+        () ->
+            cache.get(
+                1L,
+                () -> {
+                  throw new UserNotFoundException(1L);
+                }));
+
+    verify(lock).releaseMissing("userservice:cache:lock:users::1", "token");
+    verify(lock, never()).release(anyString(), anyString());
+  }
+
+  @Test
+  void getWithLoader_whenAnotherReplicaLoads_shouldWaitForItsValue() throws Exception {
+    when(lock.tryAcquire(anyString())).thenReturn(null);
+    AtomicInteger loads = new AtomicInteger();
+
+    try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+      executor.submit(
+          () -> {
+            Thread.sleep(50);
+            remote.put(1L, "user");
+            return null;
+          });
+
+      assertEquals("user", cache.get(1L, () -> "loaded" + loads.incrementAndGet()));
+    }
+
+    assertEquals(0, loads.get());
+    assertEquals(1.0, loadCount("awaited"));
+  }
+
+  @Test
+  void getWithLoader_whenAnotherReplicaFindsKeyMissing_shouldStopWaiting() {
+    when(lock.tryAcquire(anyString())).thenReturn(null);
+    when(lock.getLease()).thenReturn(Duration.ofMinutes(1));
+    when(lock.isReleasedMissing("userservice:cache:lock:users::1")).thenReturn(true);
+    UserNotFoundException notFound = new UserNotFoundException(1L);
+
+    ValueRetrievalException ex =
+        assertTimeoutPreemptively(
+            Duration.ofSeconds(5),
+            () ->
+                assertThrows(
+                    ValueRetrievalException.class,
+                    () ->
+                        cache.get(
+                            1L,
+                            () -> {
+                              throw notFound;
+                            })));
+
+    assertEquals(notFound, ex.getCause());
+    assertEquals(0.0, loadCount("awaited"));
+  }
+
+  @Test
+  void getWithLoader_whenAnotherReplicaNeverLoads_shouldLoadAfterLease() {
+    when(lock.tryAcquire(anyString())).thenReturn(null);
+    when(lock.getLease()).thenReturn(Duration.ofMillis(50));
+
+    assertEquals("user", cache.get(1L, () -> "user"));
+    assertEquals(1.0, loadCount("loaded"));
+  }
+
+  @Test
+  void getWithLoader_whenEntryIsDue_shouldRefreshItEarly() {
+    remote.put(1L, new CacheEntry("old", System.currentTimeMillis() - 1, 10));
+
+    assertEquals("new", cache.get(1L, () -> "new"));
+
+    CacheEntry stored = (CacheEntry) remote.get(1L).get();
+    assertEquals("new", stored.value());
+    assertTrue(stored.expiresAt() > System.currentTimeMillis());
+    assertEquals(1.0, meterRegistry.get("userservice.cache.early.refreshes").counter().count());
+  }
+
+  @Test
+  void getWithLoader_whenEntryIsDueAndAnotherReplicaRefreshes_shouldServeCachedValue() {
+    when(lock.tryAcquire(anyString())).thenReturn(null);
+    remote.put(1L, new CacheEntry("old", System.currentTimeMillis() - 1, 10));
+    AtomicInteger loads = new AtomicInteger();
+
+    assertEquals("old", cache.get(1L, () -> "new" + loads.incrementAndGet()));
+
+    assertEquals(0, loads.get());
+    verify(lock, never()).getLease();
+  }
+
+  @Test
+  void getWithLoader_whenEarlyRefreshFails_shouldServeCachedValue() {
+    remote.put(1L, new CacheEntry("old", System.currentTimeMillis() - 1, 10));
+
+    assertEquals(
+        "old",
+        cache.get(
+            1L,
+            () -> {
+              throw new IllegalStateException("db down");
+            }));
+  }
+
+  @Test
+  void getWithLoader_whenEntryIsFresh_shouldNotRefresh() {
+    remote.put(1L, new CacheEntry("user", System.currentTimeMillis() + 60_000, 10));
+
+    assertEquals("user", cache.get(1L, () -> "new"));
+
+    verify(lock, never()).tryAcquire(anyString());
+  }
+
+  @Test
+  void put_shouldWriteBothTiersAndBroadcast() {
+    cache.put(1L, "user");
+
+    assertEquals("user", remote.get(1L).get());
+    assertEquals("user", cache.get(1L).get());
+    verify(publisher).publishEvict("users", List.of("1"));
+  }
+
+  @Test
+  void evict_shouldDropBothTiersAndBroadcast() {
+    cache.put(1L, "user");
+
+    cache.evict(1L);
+
+    assertNull(remote.get(1L));
+    assertNull(cache.get(1L));
+    verify(publisher, times(2)).publishEvict("users", List.of("1"));
+  }
+
+  @Test
+  void evictLocal_shouldKeepRemoteEntry() {
+    cache.put(1L, "user");
+
+    cache.evictLocal(List.of("1"));
+
+    assertEquals("user", cache.get(1L).get());
+    assertEquals(1.0, count("l2", "hit"));
+  }
+
+  @Test
+  void clear_shouldDropBothTiersAndBroadcast() {
+    cache.put(1L, "user");
+
+    cache.clear();
+
+    assertNull(cache.get(1L));
+    verify(publisher).publishClear("users");
+  }
+
+  private double loadCount(String outcome) {
+    return meterRegistry
+        .get("userservice.cache.loads")
+        .tag("cache", "users")
+        .tag("outcome", outcome)
+        .counter()
+        .count();
+  }
+
+  private double count(String tier, String result) {
+    return meterRegistry
+        .get("userservice.cache.requests")
+        .tag("cache", "users")
+        .tag("tier", tier)
+        .tag("result", result)
+        .counter()
+        .count();
+  }
+}
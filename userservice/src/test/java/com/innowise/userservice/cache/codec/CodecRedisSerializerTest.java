@@ -0,0 +1,194 @@
+package com.innowise.userservice.cache.codec;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.innowise.userservice.cache.CacheEntry;
+import com.innowise.userservice.model.dto.PaymentCardDto;
+import com.innowise.userservice.model.dto.UserJsonDto;
+import com.innowise.userservice.model.dto.UserWithCardsDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.data.redis.serializer.SerializationException;
+
+class CodecRedisSerializerTest {
+
+  private SimpleMeterRegistry meterRegistry;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+  }
+
+  static Stream<CacheCodec> codecs() {
+    return Stream.of(
+        JacksonCacheCodec.smile(),
+        JacksonCacheCodec.cbor(),
+        JacksonCacheCodec.json(),
+        new JdkCacheCodec());
+  }
+
+  @ParameterizedTest
+  @MethodSource("codecs")
+  void serialize_shouldRoundTripSnapshot(CacheCodec codec) {
+    CodecRedisSerializer serializer = serializer(codec, 0);
+    UserWithCardsDto user = user(3);
+
+    UserWithCardsDto decoded =
+        (UserWithCardsDto) serializer.deserialize(serializer.serialize(user));
+
+    assertEquals(user.getEmail(), decoded.getEmail());
+    assertEquals(user.getBirthDate(), decoded.getBirthDate());
+    assertEquals(user.getCreatedAt(), decoded.getCreatedAt());
+    assertEquals(3, decoded.getCards().size());
+    assertEquals(user.getCards().get(2).getNumber(), decoded.getCards().get(2).getNumber());
+  }
+
+  @Test
+  void serialize_belowThreshold_shouldStorePlainValue() {
+    byte[] stored = serializer(JacksonCacheCodec.smile(), 1024).serialize(user(0));
+
+    assertEquals(0, stored[0]);
+    assertEquals(1, sizeCount("false"));
+  }
+
+  @Test
+  void serialize_aboveThreshold_shouldDeflateValue() {
+    CodecRedisSerializer plain = serializer(JacksonCacheCodec.smile(), 0);
+    CodecRedisSerializer deflating = serializer(JacksonCacheCodec.smile(), 256);
+    UserWithCardsDto user = user(50);
+
+    byte[] stored = deflating.serialize(user);
+
+    assertEquals(1, stored[0]);
+    assertTrue(stored.length < plain.serialize(user).length);
+    assertEquals(50, ((UserWithCardsDto) plain.deserialize(stored)).getCards().size());
+    assertEquals(1, sizeCount("true"));
+  }
+
+  @Test
+  void serialize_whenStamped_shouldKeepExpiryAndLoadTime() {
+    CodecRedisSerializer serializer = serializer(JacksonCacheCodec.smile(), 256);
+    CacheEntry entry = new CacheEntry(user(50), 1_700_000_000_000L, 12);
+
+    byte[] stored = serializer.serialize(entry);
+
+    assertEquals(3, stored[0]);
+    CacheEntry decoded = (CacheEntry) serializer.deserialize(stored);
+    assertEquals(entry.expiresAt(), decoded.expiresAt());
+    assertEquals(entry.loadMillis(), decoded.loadMillis());
+    assertEquals(50, ((UserWithCardsDto) decoded.value()).getCards().size());
+  }
+
+  @Test
+  void serialize_withUserJsonCodec_shouldStoreBodyAsItIsAfterVersion() {
+    CodecRedisSerializer serializer = userJsonSerializer();
+    byte[] json = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+    LocalDateTime updatedAt = LocalDateTime.of(2024, 1, 1, 12, 0, 0, 123_456_000);
+
+    byte[] stored = serializer.serialize(new UserJsonDto(1L, updatedAt, json));
+
+    assertEquals(1 + 20 + json.length, stored.length);
+    UserJsonDto decoded = (UserJsonDto) serializer.deserialize(stored);
+    assertEquals(1L, decoded.getId());
+    assertEquals(updatedAt, decoded.getUpdatedAt());
+    assertArrayEquals(json, decoded.getBody());
+  }
+
+  @Test
+  void serialize_withUserJsonCodec_shouldKeepMissingUpdateTime() {
+    CodecRedisSerializer serializer = userJsonSerializer();
+
+    byte[] stored = serializer.serialize(new UserJsonDto(1L, null, new byte[0]));
+
+    UserJsonDto decoded = (UserJsonDto) serializer.deserialize(stored);
+
+    assertNull(decoded.getUpdatedAt());
+    assertEquals(0, decoded.getBody().length);
+  }
+
+  @Test
+  void deserialize_whenEmpty_shouldReturnNull() {
+    assertNull(serializer(JacksonCacheCodec.smile(), 0).deserialize(new byte[0]));
+  }
+
+  @Test
+  void deserialize_whenCorrupt_shouldThrowSerializationException() {
+    CodecRedisSerializer serializer = serializer(JacksonCacheCodec.smile(), 0);
+
+    assertThrows(SerializationException.class, () -> serializer.deserialize(new byte[] {1, 42}));
+  }
+
+  @Test
+  void serialize_shouldRecordTimesPerCache() {
+    CodecRedisSerializer serializer = serializer(JacksonCacheCodec.cbor(), 0);
+
+    serializer.deserialize(serializer.serialize(user(1)));
+
+    assertEquals(
+        1,
+        meterRegistry
+            .get("userservice.cache.codec")
+            .tag("cache", "userWithCards")
+            .tag("codec", "cbor")
+            .tag("operation", "decode")
+            .timer()
+            .count());
+  }
+
+  private CodecRedisSerializer serializer(CacheCodec codec, int threshold) {
+    return new CodecRedisSerializer(
+        "userWithCards", codec, UserWithCardsDto.class, threshold, meterRegistry);
+  }
+
+  private long sizeCount(String compressed) {
+    return meterRegistry
+        .get("userservice.cache.value.size")
+        .tag("cache", "userWithCards")
+        .tag("compressed", compressed)
+        .summary()
+        .count();
+  }
+
+  private static UserWithCardsDto user(int cards) {
+    UserWithCardsDto user = new UserWithCardsDto();
+    user.setId(1L);
+    user.setName("Yauhen");
+    user.setSurname("Nohach");
+    user.setBirthDate(LocalDate.of(2000, 1, 15));
+    user.setEmail("test@mail.ru");
+    user.setActive(true);
+    user.setCreatedAt(LocalDateTime.of(2024, 3, 1, 12, 30, 15));
+    user.setUpdatedAt(LocalDateTime.of(2024, 3, 2, 8, 0));
+    user.setCards(
+        IntStream.range(0, cards)
+            .mapToObj(
+                i -> {
+                  PaymentCardDto card = new PaymentCardDto();
+                  card.setId((long) i);
+                  card.setNumber(String.format("4000%012d", i));
+                  card.setHolder("YAUHEN NOHACH");
+                  card.setExpirationDate("12/30");
+                  card.setActive(true);
+                  return card;
+                })
+            .toList());
+    return user;
+  }
+
+  private CodecRedisSerializer userJsonSerializer() {
+    return new CodecRedisSerializer(
+        "userJson", new UserJsonCacheCodec(), UserJsonDto.class, 0, meterRegistry);
+  }
+}
@@ -0,0 +1,65 @@
+package com.innowise.userservice.concurrency;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ConnectionLimitingDataSourceTest {
+
+  @Mock private DataSource target;
+
+  @Mock private Connection connection;
+
+  private ConnectionLimitingDataSource dataSource;
+
+  @BeforeEach
+  void setUp() {
+    dataSource = new ConnectionLimitingDataSource(target, 2, Duration.ofMillis(50));
+  }
+
+  @Test
+  void getConnection_whenLimitReached_shouldTimeOut() throws SQLException {
+    when(target.getConnection()).thenReturn(connection);
+
+    dataSource.getConnection();
+    dataSource.getConnection();
+
+    assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+    verify(target, times(2)).getConnection();
+  }
+
+  @Test
+  void close_shouldReturnPermitOnlyOnce() throws SQLException {
+    when(target.getConnection()).thenReturn(connection);
+
+    Connection first = dataSource.getConnection();
+    first.close();
+    first.close();
+
+    assertEquals(2, dataSource.getAvailablePermits());
+    verify(connection, times(2)).close();
+  }
+
+  @Test
+  void getConnection_whenTargetFails_shouldReturnPermit() throws SQLException {
+    when(target.getConnection()).thenThrow(new SQLException("pool exhausted"));
+
+    assertThrows(SQLException.class, dataSource::getConnection);
+
+    assertEquals(2, dataSource.getAvailablePermits());
+  }
+}
@@ -0,0 +1,68 @@
+package com.innowise.userservice.config;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.innowise.userservice.cache.CacheExpiry;
+import com.innowise.userservice.cache.CacheInvalidationPublisher;
+import com.innowise.userservice.cache.RedisLoadLock;
+import com.innowise.userservice.cache.TwoTierCache;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+
+@ExtendWith(MockitoExtension.class)
+class MetricsConfigTest {
+
+  @Mock private RedisCacheWriter cacheWriter;
+
+  @Mock private CacheInvalidationPublisher publisher;
+
+  @Mock private RedisLoadLock lock;
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private final CacheMeterBinderProvider<TwoTierCache> provider =
+      new MetricsConfig().twoTierCacheMeterBinderProvider();
+
+  @Test
+  void twoTierCacheMeterBinderProvider_overRedis_shouldBindRedisCacheMetrics() {
+    Cache remote = RedisCacheManager.builder(cacheWriter).build().getCache("users");
+
+    MeterBinder binder =
+        provider.getMeterBinder(twoTier(remote), List.of(Tag.of("cacheManager", "cacheManager")));
+    binder.bindTo(meterRegistry);
+
+    assertNotNull(
+        meterRegistry.find("cache.gets").tag("cache", "users").tag("result", "hit").meter());
+    assertNotNull(meterRegistry.find("cache.puts").tag("cache", "users").meter());
+  }
+
+  @Test
+  void twoTierCacheMeterBinderProvider_overOtherCache_shouldNotBind() {
+    assertNull(provider.getMeterBinder(twoTier(new ConcurrentMapCache("users")), List.of()));
+  }
+
+  private TwoTierCache twoTier(Cache remote) {
+    return new TwoTierCache(
+        "users",
+        remote,
+        Caffeine.newBuilder().build(),
+        publisher,
+        new CacheExpiry(Duration.ofMinutes(30), 0.1, 1.0),
+        lock,
+        meterRegistry);
+  }
+}
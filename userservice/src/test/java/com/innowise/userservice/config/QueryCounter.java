@@ -0,0 +1,44 @@
+package com.innowise.userservice.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.util.function.Supplier;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+/**
+ * Counts the JDBC statements Hibernate prepares, so that tests can pin the number of round trips
+ * of a read path and fail when it regresses into N+1.
+ */
+public class QueryCounter {
+
+  private final Statistics statistics;
+
+  public QueryCounter(EntityManagerFactory entityManagerFactory) {
+    this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    this.statistics.setStatisticsEnabled(true);
+  }
+
+  /**
+   * Runs {@code action} and asserts the number of statements it executed.
+   *
+   * @return the result of {@code action}
+   */
+  public <T> T assertStatements(long expected, Supplier<T> action) {
+    statistics.clear();
+    T result = action.get();
+    long actual = statistics.getPrepareStatementCount();
+    assertEquals(
+        expected,
+        actual,
+        () ->
+            "Expected "
+                + expected
+                + " statements but "
+                + actual
+                + " were executed: "
+                + String.join(" | ", statistics.getQueries()));
+    return result;
+  }
+}
@@ -1,16 +1,20 @@
 package com.innowise.userservice.controller;
 
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.innowise.userservice.BaseIntegrationTest;
+import com.innowise.userservice.model.dto.BatchLookupDto;
 import com.innowise.userservice.model.dto.PaymentCardDto;
 import com.innowise.userservice.model.dto.StatusUpdateDto;
 import com.innowise.userservice.model.entity.PaymentCard;
@@ -18,12 +22,14 @@ import com.innowise.userservice.model.entity.User;
 import com.innowise.userservice.repository.PaymentCardRepository;
 import com.innowise.userservice.repository.UserRepository;
 import java.time.LocalDate;
+import java.util.List;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
@@ -121,6 +127,38 @@ class CardControllerIntegrationTest extends BaseIntegrationTest {
         .andExpect(jsonPath("$.number").value("1111222233334444"));
   }
 
+  @Test
+  void getCardById_whenETagMatches_shouldReturnNotModified() throws Exception {
+    String eTag =
+        mockMvc
+            .perform(get("/api/v1/cards/{id}", card.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+    mockMvc
+        .perform(get("/api/v1/cards/{id}", card.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+        .andExpect(status().isNotModified())
+        .andExpect(content().string(""));
+  }
+
+  @Test
+  void getCardsByIds_shouldReturnKnownCardsInRequestOrder() throws Exception {
+    mockMvc
+        .perform(
+            post("/api/v1/cards/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(
+                    objectMapper.writeValueAsString(
+                        new BatchLookupDto(List.of(999L, card.getId())))))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(1))
+        .andExpect(jsonPath("$[0].id").value(card.getId()))
+        .andExpect(jsonPath("$[0].userId").value(user.getId()));
+  }
+
   @Test
   void getCardsByUserId_shouldReturnListOfCards() throws Exception {
     mockMvc
@@ -129,6 +167,72 @@ class CardControllerIntegrationTest extends BaseIntegrationTest {
         .andExpect(jsonPath("$.length()").value(1));
   }
 
+  @Test
+  void getCardsByUserId_whenCardChanges_shouldChangeETag() throws Exception {
+    String eTag =
+        mockMvc
+            .perform(get("/api/v1/users/{userId}/cards", user.getId()))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+    mockMvc
+        .perform(
+            get("/api/v1/users/{userId}/cards", user.getId())
+                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+        .andExpect(status().isNotModified());
+
+    StatusUpdateDto statusUpdateDto = new StatusUpdateDto();
+    statusUpdateDto.setActive(false);
+    mockMvc
+        .perform(
+            patch("/api/v1/cards/{id}", card.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(statusUpdateDto)))
+        .andExpect(status().isOk());
+
+    mockMvc
+        .perform(
+            get("/api/v1/users/{userId}/cards", user.getId())
+                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, not(eTag)))
+        .andExpect(jsonPath("$[0].active").value(false));
+  }
+
+  @Test
+  void getCardsByUserId_whenCardDeleted_shouldNotAnswerIfModifiedSinceWithNotModified()
+      throws Exception {
+    PaymentCard other = new PaymentCard();
+    other.setUser(user);
+    other.setNumber("5555666677778888");
+    other.setHolder("test test");
+    other.setExpirationDate("1/26");
+    other = cardRepository.save(other);
+    String lastModified =
+        mockMvc
+            .perform(get("/api/v1/cards/{id}", other.getId()))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.LAST_MODIFIED);
+    mockMvc
+        .perform(get("/api/v1/users/{userId}/cards", user.getId()))
+        .andExpect(status().isOk())
+        .andExpect(header().exists(HttpHeaders.ETAG))
+        .andExpect(header().doesNotExist(HttpHeaders.LAST_MODIFIED));
+
+    mockMvc.perform(delete("/api/v1/cards/{id}", card.getId())).andExpect(status().isNoContent());
+
+    mockMvc
+        .perform(
+            get("/api/v1/users/{userId}/cards", user.getId())
+                .header(HttpHeaders.IF_MODIFIED_SINCE, lastModified))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(1))
+        .andExpect(jsonPath("$[0].id").value(other.getId()));
+  }
+
   @Test
   void updateCard_whenValidUpdate_shouldReturnOk() throws Exception {
     PaymentCardDto cardDto = new PaymentCardDto();
@@ -1,29 +1,38 @@
 package com.innowise.userservice.controller;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.innowise.userservice.BaseIntegrationTest;
+import com.innowise.userservice.model.dto.BatchLookupDto;
 import com.innowise.userservice.model.dto.StatusUpdateDto;
 import com.innowise.userservice.model.dto.UserDto;
 import com.innowise.userservice.model.entity.User;
 import com.innowise.userservice.repository.UserRepository;
 import java.time.LocalDate;
+import java.util.List;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -81,11 +90,80 @@ class UserControllerIntegrationTest extends BaseIntegrationTest {
         .andExpect(jsonPath("$.name").value(user.getName()));
   }
 
+  @Test
+  void getUserById_whenETagMatches_shouldReturnNotModified() throws Exception {
+    String eTag =
+        mockMvc
+            .perform(get("/api/v1/users/{id}", user.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+    mockMvc
+        .perform(get("/api/v1/users/{id}", user.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+        .andExpect(status().isNotModified())
+        .andExpect(content().string(""));
+  }
+
+  @Test
+  void getUserById_whenNotModifiedSince_shouldReturnNotModified() throws Exception {
+    String lastModified =
+        mockMvc
+            .perform(get("/api/v1/users/{id}", user.getId()))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.LAST_MODIFIED);
+
+    mockMvc
+        .perform(
+            get("/api/v1/users/{id}", user.getId())
+                .header(HttpHeaders.IF_MODIFIED_SINCE, lastModified))
+        .andExpect(status().isNotModified());
+  }
+
   @Test
   void getUserById_whenUserDoesNotExist_shouldReturnNotFound() throws Exception {
     mockMvc.perform(get("/api/v1/users/{id}", 999L)).andExpect(status().isNotFound());
   }
 
+  @Test
+  void getUsersByIds_shouldReturnKnownUsersInRequestOrder() throws Exception {
+    User other = new User();
+    other.setName("other");
+    other.setSurname("other");
+    other.setBirthDate(LocalDate.of(2000, 3, 3));
+    other.setEmail("other@mail.ru");
+    other = userRepository.save(other);
+    String body =
+        objectMapper.writeValueAsString(
+            new BatchLookupDto(List.of(other.getId(), 999L, user.getId(), other.getId())));
+
+    // The second lookup is served from the cache filled by the first.
+    for (int i = 0; i < 2; i++) {
+      mockMvc
+          .perform(
+              post("/api/v1/users/batch").contentType(MediaType.APPLICATION_JSON).content(body))
+          .andExpect(status().isOk())
+          .andExpect(jsonPath("$.length()").value(2))
+          .andExpect(jsonPath("$[0].id").value(other.getId()))
+          .andExpect(jsonPath("$[0].name").value("other"))
+          .andExpect(jsonPath("$[1].id").value(user.getId()));
+    }
+  }
+
+  @Test
+  void getUsersByIds_whenNoIds_shouldReturnBadRequest() throws Exception {
+    mockMvc
+        .perform(
+            post("/api/v1/users/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new BatchLookupDto(List.of()))))
+        .andExpect(status().isBadRequest());
+  }
+
   @Test
   void getAllUsers_shouldReturnPageOfUsers() throws Exception {
     mockMvc
@@ -131,6 +209,74 @@ class UserControllerIntegrationTest extends BaseIntegrationTest {
         .andExpect(jsonPath("$.content.length()").value(0));
   }
 
+  @Test
+  void scrollUsers_shouldFollowCursorToLastPage() throws Exception {
+    User second = new User();
+    second.setName("second");
+    second.setSurname("second");
+    second.setBirthDate(LocalDate.of(2000, 1, 2));
+    second.setEmail("second@mail.ru");
+    userRepository.save(second);
+
+    String body =
+        mockMvc
+            .perform(get("/api/v1/users/scroll").param("sortBy", "name").param("size", "1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content.length()").value(1))
+            .andExpect(jsonPath("$.content[0].name").value("second"))
+            .andExpect(jsonPath("$.hasNext").value(true))
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    String cursor = objectMapper.readTree(body).get("nextCursor").asText();
+
+    mockMvc
+        .perform(get("/api/v1/users/scroll").param("cursor", cursor).param("size", "1"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.content.length()").value(1))
+        .andExpect(jsonPath("$.content[0].name").value("test"))
+        .andExpect(jsonPath("$.hasNext").value(false));
+  }
+
+  @Test
+  void scrollUsers_withMalformedCursor_shouldReturnBadRequest() throws Exception {
+    mockMvc
+        .perform(get("/api/v1/users/scroll").param("cursor", "not-a-cursor"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  void exportUsers_asCsv_shouldStreamHeaderAndRows() throws Exception {
+    MvcResult result =
+        mockMvc
+            .perform(get("/api/v1/users/export").param("format", "CSV"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    mockMvc
+        .perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(content().contentTypeCompatibleWith("text/csv"))
+        .andExpect(header().string("Content-Disposition", containsString("users.csv")))
+        .andExpect(content().string(containsString("email")))
+        .andExpect(content().string(containsString("test@mail.ru")));
+  }
+
+  @Test
+  void exportUsers_asNdjson_shouldWriteOneObjectPerLine() throws Exception {
+    MvcResult result =
+        mockMvc
+            .perform(get("/api/v1/users/export"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    mockMvc
+        .perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+        .andExpect(content().string(containsString("\"email\":\"test@mail.ru\"")));
+  }
+
   @Test
   void updateUser_whenValidUpdate_shouldReturnOk() throws Exception {
     UserDto userDto = new UserDto();
@@ -0,0 +1,94 @@
+package com.innowise.userservice.dataset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class DatasetGeneratorTest {
+
+  private final DatasetSpec spec =
+      DatasetSpec.builder().users(2_000).distinctNames(50).distinctSurnames(200).build();
+
+  @Test
+  void writeUsersAndCards_withSameSeed_shouldProduceSameRows() throws IOException {
+    assertEquals(users(spec), users(spec));
+    assertEquals(cards(spec), cards(spec));
+  }
+
+  @Test
+  void writeUsers_withDifferentSeed_shouldProduceDifferentRows() throws IOException {
+    assertNotEquals(users(spec), users(spec.toBuilder().seed(7).build()));
+  }
+
+  @Test
+  void writeCards_shouldRespectActiveCardLimitAndCount() throws IOException {
+    Map<String, Integer> activeCounts = new HashMap<>();
+    for (String[] user : rows(users(spec))) {
+      activeCounts.put(user[0], Integer.parseInt(user[6]));
+    }
+
+    Map<String, Integer> activeCards = new HashMap<>();
+    for (String[] card : rows(cards(spec))) {
+      if (Boolean.parseBoolean(card[5])) {
+        activeCards.merge(card[1], 1, Integer::sum);
+      }
+    }
+
+    activeCounts.forEach(
+        (userId, count) -> {
+          assertTrue(count <= DatasetGenerator.MAX_ACTIVE_CARDS);
+          assertEquals(count, activeCards.getOrDefault(userId, 0));
+        });
+  }
+
+  @Test
+  void writeCards_shouldGenerateUniqueSixteenDigitNumbers() throws IOException {
+    List<String[]> cards = rows(cards(spec));
+    Set<String> numbers = new HashSet<>();
+    for (String[] card : cards) {
+      assertTrue(card[2].matches("\\d{16}"));
+      numbers.add(card[2]);
+    }
+
+    assertEquals(cards.size(), numbers.size());
+    assertTrue(cards.size() > spec.getUsers());
+  }
+
+  @Test
+  void writeUsers_shouldStayWithinNameCardinality() throws IOException {
+    Set<String> names = new HashSet<>();
+    Set<String> emails = new HashSet<>();
+    for (String[] user : rows(users(spec))) {
+      names.add(user[1]);
+      emails.add(user[4]);
+    }
+
+    assertTrue(names.size() <= spec.getDistinctNames());
+    assertEquals(spec.getUsers(), emails.size());
+  }
+
+  private static String users(DatasetSpec spec) throws IOException {
+    StringWriter out = new StringWriter();
+    new DatasetGenerator(spec).writeUsers(out);
+    return out.toString();
+  }
+
+  private static String cards(DatasetSpec spec) throws IOException {
+    StringWriter out = new StringWriter();
+    new DatasetGenerator(spec).writeCards(out);
+    return out.toString();
+  }
+
+  private static List<String[]> rows(String csv) {
+    return csv.lines().map(line -> line.split(",")).toList();
+  }
+}
@@ -0,0 +1,93 @@
+package com.innowise.userservice.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@ExtendWith(MockitoExtension.class)
+class ReadReplicaRoutingDataSourceTest {
+
+  @Mock private DataSource primary;
+
+  @Mock private DataSource firstReplicaPool;
+
+  @Mock private DataSource secondReplicaPool;
+
+  private Replica first;
+  private Replica second;
+  private ReadReplicaRoutingDataSource routing;
+
+  @BeforeEach
+  void setUp() {
+    first = new Replica("replica-1", firstReplicaPool);
+    second = new Replica("replica-2", secondReplicaPool);
+    routing = new ReadReplicaRoutingDataSource(primary, List.of(first, second));
+    routing.afterPropertiesSet();
+  }
+
+  @AfterEach
+  void tearDown() {
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+  }
+
+  @Test
+  void determineCurrentLookupKey_whenNotReadOnly_shouldUsePrimary() {
+    assertEquals(ReadReplicaRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+  }
+
+  @Test
+  void determineCurrentLookupKey_whenReadOnly_shouldRoundRobinReplicas() {
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+    assertEquals("replica-1", routing.determineCurrentLookupKey());
+    assertEquals("replica-2", routing.determineCurrentLookupKey());
+    assertEquals("replica-1", routing.determineCurrentLookupKey());
+  }
+
+  @Test
+  void determineCurrentLookupKey_whenReplicasUnavailable_shouldFallBack() {
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+    first.setAvailable(false);
+
+    assertEquals("replica-2", routing.determineCurrentLookupKey());
+    assertEquals("replica-2", routing.determineCurrentLookupKey());
+
+    second.setAvailable(false);
+    assertEquals(ReadReplicaRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+  }
+
+  @Test
+  void determineCurrentLookupKey_whenPinnedToPrimary_shouldUsePrimary() {
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+    assertEquals(
+        ReadReplicaRoutingDataSource.PRIMARY,
+        ReadReplicaRoutingDataSource.onPrimary(routing::determineCurrentLookupKey));
+    assertEquals("replica-1", routing.determineCurrentLookupKey());
+  }
+
+  @Test
+  void check_whenReplicaUnreachable_shouldTakeItOutOfRouting() throws SQLException {
+    ReplicaLagMonitor monitor =
+        new ReplicaLagMonitor(List.of(first), Duration.ofSeconds(5), new SimpleMeterRegistry());
+    when(firstReplicaPool.getConnection()).thenThrow(new SQLException("connection refused"));
+
+    monitor.check();
+
+    assertFalse(first.isAvailable());
+    assertEquals(-1, first.getLagMillis());
+  }
+}
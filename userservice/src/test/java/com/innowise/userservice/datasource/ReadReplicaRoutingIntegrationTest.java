@@ -0,0 +1,133 @@
+package com.innowise.userservice.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.innowise.userservice.model.dto.UserDto;
+import com.innowise.userservice.model.entity.User;
+import com.innowise.userservice.repository.UserRepository;
+import com.innowise.userservice.service.UserService;
+import java.time.LocalDate;
+import java.util.List;
+import liquibase.integration.spring.SpringLiquibase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Routing against two independent Postgres containers standing in for a primary and a replica.
+ * They are not replicating, so which one served a query is visible from the rows it returns.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Testcontainers
+class ReadReplicaRoutingIntegrationTest {
+
+  @Container
+  private static final PostgreSQLContainer<?> primary =
+      new PostgreSQLContainer<>("postgres:15-alpine");
+
+  @Container
+  private static final PostgreSQLContainer<?> replica =
+      new PostgreSQLContainer<>("postgres:15-alpine");
+
+  @Autowired private UserService userService;
+
+  @Autowired private UserRepository userRepository;
+
+  @Autowired private ReadReplicaRoutingDataSource routingDataSource;
+
+  @DynamicPropertySource
+  static void properties(DynamicPropertyRegistry registry) {
+    registry.add("spring.datasource.url", primary::getJdbcUrl);
+    registry.add("spring.datasource.username", primary::getUsername);
+    registry.add("spring.datasource.password", primary::getPassword);
+    registry.add("spring.liquibase.enabled", () -> "true");
+    registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+    registry.add("userservice.datasource.replica.enabled", () -> "true");
+    registry.add("userservice.datasource.replica.urls", replica::getJdbcUrl);
+    registry.add("userservice.datasource.replica.username", replica::getUsername);
+    registry.add("userservice.datasource.replica.password", replica::getPassword);
+    registry.add("userservice.datasource.replica.lag-check-interval", () -> "1h");
+  }
+
+  @BeforeAll
+  static void prepareReplica() throws Exception {
+    DriverManagerDataSource dataSource =
+        new DriverManagerDataSource(
+            replica.getJdbcUrl(), replica.getUsername(), replica.getPassword());
+    SpringLiquibase liquibase = new SpringLiquibase();
+    liquibase.setDataSource(dataSource);
+    liquibase.setChangeLog("classpath:db/changelog/db.changelog-master.yaml");
+    liquibase.setContexts("default");
+    liquibase.setResourceLoader(new DefaultResourceLoader());
+    liquibase.afterPropertiesSet();
+
+    new JdbcTemplate(dataSource)
+        .update(
+            "INSERT INTO users (name, surname, birth_date, email, active, created_at, updated_at)"
+                + " VALUES ('Replica', 'Replica', date '1990-01-01', 'replica@mail.ru', true,"
+                + " now(), now())");
+  }
+
+  @AfterEach
+  void tearDown() {
+    routingDataSource.getReplicas().forEach(r -> r.setAvailable(true));
+    userRepository.deleteAll();
+  }
+
+  @Test
+  void readOnlyTransaction_shouldBeServedByReplica() {
+    userService.createUser(user("primary@mail.ru"));
+
+    assertEquals("primary@mail.ru", userService.getUserByEmail("primary@mail.ru").getEmail());
+    assertEquals(List.of("replica@mail.ru"), listEmails());
+  }
+
+  @Test
+  void readOnlyTransaction_whenReplicaLags_shouldBeServedByPrimary() {
+    userService.createUser(user("fallback@mail.ru"));
+    routingDataSource.getReplicas().forEach(r -> r.setAvailable(false));
+
+    assertEquals(List.of("fallback@mail.ru"), listEmails());
+  }
+
+  @Test
+  void cacheLoader_shouldBeServedByPrimary() {
+    User created = userService.createUser(user("loaded@mail.ru"));
+
+    assertEquals("loaded@mail.ru", userService.getUserDtoById(created.getId()).getEmail());
+    assertEquals(
+        List.of("loaded@mail.ru"),
+        userService.getUserDtosByIds(List.of(created.getId())).stream()
+            .map(UserDto::getEmail)
+            .toList());
+  }
+
+  private List<String> listEmails() {
+    return userService.getAllUsers(null, null, PageRequest.of(0, 10)).stream()
+        .map(User::getEmail)
+        .toList();
+  }
+
+  private static User user(String email) {
+    User user = new User();
+    user.setName("test");
+    user.setSurname("test");
+    user.setBirthDate(LocalDate.of(2000, 1, 1));
+    user.setEmail(email);
+    user.setActive(true);
+    return user;
+  }
+}
@@ -0,0 +1,80 @@
+package com.innowise.userservice.existence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.Test;
+
+class BloomFilterTest {
+
+  private static final int KEYS = 100_000;
+
+  @Test
+  void create_shouldSizeForExpectedInsertions() {
+    BloomFilter filter = BloomFilter.create(1_000_000, 0.01);
+
+    assertEquals(0, filter.bitSize() % Long.SIZE);
+    assertTrue(filter.bitSize() >= 9_585_058);
+    assertEquals(7, filter.hashCount());
+  }
+
+  @Test
+  void create_whenProbabilityOutOfRange_shouldThrowException() {
+    assertThrows(IllegalArgumentException.class, () -> BloomFilter.create(10, 0));
+    assertThrows(IllegalArgumentException.class, () -> BloomFilter.create(10, 1));
+  }
+
+  @Test
+  void mightContain_shouldNeverMissAddedKeys() {
+    BloomFilter filter = BloomFilter.create(KEYS, 0.01);
+    LongStream.rangeClosed(1, KEYS).forEach(filter::put);
+
+    assertTrue(LongStream.rangeClosed(1, KEYS).allMatch(filter::mightContain));
+  }
+
+  @Test
+  void mightContain_shouldKeepFalsePositivesNearTarget() {
+    BloomFilter filter = BloomFilter.create(KEYS, 0.01);
+    LongStream.rangeClosed(1, KEYS).forEach(filter::put);
+
+    long falsePositives =
+        LongStream.rangeClosed(KEYS + 1, 2L * KEYS).filter(filter::mightContain).count();
+
+    assertTrue(falsePositives < KEYS * 0.015, "false positives: " + falsePositives);
+    assertEquals(0.01, filter.expectedFalsePositiveProbability(), 0.003);
+  }
+
+  @Test
+  void mightContain_whenEmpty_shouldRuleOutEveryKey() {
+    BloomFilter filter = BloomFilter.create(KEYS, 0.01);
+
+    assertFalse(filter.mightContain(42));
+    assertEquals(0, filter.bitCount());
+  }
+
+  @Test
+  void toByteArray_shouldNumberBitsFromMostSignificant() {
+    BloomFilter filter = BloomFilter.create(1, 0.5);
+    long[] offsets = filter.offsets(7);
+    filter.put(offsets);
+
+    byte[] bytes = filter.toByteArray();
+
+    assertEquals(filter.bitSize() / 8, bytes.length);
+    for (long offset : offsets) {
+      assertTrue((bytes[(int) (offset / 8)] & (0x80 >>> (offset % 8))) != 0);
+    }
+    assertEquals(filter.bitCount(), bitCount(bytes));
+  }
+
+  private static long bitCount(byte[] bytes) {
+    long count = 0;
+    for (byte b : bytes) {
+      count += Integer.bitCount(b & 0xFF);
+    }
+    return count;
+  }
+}
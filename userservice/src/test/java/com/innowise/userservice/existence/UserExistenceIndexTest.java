@@ -0,0 +1,83 @@
+package com.innowise.userservice.existence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class UserExistenceIndexTest {
+
+  private SimpleMeterRegistry meterRegistry;
+
+  private UserExistenceIndex index;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    index =
+        new UserExistenceIndex(
+            new ExistenceFilter("ids", BloomFilter.create(1_000, 0.01), null, meterRegistry),
+            new ExistenceFilter("emails", BloomFilter.create(1_000, 0.01), null, meterRegistry));
+  }
+
+  @Test
+  void mightExist_whenNotReady_shouldAssumeEveryUserExists() {
+    assertTrue(index.mightExist(1L));
+    assertTrue(index.mightExistByEmail("unknown@mail.ru"));
+    assertEquals(1, checks("ids", "unready"));
+  }
+
+  @Test
+  void mightExist_whenReady_shouldRuleOutUnknownUsers() {
+    index.add(1L, "known@mail.ru");
+    index.markReady();
+
+    assertTrue(index.mightExist(1L));
+    assertFalse(index.mightExist(2L));
+    assertFalse(index.mightExistByEmail("unknown@mail.ru"));
+    assertEquals(1, checks("ids", "present"));
+    assertEquals(1, checks("ids", "absent"));
+  }
+
+  @Test
+  void mightExistByEmail_shouldIgnoreCaseAndSurroundingSpaces() {
+    index.add(1L, "Known@Mail.ru");
+    index.markReady();
+
+    assertTrue(index.mightExistByEmail(" known@mail.RU "));
+  }
+
+  @Test
+  void addedAfterReady_shouldBeFoundRightAway() {
+    index.markReady();
+    index.add(5L, "late@mail.ru");
+
+    assertTrue(index.mightExist(5L));
+    assertTrue(index.mightExistByEmail("late@mail.ru"));
+  }
+
+  @Test
+  void recordMissingId_shouldCountFalsePositive() {
+    index.recordMissingId();
+
+    assertEquals(
+        1,
+        meterRegistry
+            .get("userservice.existence.false.positives")
+            .tag("filter", "ids")
+            .counter()
+            .count());
+  }
+
+  private double checks(String filter, String result) {
+    return meterRegistry
+        .get("userservice.existence.checks")
+        .tag("filter", filter)
+        .tag("result", result)
+        .counter()
+        .count();
+  }
+}
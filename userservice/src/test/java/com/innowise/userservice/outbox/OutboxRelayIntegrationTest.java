@@ -0,0 +1,162 @@
+package com.innowise.userservice.outbox;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.innowise.userservice.model.entity.PaymentCard;
+import com.innowise.userservice.model.entity.User;
+import com.innowise.userservice.repository.OutboxEventRepository;
+import com.innowise.userservice.repository.UserRepository;
+import com.innowise.userservice.service.CardService;
+import com.innowise.userservice.service.UserService;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.KafkaContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * Publishing through the outbox against real Postgres and Kafka containers. The relay is not
+ * scheduled during the test, it is run explicitly once the changes are committed.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Testcontainers
+class OutboxRelayIntegrationTest {
+
+  private static final String USER_TOPIC = "test.users";
+  private static final String CARD_TOPIC = "test.cards";
+
+  @Container
+  private static final PostgreSQLContainer<?> postgres =
+      new PostgreSQLContainer<>("postgres:15-alpine");
+
+  @Container
+  private static final KafkaContainer kafka =
+      new KafkaContainer(DockerImageName.parse("confluentinc/cp-kafka:7.6.0"));
+
+  @Autowired private UserService userService;
+
+  @Autowired private CardService cardService;
+
+  @Autowired private UserRepository userRepository;
+
+  @Autowired private OutboxEventRepository outboxRepository;
+
+  @Autowired private OutboxRelay relay;
+
+  @DynamicPropertySource
+  static void properties(DynamicPropertyRegistry registry) {
+    registry.add("spring.datasource.url", postgres::getJdbcUrl);
+    registry.add("spring.datasource.username", postgres::getUsername);
+    registry.add("spring.datasource.password", postgres::getPassword);
+    registry.add("spring.kafka.bootstrap-servers", kafka::getBootstrapServers);
+    registry.add("userservice.outbox.enabled", () -> "true");
+    registry.add("userservice.outbox.user-topic", () -> USER_TOPIC);
+    registry.add("userservice.outbox.card-topic", () -> CARD_TOPIC);
+    registry.add("userservice.outbox.poll-interval", () -> "1h");
+  }
+
+  @AfterEach
+  void tearDown() {
+    userRepository.deleteAll();
+    outboxRepository.deleteAll();
+  }
+
+  @Test
+  void relay_shouldPublishLatestStateOnceAndTombstonesOfDeletedCards() {
+    User user = userService.createUser(user("outbox@mail.ru"));
+    PaymentCard card = cardService.createCard(card("4000000000000001"), user.getId());
+    userService.updateUserStatus(user.getId(), false);
+    cardService.deleteCard(card.getId());
+
+    relay.relay();
+
+    assertEquals(0, outboxRepository.count());
+    String userKey = String.valueOf(user.getId());
+    String cardKey = UserKeyPartitioner.cardKey(user.getId(), card.getId());
+    List<ConsumerRecord<String, String>> users = consume(USER_TOPIC, Set.of(userKey));
+    List<ConsumerRecord<String, String>> cards = consume(CARD_TOPIC, Set.of(cardKey));
+    assertEquals(1, users.size());
+    assertTrue(users.get(0).value().contains("\"active\":false"), users.get(0).value());
+    assertEquals(1, cards.size());
+    assertNull(cards.get(0).value());
+    assertEquals(users.get(0).partition(), cards.get(0).partition());
+  }
+
+  @Test
+  void relay_shouldPublishUsersOfBulkUpdatesAndDeletedUsersAsTombstones() {
+    User first = userService.createUser(user("bulk-first@mail.ru"));
+    User second = userService.createUser(user("bulk-second@mail.ru"));
+    relay.relay();
+
+    userService.updateUserStatuses(List.of(first.getId(), second.getId()), false);
+    userService.deleteUser(second.getId());
+    relay.relay();
+
+    Map<String, String> latest = new HashMap<>();
+    Set<String> keys = Set.of(String.valueOf(first.getId()), String.valueOf(second.getId()));
+    consume(USER_TOPIC, keys).forEach(record -> latest.put(record.key(), record.value()));
+    assertTrue(latest.get(String.valueOf(first.getId())).contains("\"active\":false"));
+    assertNull(latest.get(String.valueOf(second.getId())));
+  }
+
+  /** Reads the topic from the start until nothing more comes, keeping the records of the keys. */
+  private static List<ConsumerRecord<String, String>> consume(String topic, Set<String> keys) {
+    Map<String, Object> config =
+        Map.of(
+            ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, kafka.getBootstrapServers(),
+            ConsumerConfig.GROUP_ID_CONFIG, "outbox-test-" + System.nanoTime(),
+            ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest",
+            ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class,
+            ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+    try (KafkaConsumer<String, String> consumer = new KafkaConsumer<>(config)) {
+      consumer.subscribe(List.of(topic));
+      List<ConsumerRecord<String, String>> records = new ArrayList<>();
+      int idlePolls = 0;
+      while (idlePolls < 5) {
+        int before = records.size();
+        consumer.poll(Duration.ofSeconds(1)).forEach(records::add);
+        idlePolls = records.size() > before ? 0 : idlePolls + 1;
+      }
+      return records.stream().filter(record -> keys.contains(record.key())).toList();
+    }
+  }
+
+  private static User user(String email) {
+    User user = new User();
+    user.setName("outbox");
+    user.setSurname("outbox");
+    user.setBirthDate(LocalDate.of(2000, 1, 1));
+    user.setEmail(email);
+    user.setActive(true);
+    return user;
+  }
+
+  private static PaymentCard card(String number) {
+    PaymentCard card = new PaymentCard();
+    card.setNumber(number);
+    card.setHolder("outbox outbox");
+    card.setExpirationDate("12/30");
+    return card;
+  }
+}
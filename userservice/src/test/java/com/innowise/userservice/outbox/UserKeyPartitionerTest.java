@@ -0,0 +1,68 @@
+package com.innowise.userservice.outbox;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.apache.kafka.common.Cluster;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.utils.Utils;
+import org.junit.jupiter.api.Test;
+
+class UserKeyPartitionerTest {
+
+  private static final int PARTITIONS = 6;
+
+  private final UserKeyPartitioner partitioner = new UserKeyPartitioner();
+
+  private final Cluster cluster = cluster("users", "cards");
+
+  @Test
+  void partition_shouldPlaceCardsInThePartitionOfTheirUser() {
+    for (long userId = 1; userId <= 100; userId++) {
+      int userPartition = partition("users", String.valueOf(userId));
+
+      assertEquals(userPartition, partition("cards", UserKeyPartitioner.cardKey(userId, 7L)));
+      assertEquals(userPartition, partition("cards", UserKeyPartitioner.cardKey(userId, 900L)));
+    }
+  }
+
+  @Test
+  void partition_shouldHashUserKeysLikeTheDefaultPartitioner() {
+    byte[] key = "42".getBytes(StandardCharsets.UTF_8);
+
+    assertEquals(Utils.toPositive(Utils.murmur2(key)) % PARTITIONS, partition("users", "42"));
+  }
+
+  @Test
+  void partition_whenKeyIsMissing_shouldThrowException() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> partitioner.partition("users", null, null, "value", null, cluster));
+  }
+
+  private int partition(String topic, String key) {
+    return partitioner.partition(
+        topic, key, key.getBytes(StandardCharsets.UTF_8), null, null, cluster);
+  }
+
+  private static Cluster cluster(String... topics) {
+    Node node = new Node(0, "localhost", 9092);
+    List<PartitionInfo> partitions =
+        Stream.of(topics)
+            .flatMap(
+                topic ->
+                    IntStream.range(0, PARTITIONS)
+                        .mapToObj(
+                            p ->
+                                new PartitionInfo(
+                                    topic, p, node, new Node[] {node}, new Node[] {node})))
+            .toList();
+    return new Cluster("test", List.of(node), partitions, Set.of(), Set.of());
+  }
+}
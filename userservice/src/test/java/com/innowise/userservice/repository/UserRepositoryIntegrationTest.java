@@ -0,0 +1,110 @@
+package com.innowise.userservice.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.innowise.userservice.BaseIntegrationTest;
+import com.innowise.userservice.config.QueryCounter;
+import com.innowise.userservice.mapper.UserMapper;
+import com.innowise.userservice.model.dto.UserWithCardsDto;
+import com.innowise.userservice.model.entity.PaymentCard;
+import com.innowise.userservice.model.entity.User;
+import com.innowise.userservice.service.UserService;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class UserRepositoryIntegrationTest extends BaseIntegrationTest {
+
+  private static final int USERS = 6;
+  private static final int CARDS_PER_USER = 3;
+
+  @Autowired private UserRepository userRepository;
+
+  @Autowired private UserService userService;
+
+  @Autowired private UserMapper userMapper;
+
+  @Autowired private TransactionTemplate transactionTemplate;
+
+  @Autowired private EntityManagerFactory entityManagerFactory;
+
+  private QueryCounter queryCounter;
+
+  private final List<Long> userIds = new ArrayList<>();
+
+  @BeforeEach
+  void setUp() {
+    queryCounter = new QueryCounter(entityManagerFactory);
+    for (int i = 0; i < USERS; i++) {
+      User user = new User();
+      user.setName("name" + i);
+      user.setSurname("surname" + i);
+      user.setBirthDate(LocalDate.of(2000, 1, 1));
+      user.setEmail("user" + i + "@mail.ru");
+      List<PaymentCard> cards = new ArrayList<>();
+      for (int j = 0; j < CARDS_PER_USER; j++) {
+        PaymentCard card = new PaymentCard();
+        card.setUser(user);
+        card.setNumber(String.format("%08d%08d", i, j));
+        card.setHolder("holder" + i);
+        card.setExpirationDate("01/30");
+        cards.add(card);
+      }
+      user.setCards(cards);
+      userIds.add(userRepository.save(user).getId());
+    }
+  }
+
+  @AfterEach
+  void tearDown() {
+    userRepository.deleteAll();
+  }
+
+  @Test
+  void findWithCardsById_shouldLoadUserAndCardsInOneStatement() {
+    UserWithCardsDto user =
+        queryCounter.assertStatements(
+            1,
+            () ->
+                transactionTemplate.execute(
+                    status ->
+                        userMapper.userToUserWithCardsDto(
+                            userRepository.findWithCardsById(userIds.get(0)).orElseThrow())));
+
+    assertEquals(CARDS_PER_USER, user.getCards().size());
+  }
+
+  @Test
+  void findById_whenCardsTouchedForPage_shouldBatchFetchThem() {
+    queryCounter.assertStatements(
+        2,
+        () ->
+            transactionTemplate.execute(
+                status ->
+                    userRepository.findAllById(userIds).stream()
+                        .map(userMapper::userToUserWithCardsDto)
+                        .toList()));
+  }
+
+  @Test
+  void getAllUsersWithCards_shouldNotDependOnPageSize() {
+    Page<UserWithCardsDto> page =
+        queryCounter.assertStatements(
+            3,
+            () ->
+                userService.getAllUsersWithCards(
+                    null, null, PageRequest.of(0, USERS - 1, Sort.by("id"))));
+
+    assertEquals(USERS, page.getTotalElements());
+    page.forEach(user -> assertEquals(CARDS_PER_USER, user.getCards().size()));
+  }
+}
@@ -0,0 +1,55 @@
+package com.innowise.userservice.repository.specification;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.innowise.userservice.exception.InvalidPaginationException;
+import com.innowise.userservice.model.entity.User;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+class KeysetCursorTest {
+
+  @Test
+  void encodeAndDecode_shouldRoundTripValueWithSeparators() {
+    KeysetCursor cursor = new KeysetCursor("email", Sort.Direction.DESC, "a:b@mail.ru", 42L);
+
+    KeysetCursor decoded = KeysetCursor.decode(cursor.encode());
+
+    assertEquals(cursor, decoded);
+  }
+
+  @Test
+  void decode_whenCursorIsMalformed_shouldThrowException() {
+    assertThrows(InvalidPaginationException.class, () -> KeysetCursor.decode("not-a-cursor"));
+  }
+
+  @Test
+  void next_shouldPointAfterGivenRow() {
+    User user = new User();
+    user.setId(7L);
+    user.setName("Yauhen");
+
+    KeysetCursor next = KeysetCursor.first("name", Sort.Direction.ASC).next(user);
+
+    assertEquals("Yauhen", next.value());
+    assertEquals(7L, next.id());
+  }
+
+  @Test
+  void sort_shouldAppendIdAsTiebreaker() {
+    Sort sort = KeysetCursor.first("name", Sort.Direction.DESC).sort();
+
+    assertEquals(Sort.by(Sort.Direction.DESC, "name", "id"), sort);
+  }
+
+  @Test
+  void validate_whenSizeExceedsMaximum_shouldThrowException() {
+    KeysetCursor cursor = KeysetCursor.first("id", Sort.Direction.ASC);
+
+    assertThrows(
+        InvalidPaginationException.class,
+        () -> cursor.validate(Set.of("id"), KeysetCursor.MAX_PAGE_SIZE + 1));
+  }
+}
@@ -0,0 +1,209 @@
+package com.innowise.userservice.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.innowise.userservice.BaseIntegrationTest;
+import com.innowise.userservice.exception.CardNotFoundException;
+import com.innowise.userservice.exception.MaxCardsLimitException;
+import com.innowise.userservice.model.dto.BulkStatusUpdateResultDto;
+import com.innowise.userservice.model.entity.PaymentCard;
+import com.innowise.userservice.model.entity.User;
+import com.innowise.userservice.repository.PaymentCardRepository;
+import com.innowise.userservice.repository.UserRepository;
+import com.innowise.userservice.service.CardService;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+class CardServiceConcurrencyIntegrationTest extends BaseIntegrationTest {
+
+  private static final int REQUESTS = 40;
+  private static final int MAX_CARDS_PER_USER = 5;
+
+  @Autowired private CardService cardService;
+
+  @Autowired private UserRepository userRepository;
+
+  @Autowired private PaymentCardRepository cardRepository;
+
+  private User user;
+
+  @BeforeEach
+  void setUp() {
+    user = new User();
+    user.setName("test");
+    user.setSurname("test");
+    user.setBirthDate(LocalDate.of(2000, 1, 1));
+    user.setEmail("concurrent@mail.ru");
+    user = userRepository.save(user);
+  }
+
+  @AfterEach
+  void tearDown() {
+    userRepository.deleteAll();
+  }
+
+  @Test
+  void createCard_whenManyRequestsRaceForSameUser_shouldNotExceedLimit() throws Exception {
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<Boolean>> results = new ArrayList<>();
+
+    try (ExecutorService executor = Executors.newFixedThreadPool(16)) {
+      for (int i = 0; i < REQUESTS; i++) {
+        String number = String.format("4000%012d", i);
+        results.add(
+            executor.submit(
+                () -> {
+                  start.await();
+                  try {
+                    cardService.createCard(card(number), user.getId());
+                    return true;
+                  } catch (MaxCardsLimitException ex) {
+                    return false;
+                  }
+                }));
+      }
+      start.countDown();
+
+      int created = 0;
+      for (Future<Boolean> result : results) {
+        if (result.get()) {
+          created++;
+        }
+      }
+      assertEquals(MAX_CARDS_PER_USER, created);
+    }
+
+    assertEquals(MAX_CARDS_PER_USER, cardRepository.countActiveCardsByUserId(user.getId()));
+    assertEquals(
+        MAX_CARDS_PER_USER,
+        userRepository.findById(user.getId()).orElseThrow().getActiveCardCount());
+  }
+
+  @Test
+  void updateCardStatus_shouldKeepCounterInSync() {
+    PaymentCard card = cardService.createCard(card("4000000000000001"), user.getId());
+
+    cardService.updateCardStatus(card.getId(), false);
+    assertEquals(0, userRepository.findById(user.getId()).orElseThrow().getActiveCardCount());
+
+    cardService.updateCardStatus(card.getId(), true);
+    assertEquals(1, userRepository.findById(user.getId()).orElseThrow().getActiveCardCount());
+
+    cardService.deleteCard(card.getId());
+    assertEquals(0, userRepository.findById(user.getId()).orElseThrow().getActiveCardCount());
+  }
+
+  @Test
+  void updateCardStatus_whenDeactivationsRace_shouldReleaseSlotOnce() throws Exception {
+    PaymentCard card = cardService.createCard(card("4000000000000001"), user.getId());
+    cardService.createCard(card("4000000000000002"), user.getId());
+
+    Runnable deactivate = () -> cardService.updateCardStatus(card.getId(), false);
+    race(Collections.nCopies(REQUESTS, deactivate));
+
+    assertEquals(1, cardRepository.countActiveCardsByUserId(user.getId()));
+    assertCounterMatchesCards();
+  }
+
+  @Test
+  void updateCardStatus_whenActivationsRace_shouldTakeSlotOnce() throws Exception {
+    PaymentCard inactive = card("4000000000000001");
+    inactive.setActive(false);
+    PaymentCard card = cardService.createCard(inactive, user.getId());
+
+    Runnable activate = () -> cardService.updateCardStatus(card.getId(), true);
+    race(Collections.nCopies(REQUESTS, activate));
+
+    assertEquals(1, cardRepository.countActiveCardsByUserId(user.getId()));
+    assertCounterMatchesCards();
+  }
+
+  @Test
+  void deleteCard_whenRacingDeactivation_shouldReleaseSlotOnce() throws Exception {
+    List<Runnable> tasks = new ArrayList<>();
+    for (int i = 0; i < MAX_CARDS_PER_USER; i++) {
+      Long id = cardService.createCard(card(String.format("4000%012d", i)), user.getId()).getId();
+      tasks.add(() -> cardService.updateCardStatus(id, false));
+      tasks.add(() -> cardService.deleteCard(id));
+      tasks.add(() -> cardService.deleteCard(id));
+    }
+
+    race(tasks);
+
+    assertEquals(0, cardRepository.countActiveCardsByUserId(user.getId()));
+    assertCounterMatchesCards();
+  }
+
+  @Test
+  void updateCardStatuses_shouldKeepCounterInSyncAndRespectLimit() {
+    List<Long> ids = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      PaymentCard card = card(String.format("4000%012d", i));
+      card.setActive(i < MAX_CARDS_PER_USER);
+      ids.add(cardService.createCard(card, user.getId()).getId());
+    }
+
+    BulkStatusUpdateResultDto deactivated =
+        cardService.updateCardStatuses(ids.subList(0, 2), false);
+    assertEquals(2, deactivated.getUpdated());
+    assertEquals(3, userRepository.findById(user.getId()).orElseThrow().getActiveCardCount());
+
+    BulkStatusUpdateResultDto activated = cardService.updateCardStatuses(ids, true);
+    assertEquals(8, activated.getMatched());
+    assertEquals(2, activated.getUpdated());
+    assertEquals(MAX_CARDS_PER_USER, cardRepository.countActiveCardsByUserId(user.getId()));
+    assertEquals(
+        MAX_CARDS_PER_USER,
+        userRepository.findById(user.getId()).orElseThrow().getActiveCardCount());
+  }
+
+  /** Starts every task at once and waits for all of them; losing to a delete is expected. */
+  private static void race(List<Runnable> tasks) throws Exception {
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<?>> results = new ArrayList<>();
+
+    try (ExecutorService executor = Executors.newFixedThreadPool(16)) {
+      for (Runnable task : tasks) {
+        results.add(
+            executor.submit(
+                () -> {
+                  start.await();
+                  try {
+                    task.run();
+                  } catch (CardNotFoundException ex) {
+                    // Another task deleted the card first.
+                  }
+                  return null;
+                }));
+      }
+      start.countDown();
+      for (Future<?> result : results) {
+        result.get();
+      }
+    }
+  }
+
+  private void assertCounterMatchesCards() {
+    assertEquals(
+        cardRepository.countActiveCardsByUserId(user.getId()),
+        userRepository.findById(user.getId()).orElseThrow().getActiveCardCount());
+  }
+
+  private static PaymentCard card(String number) {
+    PaymentCard card = new PaymentCard();
+    card.setNumber(number);
+    card.setHolder("TEST TEST");
+    card.setExpirationDate("12/30");
+    return card;
+  }
+}
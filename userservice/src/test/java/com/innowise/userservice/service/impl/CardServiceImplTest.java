@@ -1,28 +1,44 @@
 package com.innowise.userservice.service.impl;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
-import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.innowise.userservice.cache.BatchCacheEvictor;
+import com.innowise.userservice.cache.BatchCacheLoader;
 import com.innowise.userservice.exception.CardNotFoundException;
+import com.innowise.userservice.exception.InvalidFilterException;
 import com.innowise.userservice.exception.MaxCardsLimitException;
 import com.innowise.userservice.exception.UserNotFoundException;
+import com.innowise.userservice.existence.UserExistenceIndex;
+import com.innowise.userservice.mapper.PaymentCardMapper;
+import com.innowise.userservice.model.dto.BulkStatusUpdateResultDto;
+import com.innowise.userservice.model.dto.PaymentCardDto;
 import com.innowise.userservice.model.entity.PaymentCard;
 import com.innowise.userservice.model.entity.User;
+import com.innowise.userservice.outbox.ChangeOutbox;
 import com.innowise.userservice.repository.PaymentCardRepository;
 import com.innowise.userservice.repository.UserRepository;
+import com.innowise.userservice.repository.projection.PaymentCardView;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -32,6 +48,8 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @ExtendWith(MockitoExtension.class)
 class CardServiceImplTest {
@@ -40,55 +58,73 @@ class CardServiceImplTest {
 
   @Mock private UserRepository userRepository;
 
+  @Mock private TransactionTemplate transactionTemplate;
+
+  @Mock private BatchCacheEvictor cacheEvictor;
+
+  @Mock private BatchCacheLoader cacheLoader;
+
+  @Mock private UserExistenceIndex existenceIndex;
+
+  @Mock private ChangeOutbox outbox;
+
+  @Mock private PaymentCardMapper cardMapper;
+
   @InjectMocks private CardServiceImpl cardService;
 
+  @BeforeEach
+  void setUp() {
+    lenient().when(existenceIndex.mightExist(any())).thenReturn(true);
+  }
+
   @Test
   void createCard_whenUserExistsAndCardLimitNotExceeded_shouldReturnCard() {
     User user = new User();
     user.setId(1L);
 
     PaymentCard card = new PaymentCard();
+    card.setId(10L);
     card.setExpirationDate("12/30");
 
-    when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-    when(cardRepository.countActiveCardsByUserId(anyLong())).thenReturn(4);
+    when(userRepository.incrementActiveCardCount(1L, 5)).thenReturn(1);
+    when(userRepository.getReferenceById(1L)).thenReturn(user);
     when(cardRepository.save(any(PaymentCard.class))).thenReturn(card);
 
     PaymentCard result = cardService.createCard(card, 1L);
 
     assertNotNull(result);
-    verify(userRepository).findById(1L);
-    verify(cardRepository).countActiveCardsByUserId(1L);
+    assertEquals(user, card.getUser());
+    verify(userRepository, never()).findById(anyLong());
+    verify(userRepository, never()).existsById(anyLong());
     verify(cardRepository).save(card);
+    verify(cacheEvictor).evictMisses("cards", List.of(10L));
+    verify(cacheEvictor).evict("userWithCards", List.of(1L));
+    verify(outbox).cardChanged(10L, 1L);
   }
 
   @Test
   void createCard_whenUserDoesNotExist_shouldThrowException() {
     PaymentCard card = new PaymentCard();
+    card.setExpirationDate("12/30");
 
-    when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+    when(userRepository.incrementActiveCardCount(1L, 5)).thenReturn(0);
+    when(userRepository.existsById(1L)).thenReturn(false);
 
     assertThrows(UserNotFoundException.class, () -> cardService.createCard(card, 1L));
-    verify(userRepository, times(1)).findById(anyLong());
-    verify(cardRepository, never()).countActiveCardsByUserId(anyLong());
     verify(cardRepository, never()).save(any(PaymentCard.class));
   }
 
   @Test
   void createCard_whenCardLimitExceeded_shouldThrowException() {
-    User user = new User();
-    user.setId(1L);
-
     PaymentCard card = new PaymentCard();
     card.setExpirationDate("12/30");
 
-    when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-    when(cardRepository.countActiveCardsByUserId(anyLong())).thenReturn(5);
+    when(userRepository.incrementActiveCardCount(1L, 5)).thenReturn(0);
+    when(userRepository.existsById(1L)).thenReturn(true);
 
     assertThrows(MaxCardsLimitException.class, () -> cardService.createCard(card, 1L));
 
-    verify(userRepository).findById(1L);
-    verify(cardRepository).countActiveCardsByUserId(1L);
+    verify(userRepository).incrementActiveCardCount(1L, 5);
     verify(cardRepository, never()).save(any());
   }
 
@@ -114,6 +150,34 @@ class CardServiceImplTest {
     verify(cardRepository, times(1)).findById(anyLong());
   }
 
+  @Test
+  void getCardDtoById_whenCardExists_shouldReturnMappedCard() {
+    PaymentCard card = new PaymentCard();
+    card.setId(1L);
+    PaymentCardDto cardDto = new PaymentCardDto();
+
+    when(cardRepository.findById(1L)).thenReturn(Optional.of(card));
+    when(cardMapper.cardToCardDto(card)).thenReturn(cardDto);
+
+    assertEquals(cardDto, cardService.getCardDtoById(1L));
+  }
+
+  @Test
+  void getCardDtosByIds_shouldLoadMissesThroughCache() {
+    PaymentCardDto cardDto = new PaymentCardDto();
+    cardDto.setId(1L);
+
+    when(cardRepository.findAllAsDtoByIdIn(List.of(1L, 2L))).thenReturn(List.of(cardDto));
+    when(cacheLoader.getAll(eq("cards"), eq(List.of(1L, 2L)), any()))
+        .thenAnswer(
+            invocation ->
+                invocation
+                    .<Function<Collection<Long>, Map<Long, PaymentCardDto>>>getArgument(2)
+                    .apply(invocation.getArgument(1)));
+
+    assertEquals(List.of(cardDto), cardService.getCardDtosByIds(List.of(1L, 2L)));
+  }
+
   @Test
   @SuppressWarnings("unchecked")
   void getAllCards_shouldReturnPageOfCards() {
@@ -149,6 +213,62 @@ class CardServiceImplTest {
     assertThrows(UserNotFoundException.class, () -> cardService.getCardsByUserId(1L));
     verify(userRepository, times(1)).existsById(anyLong());
     verify(cardRepository, never()).findAllByUserId(anyLong());
+    verify(existenceIndex).recordMissingId();
+  }
+
+  @Test
+  void getCardsByUserId_whenIndexRulesUserOut_shouldNotQueryDatabase() {
+    when(existenceIndex.mightExist(1L)).thenReturn(false);
+
+    assertThrows(UserNotFoundException.class, () -> cardService.getCardsByUserId(1L));
+    verify(userRepository, never()).existsById(anyLong());
+    verify(cardRepository, never()).findAllByUserId(anyLong());
+  }
+
+  @Test
+  void createCard_whenIndexRulesUserOut_shouldNotReserveSlot() {
+    PaymentCard card = new PaymentCard();
+    card.setExpirationDate("12/30");
+    card.setActive(true);
+    when(existenceIndex.mightExist(1L)).thenReturn(false);
+
+    assertThrows(UserNotFoundException.class, () -> cardService.createCard(card, 1L));
+    verify(userRepository, never()).incrementActiveCardCount(anyLong(), eq(5));
+    verify(cardRepository, never()).save(any(PaymentCard.class));
+  }
+
+  @Test
+  void getCardViewsByUserId_whenUserExists_shouldReturnProjections() {
+    when(userRepository.existsById(anyLong())).thenReturn(true);
+    when(cardRepository.findViewsByUserId(anyLong()))
+        .thenReturn(Collections.singletonList(mock(PaymentCardView.class)));
+
+    List<PaymentCardView> result = cardService.getCardViewsByUserId(1L);
+
+    assertEquals(1, result.size());
+    verify(cardRepository, never()).findAllByUserId(anyLong());
+  }
+
+  @Test
+  void getCardViewsByUserId_whenUserDoesNotExist_shouldThrowException() {
+    when(userRepository.existsById(anyLong())).thenReturn(false);
+
+    assertThrows(UserNotFoundException.class, () -> cardService.getCardViewsByUserId(1L));
+    verify(cardRepository, never()).findViewsByUserId(anyLong());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void getAllCardDtos_shouldUseProjectionInsteadOfEntities() {
+    Page<PaymentCardDto> dtoPage = new PageImpl<>(Collections.singletonList(new PaymentCardDto()));
+    when(cardRepository.findAllAsDto(any(Specification.class), any(Pageable.class)))
+        .thenReturn(dtoPage);
+
+    Page<PaymentCardDto> result =
+        cardService.getAllCardDtos("holder", null, true, Pageable.unpaged());
+
+    assertEquals(1, result.getTotalElements());
+    verify(cardRepository, never()).findAll(any(Specification.class), any(Pageable.class));
   }
 
   @Test
@@ -197,41 +317,55 @@ class CardServiceImplTest {
   }
 
   @Test
-  void updateCardStatus_activateCard_shouldReturnUpdatedCard() {
-    User user = new User();
-    user.setId(1L);
-    PaymentCard card = new PaymentCard();
-    card.setUser(user);
-    card.setActive(false);
+  void updateCardStatus_activateCard_shouldLockOwnerAndTakeSlot() {
+    PaymentCard card = cardOf(1L);
 
-    when(cardRepository.findById(anyLong())).thenReturn(Optional.of(card));
-    when(cardRepository.save(any(PaymentCard.class))).thenReturn(card);
+    when(cardRepository.findById(1L)).thenReturn(Optional.of(card));
+    when(cardRepository.updateStatus(eq(1L), eq(true), any())).thenReturn(1);
+    when(userRepository.incrementActiveCardCount(1L, 5)).thenReturn(1);
 
     PaymentCard result = cardService.updateCardStatus(1L, true);
 
-    assertNotNull(result);
-    assertTrue(result.isActive());
-    verify(cardRepository, times(1)).findById(anyLong());
-    verify(cardRepository, times(1)).save(card);
+    assertEquals(card, result);
+    verify(userRepository).lockByIdIn(List.of(1L));
+    verify(userRepository).incrementActiveCardCount(1L, 5);
+    verify(outbox).cardChanged(1L, 1L);
+    verify(cardRepository, never()).save(any(PaymentCard.class));
   }
 
   @Test
-  void updateCardStatus_deactivateCard_shouldReturnUpdatedCard() {
-    User user = new User();
-    user.setId(1L);
-    PaymentCard card = new PaymentCard();
-    card.setUser(user);
-    card.setActive(true);
+  void updateCardStatus_activateWhenLimitReached_shouldThrowException() {
+    when(cardRepository.findById(1L)).thenReturn(Optional.of(cardOf(1L)));
+    when(cardRepository.updateStatus(eq(1L), eq(true), any())).thenReturn(1);
+    when(userRepository.incrementActiveCardCount(1L, 5)).thenReturn(0);
+    when(userRepository.existsById(1L)).thenReturn(true);
+
+    assertThrows(MaxCardsLimitException.class, () -> cardService.updateCardStatus(1L, true));
+    verify(outbox, never()).cardChanged(anyLong(), anyLong());
+  }
 
-    when(cardRepository.findById(anyLong())).thenReturn(Optional.of(card));
-    when(cardRepository.save(any(PaymentCard.class))).thenReturn(card);
+  @Test
+  void updateCardStatus_deactivateCard_shouldReleaseSlot() {
+    when(cardRepository.findById(1L)).thenReturn(Optional.of(cardOf(1L)));
+    when(cardRepository.updateStatus(eq(1L), eq(false), any())).thenReturn(1);
 
-    PaymentCard result = cardService.updateCardStatus(1L, false);
+    cardService.updateCardStatus(1L, false);
 
-    assertNotNull(result);
-    assertFalse(result.isActive());
-    verify(cardRepository, times(1)).findById(anyLong());
-    verify(cardRepository, times(1)).save(card);
+    verify(userRepository).lockByIdIn(List.of(1L));
+    verify(userRepository).decrementActiveCardCount(1L);
+    verify(outbox).cardChanged(1L, 1L);
+  }
+
+  @Test
+  void updateCardStatus_whenCardAlreadyHasStatus_shouldNotTouchCounter() {
+    when(cardRepository.findById(1L)).thenReturn(Optional.of(cardOf(1L)));
+    when(cardRepository.updateStatus(eq(1L), eq(false), any())).thenReturn(0);
+
+    cardService.updateCardStatus(1L, false);
+
+    verify(userRepository, never()).decrementActiveCardCount(anyLong());
+    verify(userRepository, never()).incrementActiveCardCount(anyLong(), anyInt());
+    verify(outbox, never()).cardChanged(anyLong(), anyLong());
   }
 
   @Test
@@ -240,54 +374,121 @@ class CardServiceImplTest {
 
     assertThrows(CardNotFoundException.class, () -> cardService.updateCardStatus(1L, true));
     verify(cardRepository, times(1)).findById(anyLong());
-    verify(cardRepository, never()).save(any(PaymentCard.class));
+    verify(cardRepository, never()).updateStatus(anyLong(), anyBoolean(), any());
   }
 
   @Test
-  void activateCard_shouldCallRepository() {
-    User user = new User();
-    user.setId(1L);
-    PaymentCard card = new PaymentCard();
-    card.setUser(user);
-
-    when(cardRepository.findById(anyLong())).thenReturn(Optional.of(card));
-    when(cardRepository.save(any(PaymentCard.class))).thenReturn(card);
+  void activateCard_shouldUpdateStatusAndEvictOwner() {
+    when(cardRepository.findById(anyLong())).thenReturn(Optional.of(cardOf(1L)));
 
     cardService.activateCard(1L);
 
-    verify(cardRepository, times(1)).findById(anyLong());
-    verify(cardRepository, times(1)).save(card);
+    verify(cardRepository).updateStatus(eq(1L), eq(true), any());
+    verify(cacheEvictor).evict("userWithCards", List.of(1L));
   }
 
   @Test
-  void deactivateCard_shouldCallRepository() {
-    User user = new User();
-    user.setId(1L);
-    PaymentCard card = new PaymentCard();
-    card.setUser(user);
-
-    when(cardRepository.findById(anyLong())).thenReturn(Optional.of(card));
-    when(cardRepository.save(any(PaymentCard.class))).thenReturn(card);
+  void deactivateCard_shouldUpdateStatusAndEvictOwner() {
+    when(cardRepository.findById(anyLong())).thenReturn(Optional.of(cardOf(1L)));
 
     cardService.deactivateCard(1L);
 
-    verify(cardRepository, times(1)).findById(anyLong());
-    verify(cardRepository, times(1)).save(card);
+    verify(cardRepository).updateStatus(eq(1L), eq(false), any());
+    verify(cacheEvictor).evict("userWithCards", List.of(1L));
   }
 
   @Test
-  void deleteCard_shouldCallRepository() {
-    User user = new User();
-    user.setId(1L);
-    PaymentCard card = new PaymentCard();
-    card.setUser(user);
-
-    when(cardRepository.findById(anyLong())).thenReturn(Optional.of(card));
+  void deleteCard_whenCardIsActive_shouldReleaseSlot() {
+    when(cardRepository.findById(anyLong())).thenReturn(Optional.of(cardOf(1L)));
+    when(cardRepository.findActiveById(1L)).thenReturn(Optional.of(true));
     doNothing().when(cardRepository).deleteById(anyLong());
 
     cardService.deleteCard(1L);
 
-    verify(cardRepository, times(1)).findById(anyLong());
-    verify(cardRepository, times(1)).deleteById(anyLong());
+    verify(userRepository).lockByIdIn(List.of(1L));
+    verify(cardRepository, times(1)).deleteById(1L);
+    verify(userRepository).decrementActiveCardCount(1L);
+    verify(cacheEvictor).evict("userWithCards", List.of(1L));
+    verify(outbox).cardChanged(1L, 1L);
+  }
+
+  @Test
+  void deleteCard_whenCardIsInactive_shouldNotTouchCounter() {
+    when(cardRepository.findById(anyLong())).thenReturn(Optional.of(cardOf(1L)));
+    when(cardRepository.findActiveById(1L)).thenReturn(Optional.of(false));
+
+    cardService.deleteCard(1L);
+
+    verify(cardRepository).deleteById(1L);
+    verify(userRepository, never()).decrementActiveCardCount(anyLong());
+  }
+
+  @Test
+  void updateCardStatuses_whenActivating_shouldRespectLimitAndRecountOwners() {
+    stubTransaction();
+    when(cardRepository.findOwnerIds(List.of(1L, 2L, 3L))).thenReturn(List.of(7L, 8L));
+    when(cardRepository.activateCardsWithinLimit(eq(List.of(1L, 2L, 3L)), eq(5), any()))
+        .thenReturn(2);
+
+    BulkStatusUpdateResultDto result =
+        cardService.updateCardStatuses(List.of(3L, 1L, 2L, 1L), true);
+
+    assertEquals(3, result.getMatched());
+    assertEquals(2, result.getUpdated());
+    verify(userRepository).lockByIdIn(List.of(7L, 8L));
+    verify(userRepository).recountActiveCards(List.of(7L, 8L));
+    verify(cacheEvictor).evict("userWithCards", List.of(7L, 8L));
+    verify(outbox).cardsChanged(List.of(1L, 2L, 3L));
+    verify(cardRepository, never()).deactivateCards(any(), any());
+  }
+
+  @Test
+  void updateCardStatuses_whenCardsDoNotExist_shouldNotUpdate() {
+    stubTransaction();
+    when(cardRepository.findOwnerIds(List.of(1L))).thenReturn(List.of());
+
+    BulkStatusUpdateResultDto result = cardService.updateCardStatuses(List.of(1L), false);
+
+    assertEquals(1, result.getMatched());
+    assertEquals(0, result.getUpdated());
+    verify(userRepository, never()).lockByIdIn(any());
+    verify(cardRepository, never()).deactivateCards(any(), any());
+    verify(cacheEvictor, never()).evict(any(), any());
+  }
+
+  @Test
+  void updateCardStatusesByFilter_shouldDeactivateOnlyActiveMatches() {
+    stubTransaction();
+    when(cardRepository.findIds(any())).thenReturn(List.of(1L));
+    when(cardRepository.findOwnerIds(List.of(1L))).thenReturn(List.of(7L));
+    when(cardRepository.deactivateCards(eq(List.of(1L)), any())).thenReturn(1);
+
+    BulkStatusUpdateResultDto result = cardService.updateCardStatusesByFilter("JOHN", null, false);
+
+    assertEquals(1, result.getUpdated());
+    verify(userRepository).recountActiveCards(List.of(7L));
+  }
+
+  @Test
+  void updateCardStatusesByFilter_whenFilterIsEmpty_shouldThrowException() {
+    assertThrows(
+        InvalidFilterException.class,
+        () -> cardService.updateCardStatusesByFilter(" ", null, false));
+
+    verify(cardRepository, never()).findIds(any());
+  }
+
+  private void stubTransaction() {
+    when(transactionTemplate.execute(any()))
+        .thenAnswer(inv -> inv.<TransactionCallback<Object>>getArgument(0).doInTransaction(null));
+  }
+
+  private static PaymentCard cardOf(Long userId) {
+    User user = new User();
+    user.setId(userId);
+    PaymentCard card = new PaymentCard();
+    card.setId(1L);
+    card.setUser(user);
+    return card;
   }
 }
@@ -0,0 +1,110 @@
+package com.innowise.userservice.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.innowise.userservice.mapper.PaymentCardMapperImpl;
+import com.innowise.userservice.mapper.UserMapperImpl;
+import com.innowise.userservice.model.DataFormat;
+import com.innowise.userservice.model.dto.PaymentCardDto;
+import com.innowise.userservice.model.entity.PaymentCard;
+import com.innowise.userservice.model.entity.User;
+import com.innowise.userservice.repository.PaymentCardRepository;
+import com.innowise.userservice.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ExportServiceImplTest {
+
+  @Mock private UserRepository userRepository;
+
+  @Mock private PaymentCardRepository cardRepository;
+
+  @Mock private EntityManager entityManager;
+
+  private ExportServiceImpl exportService;
+
+  private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+  @BeforeEach
+  void setUp() {
+    exportService =
+        new ExportServiceImpl(
+            userRepository,
+            cardRepository,
+            new UserMapperImpl(new PaymentCardMapperImpl()),
+            new PaymentCardMapperImpl(),
+            new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS),
+            entityManager);
+  }
+
+  @Test
+  void exportUsers_asNdjson_shouldWriteOneLinePerRowAndCloseStream() {
+    AtomicBoolean closed = new AtomicBoolean();
+    when(userRepository.streamAll())
+        .thenReturn(
+            Stream.of(user(1L, "a@mail.ru"), user(2L, "b@mail.ru"))
+                .onClose(() -> closed.set(true)));
+
+    exportService.exportUsers(DataFormat.NDJSON, output);
+
+    String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+    assertEquals(2, lines.length);
+    assertTrue(lines[0].contains("\"email\":\"a@mail.ru\""));
+    assertTrue(lines[1].contains("\"birthDate\":\"2000-01-15\""));
+    assertTrue(closed.get());
+    verify(entityManager, never()).clear();
+  }
+
+  @Test
+  void exportCards_asCsv_shouldWriteHeaderAndOwnerId() throws Exception {
+    PaymentCard card = new PaymentCard();
+    card.setId(7L);
+    card.setNumber("1234567890123456");
+    card.setHolder("Yauhen Nohach");
+    card.setExpirationDate("01/30");
+    card.setUser(user(3L, "a@mail.ru"));
+    when(cardRepository.streamAll()).thenReturn(Stream.of(card));
+
+    exportService.exportCards(DataFormat.CSV, output);
+
+    assertEquals(2, output.toString(StandardCharsets.UTF_8).split("\n").length);
+    PaymentCardDto exported =
+        CsvMappers.INSTANCE
+            .readerFor(PaymentCardDto.class)
+            .with(CsvSchema.emptySchema().withHeader())
+            .readValue(output.toByteArray());
+    assertEquals(7L, exported.getId());
+    assertEquals("Yauhen Nohach", exported.getHolder());
+    assertEquals(3L, exported.getUserId());
+  }
+
+  private static User user(Long id, String email) {
+    User user = new User();
+    user.setId(id);
+    user.setName("Yauhen");
+    user.setSurname("Nohach");
+    user.setBirthDate(LocalDate.of(2000, 1, 15));
+    user.setEmail(email);
+    return user;
+  }
+}
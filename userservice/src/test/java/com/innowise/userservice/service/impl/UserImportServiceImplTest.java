@@ -0,0 +1,189 @@
+package com.innowise.userservice.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.innowise.userservice.cache.BatchCacheEvictor;
+import com.innowise.userservice.existence.UserExistenceIndex;
+import com.innowise.userservice.mapper.PaymentCardMapperImpl;
+import com.innowise.userservice.mapper.UserMapperImpl;
+import com.innowise.userservice.model.DataFormat;
+import com.innowise.userservice.model.dto.UserImportResultDto;
+import com.innowise.userservice.model.dto.UserImportResultDto.Status;
+import com.innowise.userservice.model.entity.User;
+import com.innowise.userservice.outbox.ChangeOutbox;
+import com.innowise.userservice.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class UserImportServiceImplTest {
+
+  @Mock private UserRepository userRepository;
+
+  @Mock private TransactionTemplate transactionTemplate;
+
+  @Mock private EntityManager entityManager;
+
+  @Mock private UserExistenceIndex existenceIndex;
+
+  @Mock private BatchCacheEvictor cacheEvictor;
+
+  @Mock private ChangeOutbox outbox;
+
+  private UserImportServiceImpl importService;
+
+  private final List<UserImportResultDto> results = new ArrayList<>();
+
+  @BeforeEach
+  void setUp() {
+    importService =
+        new UserImportServiceImpl(
+            userRepository,
+            new UserMapperImpl(new PaymentCardMapperImpl()),
+            Validation.buildDefaultValidatorFactory().getValidator(),
+            new ObjectMapper().registerModule(new JavaTimeModule()),
+            transactionTemplate,
+            entityManager,
+            existenceIndex,
+            cacheEvictor,
+            outbox);
+    lenient().when(existenceIndex.mightExistByEmail(any())).thenReturn(true);
+    ReflectionTestUtils.setField(importService, "chunkSize", 2);
+  }
+
+  @Test
+  void importUsers_whenNdjsonIsValid_shouldInsertInChunks() {
+    stubTransactionAndSave();
+    when(userRepository.findExistingEmails(anyCollection())).thenReturn(Set.of());
+
+    importService.importUsers(
+        ndjson(row("a@mail.ru"), row("b@mail.ru"), row("c@mail.ru")),
+        DataFormat.NDJSON,
+        results::add);
+
+    assertEquals(3, results.size());
+    results.forEach(r -> assertEquals(Status.CREATED, r.getStatus()));
+    assertEquals(List.of(1L, 2L, 3L), results.stream().map(UserImportResultDto::getRow).toList());
+    assertNotNull(results.get(0).getId());
+    verify(userRepository, times(2)).saveAll(any());
+    verify(entityManager, times(2)).clear();
+    verify(outbox, times(2)).usersChanged(any());
+  }
+
+  @Test
+  void importUsers_whenRowsAreInvalidOrDuplicated_shouldRejectThemAndKeepOrder() {
+    stubTransactionAndSave();
+    when(userRepository.findExistingEmails(anyCollection())).thenReturn(Set.of("taken@mail.ru"));
+
+    importService.importUsers(
+        ndjson(
+            row("a@mail.ru"),
+            row("a@mail.ru"),
+            row("taken@mail.ru"),
+            "{\"name\":\"X\",\"surname\":\"Nohach\",\"birthDate\":\"2000-01-15\",\"email\":\"bad\"}",
+            "{\"name\":\"Yauhen\",\"birthDate\":\"not-a-date\"}"),
+        DataFormat.NDJSON,
+        results::add);
+
+    assertEquals(
+        List.of(
+            Status.CREATED, Status.REJECTED, Status.REJECTED, Status.REJECTED, Status.REJECTED),
+        results.stream().map(UserImportResultDto::getStatus).toList());
+    assertEquals("Duplicate email, first seen in row 1", results.get(1).getErrors().get(0));
+    assertEquals("User with this email already exists", results.get(2).getErrors().get(0));
+    assertEquals(2, results.get(3).getErrors().size());
+    assertNull(results.get(4).getEmail());
+  }
+
+  @Test
+  void importUsers_whenCsvHasHeader_shouldMapColumnsByName() {
+    stubTransactionAndSave();
+    when(userRepository.findExistingEmails(anyCollection())).thenReturn(Set.of());
+
+    String csv =
+        "email,name,surname,birthDate\n"
+            + "a@mail.ru,Yauhen,Nohach,2000-01-15\n"
+            + "b@mail.ru,Ivan,Ivanov,1999-05-01\n";
+    importService.importUsers(input(csv), DataFormat.CSV, results::add);
+
+    assertEquals(2, results.size());
+    assertEquals("b@mail.ru", results.get(1).getEmail());
+    assertEquals(Status.CREATED, results.get(1).getStatus());
+  }
+
+  @Test
+  void importUsers_whenInputIsUnreadable_shouldReportAbortAfterReadRows() {
+    stubTransactionAndSave();
+    when(userRepository.findExistingEmails(anyCollection())).thenReturn(Set.of());
+
+    importService.importUsers(
+        ndjson(row("a@mail.ru"), "{\"name\": oops"), DataFormat.NDJSON, results::add);
+
+    assertEquals(2, results.size());
+    assertEquals(Status.CREATED, results.get(0).getStatus());
+    assertEquals(Status.REJECTED, results.get(1).getStatus());
+    assertEquals(2L, results.get(1).getRow());
+  }
+
+  @Test
+  void importUsers_whenAllRowsInvalid_shouldNotOpenTransaction() {
+    importService.importUsers(
+        ndjson("{\"name\":\"Y\"}", "{\"email\":\"bad\"}"), DataFormat.NDJSON, results::add);
+
+    assertEquals(2, results.size());
+    verify(transactionTemplate, never()).execute(any());
+    verify(userRepository, never()).saveAll(any());
+  }
+
+  private void stubTransactionAndSave() {
+    AtomicLong ids = new AtomicLong();
+    when(transactionTemplate.execute(any()))
+        .thenAnswer(inv -> inv.<TransactionCallback<Object>>getArgument(0).doInTransaction(null));
+    when(userRepository.saveAll(any()))
+        .thenAnswer(
+            inv -> {
+              Iterable<User> users = inv.getArgument(0);
+              users.forEach(user -> user.setId(ids.incrementAndGet()));
+              return users;
+            });
+  }
+
+  private static String row(String email) {
+    return "{\"name\":\"Yauhen\",\"surname\":\"Nohach\",\"birthDate\":\"2000-01-15\",\"email\":\""
+        + email
+        + "\"}";
+  }
+
+  private static ByteArrayInputStream ndjson(String... rows) {
+    return input(String.join("\n", rows));
+  }
+
+  private static ByteArrayInputStream input(String content) {
+    return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+  }
+}
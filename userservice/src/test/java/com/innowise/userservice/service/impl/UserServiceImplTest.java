@@ -1,34 +1,65 @@
 package com.innowise.userservice.service.impl;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.Mockito.doNothing;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.innowise.userservice.cache.BatchCacheEvictor;
+import com.innowise.userservice.cache.BatchCacheLoader;
+import com.innowise.userservice.exception.InvalidFilterException;
+import com.innowise.userservice.exception.InvalidPaginationException;
 import com.innowise.userservice.exception.UserAlreadyExistsException;
 import com.innowise.userservice.exception.UserNotFoundException;
+import com.innowise.userservice.existence.UserExistenceIndex;
 import com.innowise.userservice.mapper.UserMapper;
+import com.innowise.userservice.model.dto.BulkStatusUpdateResultDto;
+import com.innowise.userservice.model.dto.CursorPageDto;
+import com.innowise.userservice.model.dto.UserDto;
+import com.innowise.userservice.model.dto.UserJsonDto;
 import com.innowise.userservice.model.dto.UserWithCardsDto;
+import com.innowise.userservice.model.entity.PaymentCard;
 import com.innowise.userservice.model.entity.User;
+import com.innowise.userservice.outbox.ChangeOutbox;
 import com.innowise.userservice.repository.UserRepository;
+import com.innowise.userservice.repository.specification.KeysetCursor;
+import com.innowise.userservice.service.UserService;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @ExtendWith(MockitoExtension.class)
 class UserServiceImplTest {
@@ -37,11 +68,34 @@ class UserServiceImplTest {
 
   @Mock private UserMapper userMapper;
 
+  @Mock private ObjectMapper objectMapper;
+
+  @Mock private TransactionTemplate transactionTemplate;
+
+  @Mock private BatchCacheEvictor cacheEvictor;
+
+  @Mock private BatchCacheLoader cacheLoader;
+
+  @Mock private UserExistenceIndex existenceIndex;
+
+  @Mock private ChangeOutbox outbox;
+
+  @Mock private ObjectProvider<UserService> self;
+
+  @Mock private UserService cachedUserService;
+
   @InjectMocks private UserServiceImpl userService;
 
+  @BeforeEach
+  void setUp() {
+    lenient().when(existenceIndex.mightExist(any())).thenReturn(true);
+    lenient().when(existenceIndex.mightExistByEmail(any())).thenReturn(true);
+  }
+
   @Test
   void createUser_whenUserDoesNotExist_shouldReturnUser() {
     User user = new User();
+    user.setId(1L);
     user.setEmail("test@mail.ru");
 
     when(userRepository.findByEmail(anyString())).thenReturn(Optional.empty());
@@ -53,6 +107,8 @@ class UserServiceImplTest {
     assertEquals(user.getEmail(), createdUser.getEmail());
     verify(userRepository, times(1)).findByEmail(anyString());
     verify(userRepository, times(1)).save(any(User.class));
+    verify(cacheEvictor).evictMisses("users", List.of(1L));
+    verify(outbox).userChanged(1L);
   }
 
   @Test
@@ -67,6 +123,38 @@ class UserServiceImplTest {
     verify(userRepository, never()).save(any(User.class));
   }
 
+  @Test
+  void createUser_whenIndexRulesEmailOut_shouldNotQueryEmail() {
+    User user = new User();
+    user.setId(1L);
+    user.setEmail("new@mail.ru");
+    when(existenceIndex.mightExistByEmail("new@mail.ru")).thenReturn(false);
+    when(userRepository.save(user)).thenReturn(user);
+
+    assertEquals(user, userService.createUser(user));
+    verify(userRepository, never()).findByEmail(anyString());
+  }
+
+  @Test
+  void getUserDtosByIds_shouldLoadOnlyUsersTheIndexAllowsThroughCache() {
+    UserDto userDto = new UserDto();
+    userDto.setId(1L);
+
+    when(existenceIndex.mightExist(3L)).thenReturn(false);
+    when(userRepository.findAllAsDtoByIdIn(List.of(1L, 2L))).thenReturn(List.of(userDto));
+    when(cacheLoader.getAll(eq("users"), eq(List.of(1L, 2L)), any()))
+        .thenAnswer(
+            invocation ->
+                invocation
+                    .<Function<Collection<Long>, Map<Long, UserDto>>>getArgument(2)
+                    .apply(invocation.getArgument(1)));
+
+    List<UserDto> result = userService.getUserDtosByIds(List.of(1L, 2L, 3L));
+
+    assertEquals(List.of(userDto), result);
+    verify(existenceIndex).recordMissingId();
+  }
+
   @Test
   void getUserById_whenUserExists_shouldReturnUser() {
     User user = new User();
@@ -87,6 +175,56 @@ class UserServiceImplTest {
 
     assertThrows(UserNotFoundException.class, () -> userService.getUserById(1L));
     verify(userRepository, times(1)).findById(anyLong());
+    verify(existenceIndex).recordMissingId();
+  }
+
+  @Test
+  void getUserById_whenIndexRulesUserOut_shouldNotQueryDatabase() {
+    when(existenceIndex.mightExist(1L)).thenReturn(false);
+
+    assertThrows(UserNotFoundException.class, () -> userService.getUserById(1L));
+    verify(userRepository, never()).findById(anyLong());
+    verify(existenceIndex, never()).recordMissingId();
+  }
+
+  @Test
+  void getUserDtoById_whenUserExists_shouldReturnSnapshot() {
+    User user = new User();
+    user.setId(1L);
+    UserDto userDto = new UserDto();
+    userDto.setId(1L);
+
+    when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+    when(userMapper.userToUserDto(user)).thenReturn(userDto);
+
+    assertEquals(userDto, userService.getUserDtoById(1L));
+  }
+
+  @Test
+  void getUserDtoById_whenUserDoesNotExist_shouldThrowException() {
+    when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+
+    assertThrows(UserNotFoundException.class, () -> userService.getUserDtoById(1L));
+    verify(userMapper, never()).userToUserDto(any());
+  }
+
+  @Test
+  void getUserJsonById_shouldEncodeCachedSnapshotWithItsVersion() throws Exception {
+    UserDto userDto = new UserDto();
+    userDto.setId(1L);
+    userDto.setUpdatedAt(LocalDateTime.of(2024, 1, 1, 12, 0));
+    byte[] json = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+
+    when(self.getObject()).thenReturn(cachedUserService);
+    when(cachedUserService.getUserDtoById(1L)).thenReturn(userDto);
+    when(objectMapper.writeValueAsBytes(userDto)).thenReturn(json);
+
+    UserJsonDto result = userService.getUserJsonById(1L);
+
+    assertArrayEquals(json, result.getBody());
+    assertEquals(1L, result.getId());
+    assertEquals(userDto.getUpdatedAt(), result.getUpdatedAt());
+    verify(userRepository, never()).findById(any());
   }
 
   @Test
@@ -118,23 +256,24 @@ class UserServiceImplTest {
     UserWithCardsDto userWithCardsDto = new UserWithCardsDto();
     userWithCardsDto.setId(1L);
 
-    when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+    when(userRepository.findWithCardsById(anyLong())).thenReturn(Optional.of(user));
     when(userMapper.userToUserWithCardsDto(any(User.class))).thenReturn(userWithCardsDto);
 
     UserWithCardsDto foundUser = userService.getUserWithCardsById(1L);
 
     assertNotNull(foundUser);
     assertEquals(user.getId(), foundUser.getId());
-    verify(userRepository, times(1)).findById(anyLong());
+    verify(userRepository, times(1)).findWithCardsById(anyLong());
+    verify(userRepository, never()).findById(anyLong());
     verify(userMapper, times(1)).userToUserWithCardsDto(any(User.class));
   }
 
   @Test
   void getUserWithCardsById_whenUserDoesNotExist_shouldThrowException() {
-    when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+    when(userRepository.findWithCardsById(anyLong())).thenReturn(Optional.empty());
 
     assertThrows(UserNotFoundException.class, () -> userService.getUserWithCardsById(1L));
-    verify(userRepository, times(1)).findById(anyLong());
+    verify(userRepository, times(1)).findWithCardsById(anyLong());
     verify(userMapper, never()).userToUserWithCardsDto(any(User.class));
   }
 
@@ -152,6 +291,88 @@ class UserServiceImplTest {
     verify(userRepository, times(1)).findAll(any(Specification.class), any(Pageable.class));
   }
 
+  @Test
+  @SuppressWarnings("unchecked")
+  void getAllUserDtos_shouldUseProjectionInsteadOfEntities() {
+    Page<UserDto> dtoPage = new PageImpl<>(Collections.singletonList(new UserDto()));
+    when(userRepository.findAllAsDto(any(Specification.class), any(Pageable.class)))
+        .thenReturn(dtoPage);
+
+    Page<UserDto> result = userService.getAllUserDtos("name", null, Pageable.unpaged());
+
+    assertEquals(1, result.getTotalElements());
+    verify(userRepository, never()).findAll(any(Specification.class), any(Pageable.class));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void getAllUsersWithCards_shouldFetchCardsForWholePageAtOnce() {
+    User first = new User();
+    first.setId(1L);
+    User second = new User();
+    second.setId(2L);
+    UserWithCardsDto firstDto = new UserWithCardsDto();
+    firstDto.setId(1L);
+    UserWithCardsDto secondDto = new UserWithCardsDto();
+    secondDto.setId(2L);
+
+    when(userRepository.findAll(any(Specification.class), any(Pageable.class)))
+        .thenReturn(new PageImpl<>(List.of(first, second)));
+    when(userRepository.findWithCardsByIdIn(List.of(1L, 2L))).thenReturn(List.of(second, first));
+    when(userMapper.userToUserWithCardsDto(first)).thenReturn(firstDto);
+    when(userMapper.userToUserWithCardsDto(second)).thenReturn(secondDto);
+
+    Page<UserWithCardsDto> result =
+        userService.getAllUsersWithCards(null, null, Pageable.unpaged());
+
+    assertEquals(List.of(1L, 2L), result.map(UserWithCardsDto::getId).getContent());
+    verify(userRepository, times(1)).findWithCardsByIdIn(List.of(1L, 2L));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void getUsersByCursor_whenMoreRowsThanSize_shouldReturnNextCursor() {
+    User first = new User();
+    first.setId(1L);
+    first.setName("alpha");
+    User second = new User();
+    second.setId(2L);
+    second.setName("beta");
+    when(userRepository.findBy(any(Specification.class), any()))
+        .thenReturn(List.of(first, second));
+
+    CursorPageDto<User> result =
+        userService.getUsersByCursor(
+            null, null, KeysetCursor.first("name", Sort.Direction.ASC), 1);
+
+    assertEquals(1, result.getContent().size());
+    assertTrue(result.getHasNext());
+    KeysetCursor next = KeysetCursor.decode(result.getNextCursor());
+    assertEquals("alpha", next.value());
+    assertEquals(1L, next.id());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void getUsersByCursor_whenLastPage_shouldNotReturnNextCursor() {
+    when(userRepository.findBy(any(Specification.class), any())).thenReturn(List.of(new User()));
+
+    CursorPageDto<User> result =
+        userService.getUsersByCursor(null, null, KeysetCursor.first("id", Sort.Direction.ASC), 20);
+
+    assertFalse(result.getHasNext());
+    assertNull(result.getNextCursor());
+  }
+
+  @Test
+  void getUsersByCursor_whenSortFieldNotSupported_shouldThrowException() {
+    KeysetCursor cursor = KeysetCursor.first("birthDate", Sort.Direction.ASC);
+
+    assertThrows(
+        InvalidPaginationException.class,
+        () -> userService.getUsersByCursor(null, null, cursor, 20));
+  }
+
   @Test
   void updateUser_whenUserExists_shouldReturnUpdatedUser() {
     User existingUser = new User();
@@ -259,23 +480,87 @@ class UserServiceImplTest {
   }
 
   @Test
-  void deleteUser_whenUserExists_shouldCallRepository() {
-    when(userRepository.existsById(anyLong())).thenReturn(true);
-    doNothing().when(userRepository).deleteById(anyLong());
+  void deleteUser_whenUserExists_shouldDeleteUserAndEvictCards() {
+    PaymentCard card = new PaymentCard();
+    card.setId(10L);
+    User user = new User();
+    user.setId(1L);
+    user.setCards(List.of(card));
+
+    when(userRepository.findById(1L)).thenReturn(Optional.of(user));
 
     userService.deleteUser(1L);
 
-    verify(userRepository, times(1)).existsById(anyLong());
-    verify(userRepository, times(1)).deleteById(anyLong());
+    verify(userRepository, times(1)).delete(user);
+    verify(cacheEvictor).evict("cards", List.of(10L));
+    verify(outbox).userChanged(1L);
+    verify(outbox).cardsOfUserChanged(1L);
   }
 
   @Test
   void deleteUser_whenUserDoesNotExist_shouldThrowException() {
-    when(userRepository.existsById(anyLong())).thenReturn(false);
+    when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+
+    assertThrows(UserNotFoundException.class, () -> userService.deleteUser(1L));
+
+    verify(userRepository, times(1)).findById(anyLong());
+    verify(userRepository, never()).delete(any(User.class));
+  }
+
+  @Test
+  void deleteUser_whenIndexRulesUserOut_shouldNotQueryDatabase() {
+    when(existenceIndex.mightExist(1L)).thenReturn(false);
 
     assertThrows(UserNotFoundException.class, () -> userService.deleteUser(1L));
 
-    verify(userRepository, times(1)).existsById(anyLong());
-    verify(userRepository, never()).deleteById(anyLong());
+    verify(userRepository, never()).findById(anyLong());
+    verify(userRepository, never()).delete(any(User.class));
+  }
+
+  @Test
+  void updateUserStatuses_shouldUpdateEachChunkInItsOwnTransaction() {
+    List<Long> ids = LongStream.rangeClosed(1, 1001).boxed().toList();
+    List<Long> firstChunk = ids.subList(0, 1000);
+    stubTransaction();
+    when(userRepository.updateUserStatus(eq(firstChunk), eq(false), any())).thenReturn(999);
+    when(userRepository.updateUserStatus(eq(List.of(1001L)), eq(false), any())).thenReturn(1);
+
+    BulkStatusUpdateResultDto result = userService.updateUserStatuses(ids, false);
+
+    assertEquals(1001, result.getMatched());
+    assertEquals(1000, result.getUpdated());
+    verify(transactionTemplate, times(2)).execute(any());
+    verify(cacheEvictor).evict("users", firstChunk);
+    verify(cacheEvictor).evict("userJson", firstChunk);
+    verify(cacheEvictor).evict("userWithCards", firstChunk);
+    verify(cacheEvictor).evict("users", List.of(1001L));
+    verify(outbox).usersChanged(firstChunk);
+    verify(outbox).usersChanged(List.of(1001L));
+  }
+
+  @Test
+  void updateUserStatusesByFilter_shouldUpdateMatchedUsers() {
+    stubTransaction();
+    when(userRepository.findIds(any())).thenReturn(List.of(2L, 1L));
+    when(userRepository.updateUserStatus(eq(List.of(1L, 2L)), eq(true), any())).thenReturn(2);
+
+    BulkStatusUpdateResultDto result = userService.updateUserStatusesByFilter("John", null, true);
+
+    assertEquals(2, result.getMatched());
+    assertEquals(2, result.getUpdated());
+  }
+
+  @Test
+  void updateUserStatusesByFilter_whenFilterIsEmpty_shouldThrowException() {
+    assertThrows(
+        InvalidFilterException.class,
+        () -> userService.updateUserStatusesByFilter(null, "", false));
+
+    verify(userRepository, never()).findIds(any());
+  }
+
+  private void stubTransaction() {
+    when(transactionTemplate.execute(any()))
+        .thenAnswer(inv -> inv.<TransactionCallback<Object>>getArgument(0).doInTransaction(null));
   }
 }
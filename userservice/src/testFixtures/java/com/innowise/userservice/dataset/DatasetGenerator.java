@@ -0,0 +1,218 @@
+package com.innowise.userservice.dataset;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import javax.sql.DataSource;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+
+/**
+ * Fills {@code users} and {@code payment_cards} of a migrated schema with synthetic rows through
+ * PostgreSQL {@code COPY}, shaped by a {@link DatasetSpec}.
+ *
+ * <p>Every user is derived from the seed and its id alone, so the users are written in one pass
+ * and their cards in a second one without keeping anything in memory, and the same spec always
+ * yields the same rows. Users get ids {@code 1..users} and cards consecutive ids in user order.
+ * {@code active_card_count} matches the active cards, which never exceed the service limit, and
+ * the id sequences are moved past the generated ids.
+ *
+ * <p>The rows bypass Hibernate, so a running service does not know the users until its existence
+ * index is rebuilt with {@code UserExistenceIndexLoader.load()} or it is restarted.
+ */
+public class DatasetGenerator {
+
+  /** Active cards per user allowed by {@code CardServiceImpl}. */
+  static final int MAX_ACTIVE_CARDS = 5;
+
+  private static final String COPY_USERS =
+      "COPY users (id, name, surname, birth_date, email, active, active_card_count, created_at,"
+          + " updated_at) FROM STDIN WITH (FORMAT csv)";
+  private static final String COPY_CARDS =
+      "COPY payment_cards (id, user_id, number, holder, expiration_date, active, created_at,"
+          + " updated_at) FROM STDIN WITH (FORMAT csv)";
+
+  private static final int BUFFER_SIZE = 1 << 16;
+  private static final LocalDate BIRTH_DATE_FROM = LocalDate.of(1950, 1, 1);
+  private static final int BIRTH_DATE_SPAN_DAYS = 57 * 365;
+  private static final LocalDateTime CREATED_BEFORE = LocalDateTime.of(2026, 1, 1, 0, 0);
+  private static final long CREATED_SPAN_SECONDS = 3 * 365 * 24 * 3600L;
+  private static final DateTimeFormatter EXPIRY_FORMAT = DateTimeFormatter.ofPattern("MM/yy");
+
+  /** Odd and not divisible by 5, so multiplying by it permutes the residues modulo 10^15. */
+  private static final long NUMBER_MULTIPLIER = 9_999_991L;
+
+  private static final long NUMBER_MODULUS = 1_000_000_000_000_000L;
+
+  private final DatasetSpec spec;
+  private final NamePool names;
+  private final NamePool surnames;
+  private final ZipfSampler nameSampler;
+  private final ZipfSampler surnameSampler;
+  private final ZipfSampler cardSampler;
+  private final int expiryMonths;
+
+  public DatasetGenerator(DatasetSpec spec) {
+    this.spec = spec;
+    this.names = new NamePool(spec.getDistinctNames(), "");
+    this.surnames = new NamePool(spec.getDistinctSurnames(), "ov");
+    this.nameSampler = new ZipfSampler(spec.getDistinctNames(), spec.getNameSkew());
+    this.surnameSampler = new ZipfSampler(spec.getDistinctSurnames(), spec.getNameSkew());
+    this.cardSampler = new ZipfSampler(spec.getMaxCardsPerUser() + 1, spec.getCardsPerUserSkew());
+    this.expiryMonths =
+        (int) ChronoUnit.MONTHS.between(spec.getExpiryFrom(), spec.getExpiryTo()) + 1;
+  }
+
+  /**
+   * Loads the dataset into empty {@code users} and {@code payment_cards} tables and analyzes them.
+   *
+   * @return number of generated cards
+   */
+  public long load(DataSource dataSource) throws SQLException, IOException {
+    long cards;
+    try (Connection connection = dataSource.getConnection()) {
+      PGConnection pgConnection = connection.unwrap(PGConnection.class);
+      try (Writer out = copy(pgConnection, COPY_USERS)) {
+        writeUsers(out);
+      }
+      try (Writer out = copy(pgConnection, COPY_CARDS)) {
+        cards = writeCards(out);
+      }
+      try (Statement statement = connection.createStatement()) {
+        statement.execute("SELECT setval('users_id_seq', " + Math.max(1, spec.getUsers()) + ")");
+        statement.execute("SELECT setval('payment_cards_id_seq', " + Math.max(1, cards) + ")");
+        statement.execute("ANALYZE users, payment_cards");
+      }
+    }
+    return cards;
+  }
+
+  /** Writes the {@code users} rows as CSV in the column order of the {@code COPY}. */
+  public void writeUsers(Writer out) throws IOException {
+    for (long id = 1; id <= spec.getUsers(); id++) {
+      GeneratedUser user = user(id);
+      out.write(Long.toString(id));
+      out.write(',');
+      out.write(user.name());
+      out.write(',');
+      out.write(user.surname());
+      out.write(',');
+      out.write(user.birthDate().toString());
+      out.write(',');
+      out.write(user.email());
+      out.write(',');
+      out.write(Boolean.toString(user.active()));
+      out.write(',');
+      out.write(Integer.toString(user.activeCardCount()));
+      out.write(',');
+      out.write(user.createdAt().toString());
+      out.write(',');
+      out.write(user.createdAt().toString());
+      out.write('\n');
+    }
+  }
+
+  /**
+   * Writes the {@code payment_cards} rows as CSV in the column order of the {@code COPY}.
+   *
+   * @return number of written cards
+   */
+  public long writeCards(Writer out) throws IOException {
+    long cardId = 0;
+    for (long id = 1; id <= spec.getUsers(); id++) {
+      GeneratedUser user = user(id);
+      for (GeneratedCard card : user.cards()) {
+        cardId++;
+        out.write(Long.toString(cardId));
+        out.write(',');
+        out.write(Long.toString(id));
+        out.write(',');
+        out.write(number(cardId));
+        out.write(',');
+        out.write(user.holder());
+        out.write(',');
+        out.write(card.expirationDate());
+        out.write(',');
+        out.write(Boolean.toString(card.active()));
+        out.write(',');
+        out.write(card.createdAt().toString());
+        out.write(',');
+        out.write(card.createdAt().toString());
+        out.write('\n');
+      }
+    }
+    return cardId;
+  }
+
+  GeneratedUser user(long id) {
+    SplittableRandom random = new SplittableRandom(spec.getSeed() * 0x9E3779B97F4A7C15L + id);
+    String name = names.get(nameSampler.sample(random));
+    String surname = surnames.get(surnameSampler.sample(random));
+    LocalDate birthDate = BIRTH_DATE_FROM.plusDays(random.nextInt(BIRTH_DATE_SPAN_DAYS));
+    boolean active = random.nextDouble() < spec.getActiveUserRatio();
+    LocalDateTime createdAt = CREATED_BEFORE.minusSeconds(random.nextLong(CREATED_SPAN_SECONDS));
+
+    int cardCount = cardSampler.sample(random);
+    List<GeneratedCard> cards = new ArrayList<>(cardCount);
+    int activeCards = 0;
+    for (int i = 0; i < cardCount; i++) {
+      YearMonth expiry = spec.getExpiryFrom().plusMonths(random.nextInt(expiryMonths));
+      boolean cardActive =
+          random.nextDouble() < spec.getActiveCardRatio() && activeCards < MAX_ACTIVE_CARDS;
+      if (cardActive) {
+        activeCards++;
+      }
+      cards.add(
+          new GeneratedCard(
+              expiry.format(EXPIRY_FORMAT),
+              cardActive,
+              createdAt.plusSeconds(random.nextLong(CREATED_SPAN_SECONDS / 3))));
+    }
+
+    String email = (name + "." + surname + "." + id + "@example.com").toLowerCase();
+    return new GeneratedUser(
+        name, surname, birthDate, email, active, createdAt, activeCards, cards);
+  }
+
+  /** Unique 16 digit number starting with 4, scattered over the number space. */
+  static String number(long cardId) {
+    return "4" + String.format("%015d", Math.floorMod(cardId * NUMBER_MULTIPLIER, NUMBER_MODULUS));
+  }
+
+  private static Writer copy(PGConnection connection, String sql) throws SQLException {
+    return new BufferedWriter(
+        new OutputStreamWriter(
+            new PGCopyOutputStream(connection, sql, BUFFER_SIZE), StandardCharsets.UTF_8),
+        BUFFER_SIZE);
+  }
+
+  record GeneratedUser(
+      String name,
+      String surname,
+      LocalDate birthDate,
+      String email,
+      boolean active,
+      LocalDateTime createdAt,
+      int activeCardCount,
+      List<GeneratedCard> cards) {
+
+    String holder() {
+      return (name + " " + surname).toUpperCase();
+    }
+  }
+
+  record GeneratedCard(String expirationDate, boolean active, LocalDateTime createdAt) {}
+}
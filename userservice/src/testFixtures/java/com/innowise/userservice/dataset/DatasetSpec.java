@@ -0,0 +1,51 @@
+package com.innowise.userservice.dataset;
+
+import java.time.YearMonth;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Size and distributions of a dataset produced by {@link DatasetGenerator}. The same spec always
+ * produces the same rows.
+ */
+@Getter
+@Builder(toBuilder = true)
+public class DatasetSpec {
+
+  /** Seed of every random choice. */
+  @Builder.Default private final long seed = 42;
+
+  @Builder.Default private final long users = 1_000_000;
+
+  /** Upper bound of cards per user, active or not. */
+  @Builder.Default private final int maxCardsPerUser = 10;
+
+  /**
+   * Zipf exponent of the cards-per-user distribution over {@code 0..maxCardsPerUser}: the share of
+   * users with {@code k} cards is proportional to {@code 1 / (k + 1)^skew}. 0 is uniform, the
+   * default gives a mean of about 2 with a long tail.
+   */
+  @Builder.Default private final double cardsPerUserSkew = 1.2;
+
+  /** Distinct first names; names are drawn with {@link #nameSkew}. */
+  @Builder.Default private final int distinctNames = 5_000;
+
+  /** Distinct surnames; surnames are drawn with {@link #nameSkew}. */
+  @Builder.Default private final int distinctSurnames = 20_000;
+
+  /** Zipf exponent of name and surname popularity, 0 for uniform. */
+  @Builder.Default private final double nameSkew = 1.0;
+
+  @Builder.Default private final double activeUserRatio = 0.9;
+
+  /**
+   * Share of cards created active. A card beyond the fifth active card of its user is created
+   * inactive, as the service enforces.
+   */
+  @Builder.Default private final double activeCardRatio = 0.8;
+
+  /** Earliest card expiry month; expiry months are uniform up to {@link #expiryTo}. */
+  @Builder.Default private final YearMonth expiryFrom = YearMonth.of(2024, 1);
+
+  @Builder.Default private final YearMonth expiryTo = YearMonth.of(2031, 12);
+}
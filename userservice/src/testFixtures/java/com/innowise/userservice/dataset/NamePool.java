@@ -0,0 +1,42 @@
+package com.innowise.userservice.dataset;
+
+/**
+ * Pronounceable distinct names built from consonant-vowel syllables. Name {@code i} spells the
+ * digits of {@code i} in base 80, one syllable per digit, so names never repeat within a pool.
+ */
+class NamePool {
+
+  private static final String CONSONANTS = "bdfghklmnprstvwz";
+  private static final String VOWELS = "aeiou";
+  private static final int SYLLABLES = CONSONANTS.length() * VOWELS.length();
+
+  private final String[] names;
+
+  NamePool(int size, String suffix) {
+    int length = 2;
+    while (Math.pow(SYLLABLES, length) < size) {
+      length++;
+    }
+    names = new String[size];
+    for (int i = 0; i < size; i++) {
+      names[i] = spell(i, length) + suffix;
+    }
+  }
+
+  String get(int index) {
+    return names[index];
+  }
+
+  private static String spell(int index, int length) {
+    char[] letters = new char[length * 2];
+    int rest = index;
+    for (int position = length - 1; position >= 0; position--) {
+      int syllable = rest % SYLLABLES;
+      rest /= SYLLABLES;
+      letters[position * 2] = CONSONANTS.charAt(syllable / VOWELS.length());
+      letters[position * 2 + 1] = VOWELS.charAt(syllable % VOWELS.length());
+    }
+    letters[0] = Character.toUpperCase(letters[0]);
+    return new String(letters);
+  }
+}
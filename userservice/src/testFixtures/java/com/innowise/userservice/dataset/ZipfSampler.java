@@ -0,0 +1,27 @@
+package com.innowise.userservice.dataset;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/** Draws ranks {@code 0..n-1} with probability proportional to {@code 1 / (rank + 1)^skew}. */
+class ZipfSampler {
+
+  private final double[] cumulative;
+
+  ZipfSampler(int n, double skew) {
+    cumulative = new double[n];
+    double sum = 0;
+    for (int rank = 0; rank < n; rank++) {
+      sum += 1 / Math.pow(rank + 1, skew);
+      cumulative[rank] = sum;
+    }
+    for (int rank = 0; rank < n; rank++) {
+      cumulative[rank] /= sum;
+    }
+  }
+
+  int sample(SplittableRandom random) {
+    int index = Arrays.binarySearch(cumulative, random.nextDouble());
+    return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+  }
+}